@@ -0,0 +1,93 @@
+package com.example.satelliteapplication.benchmarks;
+
+import com.example.satelliteapplication.AlertModule;
+import com.example.satelliteapplication.AlertRules;
+import com.example.satelliteapplication.MavlinkFrame;
+import com.example.satelliteapplication.MavlinkFrameParser;
+import com.example.satelliteapplication.MessageDispatcher;
+import com.example.satelliteapplication.TelemetryModule;
+import com.example.satelliteapplication.TelemetryState;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What alert rules add to dispatching a frame: the standard telemetry modules alone, against
+ * the same modules plus an {@link AlertModule} with {@code rules} threshold, rate and hold
+ * rules spread over the fields of the corpus messages. The rules never fire, so this is the
+ * steady-state cost of checking them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AlertRulesBenchmark {
+
+    private static final int FRAMES = 600;
+
+    // Fields of the corpus messages, each with a threshold none of the frames cross
+    private static final String[] SOURCES = {
+            "SYS_STATUS.voltage_battery < 0",
+            "SYS_STATUS.battery_remaining < -100",
+            "GPS_RAW_INT.satellites_visible > 1000",
+            "GPS_RAW_INT.fix_type > 100",
+            "ATTITUDE.roll abs > 10",
+            "ATTITUDE.yawspeed abs > 100",
+            "GLOBAL_POSITION_INT.relative_alt < -100000000",
+            "rate GLOBAL_POSITION_INT.relative_alt abs > 1e300",
+            "VFR_HUD.groundspeed > 1000 hold 1",
+            "HEARTBEAT.base_mode mask 0x80 > 200",
+    };
+
+    @Param({"telemetry", "mixed"})
+    public String corpusName;
+
+    @Param({"10", "100", "500"})
+    public int rules;
+
+    private MavlinkFrame[] frames;
+    private MessageDispatcher withoutRules;
+    private MessageDispatcher withRules;
+
+    @Setup
+    public void setUp() {
+        FrameCorpus corpus = FrameCorpus.named(corpusName, FRAMES);
+        List<MavlinkFrame> parsed = new ArrayList<>();
+        new MavlinkFrameParser().parse(corpus.bytes(), 0, corpus.bytes().length, frame -> {
+            MavlinkFrame copy = new MavlinkFrame();
+            copy.wrap(frame.raw(), 0, frame.length());
+            parsed.add(copy);
+        });
+        frames = parsed.toArray(new MavlinkFrame[0]);
+
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < rules; i++) {
+            lines.add("rule-" + i + " WARNING " + SOURCES[i % SOURCES.length]);
+        }
+        withoutRules = TelemetryModule.standardDispatcher(new TelemetryState());
+        withRules = TelemetryModule.standardDispatcher(new TelemetryState());
+        withRules.install(new AlertModule(AlertRules.parse(lines), (rule, severity, active, value) -> {
+            throw new AssertionError(rule + " fired at " + value);
+        }));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public void withoutRules() {
+        for (MavlinkFrame frame : frames) {
+            withoutRules.onFrame(frame);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public void withRules() {
+        for (MavlinkFrame frame : frames) {
+            withRules.onFrame(frame);
+        }
+    }
+}
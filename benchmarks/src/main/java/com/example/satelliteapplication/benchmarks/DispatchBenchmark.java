@@ -0,0 +1,84 @@
+package com.example.satelliteapplication.benchmarks;
+
+import com.example.satelliteapplication.MavlinkFrame;
+import com.example.satelliteapplication.MavlinkFrameParser;
+import com.example.satelliteapplication.MavlinkMessages;
+import com.example.satelliteapplication.MessageDispatcher;
+import com.example.satelliteapplication.TelemetryModule;
+import com.example.satelliteapplication.TelemetryState;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatch cost alone: already-decoded library payloads through the old instanceof chain,
+ * against already-parsed frames through the message-ID table. {@code extraHandlers}
+ * subscribes that many additional handlers on other message IDs to show the table's cost
+ * does not grow with the number of message types handled.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DispatchBenchmark {
+
+    private static final int FRAMES = 600;
+
+    @Param({"telemetry", "mixed"})
+    public String corpusName;
+
+    @Param({"0", "50"})
+    public int extraHandlers;
+
+    private Object[] payloads;
+    private MavlinkFrame[] frames;
+    private LegacyDispatcher legacyDispatcher;
+    private MessageDispatcher dispatcher;
+    private long extraCalls;
+
+    @Setup
+    public void setUp() {
+        FrameCorpus corpus = FrameCorpus.named(corpusName, FRAMES);
+        payloads = corpus.payloads();
+        legacyDispatcher = new LegacyDispatcher(new TelemetryState());
+
+        List<MavlinkFrame> parsed = new ArrayList<>();
+        new MavlinkFrameParser().parse(corpus.bytes(), 0, corpus.bytes().length, frame -> {
+            MavlinkFrame copy = new MavlinkFrame();
+            copy.wrap(frame.raw(), 0, frame.length());
+            parsed.add(copy);
+        });
+        frames = parsed.toArray(new MavlinkFrame[0]);
+
+        dispatcher = TelemetryModule.standardDispatcher(new TelemetryState());
+        int subscribed = 0;
+        for (int id = 100; subscribed < extraHandlers && id <= MavlinkMessages.maxId(); id++) {
+            if (MavlinkMessages.isKnown(id)) {
+                dispatcher.subscribe(id, frame -> extraCalls++);
+                subscribed++;
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public long instanceofChain() {
+        for (Object payload : payloads) {
+            legacyDispatcher.dispatch(payload);
+        }
+        return legacyDispatcher.state().gpsVersion();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public long dispatchTable() {
+        for (MavlinkFrame frame : frames) {
+            dispatcher.onFrame(frame);
+        }
+        return extraCalls;
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.satelliteapplication.benchmarks;
+
+import com.example.satelliteapplication.TlogReader;
+import io.dronefleet.mavlink.MavlinkConnection;
+import io.dronefleet.mavlink.common.*;
+import io.dronefleet.mavlink.minimal.Heartbeat;
+import io.dronefleet.mavlink.minimal.MavModeFlag;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.function.IntFunction;
+
+/**
+ * Canned MAVLink byte streams for the benchmarks, encoded by dronefleet so they match what
+ * a real autopilot sends. Deterministic: the same arguments always yield the same bytes.
+ */
+public final class FrameCorpus {
+
+    private final byte[] bytes;
+    private final int frames;
+
+    private FrameCorpus(byte[] bytes, int frames) {
+        this.bytes = bytes;
+        this.frames = frames;
+    }
+
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    public int frames() {
+        return frames;
+    }
+
+    /**
+     * Corpus by name, for JMH {@code @Param}s: "telemetry", "mixed", or the path of a .tlog
+     * to run the same benchmarks over a real flight ({@code -p corpus=flight.tlog}).
+     */
+    public static FrameCorpus named(String name, int frames) {
+        return switch (name) {
+            case "telemetry" -> telemetry(frames);
+            case "mixed" -> mixed(frames);
+            default -> fromTlog(Path.of(name), frames);
+        };
+    }
+
+    // Up to maxFrames frames from a recorded .tlog, timestamps stripped
+    public static FrameCorpus fromTlog(Path file, int maxFrames) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int frames = 0;
+        try (TlogReader reader = new TlogReader(TlogReader.segmentsOf(file))) {
+            while (frames < maxFrames && reader.next()) {
+                out.write(reader.frame(), 0, reader.frameLength());
+                frames++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (frames == 0) {
+            throw new IllegalArgumentException("No frames in " + file);
+        }
+        return new FrameCorpus(out.toByteArray(), frames);
+    }
+
+    /**
+     * The displayed telemetry with every fourth frame replaced by a type the ground station
+     * does not display (COMMAND_ACK, PARAM_VALUE, RADIO_STATUS, MISSION_CURRENT), which takes
+     * the library fallback and runs the whole instanceof chain without a match.
+     */
+    public static FrameCorpus mixed(int frames) {
+        return encode(frames, i -> i % 4 == 3 ? otherMessage(i) : telemetryMessage(i));
+    }
+
+    /**
+     * The mix the ground station displays (HEARTBEAT, SYS_STATUS, GPS_RAW_INT, ATTITUDE,
+     * GLOBAL_POSITION_INT, VFR_HUD), alternating MAVLink 1 and 2.
+     */
+    public static FrameCorpus telemetry(int frames) {
+        return encode(frames, FrameCorpus::telemetryMessage);
+    }
+
+    /**
+     * The telemetry mix from {@code vehicles} systems (IDs 1..n, component 1) sharing one
+     * link, interleaved frame by frame. Each vehicle's first frame is a HEARTBEAT.
+     */
+    public static FrameCorpus vehicles(int vehicles, int frames) {
+        if (vehicles < 1 || vehicles > 255) {
+            throw new IllegalArgumentException("vehicles must be 1..255");
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(frames * 48);
+        MavlinkConnection connection = MavlinkConnection.create(new ByteArrayInputStream(new byte[0]), out);
+        try {
+            for (int i = 0; i < frames; i++) {
+                connection.send2(1 + i % vehicles, 1, telemetryMessage(i / vehicles));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new FrameCorpus(out.toByteArray(), frames);
+    }
+
+    private static FrameCorpus encode(int frames, IntFunction<Object> messages) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(frames * 48);
+        MavlinkConnection connection = MavlinkConnection.create(new ByteArrayInputStream(new byte[0]), out);
+        try {
+            for (int i = 0; i < frames; i++) {
+                Object payload = messages.apply(i);
+                if (i % 2 == 0) {
+                    connection.send2(1, 1, payload);
+                } else {
+                    connection.send1(1, 1, payload);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new FrameCorpus(out.toByteArray(), frames);
+    }
+
+    static Object telemetryMessage(int i) {
+        float t = i * 0.01f;
+        return switch (i % 6) {
+            case 0 -> Heartbeat.builder()
+                    .customMode(i % 20)
+                    .baseMode(MavModeFlag.MAV_MODE_FLAG_SAFETY_ARMED)
+                    .build();
+            case 1 -> SysStatus.builder()
+                    .voltageBattery(12600 - i % 1000)
+                    .batteryRemaining(80)
+                    .build();
+            case 2 -> GpsRawInt.builder()
+                    .lat(411234567 + i)
+                    .lon(691234567 - i)
+                    .fixType(GpsFixType.GPS_FIX_TYPE_3D_FIX)
+                    .satellitesVisible(12)
+                    .build();
+            case 3 -> Attitude.builder()
+                    .timeBootMs(i)
+                    .roll((float) Math.sin(t))
+                    .pitch((float) Math.cos(t))
+                    .yaw(t % 6.28f)
+                    .build();
+            case 4 -> GlobalPositionInt.builder()
+                    .timeBootMs(i)
+                    .lat(411234567 + i)
+                    .lon(691234567 - i)
+                    .relativeAlt(50_000 + i % 1000)
+                    .build();
+            default -> VfrHud.builder()
+                    .groundspeed(12.5f + t % 3)
+                    .alt(50 + t % 10)
+                    .build();
+        };
+    }
+
+    static Object otherMessage(int i) {
+        return switch (i % 4) {
+            case 0 -> CommandAck.builder()
+                    .command(MavCmd.MAV_CMD_SET_MESSAGE_INTERVAL)
+                    .result(MavResult.MAV_RESULT_ACCEPTED)
+                    .build();
+            case 1 -> ParamValue.builder()
+                    .paramId("SYSID_THISMAV")
+                    .paramValue(1)
+                    .paramType(MavParamType.MAV_PARAM_TYPE_INT32)
+                    .paramCount(900)
+                    .paramIndex(i % 900)
+                    .build();
+            case 2 -> RadioStatus.builder()
+                    .rssi(180)
+                    .remrssi(175)
+                    .txbuf(95)
+                    .build();
+            default -> MissionCurrent.builder()
+                    .seq(i % 50)
+                    .build();
+        };
+    }
+
+    // The decoded payloads of a corpus, as the library delivers them
+    public Object[] payloads() {
+        MavlinkConnection connection = MavlinkConnection.create(new ByteArrayInputStream(bytes),
+                OutputStream.nullOutputStream());
+        Object[] payloads = new Object[frames];
+        try {
+            for (int i = 0; i < frames; i++) {
+                payloads[i] = connection.next().getPayload();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return payloads;
+    }
+
+    // Endless stream over the corpus, so a MavlinkConnection can be read for any number of ops
+    public InputStream loopingStream() {
+        return new InputStream() {
+            private int position;
+
+            @Override
+            public int read() {
+                int b = bytes[position] & 0xFF;
+                position = position + 1 == bytes.length ? 0 : position + 1;
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                int count = Math.min(len, bytes.length - position);
+                System.arraycopy(bytes, position, b, off, count);
+                position = position + count == bytes.length ? 0 : position + count;
+                return count;
+            }
+        };
+    }
+}
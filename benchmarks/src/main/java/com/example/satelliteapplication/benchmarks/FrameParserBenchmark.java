@@ -0,0 +1,75 @@
+package com.example.satelliteapplication.benchmarks;
+
+import com.example.satelliteapplication.MavlinkFrameParser;
+import com.example.satelliteapplication.MessageDispatcher;
+import com.example.satelliteapplication.TelemetryModule;
+import com.example.satelliteapplication.TelemetryState;
+import io.dronefleet.mavlink.MavlinkConnection;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MavlinkFrameParser with the telemetry modules against dronefleet's MavlinkConnection.next()
+ * with the old instanceof chain, both updating a TelemetryState. Scores are per frame; run with {@code -prof gc}
+ * to compare allocation per frame.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FrameParserBenchmark {
+
+    private static final int FRAMES = 600;
+
+    @Param({"telemetry", "mixed"})
+    public String corpusName;
+
+    private FrameCorpus corpus;
+    private ByteBuffer buffer;
+    private MavlinkFrameParser parser;
+    private MavlinkFrameParser.FrameHandler handler;
+    private MavlinkConnection connection;
+    private LegacyDispatcher legacyDispatcher;
+
+    @Setup
+    public void setUp() {
+        corpus = FrameCorpus.named(corpusName, FRAMES);
+        buffer = ByteBuffer.wrap(corpus.bytes());
+        MessageDispatcher dispatcher = TelemetryModule.standardDispatcher(new TelemetryState());
+        legacyDispatcher = new LegacyDispatcher(new TelemetryState());
+        parser = new MavlinkFrameParser();
+        handler = dispatcher;
+        connection = MavlinkConnection.create(corpus.loopingStream(), OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public int frameParser() {
+        buffer.clear();
+        return parser.parse(buffer, handler);
+    }
+
+    // Framing and CRC only, no decoding
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public int frameParserFramingOnly() {
+        buffer.clear();
+        return parser.parse(buffer, frame -> { });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public void mavlinkConnectionNext(Blackhole blackhole) throws IOException {
+        for (int i = 0; i < FRAMES; i++) {
+            legacyDispatcher.dispatch(connection.next().getPayload());
+        }
+        blackhole.consume(legacyDispatcher.state().attitudeVersion());
+    }
+}
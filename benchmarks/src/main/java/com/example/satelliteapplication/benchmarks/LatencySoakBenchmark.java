@@ -0,0 +1,234 @@
+package com.example.satelliteapplication.benchmarks;
+
+import com.example.satelliteapplication.AutopilotSimulator;
+import com.example.satelliteapplication.LinkMetrics;
+import com.example.satelliteapplication.LogHistogram;
+import com.example.satelliteapplication.MavlinkMessages;
+import com.example.satelliteapplication.MavlinkPipeline;
+import com.example.satelliteapplication.MavlinkTransport;
+import com.example.satelliteapplication.MessageDispatcher;
+import com.example.satelliteapplication.StreamRateController;
+import com.example.satelliteapplication.TcpTransport;
+import com.example.satelliteapplication.TelemetryModule;
+import com.example.satelliteapplication.UdpTransport;
+import com.example.satelliteapplication.Vehicle;
+import com.example.satelliteapplication.VehicleRegistry;
+import io.dronefleet.mavlink.MavlinkConnection;
+import io.dronefleet.mavlink.common.CommandLong;
+import io.dronefleet.mavlink.common.MavCmd;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Soak test of the whole receive path against {@link AutopilotSimulator}: the pipeline,
+ * vehicle registry and telemetry modules the application runs, fed over loopback UDP or
+ * TCP. The load starts at {@code startRate} frames per second and grows by half each step;
+ * it is set on every vehicle with MAV_CMD_SET_MESSAGE_INTERVAL, as the stream controller
+ * does. Each step reports what was sent and delivered, what was lost (pipeline queue drops
+ * and sequence gaps, which on UDP include the socket buffer overflowing) and how long
+ * GPS_RAW_INT took from being encoded to its fix being in the vehicle's TelemetryState.
+ *
+ * A step is sustained when nothing was lost and p99 latency stayed under the limit; the run
+ * stops at the first step that is not and reports the highest sustained rate. Both sides
+ * share the machine, so run it on an otherwise idle one. When the simulator cannot reach a
+ * step's rate the run says so instead of blaming the ground station.
+ *
+ * Usage: LatencySoakBenchmark [udp|tcp] [vehicles] [startRate] [stepSeconds] [maxP99Millis] [maxRate]
+ *   rates are frames per second over all vehicles
+ */
+public class LatencySoakBenchmark {
+
+    private static final int UDP_PORT = 14560;  // not 14550, so a ground station already running is left alone
+    private static final double STEP_FACTOR = 1.5;
+    private static final int MAV_CMD_SET_MESSAGE_INTERVAL = 511;
+    // The load is spread over these; the simulator's slower streams are switched off
+    private static final int[] LOAD = {
+            MavlinkMessages.SYS_STATUS, MavlinkMessages.GPS_RAW_INT, MavlinkMessages.ATTITUDE,
+            MavlinkMessages.GLOBAL_POSITION_INT, MavlinkMessages.VFR_HUD,
+    };
+    private static final int[] OFF = {
+            MavlinkMessages.BATTERY_STATUS, MavlinkMessages.MISSION_CURRENT, MavlinkMessages.VIBRATION,
+            MavlinkMessages.HOME_POSITION,
+    };
+
+    /** Times GPS_RAW_INT on the simulator's clock; installed after the standard modules, so it runs once the state is updated. */
+    private static final class LatencyProbe implements TelemetryModule {
+        private final long bootNanos;
+        private final LogHistogram latencyMicros;
+        private final LongAdder acks;
+
+        LatencyProbe(long bootNanos, LogHistogram latencyMicros, LongAdder acks) {
+            this.bootNanos = bootNanos;
+            this.latencyMicros = latencyMicros;
+            this.acks = acks;
+        }
+
+        @Override
+        public void register(MessageDispatcher dispatcher) {
+            // time_usec u64 @0: microseconds since the simulator started, stamped as the frame was encoded
+            dispatcher.subscribe(MavlinkMessages.GPS_RAW_INT,
+                    frame -> latencyMicros.record((System.nanoTime() - bootNanos) / 1000 - frame.i64(0)));
+            // command u16 @0, result u8 @2
+            dispatcher.subscribe(MavlinkMessages.COMMAND_ACK, frame -> {
+                if (frame.u16(0) == MAV_CMD_SET_MESSAGE_INTERVAL && frame.u8(2) == 0) {
+                    acks.increment();
+                }
+            });
+        }
+    }
+
+    // Counters at one instant, to difference over a step
+    private record Snapshot(long nanos, long sent, long delivered, long dropped, long lost) {
+
+        static Snapshot take(AutopilotSimulator simulator, VehicleRegistry registry, MavlinkPipeline pipeline,
+                             LinkMetrics metrics) {
+            long delivered = 0;
+            for (Vehicle vehicle : registry.vehicles()) {
+                delivered += vehicle.framesReceived();
+            }
+            long dropped = pipeline.rawStage().dropped();
+            for (MavlinkPipeline.Stage stage : pipeline.consumerStages()) {
+                dropped += stage.dropped();
+            }
+            return new Snapshot(System.nanoTime(), simulator.framesSent(), delivered, dropped, metrics.getFramesLost());
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        boolean tcp = args.length > 0 && args[0].equalsIgnoreCase("tcp");
+        int vehicles = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        double startRate = args.length > 2 ? Double.parseDouble(args[2]) : 1000;
+        int stepSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        double maxP99Millis = args.length > 4 ? Double.parseDouble(args[4]) : 50;
+        double maxRate = args.length > 5 ? Double.parseDouble(args[5]) : 2_000_000;
+
+        System.out.println("Latency Soak Test");
+        System.out.println("=================");
+        System.out.printf("%d vehicle(s) over %s, from %,.0f frames/s in %d s steps, p99 limit %.0f ms%n",
+                vehicles, tcp ? "TCP" : "UDP", startRate, stepSeconds, maxP99Millis);
+
+        AutopilotSimulator simulator;
+        MavlinkTransport transport;
+        if (tcp) {
+            simulator = AutopilotSimulator.tcp(0, vehicles, 1, System.out::println);
+            simulator.start();
+            transport = TcpTransport.connect("127.0.0.1", simulator.port());
+        } else {
+            transport = UdpTransport.listen("127.0.0.1", UDP_PORT);
+            simulator = AutopilotSimulator.udp("127.0.0.1", UDP_PORT, vehicles, 1, System.out::println);
+            simulator.start();
+        }
+
+        LogHistogram latencyMicros = new LogHistogram();
+        LongAdder acks = new LongAdder();
+        VehicleRegistry registry = new VehicleRegistry(vehicle -> {
+            for (TelemetryModule module : TelemetryModule.standard(vehicle.state())) {
+                vehicle.dispatcher().install(module);
+            }
+            vehicle.dispatcher().install(new LatencyProbe(simulator.bootNanos(), latencyMicros, acks));
+        }, vehicle -> {
+        });
+        LinkMetrics metrics = new LinkMetrics();
+        MavlinkPipeline pipeline = new MavlinkPipeline(transport, MavlinkPipeline.OverflowPolicy.DROP,
+                new MavlinkPipeline.Listener() {
+                    @Override
+                    public void onReadTimeout(int consecutiveTimeouts) {
+                    }
+
+                    @Override
+                    public void onStreamEnded(IOException error) {
+                        System.out.println("Link ended" + (error == null ? "" : ": " + error.getMessage()));
+                    }
+                });
+        // The same queues the application uses, so drops happen where they would there
+        pipeline.addConsumer("telemetry", 1 << 16, MavlinkPipeline.OverflowPolicy.DROP, registry);
+        metrics.reset(pipeline);
+        pipeline.addConsumer("metrics", 1 << 16, MavlinkPipeline.OverflowPolicy.DROP, metrics);
+        pipeline.start();
+        MavlinkConnection connection = MavlinkConnection.create(InputStream.nullInputStream(), transport.outputStream());
+
+        try {
+            long deadline = System.nanoTime() + 10_000_000_000L;
+            while (registry.size() < vehicles && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            if (registry.size() < vehicles) {
+                System.out.println("Only " + registry.size() + " of " + vehicles + " vehicles appeared");
+                System.exit(1);
+            }
+            for (Vehicle vehicle : registry.vehicles()) {
+                for (int messageId : OFF) {
+                    setInterval(connection, vehicle, messageId, -1);
+                }
+            }
+
+            System.out.println();
+            System.out.println("  target/s      sent/s  delivered/s   lost   p50 ms   p99 ms   max ms");
+            double sustained = 0;
+            String stopped = "reached the maximum rate";
+            for (double rate = startRate; rate <= maxRate; rate *= STEP_FACTOR) {
+                double hz = rate / ((double) vehicles * LOAD.length);
+                long expectedAcks = acks.sum() + (long) vehicles * LOAD.length;
+                for (Vehicle vehicle : registry.vehicles()) {
+                    for (int messageId : LOAD) {
+                        setInterval(connection, vehicle, messageId, (float) (1_000_000 / hz));
+                    }
+                }
+                long ackDeadline = System.nanoTime() + 2_000_000_000L;
+                while (acks.sum() < expectedAcks && System.nanoTime() < ackDeadline) {
+                    Thread.sleep(10);
+                }
+                boolean acknowledged = acks.sum() >= expectedAcks;
+                Thread.sleep(500);  // Let the new rate settle and the previous step's queues drain
+
+                Snapshot before = Snapshot.take(simulator, registry, pipeline, metrics);
+                latencyMicros.reset();
+                Thread.sleep(stepSeconds * 1000L);
+                Snapshot after = Snapshot.take(simulator, registry, pipeline, metrics);
+
+                double seconds = (after.nanos() - before.nanos()) / 1e9;
+                double sent = (after.sent() - before.sent()) / seconds;
+                double delivered = (after.delivered() - before.delivered()) / seconds;
+                long lost = after.dropped() - before.dropped() + after.lost() - before.lost();
+                double p99 = latencyMicros.percentile(99) / 1000.0;
+                System.out.printf("%,10.0f  %,10.0f  %,11.0f  %5d  %7.2f  %7.2f  %7.2f%s%n",
+                        rate, sent, delivered, lost, latencyMicros.percentile(50) / 1000.0, p99,
+                        latencyMicros.max() / 1000.0, acknowledged ? "" : "  (rate change not acknowledged)");
+
+                if (sent < rate * 0.9) {
+                    stopped = String.format("the simulator tops out at %,.0f frames/s on this machine", sent);
+                    break;
+                }
+                if (lost > 0) {
+                    stopped = String.format("%,d frames lost at %,.0f frames/s", lost, rate);
+                    break;
+                }
+                if (p99 > maxP99Millis) {
+                    stopped = String.format("p99 latency %.1f ms at %,.0f frames/s", p99, rate);
+                    break;
+                }
+                sustained = delivered;
+            }
+            System.out.println();
+            System.out.printf("Maximum sustained rate: %,.0f frames/s (%s)%n", sustained, stopped);
+            System.out.println("Pipeline: " + pipeline.describeQueues());
+        } finally {
+            pipeline.close();
+            simulator.close();
+            transport.close();
+        }
+    }
+
+    private static void setInterval(MavlinkConnection connection, Vehicle vehicle, int messageId,
+                                    float intervalMicros) throws IOException {
+        connection.send1(StreamRateController.GCS_SYSTEM_ID, 0, CommandLong.builder()
+                .targetSystem(vehicle.systemId())
+                .targetComponent(vehicle.componentId())
+                .command(MavCmd.MAV_CMD_SET_MESSAGE_INTERVAL)
+                .param1(messageId)
+                .param2(intervalMicros)
+                .build());
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.satelliteapplication.benchmarks;
+
+import com.example.satelliteapplication.TelemetryState;
+import io.dronefleet.mavlink.common.*;
+import io.dronefleet.mavlink.minimal.Heartbeat;
+
+/**
+ * The instanceof chain handleMavlinkMessage used before the message-ID dispatch table,
+ * kept here as the baseline the current dispatch path is compared against.
+ */
+final class LegacyDispatcher {
+
+    private final TelemetryState state;
+
+    LegacyDispatcher(TelemetryState state) {
+        this.state = state;
+    }
+
+    TelemetryState state() {
+        return state;
+    }
+
+    void dispatch(Object payload) {
+        if (payload instanceof Heartbeat hb) {
+            state.updateHeartbeat(hb.customMode(), hb.baseMode().value());
+
+        } else if (payload instanceof SysStatus sys) {
+            state.updateBattery(sys.voltageBattery(), sys.batteryRemaining());
+
+        } else if (payload instanceof GpsRawInt gps) {
+            state.updateGps(gps.lat(), gps.lon(), gps.fixType().value(), gps.satellitesVisible());
+
+        } else if (payload instanceof GlobalPositionInt pos) {
+            state.updateAltitude(pos.relativeAlt() / 1000f);
+
+        } else if (payload instanceof VfrHud hud) {
+            state.updateGroundSpeed(hud.groundspeed());
+            if (hud.alt() > 0) {
+                state.updateAltitude(hud.alt());
+            }
+
+        } else if (payload instanceof Attitude att) {
+            state.updateAttitude(att.roll(), att.pitch(), att.yaw());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.satelliteapplication.benchmarks;
+
+import com.example.satelliteapplication.LinkMetrics;
+import com.example.satelliteapplication.MavlinkFrame;
+import com.example.satelliteapplication.MavlinkFrameParser;
+import com.example.satelliteapplication.MessageLog;
+import com.example.satelliteapplication.MavlinkMessages;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per frame of the link-quality counters on the metrics consumer, against the
+ * per-type name counting that consumer already did. These frames carry no receive stamp,
+ * so each also pays for a System.nanoTime() call the pipeline path does not.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LinkMetricsBenchmark {
+
+    private static final int FRAMES = 6000;
+
+    private MavlinkFrame[] frames;
+    private LinkMetrics metrics;
+    private MessageLog messageLog;
+
+    @Setup
+    public void setUp() {
+        byte[] stream = FrameCorpus.vehicles(8, FRAMES).bytes();
+        List<MavlinkFrame> parsed = new ArrayList<>();
+        new MavlinkFrameParser().parse(stream, 0, stream.length, frame -> {
+            MavlinkFrame copy = new MavlinkFrame();
+            copy.wrap(frame.raw(), 0, frame.length());
+            parsed.add(copy);
+        });
+        frames = parsed.toArray(new MavlinkFrame[0]);
+        metrics = new LinkMetrics();
+        messageLog = new MessageLog(100);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public long linkMetrics() {
+        for (MavlinkFrame frame : frames) {
+            metrics.onFrame(frame);
+        }
+        return metrics.getFramesReceived();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public int messageLogCount() {
+        for (MavlinkFrame frame : frames) {
+            messageLog.countReceived(MavlinkMessages.name(frame.messageId()));
+        }
+        return frames.length;
+    }
+}
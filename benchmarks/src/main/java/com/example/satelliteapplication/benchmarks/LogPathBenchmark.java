@@ -0,0 +1,61 @@
+package com.example.satelliteapplication.benchmarks;
+
+import com.example.satelliteapplication.LogEntry;
+import com.example.satelliteapplication.MessageLog;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The log() path. {@code formatterPerCall} is the original implementation's cost per line:
+ * a new DateTimeFormatter and an eagerly formatted timestamp for every call.
+ * {@code messageLog} is the current path: queue an entry, flush in batches into the ring,
+ * and format lazily (only visible rows are ever formatted, which {@code formatVisibleRow}
+ * prices per row).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LogPathBenchmark {
+
+    private static final int BATCH = 64;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private MessageLog messageLog;
+    private LogEntry entry;
+    private long frameNanos;
+
+    @Setup
+    public void setUp() {
+        messageLog = new MessageLog(5000);
+        entry = new LogEntry(System.currentTimeMillis(), MessageLog.GENERAL, "Requesting telemetry streams");
+    }
+
+    @Benchmark
+    public String formatterPerCall() {
+        String timestamp = LocalTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss"));
+        return "[" + timestamp + "] " + "Requesting telemetry streams" + "\n";
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public boolean messageLog() {
+        for (int i = 0; i < BATCH; i++) {
+            messageLog.log("Requesting telemetry streams");
+        }
+        frameNanos += 16_666_667L;  // one flush per 60 Hz frame
+        return messageLog.flush(frameNanos);
+    }
+
+    @Benchmark
+    public String formatVisibleRow() {
+        LocalTime time = LocalTime.ofInstant(java.time.Instant.ofEpochMilli(entry.timeMillis()),
+                java.time.ZoneId.systemDefault());
+        return "[" + TIME_FORMAT.format(time) + "] " + entry.text();
+    }
+}
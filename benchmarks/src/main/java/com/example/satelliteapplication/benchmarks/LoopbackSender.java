@@ -0,0 +1,175 @@
+package com.example.satelliteapplication.benchmarks;
+
+import com.example.satelliteapplication.MavlinkCrc;
+import com.example.satelliteapplication.MavlinkFrame;
+import com.example.satelliteapplication.MavlinkMessages;
+import com.example.satelliteapplication.UdpTransport;
+
+import io.dronefleet.mavlink.MavlinkConnection;
+import io.dronefleet.mavlink.common.*;
+import io.dronefleet.mavlink.minimal.Heartbeat;
+import io.dronefleet.mavlink.minimal.MavAutopilot;
+import io.dronefleet.mavlink.minimal.MavModeFlag;
+import io.dronefleet.mavlink.minimal.MavType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Stand-in for SITL or a companion-computer router when testing the network transports:
+ * sends a synthetic telemetry stream from one or more vehicles to localhost, one frame per
+ * datagram over UDP, or to each client that connects over TCP.
+ *
+ * Usage: LoopbackSender [udp|tcp] [port] [framesPerSecond|max] [vehicles] [seconds]
+ *   udp sends to 127.0.0.1:port (14550 by default); tcp listens on port (5760 by default)
+ *   seconds: 0 = until killed
+ */
+public class LoopbackSender {
+
+    private final byte[] frames;
+    private final int[] offsets;  // frame i is frames[offsets[i] .. offsets[i + 1])
+    private final int vehicles;
+    private final double framesPerSecond;
+
+    public LoopbackSender(int vehicles, double framesPerSecond) {
+        this.vehicles = vehicles;
+        this.framesPerSecond = framesPerSecond;
+        int count = vehicles * 60;  // ten rounds of the six telemetry messages per vehicle
+        ByteArrayOutputStream out = new ByteArrayOutputStream(count * 48);
+        MavlinkConnection encoder = MavlinkConnection.create(new ByteArrayInputStream(new byte[0]), out);
+        offsets = new int[count + 1];
+        try {
+            for (int i = 0; i < count; i++) {
+                encoder.send2(1 + i % vehicles, 1, message(i / vehicles));
+                offsets[i + 1] = out.size();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        frames = out.toByteArray();
+    }
+
+    private static Object message(int i) {
+        float t = i * 0.05f;
+        return switch (i % 6) {
+            case 0 -> Heartbeat.builder()
+                    .type(MavType.MAV_TYPE_QUADROTOR)
+                    .autopilot(MavAutopilot.MAV_AUTOPILOT_ARDUPILOTMEGA)
+                    .baseMode(MavModeFlag.MAV_MODE_FLAG_CUSTOM_MODE_ENABLED)
+                    .customMode(5)
+                    .build();
+            case 1 -> SysStatus.builder().voltageBattery(12400).batteryRemaining(76).build();
+            case 2 -> GpsRawInt.builder()
+                    .lat(411234567 + i).lon(691234567 - i)
+                    .fixType(GpsFixType.GPS_FIX_TYPE_3D_FIX).satellitesVisible(14)
+                    .build();
+            case 3 -> Attitude.builder()
+                    .timeBootMs(i * 20L)
+                    .roll((float) Math.sin(t) * 0.3f).pitch((float) Math.cos(t) * 0.2f).yaw(t % 6.28f)
+                    .build();
+            case 4 -> GlobalPositionInt.builder().timeBootMs(i * 20L).relativeAlt(30_000 + i % 500).build();
+            default -> VfrHud.builder().groundspeed(8 + t % 2).alt(30 + t % 5).build();
+        };
+    }
+
+    // Sends frames to the sink at the configured rate until the deadline; returns the count sent
+    private long run(FrameSink sink, long deadlineNanos) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(MavlinkFrame.MAX_SIZE);
+        byte[] frame = new byte[MavlinkFrame.MAX_SIZE];
+        int[] sequences = new int[vehicles];
+        int frameCount = offsets.length - 1;
+        long start = System.nanoTime();
+        long sent = 0;
+        long lastReport = start;
+        long reportedSent = 0;
+        while (System.nanoTime() < deadlineNanos) {
+            long now = System.nanoTime();
+            long due = framesPerSecond > 0 ? (long) ((now - start) * framesPerSecond / 1e9) : sent + 64;
+            if (sent >= due) {
+                LockSupport.parkNanos(200_000);
+                continue;
+            }
+            while (sent < due) {
+                int i = (int) (sent % frameCount);
+                int length = offsets[i + 1] - offsets[i];
+                System.arraycopy(frames, offsets[i], frame, 0, length);
+                stampSequence(frame, sequences[i % vehicles]++);
+                buffer.clear();
+                buffer.put(frame, 0, length).flip();
+                sink.send(buffer);
+                sent++;
+            }
+            if (now - lastReport >= 1_000_000_000L) {
+                System.out.printf("%,d frames/s%n", (sent - reportedSent) * 1_000_000_000L / (now - lastReport));
+                lastReport = now;
+                reportedSent = sent;
+            }
+        }
+        return sent;
+    }
+
+    // The canned frames repeat, so give each a running sequence number (and a matching CRC) per vehicle
+    private static void stampSequence(byte[] frame, int sequence) {
+        frame[4] = (byte) sequence;
+        int headerAndPayload = 10 + (frame[1] & 0xFF);
+        int messageId = (frame[7] & 0xFF) | (frame[8] & 0xFF) << 8 | (frame[9] & 0xFF) << 16;
+        int crc = MavlinkCrc.frameCrc(frame, 0, headerAndPayload, MavlinkMessages.crcExtra(messageId));
+        frame[headerAndPayload] = (byte) crc;
+        frame[headerAndPayload + 1] = (byte) (crc >>> 8);
+    }
+
+    private interface FrameSink {
+        void send(ByteBuffer frame) throws IOException;
+    }
+
+    public long sendUdp(int port, long deadlineNanos) throws IOException {
+        InetSocketAddress target = new InetSocketAddress("127.0.0.1", port);
+        try (DatagramChannel channel = DatagramChannel.open()) {
+            return run(frame -> channel.send(frame, target), deadlineNanos);
+        }
+    }
+
+    // Serves one client at a time until the deadline
+    public long serveTcp(int port, long deadlineNanos) throws IOException {
+        long sent = 0;
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress("127.0.0.1", port));
+            while (System.nanoTime() < deadlineNanos) {
+                try (SocketChannel client = server.accept()) {
+                    System.out.println("Client connected: " + client.getRemoteAddress());
+                    sent += run(frame -> {
+                        while (frame.hasRemaining()) {
+                            client.write(frame);
+                        }
+                    }, deadlineNanos);
+                } catch (IOException e) {
+                    System.out.println("Client gone: " + e.getMessage());
+                }
+            }
+        }
+        return sent;
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean tcp = args.length > 0 && args[0].equalsIgnoreCase("tcp");
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : tcp ? 5760 : UdpTransport.GCS_PORT;
+        double rate = args.length > 2 ? (args[2].equalsIgnoreCase("max") ? 0 : Double.parseDouble(args[2])) : 1000;
+        int vehicles = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+        long deadline = seconds > 0 ? System.nanoTime() + seconds * 1_000_000_000L : Long.MAX_VALUE;
+
+        LoopbackSender sender = new LoopbackSender(vehicles, rate);
+        System.out.printf("Sending %s frames/s from %d vehicle(s) %s%n",
+                rate > 0 ? String.format("%,.0f", rate) : "max", vehicles,
+                tcp ? "to TCP clients on port " + port : "to UDP 127.0.0.1:" + port);
+        long sent = tcp ? sender.serveTcp(port, deadline) : sender.sendUdp(port, deadline);
+        System.out.printf("Sent %,d frames%n", sent);
+    }
+}
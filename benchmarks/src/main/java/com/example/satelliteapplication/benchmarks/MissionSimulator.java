@@ -0,0 +1,290 @@
+package com.example.satelliteapplication.benchmarks;
+
+import com.example.satelliteapplication.MavlinkFrame;
+import com.example.satelliteapplication.MavlinkFrameParser;
+import com.example.satelliteapplication.MavlinkMessages;
+import com.example.satelliteapplication.Mission;
+import com.example.satelliteapplication.MissionTransfer;
+import com.example.satelliteapplication.StreamRateController;
+import com.example.satelliteapplication.Vehicle;
+
+import io.dronefleet.mavlink.MavlinkConnection;
+import io.dronefleet.mavlink.common.MavCmd;
+import io.dronefleet.mavlink.common.MavFrame;
+import io.dronefleet.mavlink.common.MavMissionResult;
+import io.dronefleet.mavlink.common.MavMissionType;
+import io.dronefleet.mavlink.common.MissionAck;
+import io.dronefleet.mavlink.common.MissionCount;
+import io.dronefleet.mavlink.common.MissionRequestInt;
+import io.dronefleet.mavlink.minimal.MavType;
+import io.dronefleet.mavlink.util.EnumValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link MissionTransfer} against a simulated autopilot over an in-memory lossy link:
+ * uploads a generated mission, downloads it again and checks that every item came back
+ * bit for bit. The link drops, duplicates and (through latency jitter) reorders frames in
+ * both directions. The autopilot follows ArduPilot's side of the protocol: it requests
+ * upload items strictly in order, re-requesting on its own timeout, and answers download
+ * requests in whatever order they come. It acknowledges a repeat of the last item after an
+ * upload has finished, so a lost final ACK does not fail the transfer.
+ *
+ * Usage: MissionSimulator [waypoints] [lossPercent] [latencyMs] [rounds]
+ */
+public class MissionSimulator {
+
+    private static final int VEHICLE_SYSTEM_ID = 1;
+    private static final int VEHICLE_COMPONENT_ID = 1;
+    private static final long VEHICLE_TIMEOUT_MILLIS = 500;
+    private static final int MAX_REQUESTS = 5;
+
+    /** One direction of the link: encodes, maybe drops or duplicates, delivers after the latency. */
+    private static final class Link {
+        private final ScheduledExecutorService delivery;
+        private final MavlinkConnection encoder;
+        private final ByteArrayOutputStream encoded = new ByteArrayOutputStream(MavlinkFrame.MAX_SIZE);
+        private final MavlinkFrameParser parser = new MavlinkFrameParser();
+        private final MavlinkFrameParser.FrameHandler receiver;
+        private final int systemId;
+        private final int componentId;
+        private final double loss;
+        private final long latencyMicros;
+        private long sent;
+        private long dropped;
+
+        Link(String name, int systemId, int componentId, double loss, long latencyMicros,
+             MavlinkFrameParser.FrameHandler receiver) {
+            this.delivery = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.encoder = MavlinkConnection.create(new ByteArrayInputStream(new byte[0]), encoded);
+            this.systemId = systemId;
+            this.componentId = componentId;
+            this.loss = loss;
+            this.latencyMicros = latencyMicros;
+            this.receiver = receiver;
+        }
+
+        synchronized void send(Object message) throws IOException {
+            encoded.reset();
+            encoder.send2(systemId, componentId, message);
+            byte[] bytes = encoded.toByteArray();
+            sent++;
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < loss) {
+                dropped++;
+                return;
+            }
+            int copies = random.nextDouble() < loss / 2 ? 2 : 1;
+            for (int i = 0; i < copies; i++) {
+                // Up to half the latency again as jitter, enough to reorder back-to-back frames
+                long delay = latencyMicros + (latencyMicros > 0 ? random.nextLong(latencyMicros / 2 + 1) : 0);
+                delivery.schedule(() -> parser.parse(bytes, 0, bytes.length, receiver), delay, TimeUnit.MICROSECONDS);
+            }
+        }
+
+        synchronized String summary() {
+            return String.format("%,d sent, %,d dropped", sent, dropped);
+        }
+
+        void close() {
+            delivery.shutdownNow();
+        }
+    }
+
+    /** The vehicle side of the mission protocol, with one stored mission per run. */
+    private static final class Autopilot implements MavlinkFrameParser.FrameHandler {
+        private final ScheduledExecutorService timer;
+        private Link downlink;
+
+        // Guarded by this
+        private Mission stored = new Mission(Mission.TYPE_MISSION, 0);
+        private Mission incoming;
+        private int pendingCount;
+        private int expected = -1;  // next upload item, -1 when not receiving
+        private int requests;       // for the current item; the upload is abandoned after a few
+        private ScheduledFuture<?> retry;
+
+        Autopilot(ScheduledExecutorService timer) {
+            this.timer = timer;
+        }
+
+        @Override
+        public synchronized void onFrame(MavlinkFrame frame) {
+            switch (frame.messageId()) {
+                case MavlinkMessages.MISSION_COUNT -> {
+                    int count = frame.u16(0);
+                    if (expected >= 0 && count == pendingCount) {
+                        requestNext();  // a repeat: our request was lost
+                        return;
+                    }
+                    pendingCount = count;
+                    requests = 0;
+                    incoming = new Mission(frame.u8(4), count);
+                    expected = 0;
+                    if (count == 0) {
+                        finishUpload();
+                    } else {
+                        requestNext();
+                    }
+                }
+                case MavlinkMessages.MISSION_ITEM_INT -> {
+                    if (expected < 0 && stored == incoming && frame.u16(28) == stored.size() - 1) {
+                        acknowledge();  // the last item again: our ACK was lost
+                    } else if (expected >= 0 && frame.u16(28) == expected) {
+                        incoming.set(frame);
+                        expected++;
+                        requests = 0;
+                        if (expected == pendingCount) {
+                            finishUpload();
+                        } else {
+                            requestNext();
+                        }
+                    }
+                }
+                case MavlinkMessages.MISSION_REQUEST_LIST -> reply(MissionCount.builder()
+                        .targetSystem(StreamRateController.GCS_SYSTEM_ID)
+                        .count(stored.size())
+                        .missionType(EnumValue.create(MavMissionType.class, stored.missionType()))
+                        .build());
+                case MavlinkMessages.MISSION_REQUEST_INT -> {
+                    int seq = frame.u16(0);
+                    if (seq < stored.size()) {
+                        reply(MissionTransfer.itemMessage(stored, seq, StreamRateController.GCS_SYSTEM_ID, 0));
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        private void requestNext() {
+            int seq = expected;
+            if (++requests > MAX_REQUESTS) {
+                expected = -1;
+                return;
+            }
+            reply(MissionRequestInt.builder()
+                    .targetSystem(StreamRateController.GCS_SYSTEM_ID)
+                    .seq(seq)
+                    .missionType(EnumValue.create(MavMissionType.class, incoming.missionType()))
+                    .build());
+            if (retry != null) {
+                retry.cancel(false);
+            }
+            retry = timer.schedule(() -> {
+                synchronized (this) {
+                    if (expected == seq) {
+                        requestNext();
+                    }
+                }
+            }, VEHICLE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        private void finishUpload() {
+            if (retry != null) {
+                retry.cancel(false);
+            }
+            stored = incoming;
+            expected = -1;
+            acknowledge();
+        }
+
+        private void acknowledge() {
+            reply(MissionAck.builder()
+                    .targetSystem(StreamRateController.GCS_SYSTEM_ID)
+                    .type(MavMissionResult.MAV_MISSION_ACCEPTED)
+                    .missionType(EnumValue.create(MavMissionType.class, stored.missionType()))
+                    .build());
+        }
+
+        private void reply(Object message) {
+            try {
+                downlink.send(message);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    // A survey-like pattern of waypoints around Tashkent, every tenth one loitering
+    static Mission generate(int waypoints, long seed) {
+        Random random = new Random(seed);
+        Mission mission = new Mission(Mission.TYPE_MISSION, waypoints);
+        int frame = EnumValue.of(MavFrame.MAV_FRAME_GLOBAL_RELATIVE_ALT_INT).value();
+        int waypoint = EnumValue.of(MavCmd.MAV_CMD_NAV_WAYPOINT).value();
+        int loiter = EnumValue.of(MavCmd.MAV_CMD_NAV_LOITER_TIME).value();
+        for (int i = 0; i < waypoints; i++) {
+            boolean loiters = i % 10 == 9;
+            mission.add(frame, loiters ? loiter : waypoint, true,
+                    loiters ? 5 + random.nextInt(30) : 0, 2, 0, Float.NaN,
+                    413_000_000 + random.nextInt(100_000), 692_400_000 + random.nextInt(100_000),
+                    30 + random.nextInt(90));
+        }
+        return mission;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int waypoints = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        double loss = args.length > 1 ? Double.parseDouble(args[1]) / 100 : 0.05;
+        long latencyMillis = args.length > 2 ? Long.parseLong(args[2]) : 30;
+        int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+
+        System.out.println("Mission Transfer Simulation");
+        System.out.println("===========================");
+        System.out.printf("%,d waypoints, %.1f%% loss each way, %d ms latency, %d rounds%n",
+                waypoints, loss * 100, latencyMillis, rounds);
+
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "mission-sim");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Vehicle vehicle = new Vehicle(VEHICLE_SYSTEM_ID, VEHICLE_COMPONENT_ID, EnumValue.of(MavType.MAV_TYPE_QUADROTOR).value());
+        Autopilot autopilot = new Autopilot(scheduler);
+        Link uplink = new Link("sim-uplink", StreamRateController.GCS_SYSTEM_ID, 0, loss, latencyMillis * 1000,
+                autopilot);
+        Link downlink = new Link("sim-downlink", VEHICLE_SYSTEM_ID, VEHICLE_COMPONENT_ID, loss,
+                latencyMillis * 1000, vehicle.dispatcher());
+        autopilot.downlink = downlink;
+
+        MissionTransfer transfer = new MissionTransfer(vehicle, uplink::send, scheduler, System.out::println);
+        vehicle.dispatcher().install(transfer);
+        scheduler.scheduleAtFixedRate(transfer::tick, 100, 100, TimeUnit.MILLISECONDS);
+
+        boolean passed = true;
+        try {
+            for (int round = 1; round <= rounds; round++) {
+                Mission mission = generate(waypoints, round);
+                transfer.upload(mission);
+                boolean uploaded = transfer.await(600_000);
+                transfer.download(Mission.TYPE_MISSION);
+                boolean downloaded = uploaded && transfer.await(600_000);
+                Mission copy = transfer.mission();
+                boolean same = downloaded && copy != null && copy.sameItems(mission);
+                System.out.printf("Round %d: %s%n", round, same ? "ok" : "MISMATCH");
+                passed &= same;
+            }
+        } finally {
+            System.out.println("Uplink:   " + uplink.summary());
+            System.out.println("Downlink: " + downlink.summary());
+            uplink.close();
+            downlink.close();
+            scheduler.shutdownNow();
+        }
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.satelliteapplication.benchmarks;
+
+import com.example.satelliteapplication.MavlinkFrameParser;
+import com.example.satelliteapplication.VehicleRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Many vehicles behind one link: frames from {@code vehicles} interleaved systems are parsed
+ * and routed through {@link VehicleRegistry} to each vehicle's own telemetry modules, all on
+ * one thread. A vehicle streaming everything the ground station asks for sends a few hundred
+ * frames per second, so the per-frame time here bounds how many one reader can keep up with;
+ * it should stay flat as the vehicle count grows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MultiVehicleBenchmark {
+
+    private static final int FRAMES = 6000;
+
+    @Param({"1", "16", "64", "250"})
+    public int vehicles;
+
+    private byte[] stream;
+    private MavlinkFrameParser parser;
+    private VehicleRegistry registry;
+
+    @Setup
+    public void setUp() {
+        stream = FrameCorpus.vehicles(vehicles, FRAMES).bytes();
+        parser = new MavlinkFrameParser();
+        registry = VehicleRegistry.standard(vehicle -> { });
+        // Discover every vehicle up front so the measurement is steady-state routing
+        parser.parse(stream, 0, stream.length, registry);
+        if (registry.size() != vehicles) {
+            throw new IllegalStateException("discovered " + registry.size() + " of " + vehicles + " vehicles");
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public long parseAndRoute() {
+        parser.parse(stream, 0, stream.length, registry);
+        return registry.vehicles().get(vehicles - 1).state().attitudeVersion();
+    }
+}
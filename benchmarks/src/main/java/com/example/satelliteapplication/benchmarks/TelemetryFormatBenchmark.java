@@ -0,0 +1,56 @@
+package com.example.satelliteapplication.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning telemetry values into label text, with the String.format patterns the
+ * telemetry panel uses for GPS, attitude and battery, next to plain concatenation. Inputs
+ * vary per call so nothing is constant-folded.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TelemetryFormatBenchmark {
+
+    private int i;
+
+    @Benchmark
+    public String gpsFormat() {
+        int n = i++;
+        double lat = (411234567 + n) / 1e7;
+        double lon = (691234567 - n) / 1e7;
+        return String.format("%.6f, %.6f", lat, lon);
+    }
+
+    @Benchmark
+    public String attitudeFormat() {
+        int n = i++;
+        double roll = Math.toDegrees(Math.sin(n * 0.01));
+        double pitch = Math.toDegrees(Math.cos(n * 0.01));
+        double yaw = n % 360;
+        return String.format("R:%.0f° P:%.0f° Y:%.0f°", roll, pitch, yaw);
+    }
+
+    // What TelemetryRenderer does: round once, then concatenate ints
+    @Benchmark
+    public String attitudeConcat() {
+        int n = i++;
+        int roll = (int) Math.round(Math.toDegrees(Math.sin(n * 0.01)));
+        int pitch = (int) Math.round(Math.toDegrees(Math.cos(n * 0.01)));
+        int yaw = n % 360;
+        return "R:" + roll + "° P:" + pitch + "° Y:" + yaw + "°";
+    }
+
+    @Benchmark
+    public String batteryFormat() {
+        int n = i++;
+        double voltage = (12600 - n % 1000) / 1000.0;
+        int remaining = 80 - n % 80;
+        return String.format("%.1fV (%d%%)", voltage, remaining);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.satelliteapplication.benchmarks;
+
+import com.example.satelliteapplication.Lttb;
+import com.example.satelliteapplication.TelemetrySeries;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the telemetry history costs: one append on the telemetry thread, and one chart
+ * redraw's copy plus LTTB reduction of a three-hour, 10 Hz channel to 1200 pixels on the
+ * FX thread.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TelemetrySeriesBenchmark {
+
+    private static final int SAMPLES = 3 * 3600 * 10;
+    private static final int PIXELS = 1200;
+
+    private TelemetrySeries series;
+    private TelemetrySeries.Samples samples;
+    private int[] times;
+    private float[] values;
+    private double[] pointX;
+    private double[] pointY;
+    private float next;
+
+    @Setup
+    public void setUp() {
+        series = new TelemetrySeries(64L << 20);
+        times = new int[SAMPLES];
+        values = new float[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            times[i] = i * 100;
+            values[i] = (float) (30 + 10 * Math.sin(i / 600.0) + Math.sin(i * 0.7));
+            series.append(TelemetrySeries.Channel.ALTITUDE, values[i]);
+        }
+        samples = new TelemetrySeries.Samples();
+        pointX = new double[PIXELS];
+        pointY = new double[PIXELS];
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public long append() {
+        series.append(TelemetrySeries.Channel.GROUND_SPEED, next += 0.1f);
+        return series.version(TelemetrySeries.Channel.GROUND_SPEED);
+    }
+
+    @Benchmark
+    public int lttb() {
+        return Lttb.decimate(times, values, SAMPLES, PIXELS, pointX, pointY);
+    }
+
+    @Benchmark
+    public int copyAndLttb() {
+        series.copySince(TelemetrySeries.Channel.ALTITUDE, Integer.MIN_VALUE, samples);
+        return Lttb.decimate(samples.times(), samples.values(), samples.size(), PIXELS, pointX, pointY);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.satelliteapplication.benchmarks;
+
+import com.example.satelliteapplication.HeadlessGroundStation;
+import com.example.satelliteapplication.TelemetryServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Loads a running {@link TelemetryServer} (e.g. {@link HeadlessGroundStation} fed by
+ * {@link LoopbackSender}) with many plain TCP clients. Fast clients read everything and
+ * count snapshots; slow clients connect and never read, to check that they neither hold
+ * memory on the server nor slow the others down.
+ *
+ * Usage: TelemetryServerBenchmark [clients] [slowClients] [seconds] [port] [rateHz]
+ */
+public class TelemetryServerBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int slowClients = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int port = args.length > 3 ? Integer.parseInt(args[3]) : TelemetryServer.DEFAULT_TCP_PORT;
+        double rateHz = args.length > 4 ? Double.parseDouble(args[4]) : TelemetryServer.DEFAULT_RATE_HZ;
+
+        System.out.println("Telemetry Server Benchmark");
+        System.out.println("==========================");
+        System.out.printf("%d clients (%d never read) at %.1f Hz for %d s against 127.0.0.1:%d%n",
+                clients, slowClients, rateHz, seconds, port);
+
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", port);
+        byte[] rateCommand = ("rate " + rateHz + "\n").getBytes();
+        List<SocketChannel> slow = new ArrayList<>();
+        long[] snapshots = new long[clients - slowClients];
+        long bytes = 0;
+
+        try (Selector selector = Selector.open()) {
+            for (int i = 0; i < clients; i++) {
+                SocketChannel channel = SocketChannel.open(address);
+                channel.write(ByteBuffer.wrap(rateCommand));
+                if (i < slowClients) {
+                    slow.add(channel);
+                } else {
+                    channel.configureBlocking(false);
+                    channel.register(selector, SelectionKey.OP_READ, i - slowClients);
+                }
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+            long start = System.nanoTime();
+            long deadline = start + seconds * 1_000_000_000L;
+            while (System.nanoTime() < deadline) {
+                selector.select(100);
+                for (SelectionKey key : selector.selectedKeys()) {
+                    int index = (Integer) key.attachment();
+                    buffer.clear();
+                    int count = ((SocketChannel) key.channel()).read(buffer);
+                    if (count < 0) {
+                        key.cancel();
+                        continue;
+                    }
+                    bytes += count;
+                    for (int i = 0; i < count; i++) {
+                        if (buffer.get(i) == '\n') {
+                            snapshots[index]++;
+                        }
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+            double elapsed = (System.nanoTime() - start) / 1e9;
+
+            long[] sorted = snapshots.clone();
+            Arrays.sort(sorted);
+            long total = Arrays.stream(sorted).sum();
+            System.out.printf("Snapshots received: %,d (%,.0f/s, %.1f MB/s)%n",
+                    total, total / elapsed, bytes / elapsed / (1024 * 1024));
+            if (sorted.length > 0) {
+                System.out.printf("Per fast client:    min %.1f Hz, median %.1f Hz, max %.1f Hz%n",
+                        sorted[0] / elapsed, sorted[sorted.length / 2] / elapsed,
+                        sorted[sorted.length - 1] / elapsed);
+            }
+        } finally {
+            for (SocketChannel channel : slow) {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.satelliteapplication.benchmarks;
+
+import com.example.satelliteapplication.MavlinkFrameParser;
+import com.example.satelliteapplication.TlogExporter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Exporting a recorded log to both formats, by number of decoding threads. The log is
+ * the telemetry corpus repeated to about {@code megabytes} MB at 50 Hz timestamps; it
+ * is written once and stays in the page cache, so this is the decode and write cost
+ * rather than the disk.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TlogExportBenchmark {
+
+    @Param({"256"})
+    public int megabytes;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private Path directory;
+    private Path log;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("export-bench");
+        log = directory.resolve("flight.tlog");
+        FrameCorpus corpus = FrameCorpus.telemetry(1000);
+        ByteBuffer timestamp = ByteBuffer.allocate(8);
+        long target = megabytes * 1024L * 1024;
+        long[] micros = {1_700_000_000_000_000L};
+        try (OutputStream out = Files.newOutputStream(log)) {
+            long[] written = {0};
+            while (written[0] < target) {
+                new MavlinkFrameParser().parse(corpus.bytes(), 0, corpus.bytes().length, frame -> {
+                    try {
+                        timestamp.clear();
+                        out.write(timestamp.putLong(micros[0] += 20_000).array());
+                        out.write(frame.raw(), 0, frame.length());
+                        written[0] += 8 + frame.length();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteOutput() throws IOException {
+        delete(directory.resolve("export"));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        delete(directory);
+    }
+
+    private static void delete(Path root) throws IOException {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public TlogExporter.Summary export() throws IOException {
+        TlogExporter exporter = new TlogExporter(directory.resolve("export"), EnumSet.allOf(TlogExporter.Format.class),
+                0, threads, Set.of(), line -> {
+                });
+        return exporter.export(List.of(log));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.satelliteapplication.benchmarks;
+
+import com.example.satelliteapplication.TlogRecorder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Measures how much frame data {@link TlogRecorder} can absorb. A producer thread offers
+ * synthetic frames as fast as it can for a fixed time; the sustained rate is what reached
+ * disk within that time, compared against a saturated 115200 baud link.
+ *
+ * Usage: TlogRecorderBenchmark [seconds] [frameBytes] [segmentMegabytes]
+ */
+public class TlogRecorderBenchmark {
+
+    private static final double LINK_BYTES_PER_SECOND = 115200 / 10.0;  // 8N1: 10 bits per byte
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int frameBytes = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+        long segmentSize = (args.length > 2 ? Long.parseLong(args[2]) : 64) * 1024 * 1024;
+
+        System.out.println("TLOG Recorder Benchmark");
+        System.out.println("=======================");
+        System.out.printf("Duration: %d s, frame size: %d bytes, segment size: %d MB%n",
+                seconds, frameBytes, segmentSize / (1024 * 1024));
+
+        byte[] frame = new byte[frameBytes];
+        new Random(42).nextBytes(frame);
+        frame[0] = (byte) 0xFE;
+
+        Path directory = Files.createTempDirectory("tlog-bench");
+        try (TlogRecorder recorder = new TlogRecorder(directory, "bench", segmentSize,
+                TlogRecorder.DEFAULT_RING_CAPACITY, System.err::println)) {
+            recorder.start();
+
+            // Warm up, then measure
+            runProducer(recorder, frame, 1000);
+            long framesBefore = recorder.framesWritten();
+            long bytesBefore = recorder.bytesWritten();
+            long droppedBefore = recorder.framesDropped();
+
+            long start = System.nanoTime();
+            long accepted = runProducer(recorder, frame, seconds * 1000L);
+            double elapsed = (System.nanoTime() - start) / 1e9;
+
+            long frames = recorder.framesWritten() - framesBefore;
+            long bytes = recorder.bytesWritten() - bytesBefore;
+            long dropped = recorder.framesDropped() - droppedBefore;
+            double bytesPerSecond = bytes / elapsed;
+
+            System.out.printf("Frames accepted:  %,d%n", accepted);
+            System.out.printf("Frames written:   %,d (%,.0f frames/s)%n", frames, frames / elapsed);
+            System.out.printf("Offers rejected:  %,d (ring full, producer backed off)%n", dropped);
+            System.out.printf("Segments:         %d%n", recorder.segmentCount());
+            System.out.printf("Sustained rate:   %.1f MB/s%n", bytesPerSecond / (1024 * 1024));
+            System.out.printf("Headroom vs saturated 115200 baud link: %,.0fx%n",
+                    bytesPerSecond / LINK_BYTES_PER_SECOND);
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    // Offers frames for the given time, backing off briefly whenever the ring is full; returns how many were taken
+    private static long runProducer(TlogRecorder recorder, byte[] frame, long millis) {
+        long accepted = 0;
+        long deadline = System.nanoTime() + millis * 1_000_000;
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < 256; i++) {
+                if (recorder.record(frame)) {
+                    accepted++;
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+        return accepted;
+    }
+}
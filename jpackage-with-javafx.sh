@@ -31,20 +31,89 @@ cd ../..
 
 # Use jpackage with proper module configuration
 # NOTE: Removed javafx.fxml since it's not used in the application
+# Build the app image first so the class-data-sharing (CDS) archive can be trained inside it.
+# The jlink options replace jpackage's defaults to keep bin/java for the training run
+# and to give the runtime its base CDS archive.
+#
+# The trained archive records the classpath it was dumped with. Only a JDK 19 or newer
+# runtime accepts it once the app has been installed somewhere else (/Applications); on
+# JDK 17 and 18 the JVM would quietly ignore it. So with an older JDK (the pom's release
+# 17 is only the minimum) the app is packaged without an archive; build with JDK 19+.
+APP_NAME="NazarX GCS"
+JDK_MAJOR=$(jpackage --version | cut -d. -f1)
+CDS_OPTIONS=()
+if [ "$JDK_MAJOR" -ge 19 ]; then
+    CDS_OPTIONS=(--java-options "-XX:SharedArchiveFile=\$APPDIR/nazarx-gcs.jsa" --java-options "-Xshare:auto")
+else
+    echo "Warning: jpackage is from JDK $JDK_MAJOR; the CDS archive needs JDK 19 or newer and is left out"
+fi
+rm -rf target/image
 jpackage \
-  --type dmg \
-  --name "NazarX GCS" \
+  --type app-image \
+  --name "$APP_NAME" \
   --icon src/main/resources/app.icns \
   --app-version "1.0" \
   --vendor "NazarX" \
   --description "NazarX Ground Control Station" \
   --input target/app \
-  --dest target/installer \
+  --dest target/image \
   --main-jar satellite-gcs.jar \
   --main-class com.example.satelliteapplication.SatelliteApplication \
   --module-path "$JAVAFX_PATH:target/app/libs" \
   --add-modules javafx.controls \
+  --jlink-options "--strip-debug --no-man-pages --no-header-files --generate-cds-archive" \
   --mac-package-identifier "com.example.satelliteapplication" \
-  --java-options "-Dprism.order=sw"
+  --java-options "-Dprism.order=sw" \
+  "${CDS_OPTIONS[@]}"
+
+# Absolute, so the archive is dumped with the same kind of classpath the launcher uses
+APP_IMAGE="$(pwd)/target/image/$APP_NAME.app"
+
+# The classpath the launcher builds, for an app image at the given location
+launcher_classpath() {
+    local app_dir="$1/Contents/app"
+    grep '^app.classpath=' "$app_dir/$APP_NAME.cfg" | cut -d= -f2- | sed "s#\$APPDIR#$app_dir#g" | paste -sd: -
+}
+
+if [ "$JDK_MAJOR" -ge 19 ]; then
+    # Training run: the app starts, connects to its built-in simulator, opens every pane and
+    # quits; the JVM then writes the classes it loaded to the archive the launcher points at.
+    echo "Training the class-data-sharing archive"
+    ARCHIVE="$APP_IMAGE/Contents/app/nazarx-gcs.jsa"
+    "$APP_IMAGE/Contents/runtime/Contents/Home/bin/java" \
+      -XX:ArchiveClassesAtExit="$ARCHIVE" \
+      -Dprism.order=sw \
+      -Dnazarx.cds.training=true \
+      -cp "$(launcher_classpath "$APP_IMAGE")" \
+      com.example.satelliteapplication.SatelliteApplication
+    if [ ! -f "$ARCHIVE" ]; then
+        echo "Error: no CDS archive was written"
+        exit 1
+    fi
+
+    # Check the archive survives installation: copy the app elsewhere and require it with
+    # -Xshare:on, which fails instead of falling back. On an installed app, the vm_info
+    # column of ~/NazarX GCS/startup.csv says "sharing" when the archive was used.
+    INSTALLED=$(mktemp -d)/"$APP_NAME.app"
+    cp -R "$APP_IMAGE" "$INSTALLED"
+    if ! "$INSTALLED/Contents/runtime/Contents/Home/bin/java" \
+        -XX:SharedArchiveFile="$INSTALLED/Contents/app/nazarx-gcs.jsa" -Xshare:on -Xlog:cds=warning \
+        -cp "$(launcher_classpath "$INSTALLED")" -version > /dev/null; then
+        echo "Error: the CDS archive is rejected once the app is moved; see the -Xlog:cds output above"
+        rm -rf "$(dirname "$INSTALLED")"
+        exit 1
+    fi
+    rm -rf "$(dirname "$INSTALLED")"
+    echo "CDS archive verified at another install location"
+fi
+
+jpackage \
+  --type dmg \
+  --name "$APP_NAME" \
+  --app-version "1.0" \
+  --vendor "NazarX" \
+  --app-image "$APP_IMAGE" \
+  --dest target/installer \
+  --mac-package-identifier "com.example.satelliteapplication"
 
-echo "Done! Check target/installer/"
\ No newline at end of file
+echo "Done! Check target/installer/"
@@ -0,0 +1,137 @@
+package com.example.satelliteapplication;
+
+import java.util.Arrays;
+
+/**
+ * Evaluates {@link AlertRules} against one vehicle's telemetry, on the dispatch path. One
+ * handler is subscribed per message ID that has rules; it reads each field the rules use
+ * once, and when a field holds the same value as last time only the rate and hold rules on
+ * it are looked at again. The state is kept in primitive arrays indexed by rule, so a frame
+ * allocates nothing unless an alert changes.
+ *
+ * Written by the vehicle's telemetry thread; the UI reads {@link #active} and
+ * {@link #version}.
+ */
+public class AlertModule implements TelemetryModule {
+
+    /** Told when an alert fires or clears; called on the telemetry thread. */
+    public interface Listener {
+        void onAlert(String rule, AlertRules.Severity severity, boolean active, double value);
+    }
+
+    private final AlertRules rules;
+    private final Listener listener;
+
+    // Telemetry thread only
+    private final double[] lastField;
+    private final boolean[] firing;
+    private final long[] breachSince;  // 0 while the condition does not hold
+    private final double[] previousValue;
+    private final long[] previousNanos;
+
+    private volatile String active = "";
+    private volatile long version;
+
+    public AlertModule(AlertRules rules, Listener listener) {
+        this.rules = rules;
+        this.listener = listener;
+        lastField = new double[rules.fieldCount()];
+        Arrays.fill(lastField, Double.NaN);
+        firing = new boolean[rules.size()];
+        breachSince = new long[rules.size()];
+        previousValue = new double[rules.size()];
+        previousNanos = new long[rules.size()];
+    }
+
+    @Override
+    public void register(MessageDispatcher dispatcher) {
+        for (AlertRules.Program program : rules.programs()) {
+            dispatcher.subscribe(program.messageId, frame -> evaluate(program, frame));
+        }
+    }
+
+    private void evaluate(AlertRules.Program program, MavlinkFrame frame) {
+        long now = frame.receivedNanos() != 0 ? frame.receivedNanos() : System.nanoTime();
+        for (int f = 0; f < program.fields.length; f++) {
+            double value = program.fields[f].read(frame);
+            int slot = program.fieldSlots[f];
+            boolean changed = Double.doubleToRawLongBits(value) != Double.doubleToRawLongBits(lastField[slot]);
+            lastField[slot] = value;
+            for (int rule : program.rules[f]) {
+                if (changed || rules.timeDependent[rule]) {
+                    evaluate(rule, value, now);
+                }
+            }
+        }
+    }
+
+    private void evaluate(int rule, double raw, long now) {
+        if (rules.hasIgnore[rule] && raw == rules.ignore[rule]) {
+            return;
+        }
+        double value = raw;
+        if (rules.mask[rule] != 0) {
+            value = (long) value & rules.mask[rule];
+        }
+        value *= rules.scale[rule];
+        if (rules.rate[rule]) {
+            long since = previousNanos[rule];
+            double previous = previousValue[rule];
+            previousValue[rule] = value;
+            previousNanos[rule] = now;
+            if (since == 0 || now <= since) {
+                return;  // Needs two samples
+            }
+            value = (value - previous) * 1e9 / (now - since);
+        }
+        if (rules.abs[rule]) {
+            value = Math.abs(value);
+        }
+
+        double threshold = rules.threshold[rule];
+        boolean above = rules.above[rule];
+        if (!firing[rule]) {
+            if (above ? value > threshold : value < threshold) {
+                if (breachSince[rule] == 0) {
+                    breachSince[rule] = now;
+                }
+                if (now - breachSince[rule] >= rules.holdNanos[rule]) {
+                    setFiring(rule, true, value);
+                }
+            } else {
+                breachSince[rule] = 0;
+            }
+        } else {
+            double hysteresis = rules.hysteresis[rule];
+            if (above ? value <= threshold - hysteresis : value >= threshold + hysteresis) {
+                breachSince[rule] = 0;
+                setFiring(rule, false, value);
+            }
+        }
+    }
+
+    private void setFiring(int rule, boolean on, double value) {
+        firing[rule] = on;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < firing.length; i++) {
+            if (firing[i]) {
+                if (sb.length() > 0) {
+                    sb.append(", ");
+                }
+                sb.append(rules.names[i]);
+            }
+        }
+        active = sb.toString();
+        version++;
+        listener.onAlert(rules.names[rule], rules.severities[rule], on, value);
+    }
+
+    // Names of the alerts currently firing, comma-separated; empty when all is well
+    public String active() {
+        return active;
+    }
+
+    public long version() {
+        return version;
+    }
+}
@@ -0,0 +1,279 @@
+package com.example.satelliteapplication;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Telemetry alert rules, parsed from a text file and compiled for {@link AlertModule}. One
+ * rule per line; '#' starts a comment:
+ * <pre>
+ *   name severity [rate] MESSAGE.field [ignore v] [mask bits] [scale k] [abs] (&lt;|&gt;) threshold
+ *        [hysteresis h] [hold seconds]
+ *
+ *   battery-low  WARNING  SYS_STATUS.voltage_battery scale 0.001 &lt; 10.8 hysteresis 0.2 hold 2
+ *   descent-fast WARNING  rate GLOBAL_POSITION_INT.relative_alt scale 0.001 &lt; -6
+ * </pre>
+ * The field is read, skipped if it equals the ignore value, masked, scaled, differentiated
+ * per second (rate) and made absolute, in that order. A rule fires once the condition has
+ * held for the hold time and clears when the value is back past the threshold by the
+ * hysteresis.
+ *
+ * Compiling groups the rules by message ID and, within a message, by field, so each frame
+ * only reaches the rules on its own message and each field is read once however many rules
+ * use it. The compiled form is immutable and shared by every vehicle's module.
+ */
+public final class AlertRules {
+
+    public enum Severity { INFO, WARNING, CRITICAL }
+
+    private static final String DEFAULT_RULES = "default-alerts.rules";
+
+    /** One parsed rule. */
+    public record Rule(String name, Severity severity, String message, String field, boolean rate,
+                       double ignore, long mask, double scale, boolean abs, boolean above,
+                       double threshold, double hysteresis, double holdSeconds) {
+    }
+
+    // Per message: the fields its rules read and, per field, the indexes of those rules
+    static final class Program {
+        final int messageId;
+        final MavlinkMessages.Field[] fields;
+        final int[] fieldSlots;  // index into the per-vehicle last-value array
+        final int[][] rules;
+
+        Program(int messageId, MavlinkMessages.Field[] fields, int[] fieldSlots, int[][] rules) {
+            this.messageId = messageId;
+            this.fields = fields;
+            this.fieldSlots = fieldSlots;
+            this.rules = rules;
+        }
+    }
+
+    private final List<Rule> rules;
+    private final Program[] programs;
+    private final int fieldCount;
+
+    // Per rule, in parallel arrays for the evaluator
+    final String[] names;
+    final Severity[] severities;
+    final boolean[] rate;
+    final boolean[] hasIgnore;
+    final double[] ignore;
+    final long[] mask;
+    final double[] scale;
+    final boolean[] abs;
+    final boolean[] above;
+    final double[] threshold;
+    final double[] hysteresis;
+    final long[] holdNanos;
+    // Rate and hold rules depend on time, so they run even when their field did not change
+    final boolean[] timeDependent;
+
+    private AlertRules(List<Rule> rules) {
+        this.rules = List.copyOf(rules);
+        int count = rules.size();
+        names = new String[count];
+        severities = new Severity[count];
+        rate = new boolean[count];
+        hasIgnore = new boolean[count];
+        ignore = new double[count];
+        mask = new long[count];
+        scale = new double[count];
+        abs = new boolean[count];
+        above = new boolean[count];
+        threshold = new double[count];
+        hysteresis = new double[count];
+        holdNanos = new long[count];
+        timeDependent = new boolean[count];
+
+        // message ID -> field name -> rule indexes
+        Map<Integer, Map<String, List<Integer>>> byMessage = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            Rule rule = rules.get(i);
+            names[i] = rule.name();
+            severities[i] = rule.severity();
+            rate[i] = rule.rate();
+            hasIgnore[i] = !Double.isNaN(rule.ignore());
+            ignore[i] = rule.ignore();
+            mask[i] = rule.mask();
+            scale[i] = rule.scale();
+            abs[i] = rule.abs();
+            above[i] = rule.above();
+            threshold[i] = rule.threshold();
+            hysteresis[i] = rule.hysteresis();
+            holdNanos[i] = (long) (rule.holdSeconds() * 1e9);
+            timeDependent[i] = rule.rate() || holdNanos[i] > 0;
+            byMessage.computeIfAbsent(MavlinkMessages.idOf(rule.message()), id -> new LinkedHashMap<>())
+                    .computeIfAbsent(rule.field(), field -> new ArrayList<>())
+                    .add(i);
+        }
+
+        programs = new Program[byMessage.size()];
+        int slot = 0;
+        int p = 0;
+        for (Map.Entry<Integer, Map<String, List<Integer>>> message : byMessage.entrySet()) {
+            int messageId = message.getKey();
+            Map<String, List<Integer>> fields = message.getValue();
+            MavlinkMessages.Field[] layouts = new MavlinkMessages.Field[fields.size()];
+            int[] slots = new int[fields.size()];
+            int[][] fieldRules = new int[fields.size()][];
+            int f = 0;
+            for (Map.Entry<String, List<Integer>> field : fields.entrySet()) {
+                layouts[f] = MavlinkMessages.field(messageId, field.getKey());
+                slots[f] = slot++;
+                fieldRules[f] = field.getValue().stream().mapToInt(Integer::intValue).toArray();
+                f++;
+            }
+            programs[p++] = new Program(messageId, layouts, slots, fieldRules);
+        }
+        fieldCount = slot;
+    }
+
+    /** Parses and compiles rules; unknown messages or fields fail with the line number. */
+    public static AlertRules parse(List<String> lines) {
+        List<Rule> rules = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            try {
+                rules.add(parseRule(line.split("\\s+")));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("line " + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        return new AlertRules(rules);
+    }
+
+    public static AlertRules load(Path file) throws IOException {
+        try {
+            return parse(Files.readAllLines(file, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(file + ", " + e.getMessage(), e);
+        }
+    }
+
+    // The rules shipped with the application
+    public static AlertRules defaults() {
+        try (InputStream in = AlertRules.class.getClassLoader().getResourceAsStream(DEFAULT_RULES)) {
+            if (in == null) {
+                throw new IllegalStateException(DEFAULT_RULES + " missing from the classpath");
+            }
+            return parse(Arrays.asList(new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\\R")));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static Path userFile() {
+        return Path.of(System.getProperty("user.home"), "NazarX GCS", "alerts.rules");
+    }
+
+    // ~/NazarX GCS/alerts.rules if there is one and it parses, otherwise the defaults
+    public static AlertRules userOrDefaults(Consumer<String> log) {
+        Path file = userFile();
+        if (Files.isRegularFile(file)) {
+            try {
+                AlertRules rules = load(file);
+                log.accept("Loaded " + rules.size() + " alert rules from " + file);
+                return rules;
+            } catch (IOException e) {
+                log.accept("Alert rules not loaded, using defaults: " + e.getMessage());
+            }
+        }
+        return defaults();
+    }
+
+    private static Rule parseRule(String[] tokens) {
+        int t = 0;
+        String name = tokens[t++];
+        Severity severity = Severity.valueOf(next(tokens, t++, "severity").toUpperCase());
+        boolean rate = false;
+        if ("rate".equals(next(tokens, t, "source"))) {
+            rate = true;
+            t++;
+        }
+        String source = next(tokens, t++, "source");
+        int dot = source.indexOf('.');
+        if (dot < 0) {
+            throw new IllegalArgumentException("expected MESSAGE.field, got " + source);
+        }
+        String message = source.substring(0, dot);
+        String field = source.substring(dot + 1);
+        int messageId = MavlinkMessages.idOf(message);
+        if (messageId < 0) {
+            throw new IllegalArgumentException("unknown message " + message);
+        }
+        if (MavlinkMessages.field(messageId, field) == null) {
+            throw new IllegalArgumentException(message + " has no scalar field " + field);
+        }
+
+        double ignore = Double.NaN;
+        long mask = 0;
+        double scale = 1;
+        boolean abs = false;
+        String token;
+        while (!(token = next(tokens, t++, "condition")).equals("<") && !token.equals(">")) {
+            switch (token) {
+                case "ignore" -> ignore = Double.parseDouble(next(tokens, t++, "ignore value"));
+                case "mask" -> mask = Long.decode(next(tokens, t++, "mask bits"));
+                case "scale" -> scale = Double.parseDouble(next(tokens, t++, "scale factor"));
+                case "abs" -> abs = true;
+                default -> throw new IllegalArgumentException("unexpected " + token);
+            }
+        }
+        boolean above = token.equals(">");
+        double threshold = Double.parseDouble(next(tokens, t++, "threshold"));
+
+        double hysteresis = 0;
+        double hold = 0;
+        while (t < tokens.length) {
+            token = tokens[t++];
+            switch (token) {
+                case "hysteresis" -> hysteresis = Double.parseDouble(next(tokens, t++, "hysteresis"));
+                case "hold" -> hold = Double.parseDouble(next(tokens, t++, "hold seconds"));
+                default -> throw new IllegalArgumentException("unexpected " + token);
+            }
+        }
+        return new Rule(name, severity, message, field, rate, ignore, mask, scale, abs, above,
+                threshold, hysteresis, hold);
+    }
+
+    private static String next(String[] tokens, int index, String what) {
+        if (index >= tokens.length) {
+            throw new IllegalArgumentException("missing " + what);
+        }
+        return tokens[index];
+    }
+
+    public List<Rule> rules() {
+        return rules;
+    }
+
+    public int size() {
+        return rules.size();
+    }
+
+    Program[] programs() {
+        return programs;
+    }
+
+    int fieldCount() {
+        return fieldCount;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.satelliteapplication;
+
+// Roll, pitch and yaw from ATTITUDE
+public class AttitudeModule implements TelemetryModule {
+
+    private final TelemetryState state;
+
+    public AttitudeModule(TelemetryState state) {
+        this.state = state;
+    }
+
+    @Override
+    public void register(MessageDispatcher dispatcher) {
+        dispatcher.subscribe(MavlinkMessages.ATTITUDE, this::onAttitude);
+    }
+
+    private void onAttitude(MavlinkFrame frame) {
+        // roll f32 @4, pitch f32 @8, yaw f32 @12, radians
+        state.updateAttitude(frame.f32(4), frame.f32(8), frame.f32(12));
+    }
+}
@@ -0,0 +1,752 @@
+package com.example.satelliteapplication;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A stand-in autopilot for load tests without hardware. Any number of simulated vehicles
+ * (system IDs 1..n) fly circles over Tashkent and stream HEARTBEAT, SYS_STATUS,
+ * GPS_RAW_INT, ATTITUDE, GLOBAL_POSITION_INT, VFR_HUD, BATTERY_STATUS, MISSION_CURRENT,
+ * VIBRATION and HOME_POSITION at ArduPilot-like default rates. Like an autopilot, each
+ * vehicle answers MAV_CMD_SET_MESSAGE_INTERVAL and MAV_CMD_REQUEST_MESSAGE with a
+ * COMMAND_ACK and serves a parameter table (list, read by index or name, set), so
+ * {@link StreamRateController} and {@link ParameterSync} run against it unchanged.
+ *
+ * Frames are encoded into one reused buffer (MAVLink 2, full-length payloads) rather than
+ * through the library's builders, so a single thread sends a few hundred thousand frames a
+ * second and the simulator is not what limits a load test. GPS_RAW_INT.time_usec is the
+ * time since the simulator started, read from the clock as that frame is encoded; the
+ * benchmarks module's LatencySoakBenchmark times each of those frames to the telemetry state
+ * with it. Over TCP, frames are written out once per pass of the send loop, so that latency
+ * still includes up to one pass of batching on the simulator's side.
+ *
+ * Talks UDP (sends to a ground station port and reads commands from its replies) or TCP
+ * (listens and serves one client at a time, like SITL on 5760). Java cannot open a pty;
+ * to exercise the serial path, bridge the TCP port to one with socat:
+ * {@code socat pty,link=/tmp/ttySIM,raw,echo=0 tcp:127.0.0.1:5760}.
+ *
+ * Usage: AutopilotSimulator [udp|tcp] [port] [vehicles] [rateScale]
+ *   udp sends to 127.0.0.1:port (14550 by default); tcp listens on port (5760 by default)
+ *   rateScale multiplies the default stream rates; heartbeats stay at 1 Hz
+ */
+public class AutopilotSimulator implements AutoCloseable {
+
+    public static final int DEFAULT_TCP_PORT = 5760;
+    public static final int COMPONENT_ID = 1;  // MAV_COMP_ID_AUTOPILOT1
+
+    // Streams every vehicle sends unless told otherwise, with their default rates in Hz
+    private static final int[] STREAMS = {
+            MavlinkMessages.HEARTBEAT, MavlinkMessages.SYS_STATUS, MavlinkMessages.GPS_RAW_INT,
+            MavlinkMessages.ATTITUDE, MavlinkMessages.GLOBAL_POSITION_INT, MavlinkMessages.VFR_HUD,
+            MavlinkMessages.BATTERY_STATUS, MavlinkMessages.MISSION_CURRENT, MavlinkMessages.VIBRATION,
+            MavlinkMessages.HOME_POSITION,
+    };
+    private static final double[] DEFAULT_HZ = {1, 2, 5, 10, 5, 4, 1, 1, 0.5, 0.2};
+
+    private static final int MAV_CMD_SET_MESSAGE_INTERVAL = 511;
+    private static final int MAV_CMD_REQUEST_MESSAGE = 512;
+    private static final int MAV_RESULT_ACCEPTED = 0;
+    private static final int MAV_RESULT_DENIED = 2;
+    private static final int MAV_RESULT_UNSUPPORTED = 3;
+    private static final int MAV_PARAM_TYPE_REAL32 = 9;
+
+    private static final int HEADER = 10;
+    private static final int MAX_PAYLOAD = 255;
+    private static final int PARAMETERS = 400;
+    private static final String[] PARAMETER_NAMES = parameterNames();
+    private static final byte[][] PARAMETER_IDS = new byte[PARAMETERS][];
+    private static final Map<String, Integer> PARAMETER_INDEX = new HashMap<>();
+
+    static {
+        for (int i = 0; i < PARAMETERS; i++) {
+            PARAMETER_IDS[i] = PARAMETER_NAMES[i].getBytes(StandardCharsets.US_ASCII);
+            PARAMETER_INDEX.put(PARAMETER_NAMES[i], i);
+        }
+    }
+
+    // A parameter list streams at about this pace, as over a fast link
+    private static final long PARAMETER_INTERVAL_NANOS = 1_000_000L;
+    // A stream that falls further behind than this skips ahead instead of bursting
+    private static final long MAX_LAG_NANOS = 1_000_000_000L;
+    private static final int MAX_BURST = 256;
+    // Longest wait between looks at the socket for commands
+    private static final long IDLE_POLL_NANOS = 1_000_000L;
+
+    private static final double HOME_LAT = 41.3111;
+    private static final double HOME_LON = 69.2797;
+    private static final double HOME_ALT_M = 455;
+    private static final double METERS_PER_DEGREE = 111_320;
+    private static final double SPEED_M_S = 10;
+    private static final double FLIGHT_SECONDS = 1800;  // a full battery
+
+    /** One simulated vehicle; touched only by the simulator thread. */
+    private static final class Simulated {
+        final int systemId;
+        final int index;
+        final long[] intervalNanos = new long[STREAMS.length];  // 0: not sent
+        final long[] defaultIntervalNanos = new long[STREAMS.length];
+        final long[] nextDueNanos = new long[STREAMS.length];
+        final float[] parameters = new float[PARAMETERS];
+        int sequence;
+        int parameterCursor = -1;  // next index of a list being streamed, -1 when idle
+        long nextParameterNanos;
+
+        Simulated(int index, double rateScale) {
+            this.index = index;
+            this.systemId = index + 1;
+            for (int s = 0; s < STREAMS.length; s++) {
+                double hz = s == 0 ? DEFAULT_HZ[s] : DEFAULT_HZ[s] * rateScale;
+                defaultIntervalNanos[s] = hz > 0 ? Math.max(1, (long) (1e9 / hz)) : 0;
+            }
+            System.arraycopy(defaultIntervalNanos, 0, intervalNanos, 0, STREAMS.length);
+            for (int i = 0; i < PARAMETERS; i++) {
+                parameters[i] = defaultValue(PARAMETER_NAMES[i], i, systemId);
+            }
+        }
+    }
+
+    /** Where frames go and commands come from. Used only by the simulator thread, except close. */
+    private interface Link extends Closeable {
+        // Waits for a ground station to talk to; false once closed
+        boolean await() throws IOException;
+
+        void send(byte[] frame, int length) throws IOException;
+
+        void flush() throws IOException;
+
+        // What has arrived, without waiting; dst is cleared first and left ready to read
+        void receive(ByteBuffer dst) throws IOException;
+
+        // Lets go of the current ground station after an error
+        void drop();
+
+        String describe();
+
+        int port();
+    }
+
+    private final Link link;
+    private final Simulated[] vehicles;
+    private final Consumer<String> log;
+    private final byte[] frame = new byte[MavlinkFrame.MAX_SIZE];
+    private final ByteBuffer payload = ByteBuffer.wrap(frame, HEADER, MAX_PAYLOAD).slice().order(ByteOrder.LITTLE_ENDIAN);
+    private final ByteBuffer received = ByteBuffer.allocateDirect(1 << 16);
+    private final MavlinkFrameParser parser = new MavlinkFrameParser();
+    private final long bootNanos = System.nanoTime();
+
+    private volatile boolean running;
+    private Thread thread;
+
+    // Written by the simulator thread only
+    private volatile long framesSent;
+    private volatile long commandsReceived;
+
+    private AutopilotSimulator(Link link, int vehicles, double rateScale, Consumer<String> log) {
+        this.link = link;
+        this.log = log;
+        this.vehicles = new Simulated[vehicles];
+        for (int i = 0; i < vehicles; i++) {
+            this.vehicles[i] = new Simulated(i, rateScale);
+        }
+    }
+
+    /** Sends to a ground station listening on host:port, e.g. the app on udp:14550. */
+    public static AutopilotSimulator udp(String host, int port, int vehicles, double rateScale,
+                                         Consumer<String> log) throws IOException {
+        DatagramChannel channel = DatagramChannel.open();
+        channel.configureBlocking(false);
+        InetSocketAddress target = new InetSocketAddress(host, port);
+        ByteBuffer out = ByteBuffer.allocateDirect(MavlinkFrame.MAX_SIZE);
+        return new AutopilotSimulator(new Link() {
+            @Override
+            public boolean await() {
+                return channel.isOpen();
+            }
+
+            @Override
+            public void send(byte[] bytes, int length) throws IOException {
+                out.clear();
+                out.put(bytes, 0, length).flip();
+                channel.send(out, target);  // A full socket buffer drops the datagram, as on a real link
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void receive(ByteBuffer dst) throws IOException {
+                dst.clear();
+                channel.receive(dst);
+                dst.flip();
+            }
+
+            @Override
+            public void drop() {
+            }
+
+            @Override
+            public String describe() {
+                return "UDP to " + host + ":" + port;
+            }
+
+            @Override
+            public int port() {
+                return port;
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        }, vehicles, rateScale, log);
+    }
+
+    /** Listens on 127.0.0.1:port (0 for any free port, see {@link #port}) like SITL. */
+    public static AutopilotSimulator tcp(int port, int vehicles, double rateScale,
+                                         Consumer<String> log) throws IOException {
+        ServerSocketChannel server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress("127.0.0.1", port));
+        int boundPort = ((InetSocketAddress) server.getLocalAddress()).getPort();
+        ByteBuffer out = ByteBuffer.allocateDirect(1 << 16);
+        return new AutopilotSimulator(new Link() {
+            private volatile SocketChannel client;
+
+            @Override
+            public boolean await() throws IOException {
+                try {
+                    SocketChannel accepted = server.accept();
+                    accepted.configureBlocking(false);
+                    accepted.socket().setTcpNoDelay(true);
+                    client = accepted;
+                    log.accept("Client connected: " + accepted.getRemoteAddress());
+                    return true;
+                } catch (IOException e) {
+                    if (!server.isOpen()) {
+                        return false;
+                    }
+                    throw e;
+                }
+            }
+
+            @Override
+            public void send(byte[] bytes, int length) throws IOException {
+                if (out.remaining() < length) {
+                    flush();
+                }
+                out.put(bytes, 0, length);
+            }
+
+            // TCP pushes back: a ground station that cannot keep up slows the simulator down
+            @Override
+            public void flush() throws IOException {
+                out.flip();
+                while (out.hasRemaining()) {
+                    if (client.write(out) == 0) {
+                        LockSupport.parkNanos(50_000);
+                    }
+                }
+                out.clear();
+            }
+
+            @Override
+            public void receive(ByteBuffer dst) throws IOException {
+                dst.clear();
+                if (client.read(dst) < 0) {
+                    throw new IOException("client closed the connection");
+                }
+                dst.flip();
+            }
+
+            @Override
+            public void drop() {
+                out.clear();
+                try {
+                    client.close();
+                } catch (IOException e) {
+                    // Gone anyway
+                }
+            }
+
+            @Override
+            public String describe() {
+                return "TCP on 127.0.0.1:" + boundPort;
+            }
+
+            @Override
+            public int port() {
+                return boundPort;
+            }
+
+            @Override
+            public void close() throws IOException {
+                server.close();
+                SocketChannel current = client;
+                if (current != null) {
+                    current.close();
+                }
+            }
+        }, vehicles, rateScale, log);
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "autopilot-sim");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        try {
+            while (running && link.await()) {
+                try {
+                    serve();
+                } catch (IOException | UncheckedIOException e) {
+                    if (running) {
+                        log.accept("Ground station gone: " + e.getMessage());
+                    }
+                    link.drop();
+                    parser.reset();
+                }
+            }
+        } catch (IOException e) {
+            if (running) {
+                log.accept("Simulator stopped: " + e.getMessage());
+            }
+        }
+    }
+
+    private void serve() throws IOException {
+        long start = System.nanoTime();
+        for (Simulated vehicle : vehicles) {
+            for (int s = 0; s < STREAMS.length; s++) {
+                // Spread the vehicles' first frames over a millisecond instead of sending them at once
+                vehicle.nextDueNanos[s] = start + vehicle.index * 1_000_000L / vehicles.length;
+            }
+        }
+        while (running) {
+            link.receive(received);
+            if (received.hasRemaining()) {
+                parser.parse(received, this::onCommand);
+            }
+            long now = System.nanoTime();
+            long next = now + IDLE_POLL_NANOS;
+            for (Simulated vehicle : vehicles) {
+                for (int s = 0; s < STREAMS.length; s++) {
+                    long interval = vehicle.intervalNanos[s];
+                    if (interval == 0) {
+                        continue;
+                    }
+                    if (now - vehicle.nextDueNanos[s] > MAX_LAG_NANOS) {
+                        vehicle.nextDueNanos[s] = now;
+                    }
+                    // Capped so that a very fast stream still lets the others, and commands, through
+                    for (int burst = 0; burst < MAX_BURST && vehicle.nextDueNanos[s] <= now; burst++) {
+                        emit(vehicle, STREAMS[s], now);
+                        vehicle.nextDueNanos[s] += interval;
+                    }
+                    next = Math.min(next, vehicle.nextDueNanos[s]);
+                }
+                if (vehicle.parameterCursor >= 0) {
+                    while (vehicle.parameterCursor >= 0 && vehicle.nextParameterNanos <= now) {
+                        sendParameter(vehicle, vehicle.parameterCursor);
+                        vehicle.parameterCursor = vehicle.parameterCursor + 1 < PARAMETERS ? vehicle.parameterCursor + 1 : -1;
+                        vehicle.nextParameterNanos += PARAMETER_INTERVAL_NANOS;
+                    }
+                    if (vehicle.parameterCursor >= 0) {
+                        next = Math.min(next, vehicle.nextParameterNanos);
+                    }
+                }
+            }
+            link.flush();
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+        }
+    }
+
+    // Runs inside parser.parse on the simulator thread
+    private void onCommand(MavlinkFrame command) {
+        int targetOffset = MavlinkMessages.targetSystemOffset(command.messageId());
+        if (targetOffset < 0) {
+            return;  // Not addressed to a vehicle (the ground station's own HEARTBEAT, ...)
+        }
+        commandsReceived++;
+        int target = command.u8(targetOffset);
+        try {
+            for (Simulated vehicle : vehicles) {
+                if (target == 0 || target == vehicle.systemId) {
+                    onCommand(vehicle, command);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void onCommand(Simulated vehicle, MavlinkFrame command) throws IOException {
+        switch (command.messageId()) {
+            case MavlinkMessages.COMMAND_LONG -> {
+                // param1 f32 @0, param2 f32 @4, command u16 @28
+                int id = command.u16(28);
+                int result = switch (id) {
+                    case MAV_CMD_SET_MESSAGE_INTERVAL -> setInterval(vehicle, (int) command.f32(0), command.f32(4));
+                    case MAV_CMD_REQUEST_MESSAGE -> requestMessage(vehicle, (int) command.f32(0));
+                    default -> MAV_RESULT_UNSUPPORTED;
+                };
+                acknowledge(vehicle, id, result, command.systemId(), command.componentId());
+            }
+            case MavlinkMessages.PARAM_REQUEST_LIST -> {
+                vehicle.parameterCursor = 0;
+                vehicle.nextParameterNanos = System.nanoTime();
+            }
+            case MavlinkMessages.PARAM_REQUEST_READ -> {
+                // param_index i16 @0, param_id char[16] @4; the name is used when the index is -1
+                int index = command.i16(0);
+                if (index < 0) {
+                    index = PARAMETER_INDEX.getOrDefault(ParameterModule.paramId(command, 4), -1);
+                }
+                if (index >= 0 && index < PARAMETERS) {
+                    sendParameter(vehicle, index);
+                }
+            }
+            case MavlinkMessages.PARAM_SET -> {
+                // param_value f32 @0, param_id char[16] @6
+                Integer index = PARAMETER_INDEX.get(ParameterModule.paramId(command, 6));
+                if (index != null) {
+                    vehicle.parameters[index] = command.f32(0);
+                    sendParameter(vehicle, index);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    // interval in microseconds: -1 stops the stream, 0 restores its default rate
+    private int setInterval(Simulated vehicle, int messageId, float intervalMicros) {
+        int s = streamIndex(messageId);
+        if (s < 0) {
+            return MAV_RESULT_DENIED;
+        }
+        if (intervalMicros < 0) {
+            vehicle.intervalNanos[s] = 0;
+        } else if (intervalMicros == 0) {
+            vehicle.intervalNanos[s] = vehicle.defaultIntervalNanos[s];
+        } else {
+            vehicle.intervalNanos[s] = Math.max(1, (long) (intervalMicros * 1000.0));
+        }
+        vehicle.nextDueNanos[s] = System.nanoTime();
+        return MAV_RESULT_ACCEPTED;
+    }
+
+    private int requestMessage(Simulated vehicle, int messageId) throws IOException {
+        if (streamIndex(messageId) < 0) {
+            return MAV_RESULT_DENIED;
+        }
+        emit(vehicle, messageId, System.nanoTime());
+        return MAV_RESULT_ACCEPTED;
+    }
+
+    private static int streamIndex(int messageId) {
+        for (int s = 0; s < STREAMS.length; s++) {
+            if (STREAMS[s] == messageId) {
+                return s;
+            }
+        }
+        return -1;
+    }
+
+    private void acknowledge(Simulated vehicle, int command, int result, int systemId, int componentId) throws IOException {
+        clearPayload();
+        // command u16 @0, result u8 @2, progress u8 @3, result_param2 i32 @4, target_system u8 @8, target_component u8 @9
+        payload.putShort(0, (short) command);
+        payload.put(2, (byte) result);
+        payload.put(8, (byte) systemId);
+        payload.put(9, (byte) componentId);
+        finish(vehicle, MavlinkMessages.COMMAND_ACK, 10);
+    }
+
+    private void sendParameter(Simulated vehicle, int index) throws IOException {
+        clearPayload();
+        // param_value f32 @0, param_count u16 @4, param_index u16 @6, param_id char[16] @8, param_type u8 @24
+        payload.putFloat(0, vehicle.parameters[index]);
+        payload.putShort(4, (short) PARAMETERS);
+        payload.putShort(6, (short) index);
+        payload.put(8, PARAMETER_IDS[index]);
+        payload.put(24, (byte) MAV_PARAM_TYPE_REAL32);
+        finish(vehicle, MavlinkMessages.PARAM_VALUE, 25);
+    }
+
+    // Encodes one frame of the vehicle's flight at time now and sends it
+    private void emit(Simulated vehicle, int messageId, long now) throws IOException {
+        clearPayload();
+        long micros = (now - bootNanos) / 1000;
+        double t = micros / 1e6;
+        double radius = 80 + 20 * vehicle.index;
+        double angle = SPEED_M_S / radius * t + vehicle.index;
+        double north = radius * Math.cos(angle);
+        double east = radius * Math.sin(angle);
+        int lat = (int) Math.round((HOME_LAT + north / METERS_PER_DEGREE) * 1e7);
+        int lon = (int) Math.round((HOME_LON + east / (METERS_PER_DEGREE * Math.cos(Math.toRadians(HOME_LAT)))) * 1e7);
+        double altitude = 50 + 5 * Math.sin(0.2 * t);
+        double climb = Math.cos(0.2 * t);
+        double heading = (angle + Math.PI / 2) % (2 * Math.PI);
+        double used = Math.min(1, t / FLIGHT_SECONDS);
+        int length = switch (messageId) {
+            case MavlinkMessages.HEARTBEAT -> {
+                // custom_mode u32 @0, type u8 @4, autopilot u8 @5, base_mode u8 @6, system_status u8 @7,
+                // mavlink_version u8 @8
+                payload.putInt(0, 3);                 // AUTO
+                payload.put(4, (byte) 2);             // MAV_TYPE_QUADROTOR
+                payload.put(5, (byte) 3);             // MAV_AUTOPILOT_ARDUPILOTMEGA
+                payload.put(6, (byte) 0x81);          // armed, custom mode
+                payload.put(7, (byte) 4);             // MAV_STATE_ACTIVE
+                payload.put(8, (byte) 3);
+                yield 9;
+            }
+            case MavlinkMessages.SYS_STATUS -> {
+                // sensors present/enabled/health u32 @0/4/8, load u16 @12, voltage_battery u16 @14,
+                // current_battery i16 @16, battery_remaining i8 @30
+                payload.putInt(0, 0x0020FC2F);
+                payload.putInt(4, 0x0020FC2F);
+                payload.putInt(8, 0x0020FC2F);
+                payload.putShort(12, (short) 250);
+                payload.putShort(14, (short) (12600 - 2000 * used));
+                payload.putShort(16, (short) 1500);
+                payload.put(30, (byte) Math.round(100 * (1 - used)));
+                yield 31;
+            }
+            case MavlinkMessages.GPS_RAW_INT -> {
+                // time_usec u64 @0, lat i32 @8, lon i32 @12, alt i32 @16, eph u16 @20, epv u16 @22,
+                // vel u16 @24, cog u16 @26, fix_type u8 @28, satellites_visible u8 @29
+                // Stamped now rather than at the loop's start, so a long burst does not count as latency
+                payload.putLong(0, (System.nanoTime() - bootNanos) / 1000);
+                payload.putInt(8, lat);
+                payload.putInt(12, lon);
+                payload.putInt(16, (int) ((HOME_ALT_M + altitude) * 1000));
+                payload.putShort(20, (short) 80);
+                payload.putShort(22, (short) 120);
+                payload.putShort(24, (short) (SPEED_M_S * 100));
+                payload.putShort(26, (short) (Math.toDegrees(heading) * 100));
+                payload.put(28, (byte) 3);
+                payload.put(29, (byte) 14);
+                yield 30;
+            }
+            case MavlinkMessages.ATTITUDE -> {
+                // time_boot_ms u32 @0, roll/pitch/yaw f32 @4/8/12, rollspeed/pitchspeed/yawspeed f32 @16/20/24
+                payload.putInt(0, (int) (micros / 1000));
+                payload.putFloat(4, (float) Math.atan(SPEED_M_S * SPEED_M_S / (radius * 9.81)));
+                payload.putFloat(8, (float) (0.05 * Math.sin(t)));
+                payload.putFloat(12, (float) (heading > Math.PI ? heading - 2 * Math.PI : heading));
+                payload.putFloat(20, (float) (0.05 * Math.cos(t)));
+                payload.putFloat(24, (float) (SPEED_M_S / radius));
+                yield 28;
+            }
+            case MavlinkMessages.GLOBAL_POSITION_INT -> {
+                // time_boot_ms u32 @0, lat i32 @4, lon i32 @8, alt i32 @12, relative_alt i32 @16,
+                // vx/vy/vz i16 @20/22/24, hdg u16 @26
+                payload.putInt(0, (int) (micros / 1000));
+                payload.putInt(4, lat);
+                payload.putInt(8, lon);
+                payload.putInt(12, (int) ((HOME_ALT_M + altitude) * 1000));
+                payload.putInt(16, (int) (altitude * 1000));
+                payload.putShort(20, (short) (-SPEED_M_S * Math.sin(angle) * 100));
+                payload.putShort(22, (short) (SPEED_M_S * Math.cos(angle) * 100));
+                payload.putShort(24, (short) (-climb * 100));
+                payload.putShort(26, (short) (Math.toDegrees(heading) * 100));
+                yield 28;
+            }
+            case MavlinkMessages.VFR_HUD -> {
+                // airspeed f32 @0, groundspeed f32 @4, alt f32 @8, climb f32 @12, heading i16 @16, throttle u16 @18
+                payload.putFloat(0, (float) SPEED_M_S);
+                payload.putFloat(4, (float) SPEED_M_S);
+                payload.putFloat(8, (float) altitude);
+                payload.putFloat(12, (float) climb);
+                payload.putShort(16, (short) Math.toDegrees(heading));
+                payload.putShort(18, (short) 45);
+                yield 20;
+            }
+            case MavlinkMessages.BATTERY_STATUS -> {
+                // current_consumed i32 @0, energy_consumed i32 @4, temperature i16 @8, voltages u16[10] @10,
+                // current_battery i16 @30, id u8 @32, battery_function u8 @33, type u8 @34, battery_remaining i8 @35
+                payload.putInt(0, (int) (5200 * used));
+                payload.putInt(4, -1);
+                payload.putShort(8, Short.MAX_VALUE);
+                payload.putShort(10, (short) (12600 - 2000 * used));
+                for (int cell = 1; cell < 10; cell++) {
+                    payload.putShort(10 + 2 * cell, (short) 0xFFFF);
+                }
+                payload.putShort(30, (short) 1500);
+                payload.put(34, (byte) 1);            // MAV_BATTERY_TYPE_LIPO
+                payload.put(35, (byte) Math.round(100 * (1 - used)));
+                yield 36;
+            }
+            case MavlinkMessages.MISSION_CURRENT -> {
+                // seq u16 @0
+                payload.putShort(0, (short) (1 + (int) (t / 30) % 10));
+                yield 2;
+            }
+            case MavlinkMessages.VIBRATION -> {
+                // time_usec u64 @0, vibration_x/y/z f32 @8/12/16, clipping_0..2 u32 @20/24/28
+                payload.putLong(0, micros);
+                payload.putFloat(8, (float) (5 + Math.sin(3 * t)));
+                payload.putFloat(12, (float) (5 + Math.cos(3 * t)));
+                payload.putFloat(16, (float) (8 + Math.sin(5 * t)));
+                yield 32;
+            }
+            case MavlinkMessages.HOME_POSITION -> {
+                // lat i32 @0, lon i32 @4, alt i32 @8, x/y/z f32 @12/16/20, q f32[4] @24, approach_x/y/z f32 @40/44/48
+                payload.putInt(0, (int) Math.round(HOME_LAT * 1e7));
+                payload.putInt(4, (int) Math.round(HOME_LON * 1e7));
+                payload.putInt(8, (int) (HOME_ALT_M * 1000));
+                payload.putFloat(24, 1);
+                yield 52;
+            }
+            default -> throw new IllegalArgumentException("Not simulated: " + MavlinkMessages.name(messageId));
+        };
+        finish(vehicle, messageId, length);
+    }
+
+    private void clearPayload() {
+        Arrays.fill(frame, HEADER, HEADER + MAX_PAYLOAD, (byte) 0);
+    }
+
+    // Header, checksum and send; the payload is already in place
+    private void finish(Simulated vehicle, int messageId, int length) throws IOException {
+        frame[0] = (byte) MavlinkFrame.MAGIC_V2;
+        frame[1] = (byte) length;
+        frame[2] = 0;  // incompat_flags
+        frame[3] = 0;  // compat_flags
+        frame[4] = (byte) vehicle.sequence++;
+        frame[5] = (byte) vehicle.systemId;
+        frame[6] = (byte) COMPONENT_ID;
+        frame[7] = (byte) messageId;
+        frame[8] = (byte) (messageId >>> 8);
+        frame[9] = (byte) (messageId >>> 16);
+        int crc = MavlinkCrc.frameCrc(frame, 0, HEADER + length, MavlinkMessages.crcExtra(messageId));
+        frame[HEADER + length] = (byte) crc;
+        frame[HEADER + length + 1] = (byte) (crc >>> 8);
+        link.send(frame, HEADER + length + 2);
+        framesSent++;
+    }
+
+    // A few real ArduPilot names, the RC calibration block, then filler up to PARAMETERS
+    private static String[] parameterNames() {
+        List<String> names = new ArrayList<>(List.of("SYSID_THISMAV", "SYSID_MYGCS", "BATT_CAPACITY",
+                "BATT_LOW_VOLT", "WPNAV_SPEED", "RTL_ALT", "FENCE_ENABLE", "ARMING_CHECK"));
+        for (int rc = 1; rc <= 16; rc++) {
+            names.add("RC" + rc + "_MIN");
+            names.add("RC" + rc + "_MAX");
+            names.add("RC" + rc + "_TRIM");
+        }
+        while (names.size() < PARAMETERS) {
+            names.add(String.format("SIM_P%04d", names.size()));
+        }
+        return names.toArray(new String[0]);
+    }
+
+    private static float defaultValue(String name, int index, int systemId) {
+        return switch (name) {
+            case "SYSID_THISMAV" -> systemId;
+            case "SYSID_MYGCS" -> StreamRateController.GCS_SYSTEM_ID;
+            case "BATT_CAPACITY" -> 5200;
+            case "BATT_LOW_VOLT" -> 10.5f;
+            case "WPNAV_SPEED" -> 1000;
+            case "RTL_ALT" -> 1500;
+            case "FENCE_ENABLE" -> 0;
+            case "ARMING_CHECK" -> 1;
+            default -> name.endsWith("_MIN") ? 1100 : name.endsWith("_MAX") ? 1900 : name.endsWith("_TRIM") ? 1500
+                    : index * 0.5f;
+        };
+    }
+
+    // Where the simulator's clock started; GPS_RAW_INT.time_usec counts from here
+    public long bootNanos() {
+        return bootNanos;
+    }
+
+    public long framesSent() {
+        return framesSent;
+    }
+
+    // Frames addressed to a vehicle: commands and parameter requests
+    public long commandsReceived() {
+        return commandsReceived;
+    }
+
+    public int vehicles() {
+        return vehicles.length;
+    }
+
+    public int port() {
+        return link.port();
+    }
+
+    public String describe() {
+        return vehicles.length + " simulated vehicle(s), " + link.describe();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            link.close();
+        } catch (IOException e) {
+            // Closing anyway
+        }
+        Thread current = thread;
+        if (current != null) {
+            try {
+                current.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        boolean tcp = args.length > 0 && args[0].equalsIgnoreCase("tcp");
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : tcp ? DEFAULT_TCP_PORT : UdpTransport.GCS_PORT;
+        int vehicles = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        double rateScale = args.length > 3 ? Double.parseDouble(args[3]) : 1;
+
+        AutopilotSimulator simulator = tcp
+                ? tcp(port, vehicles, rateScale, System.out::println)
+                : udp("127.0.0.1", port, vehicles, rateScale, System.out::println);
+        Runtime.getRuntime().addShutdownHook(new Thread(simulator::close, "autopilot-sim-shutdown"));
+        simulator.start();
+        System.out.println("Simulating " + simulator.describe());
+        long lastSent = 0;
+        long lastCommands = 0;
+        while (true) {
+            Thread.sleep(1000);
+            long sent = simulator.framesSent();
+            long commands = simulator.commandsReceived();
+            if (sent != lastSent || commands != lastCommands) {
+                System.out.printf("%,d frames/s, %d commands%n", sent - lastSent, commands - lastCommands);
+            }
+            lastSent = sent;
+            lastCommands = commands;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.satelliteapplication;
+
+// Battery voltage and remaining charge from SYS_STATUS
+public class BatteryModule implements TelemetryModule {
+
+    private final TelemetryState state;
+
+    public BatteryModule(TelemetryState state) {
+        this.state = state;
+    }
+
+    @Override
+    public void register(MessageDispatcher dispatcher) {
+        dispatcher.subscribe(MavlinkMessages.SYS_STATUS, this::onSysStatus);
+    }
+
+    private void onSysStatus(MavlinkFrame frame) {
+        // voltage_battery u16 @14 (mV), battery_remaining i8 @30 (%, -1 unknown)
+        state.updateBattery(frame.u16(14), frame.i8(30));
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.satelliteapplication;
+
+// Position, altitude and ground speed from GPS_RAW_INT, GLOBAL_POSITION_INT and VFR_HUD.
+// Altitude is above home (relative_alt); VFR_HUD's alt (MSL on ArduPilot) only stands in for
+// a vehicle that never sends GLOBAL_POSITION_INT, so the altitude series keeps one datum.
+public class GpsModule implements TelemetryModule {
+
+    private final TelemetryState state;
+    private boolean relativeAltitude;  // telemetry thread only
+
+    public GpsModule(TelemetryState state) {
+        this.state = state;
+    }
+
+    @Override
+    public void register(MessageDispatcher dispatcher) {
+        dispatcher.subscribe(MavlinkMessages.GPS_RAW_INT, this::onGpsRawInt);
+        dispatcher.subscribe(MavlinkMessages.GLOBAL_POSITION_INT, this::onGlobalPositionInt);
+        dispatcher.subscribe(MavlinkMessages.VFR_HUD, this::onVfrHud);
+    }
+
+    private void onGpsRawInt(MavlinkFrame frame) {
+        // lat i32 @8, lon i32 @12, fix_type u8 @28, satellites_visible u8 @29
+        state.updateGps(frame.i32(8), frame.i32(12), frame.u8(28), frame.u8(29));
+    }
+
+    private void onGlobalPositionInt(MavlinkFrame frame) {
+        // relative_alt i32 @16, millimeters
+        relativeAltitude = true;
+        state.updateAltitude(frame.i32(16) / 1000f);
+    }
+
+    private void onVfrHud(MavlinkFrame frame) {
+        // groundspeed f32 @4, alt f32 @8
+        state.updateGroundSpeed(frame.f32(4));
+        float alt = frame.f32(8);
+        if (!relativeAltitude && alt > 0) {
+            state.updateAltitude(alt);
+        }
+    }
+}
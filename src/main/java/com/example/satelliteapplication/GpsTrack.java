@@ -0,0 +1,236 @@
+package com.example.satelliteapplication;
+
+import java.util.Arrays;
+
+/**
+ * A vehicle's flight track, simplified as it grows. Positions are kept as Web Mercator
+ * coordinates normalized to [0, 1] (what the map draws in), in parallel double arrays.
+ *
+ * Each new position is dropped if it lies within the tolerance of the previous one; the rest
+ * collect in a short pending run that starts at the last committed vertex. When the run is
+ * full it is reduced with Douglas-Peucker and its surviving points are committed, so the
+ * work per point stays constant however long the flight. When the committed track reaches
+ * the vertex cap it is thinned: the tolerance doubles and the committed vertices are simplified again, so a day of flying
+ * stays within {@value #DEFAULT_MAX_VERTICES} vertices at the cost of detail.
+ *
+ * Written by the vehicle's telemetry thread; the map copies it with {@link #copyTo} only
+ * when {@link #version} has moved.
+ */
+public class GpsTrack {
+
+    public static final int DEFAULT_MAX_VERTICES = 100_000;
+
+    private static final double EARTH_CIRCUMFERENCE_METERS = 40_075_016.686;
+    private static final double INITIAL_TOLERANCE_METERS = 0.5;
+    private static final int PENDING = 128;
+
+    private final int maxVertices;
+
+    // Guarded by this
+    private double[] xs = new double[1024];
+    private double[] ys = new double[1024];
+    private int size;
+    private final double[] pendingX = new double[PENDING];
+    private final double[] pendingY = new double[PENDING];
+    private int pendingSize;
+    private double tolerance = -1;  // in normalized units, converted at the first position's latitude
+    private double toleranceMeters = INITIAL_TOLERANCE_METERS;
+    private long rawPoints;
+    private boolean[] keep = new boolean[PENDING];
+    private int[] stack = new int[64];
+
+    private volatile long version;
+
+    public GpsTrack(int maxVertices) {
+        this.maxVertices = maxVertices;
+    }
+
+    public GpsTrack() {
+        this(DEFAULT_MAX_VERTICES);
+    }
+
+    public static double mercatorX(double longitude) {
+        return (longitude + 180) / 360;
+    }
+
+    public static double mercatorY(double latitude) {
+        double radians = Math.toRadians(Math.max(-85.05112878, Math.min(85.05112878, latitude)));
+        return (1 - Math.log(Math.tan(radians) + 1 / Math.cos(radians)) / Math.PI) / 2;
+    }
+
+    public synchronized void add(int latitudeE7, int longitudeE7) {
+        double latitude = latitudeE7 / 1e7;
+        double x = mercatorX(longitudeE7 / 1e7);
+        double y = mercatorY(latitude);
+        rawPoints++;
+        if (tolerance < 0) {
+            tolerance = INITIAL_TOLERANCE_METERS / (EARTH_CIRCUMFERENCE_METERS * Math.cos(Math.toRadians(latitude)));
+            append(x, y);
+            pendingX[0] = x;
+            pendingY[0] = y;
+            pendingSize = 1;
+            version++;
+            return;
+        }
+        double dx = x - pendingX[pendingSize - 1];
+        double dy = y - pendingY[pendingSize - 1];
+        if (dx * dx + dy * dy < tolerance * tolerance) {
+            return;
+        }
+        pendingX[pendingSize] = x;
+        pendingY[pendingSize] = y;
+        pendingSize++;
+        if (pendingSize == PENDING) {
+            commitPending();
+        }
+        version++;
+    }
+
+    // Simplifies the pending run and commits its survivors; the last one starts the next run
+    private void commitPending() {
+        simplify(pendingX, pendingY, pendingSize, tolerance);
+        for (int i = 1; i < pendingSize; i++) {
+            if (keep[i]) {
+                append(pendingX[i], pendingY[i]);
+            }
+        }
+        pendingX[0] = pendingX[pendingSize - 1];
+        pendingY[0] = pendingY[pendingSize - 1];
+        pendingSize = 1;
+        while (size > maxVertices) {
+            thin();
+        }
+    }
+
+    private void append(double x, double y) {
+        if (size == xs.length) {
+            xs = Arrays.copyOf(xs, size * 2);
+            ys = Arrays.copyOf(ys, size * 2);
+        }
+        xs[size] = x;
+        ys[size] = y;
+        size++;
+    }
+
+    // Doubles the tolerance and simplifies the committed track again, in place
+    private void thin() {
+        tolerance *= 2;
+        toleranceMeters *= 2;
+        simplify(xs, ys, size, tolerance);
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (keep[i]) {
+                xs[kept] = xs[i];
+                ys[kept] = ys[i];
+                kept++;
+            }
+        }
+        size = kept;
+    }
+
+    // Douglas-Peucker over x/y[0 .. count), marking survivors in keep; iterative, so the call stack stays flat
+    private void simplify(double[] x, double[] y, int count, double epsilon) {
+        if (keep.length < count) {
+            keep = new boolean[count];
+        }
+        Arrays.fill(keep, 0, count, false);
+        keep[0] = true;
+        keep[count - 1] = true;
+        int top = 0;
+        stack = push(stack, top, 0, count - 1);
+        top += 2;
+        double epsilonSquared = epsilon * epsilon;
+        while (top > 0) {
+            int last = stack[--top];
+            int first = stack[--top];
+            double ax = x[first];
+            double ay = y[first];
+            double bx = x[last] - ax;
+            double by = y[last] - ay;
+            double lengthSquared = bx * bx + by * by;
+            double farthest = -1;
+            int index = -1;
+            for (int i = first + 1; i < last; i++) {
+                double px = x[i] - ax;
+                double py = y[i] - ay;
+                double distanceSquared;
+                if (lengthSquared == 0) {
+                    distanceSquared = px * px + py * py;
+                } else {
+                    double cross = px * by - py * bx;
+                    distanceSquared = cross * cross / lengthSquared;
+                }
+                if (distanceSquared > farthest) {
+                    farthest = distanceSquared;
+                    index = i;
+                }
+            }
+            if (index >= 0 && farthest > epsilonSquared) {
+                keep[index] = true;
+                stack = push(stack, top, first, index);
+                top += 2;
+                stack = push(stack, top, index, last);
+                top += 2;
+            }
+        }
+    }
+
+    private static int[] push(int[] stack, int top, int first, int last) {
+        if (top + 2 > stack.length) {
+            stack = Arrays.copyOf(stack, stack.length * 2);
+        }
+        stack[top] = first;
+        stack[top + 1] = last;
+        return stack;
+    }
+
+    /** A reader's copy of the track: committed vertices followed by the pending run. */
+    public static final class Snapshot {
+        private double[] xs = new double[0];
+        private double[] ys = new double[0];
+        private int size;
+        private long version = -1;
+
+        public int size() { return size; }
+        public double x(int i) { return xs[i]; }
+        public double y(int i) { return ys[i]; }
+        public long version() { return version; }
+
+        // Forget the copy, e.g. before reading a different track
+        public void reset() {
+            size = 0;
+            version = -1;
+        }
+    }
+
+    // Copies the track into the snapshot unless it is already current; returns whether it changed
+    public synchronized boolean copyTo(Snapshot snapshot) {
+        if (snapshot.version == version) {
+            return false;
+        }
+        int total = size + Math.max(0, pendingSize - 1);
+        if (snapshot.xs.length < total) {
+            snapshot.xs = new double[Math.max(total, snapshot.xs.length * 2)];
+            snapshot.ys = new double[snapshot.xs.length];
+        }
+        System.arraycopy(xs, 0, snapshot.xs, 0, size);
+        System.arraycopy(ys, 0, snapshot.ys, 0, size);
+        // pending[0] is the last committed vertex
+        if (pendingSize > 1) {
+            System.arraycopy(pendingX, 1, snapshot.xs, size, pendingSize - 1);
+            System.arraycopy(pendingY, 1, snapshot.ys, size, pendingSize - 1);
+        }
+        snapshot.size = total;
+        snapshot.version = version;
+        return true;
+    }
+
+    public long version() { return version; }
+    public synchronized int vertices() { return size + Math.max(0, pendingSize - 1); }
+    public synchronized long rawPoints() { return rawPoints; }
+
+    // Current simplification tolerance in meters, at the track's starting latitude
+    public synchronized double toleranceMeters() {
+        return toleranceMeters;
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.satelliteapplication;
+
+import io.dronefleet.mavlink.MavlinkConnection;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ground station without JavaFX, to run as a service next to the radio. Decodes the
+ * link once, through the same pipeline, vehicle registry, stream controllers and link
+ * metrics as the desktop application, and serves the telemetry to any number of local
+ * clients through a {@link TelemetryServer}. Link metrics are exported over JMX as usual.
+ *
+ * Usage: HeadlessGroundStation [link] [tcpPort] [webSocketPort] [rateHz]
+ *   link: a {@link MavlinkTransport} spec, "auto" (the default) to detect the serial port
+ *   ports: 0 disables that listener; both listen on localhost only
+ */
+public class HeadlessGroundStation implements AutoCloseable {
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final int STATUS_INTERVAL_SECONDS = 10;
+
+    private final MavlinkTransport transport;
+    private final MavlinkConnection connection;
+    private final LinkMetrics linkMetrics = new LinkMetrics();
+    private final List<StreamRateController> streamControllers = new CopyOnWriteArrayList<>();
+    private final List<ParameterSync> parameterSyncs = new CopyOnWriteArrayList<>();
+    private final ParameterCache parameterCache = ParameterCache.defaultCache();
+    private final AlertRules alertRules;
+    private final VehicleRegistry registry;
+    private final MavlinkPipeline pipeline;
+    private final TelemetryServer server;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "headless-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    public HeadlessGroundStation(MavlinkTransport transport, int tcpPort, int webSocketPort,
+                                 double rateHz) throws IOException {
+        // Unattended, so a bumped cable or radio brown-out must not end the service
+        this.transport = LinkSupervisor.supports(transport) ? new LinkSupervisor(transport, new LinkSupervisor.Listener() {
+            @Override
+            public void onLinkLost(String reason) {
+                log("Link lost (" + reason + "), waiting for it to come back");
+            }
+
+            @Override
+            public void onLinkRestored(String describe, long outageMillis, long reopenMillis) {
+                linkMetrics.recordReconnect(outageMillis, reopenMillis);
+                log("Reconnected to " + describe + " after " + outageMillis + " ms");
+            }
+        }) : transport;
+        // Only used to send; incoming frames go through the pipeline
+        this.connection = MavlinkConnection.create(InputStream.nullInputStream(), this.transport.outputStream());
+        this.alertRules = AlertRules.userOrDefaults(this::log);
+        this.registry = new VehicleRegistry(this::setUpVehicle,
+                vehicle -> log("Discovered vehicle " + vehicle));
+
+        this.pipeline = new MavlinkPipeline(this.transport, MavlinkPipeline.OverflowPolicy.DROP, new MavlinkPipeline.Listener() {
+            @Override
+            public void onReadTimeout(int consecutiveTimeouts) {
+                if (consecutiveTimeouts == 5) {
+                    log("No MAVLink data from " + transport.describe() + " yet");
+                }
+            }
+
+            @Override
+            public void onStreamEnded(IOException error) {
+                log("Link ended" + (error == null ? "" : ": " + error.getMessage()));
+                stopped.countDown();
+            }
+        });
+        pipeline.addConsumer("telemetry", 1 << 16, MavlinkPipeline.OverflowPolicy.DROP, registry);
+        linkMetrics.reset(pipeline);
+        pipeline.addConsumer("metrics", 1 << 16, MavlinkPipeline.OverflowPolicy.DROP, linkMetrics);
+
+        this.server = new TelemetryServer(registry,
+                tcpPort > 0 ? new InetSocketAddress("127.0.0.1", tcpPort) : null,
+                webSocketPort > 0 ? new InetSocketAddress("127.0.0.1", webSocketPort) : null,
+                rateHz, this::log);
+    }
+
+    // Called on the telemetry thread before the vehicle's first frame is dispatched
+    private void setUpVehicle(Vehicle vehicle) {
+        for (TelemetryModule module : TelemetryModule.standard(vehicle.state())) {
+            vehicle.dispatcher().install(module);
+        }
+        String prefix = "SYS " + vehicle.systemId() + ": ";
+        vehicle.dispatcher().install(new AlertModule(alertRules, (rule, severity, active, value) ->
+                log(prefix + (active ? "ALERT " + severity + " " + rule : "Cleared " + rule)
+                        + String.format(" (%.2f)", value))));
+        ParameterSync sync = new ParameterSync(vehicle, this::sendToVehicle, parameterCache,
+                message -> log(prefix + message));
+        vehicle.dispatcher().install(sync);
+        parameterSyncs.add(sync);
+        scheduler.execute(() -> sync.start(true));
+
+        double capacity = StreamRateController.linkCapacity(transport);
+        StreamRateController controller = new StreamRateController(vehicle, this::sendToVehicle, scheduler,
+                linkMetrics, () -> capacity, this::log).withStandardStreams();
+        vehicle.dispatcher().install(controller);
+        streamControllers.add(controller);
+    }
+
+    private void sendToVehicle(Object message) throws IOException {
+        connection.send1(StreamRateController.GCS_SYSTEM_ID, 0, message);
+    }
+
+    public void start() {
+        linkMetrics.registerMBean();
+        pipeline.start();
+        server.start();
+        scheduler.scheduleAtFixedRate(linkMetrics::sample, 1, 1, TimeUnit.SECONDS);
+        scheduler.scheduleAtFixedRate(() -> {
+            for (StreamRateController controller : streamControllers) {
+                controller.tick();
+            }
+        }, 1, 1, TimeUnit.SECONDS);
+        scheduler.scheduleAtFixedRate(() -> {
+            for (ParameterSync sync : parameterSyncs) {
+                sync.tick();
+            }
+        }, 100, 100, TimeUnit.MILLISECONDS);
+        scheduler.scheduleAtFixedRate(
+                () -> log(linkMetrics.summary() + " | " + registry.size() + " vehicles | " + server.summary()),
+                STATUS_INTERVAL_SECONDS, STATUS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    // Blocks until the link ends
+    public void awaitStop() throws InterruptedException {
+        stopped.await();
+    }
+
+    public TelemetryServer server() {
+        return server;
+    }
+
+    public VehicleRegistry registry() {
+        return registry;
+    }
+
+    private void log(String message) {
+        System.out.println(LocalTime.now().format(TIME) + " " + message);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        server.close();
+        pipeline.close();
+        try {
+            transport.close();
+        } catch (IOException e) {
+            log("Failed to close " + transport.describe() + ": " + e.getMessage());
+        }
+        stopped.countDown();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String link = args.length > 0 ? args[0] : "auto";
+        int tcpPort = args.length > 1 ? Integer.parseInt(args[1]) : TelemetryServer.DEFAULT_TCP_PORT;
+        int webSocketPort = args.length > 2 ? Integer.parseInt(args[2]) : TelemetryServer.DEFAULT_WEBSOCKET_PORT;
+        double rateHz = args.length > 3 ? Double.parseDouble(args[3]) : TelemetryServer.DEFAULT_RATE_HZ;
+
+        MavlinkTransport transport = MavlinkTransport.open(link);
+        HeadlessGroundStation station = new HeadlessGroundStation(transport, tcpPort, webSocketPort, rateHz);
+        Runtime.getRuntime().addShutdownHook(new Thread(station::close, "headless-shutdown"));
+        station.start();
+        station.log("Receiving from " + transport.describe() + "; serving telemetry on" +
+                (tcpPort > 0 ? " tcp://127.0.0.1:" + tcpPort : "") +
+                (webSocketPort > 0 ? " ws://127.0.0.1:" + webSocketPort : "") +
+                " at " + rateHz + " Hz per client");
+        station.awaitStop();
+        station.close();
+    }
+}
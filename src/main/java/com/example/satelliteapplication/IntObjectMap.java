@@ -0,0 +1,108 @@
+package com.example.satelliteapplication;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from int keys to objects. Keys are stored unboxed in an int[]
+ * and probed linearly, so a lookup is a multiply, a shift and usually one array read, with
+ * no allocation. Not thread-safe: keep each instance on one thread, or guard it.
+ */
+public class IntObjectMap<V> {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private Object[] values;  // null marks a free slot
+    private int size;
+    private int mask;
+    private int shift;
+
+    public IntObjectMap() {
+        this(16);
+    }
+
+    public IntObjectMap(int expectedSize) {
+        allocate(Math.max(4, Integer.highestOneBit(Math.max(1, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1));
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        shift = 32 - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    // Fibonacci hashing spreads the dense, low-entropy keys (packed IDs) across the table
+    private int slot(int key) {
+        return (key * 0x9E3779B9) >>> shift;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int i = slot(key);
+        Object value;
+        while ((value = values[i]) != null) {
+            if (keys[i] == key) {
+                return (V) value;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /** Associates a non-null value with the key; returns the previous value, if any. */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new NullPointerException("null values are not supported");
+        }
+        int i = slot(key);
+        Object existing;
+        while ((existing = values[i]) != null) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return (V) existing;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > values.length * LOAD_FACTOR) {
+            rehash(values.length << 1);
+        }
+        return null;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int j = 0; j < oldValues.length; j++) {
+            if (oldValues[j] != null) {
+                int i = slot(oldKeys[j]);
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+}
@@ -1,8 +1,8 @@
 package com.example.satelliteapplication;
 
 import com.fazecast.jSerialComm.SerialPort;
-import java.io.IOException;
-import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
 
 public class LR900Diagnostic {
@@ -24,91 +24,38 @@ public class LR900Diagnostic {
             return;
         }
 
-        // Select port
+        // Select port; all of them are probed in parallel, so testing every port costs no extra time
         Scanner scanner = new Scanner(System.in);
-        System.out.print("Select port (1-" + ports.length + "): ");
-        int selection = scanner.nextInt() - 1;
-
-        if (selection < 0 || selection >= ports.length) {
-            System.out.println("Invalid selection!");
-            return;
-        }
-
-        SerialPort selectedPort = ports[selection];
-        System.out.println("Selected: " + selectedPort.getSystemPortName());
-
-        // Test different baud rates
-        int[] baudRates = {9600, 19200, 38400, 57600, 115200};
-
-        for (int baudRate : baudRates) {
-            System.out.println("\nTesting baud rate: " + baudRate);
-            testBaudRate(selectedPort, baudRate);
-        }
-
+        System.out.print("Select port (1-" + ports.length + ", 0 for all): ");
+        int selection = scanner.nextInt();
         scanner.close();
-    }
 
-    private static void testBaudRate(SerialPort port, int baudRate) {
-        // Configure port
-        port.setBaudRate(baudRate);
-        port.setNumDataBits(8);
-        port.setNumStopBits(1);
-        port.setParity(SerialPort.NO_PARITY);
-        port.setComPortTimeouts(SerialPort.TIMEOUT_READ_SEMI_BLOCKING, 2000, 1000);
-
-        if (!port.openPort()) {
-            System.out.println("  Failed to open port");
+        if (selection < 0 || selection > ports.length) {
+            System.out.println("Invalid selection!");
             return;
         }
 
-        try {
-            InputStream is = port.getInputStream();
-            byte[] buffer = new byte[1024];
-            int bytesRead = 0;
-            int totalBytes = 0;
-            long startTime = System.currentTimeMillis();
+        List<SerialPort> selected = selection == 0 ? Arrays.asList(ports) : List.of(ports[selection - 1]);
+        System.out.println("Probing " + selected.size() + " port(s) at " +
+                Arrays.toString(PortDiscovery.DEFAULT_BAUD_RATES) + " baud...");
 
-            System.out.println("  Listening for 5 seconds...");
+        long start = System.nanoTime();
+        List<PortDiscovery.PortReport> reports = new PortDiscovery().probeAll(selected);
+        long millis = (System.nanoTime() - start) / 1_000_000;
 
-            while (System.currentTimeMillis() - startTime < 5000) {
-                bytesRead = is.available();
-                if (bytesRead > 0) {
-                    bytesRead = is.read(buffer, 0, Math.min(bytesRead, buffer.length));
-                    if (bytesRead > 0) {
-                        totalBytes += bytesRead;
-                        System.out.print("  Data received: ");
-                        for (int i = 0; i < Math.min(bytesRead, 20); i++) {
-                            System.out.printf("%02X ", buffer[i] & 0xFF);
-                        }
-                        if (bytesRead > 20) {
-                            System.out.print("...");
-                        }
-                        System.out.println();
-
-                        // Check for MAVLink magic bytes
-                        for (int i = 0; i < bytesRead; i++) {
-                            if ((buffer[i] & 0xFF) == 0xFE || (buffer[i] & 0xFF) == 0xFD) {
-                                System.out.println("  *** MAVLink magic byte detected! ***");
-                            }
-                        }
-                    }
-                }
-                try {
-                    Thread.sleep(100);
-                } catch (InterruptedException e) {
-                    break;
-                }
+        for (PortDiscovery.PortReport report : reports) {
+            System.out.println("\n" + report.port().getSystemPortName() + ": " + report.summary());
+            for (PortDiscovery.Attempt attempt : report.attempts()) {
+                System.out.printf("  %7d baud: %-8s %6d bytes, %3d CRC errors, %5d ms%n",
+                        attempt.baudRate(), attempt.verdict(), attempt.bytes(), attempt.crcErrors(), attempt.millis());
             }
-
-            System.out.println("  Total bytes received: " + totalBytes);
-            if (totalBytes > 0) {
-                System.out.println("  *** This baud rate is receiving data! ***");
+            PortDiscovery.Result result = report.result();
+            if (result != null) {
+                System.out.println("  *** CRC-valid MAVLink frame: " + MavlinkMessages.name(result.messageId()) +
+                        " from SYS " + result.systemId() + " / COMP " + result.componentId() +
+                        " after " + result.elapsedMillis() + " ms ***");
             }
-
-        } catch (IOException e) {
-            System.out.println("  Error: " + e.getMessage());
-        } finally {
-            port.closePort();
         }
+        System.out.println("\nDone in " + millis + " ms");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,389 @@
+package com.example.satelliteapplication;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Link quality and throughput: bytes and frames per second, frames per message ID with a
+ * histogram of inter-arrival times, CRC failures, and frames lost per source, counted from
+ * gaps in the MAVLink sequence number.
+ *
+ * {@link #onFrame} runs on one pipeline consumer thread, off the link reader, and only touches
+ * {@link LongAdder}s, histograms and state owned by that thread, so it never contends with
+ * readers. Totals are summed from the per-message and per-source counters when read rather
+ * than counted a second time per frame. Everything
+ * else (the stats panel, JMX, {@link #sample}) may run on any thread and sees values that are
+ * at most one frame stale.
+ */
+public class LinkMetrics implements MavlinkFrameParser.FrameHandler, LinkMetricsMXBean {
+
+    public static final String OBJECT_NAME = "com.example.satelliteapplication:type=LinkMetrics";
+
+    /** Counters for one message ID. */
+    public static final class MessageStats {
+        private final int messageId;
+        private final String name;
+        private final LongAdder count = new LongAdder();
+        private final LogHistogram intervalMicros = new LogHistogram();
+        private long lastArrivalNanos;  // consumer thread
+        private long sampledCount;      // sampler
+        private volatile double rate;
+
+        MessageStats(int messageId) {
+            this.messageId = messageId;
+            this.name = MavlinkMessages.name(messageId);
+        }
+
+        public int messageId() { return messageId; }
+        public String name() { return name; }
+        public long count() { return count.sum(); }
+        public double rate() { return rate; }
+        public LogHistogram intervalMicros() { return intervalMicros; }
+    }
+
+    /** Sequence tracking for one (system ID, component ID) sender. */
+    public static final class SourceStats {
+        private final int systemId;
+        private final int componentId;
+        private final LongAdder received = new LongAdder();
+        private final LongAdder lost = new LongAdder();
+        private int lastSequence = -1;  // consumer thread
+        private int sequenceEpoch;      // consumer thread
+
+        SourceStats(int systemId, int componentId) {
+            this.systemId = systemId;
+            this.componentId = componentId;
+        }
+
+        public int systemId() { return systemId; }
+        public int componentId() { return componentId; }
+        public long received() { return received.sum(); }
+        public long lost() { return lost.sum(); }
+
+        public double lossPercent() {
+            long lostFrames = lost();
+            long total = received() + lostFrames;
+            return total == 0 ? 0 : lostFrames * 100.0 / total;
+        }
+    }
+
+    // Frames up to this far behind the last one are duplicates or late, not a wrap after a long fade
+    private static final int REORDER_WINDOW = 8;
+
+    // Owned by the consumer thread; readers go through the published snapshots
+    private final MessageStats[] byId = new MessageStats[MavlinkMessages.maxId() + 1];
+    private final IntObjectMap<SourceStats> sourcesByKey = new IntObjectMap<>();
+    private volatile MessageStats[] messages = new MessageStats[0];
+    private volatile SourceStats[] sources = new SourceStats[0];
+
+    // Raw byte count and CRC failures come from the pipeline feeding this instance
+    private volatile MavlinkPipeline pipeline;
+
+    // Sampler state
+    private long sampledNanos;
+    private long sampledBytes;
+    private long sampledFrames;
+    private volatile double bytesPerSecond;
+    private volatile double framesPerSecond;
+
+    // Outages bridged by a LinkSupervisor, recorded on the reader thread
+    private final LogHistogram outageMillis = new LogHistogram();
+    private volatile long reconnects;
+    private volatile long lastOutageMillis;
+    private volatile long lastReopenMillis;
+    private volatile int sequenceEpoch;
+
+    @Override
+    public void onFrame(MavlinkFrame frame) {
+        long now = frame.receivedNanos();
+        if (now == 0) {
+            now = System.nanoTime();
+        }
+
+        MessageStats message = byId[frame.messageId()];
+        if (message == null) {
+            message = addMessage(frame.messageId());
+        }
+        message.count.increment();
+        if (message.lastArrivalNanos != 0) {
+            message.intervalMicros.record((now - message.lastArrivalNanos) / 1000);
+        }
+        message.lastArrivalNanos = now;
+
+        int key = Vehicle.key(frame.systemId(), frame.componentId());
+        SourceStats source = sourcesByKey.get(key);
+        if (source == null) {
+            source = addSource(frame.systemId(), frame.componentId(), key);
+        }
+        source.received.increment();
+        int sequence = frame.sequence();
+        int epoch = sequenceEpoch;
+        if (source.sequenceEpoch != epoch) {
+            // Frames sent while the link was down were never going to arrive; not loss
+            source.sequenceEpoch = epoch;
+            source.lastSequence = -1;
+        }
+        if (source.lastSequence >= 0) {
+            // The sequence number is a u8 per sender, so a gap wraps at 256
+            int gap = (sequence - source.lastSequence - 1) & 0xFF;
+            if (gap >= 256 - REORDER_WINDOW) {
+                // Just behind the last one: a duplicate or a late frame (two routes, a router's queue), not 255 lost
+                return;
+            }
+            if (gap != 0) {
+                source.lost.add(gap);
+            }
+        }
+        source.lastSequence = sequence;
+    }
+
+    private MessageStats addMessage(int messageId) {
+        MessageStats stats = new MessageStats(messageId);
+        byId[messageId] = stats;
+        MessageStats[] updated = Arrays.copyOf(messages, messages.length + 1);
+        updated[updated.length - 1] = stats;
+        messages = updated;
+        return stats;
+    }
+
+    private SourceStats addSource(int systemId, int componentId, int key) {
+        SourceStats stats = new SourceStats(systemId, componentId);
+        sourcesByKey.put(key, stats);
+        SourceStats[] updated = Arrays.copyOf(sources, sources.length + 1);
+        updated[updated.length - 1] = stats;
+        sources = updated;
+        return stats;
+    }
+
+    /**
+     * Clears all counters and takes byte and CRC counts from the given pipeline. The per-type
+     * and per-source tables belong to the consumer thread, so call this only after the previous
+     * pipeline has been closed (which joins its consumers) and before the new one starts.
+     */
+    public synchronized void reset(MavlinkPipeline source) {
+        MavlinkPipeline previous = pipeline;
+        if (previous != null && previous != source && previous.isRunning()) {
+            throw new IllegalStateException("previous pipeline still delivering");
+        }
+        Arrays.fill(byId, null);
+        sourcesByKey.clear();
+        messages = new MessageStats[0];
+        sources = new SourceStats[0];
+        pipeline = source;
+        sampledNanos = 0;
+        bytesPerSecond = 0;
+        framesPerSecond = 0;
+        outageMillis.reset();
+        reconnects = 0;
+        lastOutageMillis = 0;
+        lastReopenMillis = 0;
+    }
+
+    /** Records a reconnect: how long the link was down, and how long reopening took once the device was back. */
+    public synchronized void recordReconnect(long outage, long reopen) {
+        outageMillis.record(outage);
+        lastOutageMillis = outage;
+        lastReopenMillis = reopen;
+        reconnects++;
+        sequenceEpoch++;
+    }
+
+    /** Updates the per-second rates; call about once a second from one scheduler. */
+    public synchronized void sample() {
+        long now = System.nanoTime();
+        long bytes = getBytesReceived();
+        long frameCount = getFramesReceived();
+        if (sampledNanos != 0) {
+            double seconds = (now - sampledNanos) / 1e9;
+            bytesPerSecond = (bytes - sampledBytes) / seconds;
+            framesPerSecond = (frameCount - sampledFrames) / seconds;
+            for (MessageStats message : messages) {
+                long count = message.count();
+                message.rate = (count - message.sampledCount) / seconds;
+                message.sampledCount = count;
+            }
+        } else {
+            for (MessageStats message : messages) {
+                message.sampledCount = message.count();
+            }
+        }
+        sampledNanos = now;
+        sampledBytes = bytes;
+        sampledFrames = frameCount;
+    }
+
+    public MessageStats[] messages() {
+        return messages.clone();
+    }
+
+    public SourceStats[] sources() {
+        return sources.clone();
+    }
+
+    // One line for a title bar, e.g. "12.3 KB/s · 310 frames/s · 0 CRC errors · 0.4% lost"
+    public String summary() {
+        return String.format("%.1f KB/s · %.0f frames/s · %d CRC errors · %.1f%% lost",
+                bytesPerSecond / 1024, framesPerSecond, getCrcErrors(), getLossPercent());
+    }
+
+    // Fixed-width tables of the per-message and per-source stats, for a monospace label
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-24s %8s %7s %9s %9s %9s%n", "MESSAGE", "COUNT", "RATE", "P50 ms", "P99 ms", "JITTER"));
+        MessageStats[] sorted = messages();
+        Arrays.sort(sorted, (a, b) -> Integer.compare(a.messageId, b.messageId));
+        for (MessageStats message : sorted) {
+            long p50 = message.intervalMicros.percentile(50);
+            long p99 = message.intervalMicros.percentile(99);
+            sb.append(String.format("%-24s %8d %5.1f/s %9.1f %9.1f %9.1f%n", message.name, message.count(),
+                    message.rate, p50 / 1000.0, p99 / 1000.0, (p99 - p50) / 1000.0));
+        }
+        sb.append(String.format("%n%-24s %8s %8s %7s%n", "SOURCE", "RECEIVED", "LOST", "LOSS"));
+        for (SourceStats source : sources) {
+            sb.append(String.format("%-24s %8d %8d %6.1f%%%n", "SYS " + source.systemId + " / COMP " + source.componentId,
+                    source.received(), source.lost(), source.lossPercent()));
+        }
+        if (reconnects > 0) {
+            sb.append(String.format("%nReconnects: %d · last outage %d ms (reopened in %d ms) · p99 outage %d ms%n",
+                    reconnects, lastOutageMillis, lastReopenMillis, outageMillis.percentile(99)));
+        }
+        return sb.toString();
+    }
+
+    public void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+        } catch (InstanceAlreadyExistsException e) {
+            // Registered concurrently by another instance; keep that one
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to register " + OBJECT_NAME, e);
+        }
+    }
+
+    // MXBean
+
+    @Override
+    public long getBytesReceived() {
+        MavlinkPipeline source = pipeline;
+        return source != null ? source.bytesRead() : 0;
+    }
+
+    @Override
+    public double getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    @Override
+    public long getFramesReceived() {
+        long total = 0;
+        for (MessageStats message : messages) {
+            total += message.count();
+        }
+        return total;
+    }
+
+    @Override
+    public double getFramesPerSecond() {
+        return framesPerSecond;
+    }
+
+    @Override
+    public long getCrcErrors() {
+        MavlinkPipeline source = pipeline;
+        return source != null ? source.parser().crcErrors() : 0;
+    }
+
+    @Override
+    public long getBytesDiscarded() {
+        MavlinkPipeline source = pipeline;
+        return source != null ? source.parser().bytesDiscarded() : 0;
+    }
+
+    @Override
+    public long getFramesLost() {
+        long lost = 0;
+        for (SourceStats source : sources) {
+            lost += source.lost();
+        }
+        return lost;
+    }
+
+    @Override
+    public double getLossPercent() {
+        long lost = getFramesLost();
+        long total = getFramesReceived() + lost;
+        return total == 0 ? 0 : lost * 100.0 / total;
+    }
+
+    @Override
+    public Map<String, Long> getMessageCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (MessageStats message : messages) {
+            counts.put(message.name, message.count());
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<String, Double> getMessageRates() {
+        Map<String, Double> rates = new LinkedHashMap<>();
+        for (MessageStats message : messages) {
+            rates.put(message.name, message.rate);
+        }
+        return rates;
+    }
+
+    @Override
+    public Map<String, Long> getIntervalP50Micros() {
+        return intervals(50);
+    }
+
+    @Override
+    public Map<String, Long> getIntervalP99Micros() {
+        return intervals(99);
+    }
+
+    private Map<String, Long> intervals(double percentile) {
+        Map<String, Long> intervals = new LinkedHashMap<>();
+        for (MessageStats message : messages) {
+            intervals.put(message.name, message.intervalMicros.percentile(percentile));
+        }
+        return intervals;
+    }
+
+    @Override
+    public long getReconnects() {
+        return reconnects;
+    }
+
+    @Override
+    public long getLastOutageMillis() {
+        return lastOutageMillis;
+    }
+
+    @Override
+    public long getLastReopenMillis() {
+        return lastReopenMillis;
+    }
+
+    @Override
+    public Map<String, Double> getLossPercentBySource() {
+        Map<String, Double> loss = new LinkedHashMap<>();
+        for (SourceStats source : sources) {
+            loss.put(source.systemId + "/" + source.componentId, source.lossPercent());
+        }
+        return loss;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.satelliteapplication;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link LinkMetrics}, registered as {@value LinkMetrics#OBJECT_NAME}. Rates
+ * are per second over the last sampling interval; maps are keyed by message name or by
+ * "sysid/compid".
+ */
+public interface LinkMetricsMXBean {
+
+    long getBytesReceived();
+
+    double getBytesPerSecond();
+
+    long getFramesReceived();
+
+    double getFramesPerSecond();
+
+    long getCrcErrors();
+
+    long getBytesDiscarded();
+
+    long getFramesLost();
+
+    double getLossPercent();
+
+    Map<String, Long> getMessageCounts();
+
+    Map<String, Double> getMessageRates();
+
+    // Inter-arrival time per message type, 50th and 99th percentile
+    Map<String, Long> getIntervalP50Micros();
+
+    Map<String, Long> getIntervalP99Micros();
+
+    Map<String, Double> getLossPercentBySource();
+
+    // Outages bridged by automatic reconnect since the link was opened
+    long getReconnects();
+
+    long getLastOutageMillis();
+
+    long getLastReopenMillis();
+}
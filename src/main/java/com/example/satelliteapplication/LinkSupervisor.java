@@ -0,0 +1,268 @@
+package com.example.satelliteapplication;
+
+import com.fazecast.jSerialComm.SerialPort;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Keeps a link open across brown-outs and cable bumps. Wraps the transport that was opened
+ * and, when it fails, reopens the same device with the same settings as soon as it is back,
+ * while the pipeline above keeps running: during the outage {@link #read} just reports
+ * timeouts, so the decoder, vehicles and telemetry state carry on where they left off.
+ *
+ * A serial port counts as lost when a read fails, or when reads go quiet and the port has
+ * left the system's port list. jSerialComm has no arrival event, so the port list is polled
+ * every {@value #POLL_MS} ms until the device reappears: under its old name, or, if the OS
+ * renumbered it, under a new name with the same USB serial number. It is reopened without
+ * the settling delay of a first connect; the decoder resyncs on the next good frame anyway.
+ * Network links are reopened from their spec once a second.
+ *
+ * {@link #read} is called only by the pipeline reader thread, which also does the
+ * reopening; writes during an outage fail with an IOException like any other send error.
+ * Publishing a reopened link and {@link #close} hold the same lock, so a link reopened
+ * just as the supervisor is closed is closed again rather than left holding the port.
+ */
+public class LinkSupervisor implements MavlinkTransport {
+
+    /** Told about outages; called on the pipeline reader thread. */
+    public interface Listener {
+        void onLinkLost(String reason);
+
+        // outageMillis: from the loss to the reopen; reopenMillis: from the device reappearing to the reopen
+        void onLinkRestored(String describe, long outageMillis, long reopenMillis);
+    }
+
+    private static final long POLL_MS = 200;
+    private static final long NETWORK_RETRY_MS = 1000;
+
+    private final Listener listener;
+    private final boolean serial;
+    private final String portName;
+    private final String serialNumber;  // null when the adapter reports none
+    private final int baudRate;
+    private final String spec;
+
+    private volatile MavlinkTransport current;
+    private volatile boolean closed;
+
+    // Reader thread only
+    private String currentPortName;
+    private long lostNanos;
+    private long nextAttemptNanos;
+    private long portCheckedNanos;
+
+    public LinkSupervisor(MavlinkTransport opened, Listener listener) {
+        this.current = opened;
+        this.listener = listener;
+        this.spec = opened.spec();
+        if (opened instanceof SerialTransport serialTransport) {
+            SerialPort port = serialTransport.port();
+            serial = true;
+            portName = port.getSystemPortName();
+            baudRate = serialTransport.baudRate();
+            String number = port.getSerialNumber();
+            serialNumber = number == null || number.isBlank() || number.equalsIgnoreCase("Unknown") ? null : number;
+        } else {
+            serial = false;
+            portName = null;
+            baudRate = 0;
+            serialNumber = null;
+        }
+        currentPortName = portName;
+    }
+
+    // Links worth supervising: replays end for good, a listening UDP socket never goes away
+    public static boolean supports(MavlinkTransport transport) {
+        return transport instanceof SerialTransport || transport instanceof TcpTransport;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        long deadline = System.nanoTime() + DEFAULT_READ_TIMEOUT_MS * 1_000_000L;
+        while (!closed) {
+            MavlinkTransport transport = current;
+            if (transport == null) {
+                if (!reopen() && System.nanoTime() >= deadline) {
+                    return 0;  // Still down; the pipeline sees a timeout and keeps waiting
+                }
+                if (current == null) {
+                    sleep(POLL_MS);
+                }
+                continue;
+            }
+            int count;
+            try {
+                count = transport.read(dst);
+            } catch (IOException e) {
+                lost(transport, "read failed: " + e.getMessage());
+                continue;
+            }
+            if (count < 0) {
+                lost(transport, "end of stream");
+                continue;
+            }
+            if (count == 0 && serial && portRemoved()) {
+                lost(transport, currentPortName + " removed");
+                continue;
+            }
+            return count;
+        }
+        return -1;
+    }
+
+    private void lost(MavlinkTransport transport, String reason) {
+        current = null;
+        try {
+            transport.close();
+        } catch (IOException e) {
+            // Already gone
+        }
+        if (closed) {
+            return;
+        }
+        lostNanos = System.nanoTime();
+        nextAttemptNanos = 0;
+        listener.onLinkLost(reason);
+    }
+
+    // One attempt to bring the link back; returns whether it is up
+    private boolean reopen() {
+        long now = System.nanoTime();
+        if (now < nextAttemptNanos) {
+            return false;
+        }
+        long appeared;
+        MavlinkTransport reopened;
+        try {
+            if (serial) {
+                SerialPort port = findDevice();
+                if (port == null) {
+                    return false;
+                }
+                appeared = System.nanoTime();
+                reopened = SerialTransport.reopen(port, baudRate);
+                currentPortName = port.getSystemPortName();
+            } else {
+                nextAttemptNanos = now + NETWORK_RETRY_MS * 1_000_000L;
+                appeared = now;
+                reopened = MavlinkTransport.open(spec);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // Listed but not ready yet (still enumerating, or held by the OS); try again next poll
+            return false;
+        }
+        boolean published;
+        synchronized (this) {
+            published = !closed;
+            if (published) {
+                current = reopened;
+            }
+        }
+        if (!published) {
+            try {
+                reopened.close();
+            } catch (IOException e) {
+                // Closing anyway
+            }
+            return false;
+        }
+        long restored = System.nanoTime();
+        listener.onLinkRestored(reopened.describe(), (restored - lostNanos) / 1_000_000, (restored - appeared) / 1_000_000);
+        return true;
+    }
+
+    // The same port by name, or the same adapter renumbered under another name
+    private SerialPort findDevice() {
+        SerialPort[] ports = SerialPort.getCommPorts();
+        for (SerialPort port : ports) {
+            if (port.getSystemPortName().equals(portName)) {
+                return port;
+            }
+        }
+        if (serialNumber != null) {
+            for (SerialPort port : ports) {
+                if (serialNumber.equals(port.getSerialNumber())) {
+                    return port;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Listing ports is slow, so a quiet port is looked for at most once per poll interval
+    private boolean portRemoved() {
+        long now = System.nanoTime();
+        if (now - portCheckedNanos < POLL_MS * 1_000_000L) {
+            return false;
+        }
+        portCheckedNanos = now;
+        return findPort(currentPortName) == null;
+    }
+
+    private static SerialPort findPort(String name) {
+        for (SerialPort port : SerialPort.getCommPorts()) {
+            if (port.getSystemPortName().equals(name)) {
+                return port;
+            }
+        }
+        return null;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Serial line rate, 0 for network links
+    public int baudRate() {
+        return baudRate;
+    }
+
+    public boolean isConnected() {
+        return current != null;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        MavlinkTransport transport = current;
+        if (transport == null) {
+            throw new IOException("Link down, reconnecting to " + spec);
+        }
+        transport.write(bytes, offset, length);
+    }
+
+    @Override
+    public ByteBuffer allocateReadBuffer(int capacity) {
+        MavlinkTransport transport = current;
+        return transport != null ? transport.allocateReadBuffer(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    @Override
+    public String describe() {
+        MavlinkTransport transport = current;
+        return transport != null ? transport.describe() : spec + " (reconnecting)";
+    }
+
+    // The last-known-good spec, e.g. "serial:COM3:57600" even if the link was opened with "auto"
+    @Override
+    public String spec() {
+        return spec;
+    }
+
+    @Override
+    public void close() throws IOException {
+        MavlinkTransport transport;
+        synchronized (this) {
+            closed = true;
+            transport = current;
+            current = null;
+        }
+        if (transport != null) {
+            transport.close();
+        }
+    }
+}
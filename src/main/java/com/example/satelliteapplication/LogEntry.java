@@ -0,0 +1,8 @@
+package com.example.satelliteapplication;
+
+/**
+ * One line of the message log. {@code type} is the MAVLink message name for packet
+ * summaries and {@link MessageLog#GENERAL} for everything else.
+ */
+public record LogEntry(long timeMillis, String type, String text) {
+}
@@ -0,0 +1,26 @@
+package com.example.satelliteapplication;
+
+import javafx.scene.control.ListCell;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+// Formats lazily, so only the rows on screen ever pay for timestamp formatting
+public class LogEntryCell extends ListCell<LogEntry> {
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    @Override
+    protected void updateItem(LogEntry entry, boolean empty) {
+        super.updateItem(entry, empty);
+        if (empty || entry == null) {
+            setText(null);
+        } else {
+            LocalTime time = LocalTime.ofInstant(Instant.ofEpochMilli(entry.timeMillis()), ZONE);
+            setText("[" + TIME_FORMAT.format(time) + "] " + entry.text());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.satelliteapplication;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fixed-capacity observable list of log entries. Appending past capacity evicts the oldest
+ * entries, and a whole batch is published as a single change so list views update once.
+ */
+public class LogRingBuffer extends ObservableListBase<LogEntry> {
+
+    private final LogEntry[] entries;
+    private int head;  // index of the oldest entry
+    private int size;
+
+    public LogRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.entries = new LogEntry[capacity];
+    }
+
+    public int capacity() {
+        return entries.length;
+    }
+
+    @Override
+    public LogEntry get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return entries[(head + index) % entries.length];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Must be called on the FX thread
+    public void append(List<LogEntry> batch) {
+        int count = batch.size();
+        if (count == 0) {
+            return;
+        }
+        int capacity = entries.length;
+        int skip = Math.max(0, count - capacity);  // only the newest entries of a huge batch survive
+        int incoming = count - skip;
+        int evicted = Math.max(0, size + incoming - capacity);
+
+        List<LogEntry> removed = evicted > 0 ? new ArrayList<>(evicted) : List.of();
+        for (int i = 0; i < evicted; i++) {
+            int index = (head + i) % capacity;
+            removed.add(entries[index]);
+            entries[index] = null;
+        }
+        head = (head + evicted) % capacity;
+        size -= evicted;
+
+        for (int i = skip; i < count; i++) {
+            entries[(head + size) % capacity] = batch.get(i);
+            size++;
+        }
+
+        beginChange();
+        if (evicted > 0) {
+            nextRemove(0, removed);
+        }
+        nextAdd(size - incoming, size);
+        endChange();
+    }
+
+    @Override
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        List<LogEntry> removed = new ArrayList<>(this);
+        Arrays.fill(entries, null);
+        head = 0;
+        size = 0;
+
+        beginChange();
+        nextRemove(0, removed);
+        endChange();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.satelliteapplication;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling (Steinarsson, 2013). Keeps the first and last
+ * point and, from each of the buckets in between, the point that makes the largest triangle
+ * with the point kept before it and the average of the next bucket. Peaks and dips survive
+ * where plain every-nth sampling would step over them, so a few points per pixel column
+ * look like the full series.
+ */
+public final class Lttb {
+
+    private Lttb() {
+    }
+
+    /**
+     * Reduces xs/ys[0 .. count) to at most threshold points, written to outX/outY; returns
+     * how many were written. Series no longer than the threshold are copied unchanged.
+     */
+    public static int decimate(int[] xs, float[] ys, int count, int threshold, double[] outX, double[] outY) {
+        if (threshold >= count || threshold < 3) {
+            int n = Math.min(count, outX.length);
+            for (int i = 0; i < n; i++) {
+                outX[i] = xs[i];
+                outY[i] = ys[i];
+            }
+            return n;
+        }
+
+        double every = (double) (count - 2) / (threshold - 2);
+        int kept = 0;
+        int a = 0;
+        outX[kept] = xs[0];
+        outY[kept++] = ys[0];
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of the next bucket; the last point stands in for the one after the final bucket
+            int nextStart = (int) ((bucket + 1) * every) + 1;
+            int nextEnd = Math.min((int) ((bucket + 2) * every) + 1, count);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += xs[i];
+                averageY += ys[i];
+            }
+            int nextLength = nextEnd - nextStart;
+            if (nextLength > 0) {
+                averageX /= nextLength;
+                averageY /= nextLength;
+            } else {
+                averageX = xs[count - 1];
+                averageY = ys[count - 1];
+            }
+
+            int start = (int) (bucket * every) + 1;
+            int end = (int) ((bucket + 1) * every) + 1;
+            double ax = xs[a];
+            double ay = ys[a];
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                // Twice the triangle's area; only the comparison matters
+                double area = Math.abs((ax - averageX) * (ys[i] - ay) - (ax - xs[i]) * (averageY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            outX[kept] = xs[chosen];
+            outY[kept++] = ys[chosen];
+            a = chosen;
+        }
+
+        outX[kept] = xs[count - 1];
+        outY[kept++] = ys[count - 1];
+        return kept;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.satelliteapplication;
+
+/**
+ * CRC-16/MCRF4XX ("X.25") as used by MAVLink, over byte arrays without allocation.
+ */
+public final class MavlinkCrc {
+
+    public static final int SEED = 0xFFFF;
+
+    private MavlinkCrc() {
+    }
+
+    public static int accumulate(int crc, int b) {
+        int tmp = (b ^ crc) & 0xFF;
+        tmp ^= (tmp << 4) & 0xFF;
+        return ((crc >>> 8) ^ (tmp << 8) ^ (tmp << 3) ^ (tmp >>> 4)) & 0xFFFF;
+    }
+
+    public static int accumulate(int crc, byte[] bytes, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            crc = accumulate(crc, bytes[i]);
+        }
+        return crc;
+    }
+
+    /**
+     * Checksum of a whole frame: everything after the magic byte up to the end of the
+     * payload, followed by the message's CRC_EXTRA seed.
+     */
+    public static int frameCrc(byte[] frame, int offset, int headerAndPayloadLength, int crcExtra) {
+        int crc = accumulate(SEED, frame, offset + 1, headerAndPayloadLength - 1);
+        return accumulate(crc, crcExtra);
+    }
+}
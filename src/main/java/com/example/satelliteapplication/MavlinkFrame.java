@@ -0,0 +1,126 @@
+package com.example.satelliteapplication;
+
+import io.dronefleet.mavlink.serialization.payload.MavlinkPayloadDeserializer;
+import io.dronefleet.mavlink.serialization.payload.reflection.ReflectionPayloadDeserializer;
+
+/**
+ * One CRC-validated MAVLink v1 or v2 frame, held in a reusable buffer. The payload
+ * accessors read little-endian fields straight from the raw bytes and return zero past the
+ * received length, which is how MAVLink 2 payloads with trimmed trailing zeros decode.
+ * Instances are reused by {@link MavlinkFrameParser}; copy what you need before returning.
+ */
+public class MavlinkFrame {
+
+    public static final int MAGIC_V1 = 0xFE;
+    public static final int MAGIC_V2 = 0xFD;
+    public static final int MAX_SIZE = 280;
+
+    private static final MavlinkPayloadDeserializer DESERIALIZER = new ReflectionPayloadDeserializer();
+
+    final byte[] raw = new byte[MAX_SIZE];
+    int length;
+    int payloadOffset;
+    int payloadLength;
+    int messageId;
+    int systemId;
+    int componentId;
+    int sequence;
+    boolean mavlink2;
+    long receivedNanos;  // System.nanoTime() when the bytes came off the link, 0 if unknown
+
+    public byte[] raw() { return raw; }
+    public int length() { return length; }
+    public int payloadOffset() { return payloadOffset; }
+    public int payloadLength() { return payloadLength; }
+    public int messageId() { return messageId; }
+    public int systemId() { return systemId; }
+    public int componentId() { return componentId; }
+    public int sequence() { return sequence; }
+    public boolean isMavlink2() { return mavlink2; }
+    public long receivedNanos() { return receivedNanos; }
+
+    public int u8(int offset) {
+        return offset < payloadLength ? raw[payloadOffset + offset] & 0xFF : 0;
+    }
+
+    public int i8(int offset) {
+        return offset < payloadLength ? raw[payloadOffset + offset] : 0;
+    }
+
+    public int u16(int offset) {
+        return u8(offset) | u8(offset + 1) << 8;
+    }
+
+    public int i16(int offset) {
+        return (short) u16(offset);
+    }
+
+    public int i32(int offset) {
+        if (offset + 4 <= payloadLength) {
+            int p = payloadOffset + offset;
+            return (raw[p] & 0xFF) | (raw[p + 1] & 0xFF) << 8 | (raw[p + 2] & 0xFF) << 16 | raw[p + 3] << 24;
+        }
+        return u16(offset) | u16(offset + 2) << 16;
+    }
+
+    public long u32(int offset) {
+        return i32(offset) & 0xFFFFFFFFL;
+    }
+
+    public long i64(int offset) {
+        return (i32(offset) & 0xFFFFFFFFL) | (long) i32(offset + 4) << 32;
+    }
+
+    public float f32(int offset) {
+        return Float.intBitsToFloat(i32(offset));
+    }
+
+    /**
+     * Loads a frame that has already been validated (for example one taken back out of a
+     * pipeline queue). No checksum is verified here.
+     */
+    public void wrap(byte[] bytes, int offset, int frameLength) {
+        System.arraycopy(bytes, offset, raw, 0, frameLength);
+        readHeader(frameLength);
+        receivedNanos = 0;
+    }
+
+    void readHeader(int frameLength) {
+        length = frameLength;
+        payloadLength = raw[1] & 0xFF;
+        mavlink2 = (raw[0] & 0xFF) == MAGIC_V2;
+        if (mavlink2) {
+            sequence = raw[4] & 0xFF;
+            systemId = raw[5] & 0xFF;
+            componentId = raw[6] & 0xFF;
+            messageId = (raw[7] & 0xFF) | (raw[8] & 0xFF) << 8 | (raw[9] & 0xFF) << 16;
+            payloadOffset = 10;
+        } else {
+            sequence = raw[2] & 0xFF;
+            systemId = raw[3] & 0xFF;
+            componentId = raw[4] & 0xFF;
+            messageId = raw[5] & 0xFF;
+            payloadOffset = 6;
+        }
+    }
+
+    /**
+     * Decodes the payload into the dronefleet message object. This is the slow, allocating
+     * fallback for message types that have no hand-written decoder; returns null for IDs the
+     * dialects do not know.
+     */
+    public Object decodePayload() {
+        Class<?> type = MavlinkMessages.type(messageId);
+        if (type == null) {
+            return null;
+        }
+        byte[] payload = new byte[payloadLength];
+        System.arraycopy(raw, payloadOffset, payload, 0, payloadLength);
+        return DESERIALIZER.deserialize(payload, type);
+    }
+
+    @Override
+    public String toString() {
+        return MavlinkMessages.name(messageId) + " from " + systemId + "/" + componentId + " seq " + sequence;
+    }
+}
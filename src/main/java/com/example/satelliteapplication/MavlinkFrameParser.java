@@ -0,0 +1,198 @@
+package com.example.satelliteapplication;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Streaming MAVLink v1/v2 frame parser that does not allocate. Bytes are accumulated in an
+ * internal buffer and scanned for 0xFE/0xFD frames; a frame is only accepted when its
+ * checksum, seeded with the message's CRC_EXTRA, matches. On any mismatch the scan resumes
+ * one byte after the false start, so the parser resynchronizes on a noisy link without
+ * losing a following good frame. Signatures on signed v2 frames are carried but not checked.
+ *
+ * A message ID no dialect defines has no CRC_EXTRA, so its checksum cannot be verified and
+ * such frames are skipped by default. For forwarding, {@link #setPassUnknown} accepts them on
+ * their length alone, provided the next frame starts right after (or the read ended there);
+ * garbage that happens to start with a magic byte rarely lines up like that.
+ *
+ * Not thread-safe: one parser per reading thread.
+ */
+public class MavlinkFrameParser {
+
+    public interface FrameHandler {
+        void onFrame(MavlinkFrame frame);
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MIN_HEADER = 8;  // enough to read the v1/v2 header fields we branch on
+    private static final int V1_OVERHEAD = 8;
+    private static final int V2_OVERHEAD = 12;
+    private static final int SIGNATURE_SIZE = 13;
+    private static final int INCOMPAT_SIGNED = 0x01;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int start;
+    private int end;
+    private final MavlinkFrame frame = new MavlinkFrame();
+    private boolean passUnknown;
+
+    private long framesParsed;
+    private long crcErrors;
+    private long unknownMessages;
+    private long unknownPassed;
+    private long bytesDiscarded;
+
+    /** Whether frames with unknown message IDs are accepted unchecked; set before parsing. */
+    public void setPassUnknown(boolean passUnknown) {
+        this.passUnknown = passUnknown;
+    }
+
+    public int parse(ByteBuffer in, FrameHandler handler) {
+        int count = 0;
+        while (in.hasRemaining()) {
+            int n = Math.min(in.remaining(), makeRoom());
+            in.get(buffer, end, n);
+            end += n;
+            count += scan(handler);
+        }
+        return count;
+    }
+
+    public int parse(byte[] bytes, int offset, int length, FrameHandler handler) {
+        int count = 0;
+        while (length > 0) {
+            int n = Math.min(length, makeRoom());
+            System.arraycopy(bytes, offset, buffer, end, n);
+            end += n;
+            offset += n;
+            length -= n;
+            count += scan(handler);
+        }
+        return count;
+    }
+
+    // Moves any partial frame to the front of the buffer and returns the free space
+    private int makeRoom() {
+        if (start > 0) {
+            System.arraycopy(buffer, start, buffer, 0, end - start);
+            end -= start;
+            start = 0;
+        }
+        return buffer.length - end;
+    }
+
+    private int scan(FrameHandler handler) {
+        int count = 0;
+        while (end - start >= MIN_HEADER) {
+            int magic = buffer[start] & 0xFF;
+            if (magic != MavlinkFrame.MAGIC_V1 && magic != MavlinkFrame.MAGIC_V2) {
+                start++;
+                bytesDiscarded++;
+                continue;
+            }
+
+            int payloadLength = buffer[start + 1] & 0xFF;
+            int frameLength;
+            if (magic == MavlinkFrame.MAGIC_V1) {
+                frameLength = V1_OVERHEAD + payloadLength;
+            } else {
+                int incompatFlags = buffer[start + 2] & 0xFF;
+                if ((incompatFlags & ~INCOMPAT_SIGNED) != 0) {
+                    // Unknown incompatibility flag: by definition we cannot parse this frame
+                    start++;
+                    bytesDiscarded++;
+                    continue;
+                }
+                frameLength = V2_OVERHEAD + payloadLength
+                        + ((incompatFlags & INCOMPAT_SIGNED) != 0 ? SIGNATURE_SIZE : 0);
+            }
+            if (end - start < frameLength) {
+                break;  // wait for the rest of the frame
+            }
+
+            if (accept(magic == MavlinkFrame.MAGIC_V2, payloadLength, frameLength)) {
+                start += frameLength;
+                framesParsed++;
+                count++;
+                handler.onFrame(frame);
+            } else {
+                start++;
+                bytesDiscarded++;
+            }
+        }
+        if (start == end) {
+            start = end = 0;
+        }
+        return count;
+    }
+
+    private boolean accept(boolean mavlink2, int payloadLength, int frameLength) {
+        int p = start;
+        int messageId;
+        int headerLength;
+        if (mavlink2) {
+            messageId = (buffer[p + 7] & 0xFF) | (buffer[p + 8] & 0xFF) << 8 | (buffer[p + 9] & 0xFF) << 16;
+            headerLength = 10;
+        } else {
+            messageId = buffer[p + 5] & 0xFF;
+            headerLength = 6;
+        }
+
+        int crcExtra = MavlinkMessages.crcExtra(messageId);
+        if (crcExtra < 0) {
+            unknownMessages++;
+            if (!passUnknown || !followedByFrame(p + frameLength)) {
+                return false;
+            }
+            unknownPassed++;
+            System.arraycopy(buffer, p, frame.raw, 0, frameLength);
+            frame.readHeader(frameLength);
+            return true;
+        }
+        int crcOffset = p + headerLength + payloadLength;
+        int expected = MavlinkCrc.frameCrc(buffer, p, headerLength + payloadLength, crcExtra);
+        int received = (buffer[crcOffset] & 0xFF) | (buffer[crcOffset + 1] & 0xFF) << 8;
+        if (expected != received) {
+            crcErrors++;
+            return false;
+        }
+
+        System.arraycopy(buffer, p, frame.raw, 0, frameLength);
+        frame.readHeader(frameLength);
+        return true;
+    }
+
+    private boolean followedByFrame(int next) {
+        if (next == end) {
+            return true;
+        }
+        int magic = buffer[next] & 0xFF;
+        return magic == MavlinkFrame.MAGIC_V1 || magic == MavlinkFrame.MAGIC_V2;
+    }
+
+    public void reset() {
+        start = end = 0;
+    }
+
+    public long framesParsed() {
+        return framesParsed;
+    }
+
+    // Candidate frames whose checksum did not match
+    public long crcErrors() {
+        return crcErrors;
+    }
+
+    // Candidate frames with a message ID no dialect defines (cannot be CRC-checked)
+    public long unknownMessages() {
+        return unknownMessages;
+    }
+
+    // Of those, the ones accepted unchecked for forwarding
+    public long unknownPassed() {
+        return unknownPassed;
+    }
+
+    public long bytesDiscarded() {
+        return bytesDiscarded;
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.satelliteapplication;
+
+import io.dronefleet.mavlink.MavlinkDialect;
+import io.dronefleet.mavlink.annotations.MavlinkFieldInfo;
+import io.dronefleet.mavlink.annotations.MavlinkMessageInfo;
+import io.dronefleet.mavlink.ardupilotmega.ArdupilotmegaDialect;
+import io.dronefleet.mavlink.common.CommonDialect;
+import io.dronefleet.mavlink.minimal.MinimalDialect;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-message-ID metadata taken once from the dronefleet dialect annotations: CRC_EXTRA
+ * seed, payload class, MAVLink name and where the target system and component sit in the
+ * payload. Lookups are plain array reads, so the hot path
+ * never touches reflection or boxes the message ID.
+ */
+public final class MavlinkMessages {
+
+    // Well-known IDs used by the telemetry modules, the stream controller, mission transfers and the simulator
+    public static final int HEARTBEAT = 0;
+    public static final int SYS_STATUS = 1;
+    public static final int PARAM_REQUEST_READ = 20;
+    public static final int PARAM_REQUEST_LIST = 21;
+    public static final int PARAM_VALUE = 22;
+    public static final int PARAM_SET = 23;
+    public static final int GPS_RAW_INT = 24;
+    public static final int ATTITUDE = 30;
+    public static final int GLOBAL_POSITION_INT = 33;
+    public static final int MISSION_REQUEST = 40;
+    public static final int MISSION_CURRENT = 42;
+    public static final int MISSION_REQUEST_LIST = 43;
+    public static final int MISSION_COUNT = 44;
+    public static final int MISSION_ACK = 47;
+    public static final int MISSION_REQUEST_INT = 51;
+    public static final int MISSION_ITEM_INT = 73;
+    public static final int VFR_HUD = 74;
+    public static final int COMMAND_LONG = 76;
+    public static final int COMMAND_ACK = 77;
+    public static final int BATTERY_STATUS = 147;
+    public static final int VIBRATION = 241;
+    public static final int HOME_POSITION = 242;
+
+    private static final short[] CRC_EXTRA;
+    private static final Class<?>[] TYPES;
+    private static final String[] NAMES;
+    private static final short[] TARGET_SYSTEM_OFFSET;
+    private static final short[] TARGET_COMPONENT_OFFSET;
+
+    static {
+        // Common (with minimal) first, so ArduPilot only fills in IDs the standard set lacks
+        MavlinkDialect[] dialects = {new MinimalDialect(), new CommonDialect(), new ArdupilotmegaDialect()};
+        int maxId = 0;
+        for (MavlinkDialect dialect : dialects) {
+            for (Class<?> type : dialect.messageTypes()) {
+                maxId = Math.max(maxId, type.getAnnotation(MavlinkMessageInfo.class).id());
+            }
+        }
+        CRC_EXTRA = new short[maxId + 1];
+        TYPES = new Class<?>[maxId + 1];
+        NAMES = new String[maxId + 1];
+        TARGET_SYSTEM_OFFSET = new short[maxId + 1];
+        TARGET_COMPONENT_OFFSET = new short[maxId + 1];
+        java.util.Arrays.fill(CRC_EXTRA, (short) -1);
+        java.util.Arrays.fill(TARGET_SYSTEM_OFFSET, (short) -1);
+        java.util.Arrays.fill(TARGET_COMPONENT_OFFSET, (short) -1);
+        for (MavlinkDialect dialect : dialects) {
+            for (Class<?> type : dialect.messageTypes()) {
+                MavlinkMessageInfo info = type.getAnnotation(MavlinkMessageInfo.class);
+                if (TYPES[info.id()] == null) {
+                    CRC_EXTRA[info.id()] = (short) info.crc();
+                    TYPES[info.id()] = type;
+                    NAMES[info.id()] = MessageLog.toMessageName(type.getSimpleName());
+                    TARGET_SYSTEM_OFFSET[info.id()] = (short) fieldOffset(type, "targetSystem");
+                    TARGET_COMPONENT_OFFSET[info.id()] = (short) fieldOffset(type, "targetComponent");
+                }
+            }
+        }
+    }
+
+    private MavlinkMessages() {
+    }
+
+    // Fields with MAVLink metadata in wire order: base fields by descending type size, then extensions
+    private static List<Method> wireOrder(Class<?> type) {
+        List<Method> fields = new ArrayList<>();
+        for (Method method : type.getMethods()) {
+            if (method.isAnnotationPresent(MavlinkFieldInfo.class)) {
+                fields.add(method);
+            }
+        }
+        fields.sort(Comparator.<Method>comparingInt(m -> m.getAnnotation(MavlinkFieldInfo.class).extension() ? 1 : 0)
+                .thenComparingInt(m -> {
+                    MavlinkFieldInfo info = m.getAnnotation(MavlinkFieldInfo.class);
+                    return info.extension() ? 0 : -info.unitSize();
+                })
+                .thenComparingInt(m -> m.getAnnotation(MavlinkFieldInfo.class).position()));
+        return fields;
+    }
+
+    // Payload offset of a uint8 field, or -1
+    private static int fieldOffset(Class<?> type, String field) {
+        int offset = 0;
+        for (Method method : wireOrder(type)) {
+            MavlinkFieldInfo info = method.getAnnotation(MavlinkFieldInfo.class);
+            if (method.getName().equals(field)) {
+                return info.unitSize() == 1 && info.arraySize() == 0 ? offset : -1;
+            }
+            offset += info.unitSize() * Math.max(1, info.arraySize());
+        }
+        return -1;
+    }
+
+    /** Where a scalar payload field sits and how its bytes read. */
+    public record Field(int offset, int size, boolean signed, boolean floating) {
+
+        // The field's value from the frame, widened to a double
+        public double read(MavlinkFrame frame) {
+            if (floating) {
+                return size == 8 ? Double.longBitsToDouble(frame.i64(offset)) : frame.f32(offset);
+            }
+            return switch (size) {
+                case 1 -> signed ? frame.i8(offset) : frame.u8(offset);
+                case 2 -> signed ? frame.i16(offset) : frame.u16(offset);
+                case 4 -> signed ? frame.i32(offset) : frame.u32(offset);
+                default -> frame.i64(offset);
+            };
+        }
+    }
+
+    /**
+     * A scalar field of the message by its MAVLink name (e.g. "voltage_battery"), or null if
+     * there is no such field or it is an array. Reflective; look fields up once, not per frame.
+     */
+    public static Field field(int messageId, String name) {
+        Class<?> type = type(messageId);
+        if (type == null) {
+            return null;
+        }
+        String methodName = toMethodName(name);
+        int offset = 0;
+        for (Method method : wireOrder(type)) {
+            MavlinkFieldInfo info = method.getAnnotation(MavlinkFieldInfo.class);
+            if (method.getName().equals(methodName)) {
+                if (info.arraySize() != 0) {
+                    return null;
+                }
+                Class<?> returnType = method.getReturnType();
+                boolean floating = returnType == float.class || returnType == double.class;
+                return new Field(offset, info.unitSize(), info.signed(), floating);
+            }
+            offset += info.unitSize() * Math.max(1, info.arraySize());
+        }
+        return null;
+    }
+
+    /**
+     * The scalar fields of a message by MAVLink name, in declaration order; arrays (strings
+     * included) are left out. Empty for unknown IDs. Reflective, like {@link #field}.
+     */
+    public static Map<String, Field> fields(int messageId) {
+        Class<?> type = type(messageId);
+        if (type == null) {
+            return Map.of();
+        }
+        List<Method> declared = new ArrayList<>();
+        int offset = 0;
+        Map<Method, Integer> offsets = new HashMap<>();
+        for (Method method : wireOrder(type)) {
+            MavlinkFieldInfo info = method.getAnnotation(MavlinkFieldInfo.class);
+            offsets.put(method, offset);
+            offset += info.unitSize() * Math.max(1, info.arraySize());
+            if (info.arraySize() == 0) {
+                declared.add(method);
+            }
+        }
+        declared.sort(Comparator.comparingInt(m -> m.getAnnotation(MavlinkFieldInfo.class).position()));
+        Map<String, Field> fields = new LinkedHashMap<>();
+        for (Method method : declared) {
+            MavlinkFieldInfo info = method.getAnnotation(MavlinkFieldInfo.class);
+            Class<?> returnType = method.getReturnType();
+            boolean floating = returnType == float.class || returnType == double.class;
+            fields.put(toFieldName(method.getName()),
+                    new Field(offsets.get(method), info.unitSize(), info.signed(), floating));
+        }
+        return fields;
+    }
+
+    // The accessor "voltageBattery" back to the MAVLink name "voltage_battery"
+    private static String toFieldName(String methodName) {
+        StringBuilder sb = new StringBuilder(methodName.length() + 4);
+        for (int i = 0; i < methodName.length(); i++) {
+            char c = methodName.charAt(i);
+            if (Character.isUpperCase(c)) {
+                sb.append('_').append(Character.toLowerCase(c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    // "voltage_battery" to the dronefleet accessor "voltageBattery"
+    private static String toMethodName(String fieldName) {
+        StringBuilder sb = new StringBuilder(fieldName.length());
+        boolean upper = false;
+        for (int i = 0; i < fieldName.length(); i++) {
+            char c = fieldName.charAt(i);
+            if (c == '_') {
+                upper = sb.length() > 0;
+            } else {
+                sb.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+        return sb.toString();
+    }
+
+    // The ID of a message by its MAVLink name, e.g. "SYS_STATUS", or -1
+    public static int idOf(String name) {
+        for (int id = 0; id < NAMES.length; id++) {
+            if (name.equals(NAMES[id])) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    public static int maxId() {
+        return TYPES.length - 1;
+    }
+
+    public static boolean isKnown(int messageId) {
+        return messageId >= 0 && messageId < TYPES.length && TYPES[messageId] != null;
+    }
+
+    // CRC_EXTRA seed for the message, or -1 if the ID is unknown
+    public static int crcExtra(int messageId) {
+        return messageId >= 0 && messageId < CRC_EXTRA.length ? CRC_EXTRA[messageId] : -1;
+    }
+
+    public static Class<?> type(int messageId) {
+        return isKnown(messageId) ? TYPES[messageId] : null;
+    }
+
+    public static String name(int messageId) {
+        return isKnown(messageId) ? NAMES[messageId] : "MSG_" + messageId;
+    }
+
+    /**
+     * Decodes a zeroed payload of every known message type through the library's reflective
+     * deserializer, which loads and links each message class, its builder and its enums.
+     * For the packaging script's class-data-sharing training run; returns the number of
+     * types that decoded.
+     */
+    public static int decodeAll() {
+        byte[] bytes = new byte[MavlinkFrame.MAX_SIZE];
+        bytes[0] = (byte) MavlinkFrame.MAGIC_V2;
+        bytes[1] = (byte) 255;  // Longer than any payload; the deserializer reads what it needs
+        MavlinkFrame frame = new MavlinkFrame();
+        int decoded = 0;
+        for (int id = 0; id < TYPES.length; id++) {
+            if (TYPES[id] == null) {
+                continue;
+            }
+            bytes[7] = (byte) id;
+            bytes[8] = (byte) (id >>> 8);
+            bytes[9] = (byte) (id >>> 16);
+            frame.wrap(bytes, 0, 10 + 255 + 2);
+            try {
+                if (frame.decodePayload() != null) {
+                    decoded++;
+                }
+            } catch (RuntimeException e) {
+                // Cannot be built from zeros; its class is loaded all the same
+            }
+        }
+        return decoded;
+    }
+
+    // Payload offset of target_system, or -1 if the message is not addressed to a system
+    public static int targetSystemOffset(int messageId) {
+        return isKnown(messageId) ? TARGET_SYSTEM_OFFSET[messageId] : -1;
+    }
+
+    // Payload offset of target_component, or -1 if the message has none
+    public static int targetComponentOffset(int messageId) {
+        return isKnown(messageId) ? TARGET_COMPONENT_OFFSET[messageId] : -1;
+    }
+}
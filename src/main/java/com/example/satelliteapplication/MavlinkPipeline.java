@@ -0,0 +1,356 @@
+package com.example.satelliteapplication;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Staged receive pipeline: a reader thread that only moves bytes off the
+ * {@link MavlinkTransport}, a decoder
+ * thread that frames and CRC-checks them, and one thread per consumer (telemetry state,
+ * recorder, metrics, ...). Stages are connected by bounded {@link SpscByteRing} queues, so
+ * a slow consumer only fills its own queue and never stalls the serial read.
+ *
+ * Each queue has an explicit {@link OverflowPolicy} and exposes its depth through
+ * {@link Stage}.
+ */
+public class MavlinkPipeline implements AutoCloseable {
+
+    public enum OverflowPolicy {
+        // Reject the new item and count it; the producer never waits
+        DROP,
+        // Wait for space; for lossless sources such as replays and for consumers that must see every frame
+        BLOCK
+    }
+
+    public interface Listener {
+        // Called on the reader thread for each read timeout's worth of time without a decoded frame:
+        // no data at all, or only bytes that never frame (a wrong baud rate, a noisy line)
+        void onReadTimeout(int consecutiveTimeouts);
+
+        // Called on the reader thread when the source ends; error is null at a clean end of stream
+        void onStreamEnded(IOException error);
+    }
+
+    /** One bounded queue between two threads, with its counters. */
+    public static class Stage {
+        private final String name;
+        private final SpscByteRing ring;
+        private final OverflowPolicy policy;
+        private boolean unknownMessages;  // set before start
+
+        private volatile long enqueued;  // producer
+        private volatile long dropped;   // producer
+        private volatile long peakDepth; // producer
+        private volatile long processed; // consumer
+
+        Stage(String name, int capacity, OverflowPolicy policy) {
+            this.name = name;
+            this.ring = new SpscByteRing(capacity);
+            this.policy = policy;
+        }
+
+        // Producer side; returns false if the item was dropped or the pipeline stopped
+        boolean offer(long stamp, byte[] bytes, int offset, int length, MavlinkPipeline pipeline) {
+            while (!ring.offer(stamp, bytes, offset, length)) {
+                if (!waitForSpace(pipeline)) {
+                    return false;
+                }
+            }
+            accepted();
+            return true;
+        }
+
+        // Same, for the reader's (possibly direct) read buffer
+        boolean offer(long stamp, ByteBuffer bytes, MavlinkPipeline pipeline) {
+            while (!ring.offer(stamp, bytes)) {
+                if (!waitForSpace(pipeline)) {
+                    return false;
+                }
+            }
+            accepted();
+            return true;
+        }
+
+        private boolean waitForSpace(MavlinkPipeline pipeline) {
+            if (policy == OverflowPolicy.DROP || !pipeline.running) {
+                dropped++;
+                return false;
+            }
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+            return true;
+        }
+
+        private void accepted() {
+            long count = ++enqueued;
+            long depth = count - processed;
+            if (depth > peakDepth) {
+                peakDepth = depth;
+            }
+        }
+
+        int drain(SpscByteRing.RecordHandler handler, int limit) {
+            int count = ring.drain(handler, limit);
+            if (count > 0) {
+                processed += count;
+            }
+            return count;
+        }
+
+        /**
+         * Also delivers frames whose message ID no dialect defines, unchecked; for consumers
+         * that only pass frames on, such as the router. Must be called before {@link #start()}.
+         */
+        public Stage withUnknownMessages() {
+            unknownMessages = true;
+            return this;
+        }
+
+        public String name() { return name; }
+        public boolean unknownMessages() { return unknownMessages; }
+        public OverflowPolicy policy() { return policy; }
+        public long depth() { return enqueued - processed; }
+        public long peakDepth() { return peakDepth; }
+        public long enqueued() { return enqueued; }
+        public long processed() { return processed; }
+        public long dropped() { return dropped; }
+        public int capacityBytes() { return ring.capacity(); }
+
+        // Fraction of the queue's byte capacity in use, 0..1
+        public double fill() {
+            return ring.usedBytes() / (double) ring.capacity();
+        }
+    }
+
+    private static final int READ_CHUNK = 4096;
+    private static final int DRAIN_BATCH = 256;
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long QUIET_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(MavlinkTransport.DEFAULT_READ_TIMEOUT_MS);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final MavlinkTransport transport;
+    private final Listener listener;
+    private final Stage rawStage;
+    private final List<Stage> consumerStages = new ArrayList<>();
+    private final List<MavlinkFrameParser.FrameHandler> consumers = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private final MavlinkFrameParser parser = new MavlinkFrameParser();
+    private final LongAdder bytesRead = new LongAdder();
+    private volatile long framesDecoded;  // decoder thread; the reader watches it for timeouts
+
+    private volatile boolean running;
+
+    public MavlinkPipeline(InputStream input, OverflowPolicy rawPolicy, Listener listener) {
+        this(new StreamTransport(input, "stream"), rawPolicy, listener);
+    }
+
+    public MavlinkPipeline(MavlinkTransport transport, OverflowPolicy rawPolicy, Listener listener) {
+        this.transport = transport;
+        this.listener = listener;
+        this.rawStage = new Stage("raw", 1 << 18, rawPolicy);
+    }
+
+    /** Adds a consumer with its own queue and thread. Must be called before {@link #start()}. */
+    public Stage addConsumer(String name, int capacityBytes, OverflowPolicy policy,
+                             MavlinkFrameParser.FrameHandler consumer) {
+        if (running) {
+            throw new IllegalStateException("pipeline already started");
+        }
+        Stage stage = new Stage(name, capacityBytes, policy);
+        consumerStages.add(stage);
+        consumers.add(consumer);
+        return stage;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (Stage stage : consumerStages) {
+            if (stage.unknownMessages) {
+                parser.setPassUnknown(true);
+            }
+        }
+        startThread("mavlink-reader", this::readLoop);
+        startThread("mavlink-decoder", this::decodeLoop);
+        for (int i = 0; i < consumerStages.size(); i++) {
+            Stage stage = consumerStages.get(i);
+            MavlinkFrameParser.FrameHandler consumer = consumers.get(i);
+            startThread("mavlink-" + stage.name(), () -> consumeLoop(stage, consumer));
+        }
+    }
+
+    private void startThread(String name, Runnable body) {
+        Thread thread = new Thread(body, name);
+        thread.setDaemon(true);
+        threads.add(thread);
+        thread.start();
+    }
+
+    // Stage 1: bytes off the link, nothing else
+    private void readLoop() {
+        ByteBuffer chunk = transport.allocateReadBuffer(READ_CHUNK);
+        int timeouts = 0;
+        long framesSeen = 0;
+        long quietSinceNanos = System.nanoTime();
+        while (running) {
+            try {
+                chunk.clear();
+                int count = transport.read(chunk);
+                if (count < 0) {
+                    if (running) {
+                        listener.onStreamEnded(null);
+                    }
+                    break;
+                }
+                // Only frames count as data; bytes that never decode keep the timeouts coming
+                long now = System.nanoTime();
+                long frames = framesDecoded;
+                if (frames != framesSeen) {
+                    framesSeen = frames;
+                    timeouts = 0;
+                    quietSinceNanos = now;
+                }
+                if (count == 0 || now - quietSinceNanos >= QUIET_TIMEOUT_NANOS) {
+                    quietSinceNanos = now;
+                    if (running) {
+                        listener.onReadTimeout(++timeouts);
+                    }
+                }
+                if (count > 0) {
+                    bytesRead.add(count);
+                    chunk.flip();
+                    rawStage.offer(System.nanoTime(), chunk, this);
+                }
+            } catch (IOException e) {
+                if (running) {
+                    listener.onStreamEnded(e);
+                }
+                break;
+            }
+        }
+    }
+
+    // Stage 2: framing and CRC, then fan-out of each good frame to every consumer queue
+    private void decodeLoop() {
+        long[] receivedAt = new long[1];
+        MavlinkFrameParser.FrameHandler fanOut = frame -> {
+            framesDecoded++;
+            boolean known = MavlinkMessages.isKnown(frame.messageId());
+            for (Stage stage : consumerStages) {
+                if (known || stage.unknownMessages) {
+                    stage.offer(receivedAt[0], frame.raw(), 0, frame.length(), this);
+                }
+            }
+        };
+        SpscByteRing.RecordHandler decode = (stamp, bytes, offset, length) -> {
+            receivedAt[0] = stamp;
+            parser.parse(bytes, offset, length, fanOut);
+        };
+        runDrainLoop(rawStage, decode);
+    }
+
+    // Stage 3: one loop per consumer
+    private void consumeLoop(Stage stage, MavlinkFrameParser.FrameHandler consumer) {
+        MavlinkFrame frame = new MavlinkFrame();
+        runDrainLoop(stage, (stamp, bytes, offset, length) -> {
+            frame.wrap(bytes, offset, length);
+            frame.receivedNanos = stamp;
+            consumer.onFrame(frame);
+        });
+    }
+
+    private void runDrainLoop(Stage stage, SpscByteRing.RecordHandler handler) {
+        int idle = 0;
+        while (running) {
+            if (stage.drain(handler, DRAIN_BATCH) > 0) {
+                idle = 0;
+            } else if (++idle < 100) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public Stage rawStage() {
+        return rawStage;
+    }
+
+    public List<Stage> consumerStages() {
+        return List.copyOf(consumerStages);
+    }
+
+    public MavlinkTransport transport() {
+        return transport;
+    }
+
+    // Bytes read off the link, including any that did not frame
+    public long bytesRead() {
+        return bytesRead.sum();
+    }
+
+    public MavlinkFrameParser parser() {
+        return parser;
+    }
+
+    // One-line queue summary for status displays, e.g. "raw 0% · telemetry 0% (3 dropped)"
+    public String describeQueues() {
+        StringBuilder sb = new StringBuilder();
+        appendStage(sb, rawStage);
+        for (Stage stage : consumerStages) {
+            sb.append(" · ");
+            appendStage(sb, stage);
+        }
+        return sb.toString();
+    }
+
+    private static void appendStage(StringBuilder sb, Stage stage) {
+        sb.append(stage.name()).append(' ').append(Math.round(stage.fill() * 100)).append('%');
+        if (stage.dropped() > 0) {
+            sb.append(" (").append(stage.dropped()).append(" dropped)");
+        }
+    }
+
+    /**
+     * Stops all stages. The decoder and consumers finish the batch in hand and are joined, so
+     * once this returns no consumer is delivering any more and their state can be reused. The
+     * reader may be blocked in a read until the link times out or is closed, so it is only
+     * waited for briefly; it touches nothing but the raw queue. Close the transport after this
+     * returns.
+     */
+    @Override
+    public void close() {
+        List<Thread> toJoin;
+        synchronized (this) {
+            running = false;
+            toJoin = new ArrayList<>(threads);
+            threads.clear();
+        }
+        for (Thread thread : toJoin) {
+            if (thread == Thread.currentThread()) {
+                continue;
+            }
+            try {
+                if (thread.getName().equals("mavlink-reader")) {
+                    thread.join(1000);
+                } else {
+                    thread.join();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
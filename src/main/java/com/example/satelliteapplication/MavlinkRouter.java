@@ -0,0 +1,361 @@
+package com.example.satelliteapplication;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Forwards the radio link to other tools (mission planners, analytics) on further
+ * {@link MavlinkTransport}s, and their traffic back to the radio. Frames are forwarded as
+ * received, never decoded and re-encoded, so signatures and unknown dialects survive: the
+ * router's pipeline consumer and its endpoint readers take frames with message IDs no dialect
+ * here defines on their length alone, since those have no CRC_EXTRA to check against.
+ *
+ * Routing follows the MAVLink rules: a frame without a target, or with target system 0,
+ * goes to every other link; a targeted frame only goes to links where that system (and
+ * component, if given) has been seen sending. Downlink frames arrive from the pipeline as a
+ * consumer and are copied into a bounded queue per endpoint, which that endpoint's own writer
+ * thread drains; a tool that stops reading fills only its own queue and loses only its own
+ * frames, and never holds up forwarding to the others.
+ *
+ * Everything bound for the radio, from every endpoint and from the application itself
+ * ({@link #localOutput()}), goes through one queue per source and one writer thread that
+ * serves the queues round-robin by bytes, so a chatty tool cannot starve the others of a
+ * slow serial uplink and two writers never interleave inside a frame.
+ */
+public class MavlinkRouter implements MavlinkFrameParser.FrameHandler, Closeable {
+
+    private static final int UPLINK_QUEUE_BYTES = 1 << 14;
+    private static final int DOWNLINK_QUEUE_BYTES = 1 << 16;
+    private static final int DOWNLINK_BATCH = 64;
+    // Credit a busy source gets per round: one largest-possible frame, or several small ones
+    private static final int QUANTUM = MavlinkFrame.MAX_SIZE;
+    private static final long WRITER_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final int MAX_ROUTES = 256;
+
+    /** Sources seen on one link, as {@link Vehicle#key} values; copy-on-write, read from any thread. */
+    private static final class Routes {
+        private volatile int[] keys = new int[0];
+
+        // Called by the link's single reader
+        void learn(int key) {
+            int[] current = keys;
+            for (int known : current) {
+                if (known == key) {
+                    return;
+                }
+            }
+            if (current.length < MAX_ROUTES) {
+                int[] updated = Arrays.copyOf(current, current.length + 1);
+                updated[current.length] = key;
+                keys = updated;
+            }
+        }
+
+        boolean reaches(int targetSystem, int targetComponent) {
+            for (int key : keys) {
+                if (key >>> 8 == targetSystem && (targetComponent == 0 || (key & 0xFF) == targetComponent)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int size() {
+            return keys.length;
+        }
+    }
+
+    /** One source of uplink traffic for the radio. Offers from several threads are serialized. */
+    private final class UplinkQueue {
+        final SpscByteRing ring = new SpscByteRing(UPLINK_QUEUE_BYTES);
+        int deficit;  // writer thread only
+
+        synchronized boolean offer(byte[] bytes, int offset, int length) {
+            if (!ring.offer(0, bytes, offset, length)) {
+                return false;
+            }
+            LockSupport.unpark(writer);
+            return true;
+        }
+    }
+
+    /** A forwarding link other than the radio. */
+    public final class Endpoint {
+        private final MavlinkTransport transport;
+        private final Routes routes = new Routes();
+        private final UplinkQueue uplink;
+        private final SpscByteRing downlink = new SpscByteRing(DOWNLINK_QUEUE_BYTES);
+        private volatile Thread sender;
+        private volatile long framesIn;   // reader thread
+        private volatile long framesOut;  // sender thread
+        private volatile long writeErrors;
+
+        private Endpoint(MavlinkTransport transport) {
+            this.transport = transport;
+            this.uplink = new UplinkQueue();
+        }
+
+        public String describe() { return transport.describe(); }
+        public long framesIn() { return framesIn; }
+        public long framesOut() { return framesOut; }
+        public long uplinkDropped() { return uplink.ring.rejectedCount(); }
+        public long downlinkDropped() { return downlink.rejectedCount(); }
+        public int knownSources() { return routes.size(); }
+        public long writeErrors() { return writeErrors; }
+
+        // Frames from this tool: learn where it is, pass them on to the radio and to the other endpoints
+        private void readLoop() {
+            MavlinkFrameParser parser = new MavlinkFrameParser();
+            parser.setPassUnknown(true);
+            MavlinkFrameParser.FrameHandler route = frame -> {
+                framesIn++;
+                routes.learn(Vehicle.key(frame.systemId(), frame.componentId()));
+                int targetSystem = targetSystem(frame);
+                int targetComponent = targetComponent(frame);
+                if (targetSystem == 0 || radioRoutes.reaches(targetSystem, targetComponent)) {
+                    uplink.offer(frame.raw(), 0, frame.length());
+                }
+                forward(frame, targetSystem, targetComponent, this);
+            };
+            ByteBuffer buffer = ByteBuffer.allocate(4096);
+            while (running) {
+                try {
+                    buffer.clear();
+                    int count = transport.read(buffer);
+                    if (count < 0) {
+                        break;
+                    }
+                    if (count > 0) {
+                        parser.parse(buffer.array(), 0, count, route);
+                    }
+                } catch (IOException e) {
+                    if (running) {
+                        log.accept("Router: " + describe() + " failed: " + e.getMessage());
+                    }
+                    break;
+                }
+            }
+        }
+
+        // Called from the router consumer and from the other endpoints' readers; never blocks, drops when full
+        private synchronized void send(MavlinkFrame frame) {
+            if (downlink.offer(0, frame.raw(), 0, frame.length())) {
+                LockSupport.unpark(sender);
+            }
+        }
+
+        // Writes this tool's queued frames; a slow or stalled tool only ever waits here
+        private void sendLoop() {
+            SpscByteRing.RecordHandler write = (stamp, bytes, offset, length) -> {
+                try {
+                    transport.write(bytes, offset, length);
+                    framesOut++;
+                } catch (IOException e) {
+                    // Usually nobody listening yet (UDP) or a peer that went away; keep routing to the rest
+                    writeErrors++;
+                }
+            };
+            while (running) {
+                if (downlink.drain(write, DOWNLINK_BATCH) == 0) {
+                    LockSupport.parkNanos(WRITER_PARK_NANOS);
+                }
+            }
+        }
+    }
+
+    private final MavlinkTransport radio;
+    private final Consumer<String> log;
+    private final Routes radioRoutes = new Routes();
+    private final UplinkQueue localUplink = new UplinkQueue();
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile UplinkQueue[] uplinks = {localUplink};
+    private volatile long framesToRadio;
+    private volatile boolean running;
+    private volatile Thread writer;
+
+    public MavlinkRouter(MavlinkTransport radio, Consumer<String> log) {
+        this.radio = radio;
+        this.log = log;
+    }
+
+    /** Adds a link to forward to. Must be called before {@link #start()}. */
+    public Endpoint addEndpoint(MavlinkTransport transport) {
+        if (running) {
+            throw new IllegalStateException("router already started");
+        }
+        Endpoint endpoint = new Endpoint(transport);
+        endpoints.add(endpoint);
+        UplinkQueue[] updated = Arrays.copyOf(uplinks, uplinks.length + 1);
+        updated[uplinks.length] = endpoint.uplink;
+        uplinks = updated;
+        return endpoint;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writer = startThread("mavlink-uplink", this::writeLoop);
+        for (Endpoint endpoint : endpoints) {
+            startThread("mavlink-route-" + endpoint.describe(), endpoint::readLoop);
+            endpoint.sender = startThread("mavlink-route-out-" + endpoint.describe(), endpoint::sendLoop);
+        }
+    }
+
+    private Thread startThread(String name, Runnable body) {
+        Thread thread = new Thread(body, name);
+        thread.setDaemon(true);
+        threads.add(thread);
+        thread.start();
+        return thread;
+    }
+
+    /** Downlink: a CRC-valid (or unknown-dialect) frame from the radio, on the pipeline's router consumer thread. */
+    @Override
+    public void onFrame(MavlinkFrame frame) {
+        radioRoutes.learn(Vehicle.key(frame.systemId(), frame.componentId()));
+        forward(frame, targetSystem(frame), targetComponent(frame), null);
+    }
+
+    // To every endpoint except the one the frame came from, if it is broadcast or the target was seen there
+    private void forward(MavlinkFrame frame, int targetSystem, int targetComponent, Endpoint from) {
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint != from && (targetSystem == 0 || endpoint.routes.reaches(targetSystem, targetComponent))) {
+                endpoint.send(frame);
+            }
+        }
+    }
+
+    private static int targetSystem(MavlinkFrame frame) {
+        int offset = MavlinkMessages.targetSystemOffset(frame.messageId());
+        return offset < 0 ? 0 : frame.u8(offset);
+    }
+
+    private static int targetComponent(MavlinkFrame frame) {
+        int offset = MavlinkMessages.targetComponentOffset(frame.messageId());
+        return offset < 0 ? 0 : frame.u8(offset);
+    }
+
+    /**
+     * The application's own uplink, for a {@code MavlinkConnection}: each write must be one
+     * whole frame, which is how dronefleet writes. Frames are queued, not written inline.
+     */
+    public OutputStream localOutput() {
+        return new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                if (!running) {
+                    throw new IOException("router stopped");
+                }
+                if (!localUplink.offer(b, off, len)) {
+                    throw new IOException("uplink queue full");
+                }
+            }
+        };
+    }
+
+    // Deficit round robin over the sources: a source may write while it has credit, and pays for each frame in bytes
+    private void writeLoop() {
+        SpscByteRing.RecordHandler[] writeFrom = new SpscByteRing.RecordHandler[1];
+        UplinkQueue[] current = new UplinkQueue[1];
+        writeFrom[0] = (stamp, bytes, offset, length) -> {
+            current[0].deficit -= length;
+            try {
+                radio.write(bytes, offset, length);
+                framesToRadio++;
+            } catch (IOException e) {
+                if (running) {
+                    log.accept("Router: write to " + radio.describe() + " failed: " + e.getMessage());
+                }
+            }
+        };
+        while (running) {
+            boolean wrote = false;
+            for (UplinkQueue queue : uplinks) {
+                if (queue.ring.isEmpty()) {
+                    queue.deficit = 0;  // idle sources do not bank credit
+                    continue;
+                }
+                queue.deficit += QUANTUM;
+                current[0] = queue;
+                while (queue.deficit > 0 && queue.ring.drain(writeFrom[0], 1) > 0) {
+                    wrote = true;
+                }
+            }
+            if (!wrote) {
+                LockSupport.parkNanos(WRITER_PARK_NANOS);
+            }
+        }
+    }
+
+    public List<Endpoint> endpoints() {
+        return List.copyOf(endpoints);
+    }
+
+    public long framesToRadio() {
+        return framesToRadio;
+    }
+
+    // e.g. "udpout:127.0.0.1:14550 ↓1,204 ↑38 · tcp:127.0.0.1:5761 ↓1,204 ↑0"
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        for (Endpoint endpoint : endpoints) {
+            if (sb.length() > 0) {
+                sb.append(" · ");
+            }
+            sb.append(endpoint.describe())
+                    .append(String.format(" ↓%,d ↑%,d", endpoint.framesOut(), endpoint.framesIn()));
+            long dropped = endpoint.uplinkDropped() + endpoint.downlinkDropped();
+            if (dropped > 0) {
+                sb.append(" (").append(dropped).append(" dropped)");
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Stops forwarding and closes the endpoints, which also frees a writer stuck on a tool
+     * that stopped reading. The radio belongs to the caller and stays open. Safe to call
+     * before the pipeline feeding {@link #onFrame} is closed: that only queues.
+     */
+    @Override
+    public void close() {
+        List<Thread> toJoin;
+        synchronized (this) {
+            running = false;
+            toJoin = new ArrayList<>(threads);
+            threads.clear();
+        }
+        for (Endpoint endpoint : endpoints) {
+            try {
+                endpoint.transport.close();
+            } catch (IOException e) {
+                log.accept("Router: failed to close " + endpoint.describe() + ": " + e.getMessage());
+            }
+        }
+        for (Thread thread : toJoin) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.satelliteapplication;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A byte link to one or more MAVLink systems: a serial radio, a UDP port or a TCP socket.
+ * The {@link MavlinkPipeline} reader thread is the only caller of {@link #read}; writes may
+ * come from any thread and are serialized by the transport.
+ *
+ * Transports are named by a spec string, so a link can be stored and reopened:
+ * <pre>
+ *   auto                      the first serial port and baud rate carrying MAVLink
+ *   serial:COM3:57600         serial port at a baud rate (57600 if omitted)
+ *   udp:14550                 listen on a UDP port, reply to whoever sent last
+ *   udp:127.0.0.1:14550       the same, bound to one local address
+ *   udpout:127.0.0.1:14551    send to a fixed UDP endpoint and read its replies
+ *   tcp:127.0.0.1:5760        connect to a TCP server (SITL, mavlink-router)
+ * </pre>
+ */
+public interface MavlinkTransport extends Closeable {
+
+    int DEFAULT_READ_TIMEOUT_MS = 2000;
+
+    /**
+     * Reads what is available into {@code dst}, waiting up to the read timeout for the first
+     * byte. Returns the number of bytes read, 0 if the timeout elapsed, or -1 at end of stream.
+     */
+    int read(ByteBuffer dst) throws IOException;
+
+    // Writes one complete unit (a MAVLink frame); never split across datagrams
+    void write(byte[] bytes, int offset, int length) throws IOException;
+
+    // Human-readable endpoint, e.g. "UDP :14550"
+    String describe();
+
+    // The spec this transport was opened from
+    String spec();
+
+    // Buffer the reader thread should read into; NIO transports hand out direct buffers
+    default ByteBuffer allocateReadBuffer(int capacity) {
+        return ByteBuffer.allocate(capacity);
+    }
+
+    // Long-lived stream view for senders such as MavlinkConnection, which write one frame per call
+    default OutputStream outputStream() {
+        return new OutputStream() {
+            private final byte[] single = new byte[1];
+
+            @Override
+            public void write(int b) throws IOException {
+                synchronized (single) {
+                    single[0] = (byte) b;
+                    MavlinkTransport.this.write(single, 0, 1);
+                }
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                MavlinkTransport.this.write(bytes, offset, length);
+            }
+        };
+    }
+
+    static MavlinkTransport open(String spec) throws IOException {
+        if (spec.equals("auto")) {
+            return SerialTransport.discover();
+        }
+        int colon = spec.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Not a transport spec: " + spec);
+        }
+        String scheme = spec.substring(0, colon);
+        String address = spec.substring(colon + 1);
+        return switch (scheme) {
+            case "serial" -> {
+                int baud = SerialTransport.DEFAULT_BAUD_RATE;
+                int last = address.lastIndexOf(':');
+                if (last > 0 && address.substring(last + 1).chars().allMatch(Character::isDigit)) {
+                    baud = Integer.parseInt(address.substring(last + 1));
+                    address = address.substring(0, last);
+                }
+                yield SerialTransport.open(address, baud);
+            }
+            case "udp" -> {
+                int last = address.lastIndexOf(':');
+                yield last < 0
+                        ? UdpTransport.listen(null, Integer.parseInt(address))
+                        : UdpTransport.listen(address.substring(0, last), Integer.parseInt(address.substring(last + 1)));
+            }
+            case "udpout" -> {
+                int last = address.lastIndexOf(':');
+                yield UdpTransport.connect(address.substring(0, last), Integer.parseInt(address.substring(last + 1)));
+            }
+            case "tcp" -> {
+                int last = address.lastIndexOf(':');
+                yield TcpTransport.connect(address.substring(0, last), Integer.parseInt(address.substring(last + 1)));
+            }
+            default -> throw new IllegalArgumentException("Unknown transport: " + scheme);
+        };
+    }
+}
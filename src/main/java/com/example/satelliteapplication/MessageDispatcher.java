@@ -0,0 +1,91 @@
+package com.example.satelliteapplication;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Routes frames to the handlers subscribed to their message ID. The table holds one handler
+ * array per ID, so dispatching is a single indexed load plus a loop over the subscribers;
+ * nothing is allocated per message. Subscribing copies the affected array, which keeps the
+ * read side lock-free and lets modules be added while frames are flowing.
+ *
+ * The table only extends to the highest subscribed ID, so a dispatcher per vehicle stays
+ * small even though message IDs go up to 50000.
+ */
+public class MessageDispatcher implements MavlinkFrameParser.FrameHandler {
+
+    private static final MavlinkFrameParser.FrameHandler[] NONE = new MavlinkFrameParser.FrameHandler[0];
+
+    private volatile AtomicReferenceArray<MavlinkFrameParser.FrameHandler[]> handlers =
+            new AtomicReferenceArray<>(0);
+    private volatile MavlinkFrameParser.FrameHandler[] everyFrame = NONE;
+
+    public synchronized void subscribe(int messageId, MavlinkFrameParser.FrameHandler handler) {
+        if (messageId < 0 || messageId > MavlinkMessages.maxId()) {
+            throw new IllegalArgumentException("Unknown message ID: " + messageId);
+        }
+        AtomicReferenceArray<MavlinkFrameParser.FrameHandler[]> table = handlers;
+        if (messageId >= table.length()) {
+            table = grow(table, messageId + 1);
+        }
+        table.set(messageId, append(table.get(messageId), handler));
+        handlers = table;
+    }
+
+    // For cross-cutting consumers (counters, recorders) that want every frame
+    public synchronized void subscribeAll(MavlinkFrameParser.FrameHandler handler) {
+        everyFrame = append(everyFrame, handler);
+    }
+
+    /**
+     * Subscribes a handler that wants the decoded dronefleet message object. This takes the
+     * library's reflective, allocating decoder, so keep it for low-rate messages.
+     */
+    public <T> void subscribePayload(int messageId, Class<T> type, Consumer<? super T> handler) {
+        if (MavlinkMessages.type(messageId) != type) {
+            throw new IllegalArgumentException(type.getSimpleName() + " is not message " + messageId);
+        }
+        subscribe(messageId, frame -> handler.accept(type.cast(frame.decodePayload())));
+    }
+
+    public synchronized void install(TelemetryModule module) {
+        module.register(this);
+    }
+
+    public boolean hasHandlers(int messageId) {
+        AtomicReferenceArray<MavlinkFrameParser.FrameHandler[]> table = handlers;
+        return messageId >= 0 && messageId < table.length() && table.get(messageId).length > 0;
+    }
+
+    @Override
+    public void onFrame(MavlinkFrame frame) {
+        int messageId = frame.messageId();
+        AtomicReferenceArray<MavlinkFrameParser.FrameHandler[]> table = handlers;
+        if (messageId < table.length()) {
+            for (MavlinkFrameParser.FrameHandler handler : table.get(messageId)) {
+                handler.onFrame(frame);
+            }
+        }
+        for (MavlinkFrameParser.FrameHandler handler : everyFrame) {
+            handler.onFrame(frame);
+        }
+    }
+
+    // Readers keep using the old table until the new one is published, so copy rather than resize in place
+    private static AtomicReferenceArray<MavlinkFrameParser.FrameHandler[]> grow(
+            AtomicReferenceArray<MavlinkFrameParser.FrameHandler[]> table, int length) {
+        AtomicReferenceArray<MavlinkFrameParser.FrameHandler[]> grown = new AtomicReferenceArray<>(length);
+        for (int i = 0; i < length; i++) {
+            grown.lazySet(i, i < table.length() ? table.get(i) : NONE);
+        }
+        return grown;
+    }
+
+    private static MavlinkFrameParser.FrameHandler[] append(MavlinkFrameParser.FrameHandler[] current,
+                                                            MavlinkFrameParser.FrameHandler handler) {
+        MavlinkFrameParser.FrameHandler[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = handler;
+        return updated;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.satelliteapplication;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded message log. Any thread may append; lines are queued and moved into the
+ * {@link LogRingBuffer} in one batch per frame by {@link #flush(long)} on the FX thread.
+ * Received packets are not logged one by one but counted per message type and summarized
+ * once per second, so the log rate stays flat whatever the stream rates are.
+ */
+public class MessageLog {
+
+    public static final String ALL = "All";
+    public static final String GENERAL = "GCS";
+
+    private static final int MAX_PENDING = 10_000;
+    private static final long SUMMARY_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final ConcurrentLinkedQueue<LogEntry> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Map<String, LongAdder> receivedCounts = new ConcurrentHashMap<>();
+
+    // FX thread only
+    private final LogRingBuffer entries;
+    private final ObservableList<String> types = FXCollections.observableArrayList(ALL, GENERAL);
+    private final ArrayList<LogEntry> batch = new ArrayList<>();
+    private long lastSummaryNanos;
+
+    public MessageLog(int capacity) {
+        this.entries = new LogRingBuffer(capacity);
+    }
+
+    public LogRingBuffer entries() {
+        return entries;
+    }
+
+    // Filter choices: ALL, GENERAL and every message type seen so far
+    public ObservableList<String> types() {
+        return types;
+    }
+
+    public void log(String text) {
+        log(GENERAL, text);
+    }
+
+    public void log(String type, String text) {
+        if (pendingCount.incrementAndGet() > MAX_PENDING) {
+            pendingCount.decrementAndGet();
+            dropped.incrementAndGet();
+            return;
+        }
+        pending.add(new LogEntry(System.currentTimeMillis(), type, text));
+    }
+
+    public void countReceived(String type) {
+        LongAdder count = receivedCounts.get(type);
+        if (count == null) {
+            count = receivedCounts.computeIfAbsent(type, t -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    /**
+     * Moves queued lines into the ring buffer and, once per second, appends the per-type
+     * receive summaries. Returns true if anything was added.
+     */
+    public boolean flush(long nowNanos) {
+        LogEntry entry;
+        while ((entry = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            batch.add(entry);
+        }
+
+        if (nowNanos - lastSummaryNanos >= SUMMARY_INTERVAL_NANOS) {
+            long now = System.currentTimeMillis();
+            if (lastSummaryNanos != 0) {
+                double seconds = (nowNanos - lastSummaryNanos) / 1e9;
+                String window = seconds < 1.5 ? " in last second" : String.format(" in last %.1f s", seconds);
+                for (Map.Entry<String, LongAdder> e : receivedCounts.entrySet()) {
+                    long count = e.getValue().sumThenReset();
+                    if (count > 0) {
+                        String type = e.getKey();
+                        if (!types.contains(type)) {
+                            types.add(type);
+                        }
+                        batch.add(new LogEntry(now, type, "Received: " + type + " x" + count + window));
+                    }
+                }
+            }
+            long lost = dropped.getAndSet(0);
+            if (lost > 0) {
+                batch.add(new LogEntry(now, GENERAL, lost + " log lines dropped (log flooded)"));
+            }
+            lastSummaryNanos = nowNanos;
+        }
+
+        if (batch.isEmpty()) {
+            return false;
+        }
+        entries.append(batch);
+        batch.clear();
+        return true;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    static String toMessageName(String simpleName) {
+        StringBuilder sb = new StringBuilder(simpleName.length() + 4);
+        for (int i = 0; i < simpleName.length(); i++) {
+            char c = simpleName.charAt(i);
+            if (Character.isUpperCase(c) && i > 0) {
+                sb.append('_');
+            }
+            sb.append(Character.toUpperCase(c));
+        }
+        return sb.toString();
+    }
+}
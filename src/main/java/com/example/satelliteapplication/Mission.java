@@ -0,0 +1,124 @@
+package com.example.satelliteapplication;
+
+import java.util.Arrays;
+
+/**
+ * A mission (or fence or rally point list) as the fields of MISSION_ITEM_INT, one primitive
+ * array per field and indexed by sequence number. A mission of several thousand waypoints
+ * is a handful of arrays rather than thousands of message objects, and an item can be
+ * filled in from a received frame without allocating.
+ */
+public final class Mission {
+
+    public static final int TYPE_MISSION = 0;
+    public static final int TYPE_FENCE = 1;
+    public static final int TYPE_RALLY = 2;
+
+    private final int missionType;
+    private int size;
+    private short[] commands;
+    private byte[] frames;
+    private byte[] flags;    // bit 0 current, bit 1 autocontinue
+    private float[] params;  // param1..param4 of item i at 4 * i
+    private int[] xs;        // latitude (or local x) * 1e7
+    private int[] ys;
+    private float[] zs;
+
+    public Mission(int missionType, int capacity) {
+        this.missionType = missionType;
+        int length = Math.max(1, capacity);
+        commands = new short[length];
+        frames = new byte[length];
+        flags = new byte[length];
+        params = new float[4 * length];
+        xs = new int[length];
+        ys = new int[length];
+        zs = new float[length];
+    }
+
+    public Mission(int missionType) {
+        this(missionType, 16);
+    }
+
+    /** Appends an item and returns its sequence number. */
+    public int add(int frame, int command, boolean autocontinue,
+                   float param1, float param2, float param3, float param4, int x, int y, float z) {
+        int seq = size;
+        ensureCapacity(seq + 1);
+        set(seq, frame, command, seq == 0, autocontinue, param1, param2, param3, param4, x, y, z);
+        return seq;
+    }
+
+    void set(int seq, int frame, int command, boolean current, boolean autocontinue,
+             float param1, float param2, float param3, float param4, int x, int y, float z) {
+        if (seq >= size) {
+            ensureCapacity(seq + 1);
+            size = seq + 1;
+        }
+        commands[seq] = (short) command;
+        frames[seq] = (byte) frame;
+        flags[seq] = (byte) ((current ? 1 : 0) | (autocontinue ? 2 : 0));
+        params[4 * seq] = param1;
+        params[4 * seq + 1] = param2;
+        params[4 * seq + 2] = param3;
+        params[4 * seq + 3] = param4;
+        xs[seq] = x;
+        ys[seq] = y;
+        zs[seq] = z;
+    }
+
+    // Loads a MISSION_ITEM_INT payload into its slot; see MissionTransfer for the offsets
+    public void set(MavlinkFrame item) {
+        set(item.u16(28), item.u8(34), item.u16(30), item.u8(35) != 0, item.u8(36) != 0,
+                item.f32(0), item.f32(4), item.f32(8), item.f32(12), item.i32(16), item.i32(20), item.f32(24));
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= commands.length) {
+            return;
+        }
+        int length = Math.max(capacity, commands.length * 2);
+        commands = Arrays.copyOf(commands, length);
+        frames = Arrays.copyOf(frames, length);
+        flags = Arrays.copyOf(flags, length);
+        params = Arrays.copyOf(params, 4 * length);
+        xs = Arrays.copyOf(xs, length);
+        ys = Arrays.copyOf(ys, length);
+        zs = Arrays.copyOf(zs, length);
+    }
+
+    public int missionType() { return missionType; }
+    public int size() { return size; }
+    public int command(int seq) { return commands[seq] & 0xFFFF; }
+    public int frame(int seq) { return frames[seq] & 0xFF; }
+    public boolean current(int seq) { return (flags[seq] & 1) != 0; }
+    public boolean autocontinue(int seq) { return (flags[seq] & 2) != 0; }
+    public float param(int seq, int number) { return params[4 * seq + number - 1]; }
+    public int x(int seq) { return xs[seq]; }
+    public int y(int seq) { return ys[seq]; }
+    public float z(int seq) { return zs[seq]; }
+
+    // Degrees, for items in a global frame
+    public double latitude(int seq) { return xs[seq] / 1e7; }
+    public double longitude(int seq) { return ys[seq] / 1e7; }
+
+    // Same items, bit for bit; floats compare by representation so NaN parameters match
+    public boolean sameItems(Mission other) {
+        if (other.size != size || other.missionType != missionType) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (commands[i] != other.commands[i] || frames[i] != other.frames[i] || flags[i] != other.flags[i]
+                    || xs[i] != other.xs[i] || ys[i] != other.ys[i]
+                    || Float.floatToIntBits(zs[i]) != Float.floatToIntBits(other.zs[i])) {
+                return false;
+            }
+        }
+        for (int i = 0; i < 4 * size; i++) {
+            if (Float.floatToIntBits(params[i]) != Float.floatToIntBits(other.params[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.satelliteapplication;
+
+// Active mission item from MISSION_CURRENT
+public class MissionModule implements TelemetryModule {
+
+    private final TelemetryState state;
+
+    public MissionModule(TelemetryState state) {
+        this.state = state;
+    }
+
+    @Override
+    public void register(MessageDispatcher dispatcher) {
+        dispatcher.subscribe(MavlinkMessages.MISSION_CURRENT, this::onMissionCurrent);
+    }
+
+    private void onMissionCurrent(MavlinkFrame frame) {
+        // seq u16 @0
+        state.updateMissionItem(frame.u16(0));
+    }
+}
@@ -0,0 +1,437 @@
+package com.example.satelliteapplication;
+
+import io.dronefleet.mavlink.common.MavCmd;
+import io.dronefleet.mavlink.common.MavFrame;
+import io.dronefleet.mavlink.common.MavMissionResult;
+import io.dronefleet.mavlink.common.MavMissionType;
+import io.dronefleet.mavlink.common.MissionAck;
+import io.dronefleet.mavlink.common.MissionCount;
+import io.dronefleet.mavlink.common.MissionItemInt;
+import io.dronefleet.mavlink.common.MissionRequestInt;
+import io.dronefleet.mavlink.common.MissionRequestList;
+import io.dronefleet.mavlink.util.EnumValue;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Uploads and downloads one vehicle's mission with the MAVLink mission protocol
+ * (MISSION_COUNT, MISSION_REQUEST_INT, MISSION_ITEM_INT, MISSION_ACK).
+ *
+ * Downloads are windowed: up to {@value #WINDOW} item requests are in flight at once,
+ * lowest missing sequence first, and each is re-requested when it has been unanswered for a
+ * few smoothed round trips. Items may arrive in any order and duplicates are counted and
+ * dropped. A vehicle that insists on strict order (it NACKs a request with
+ * MAV_MISSION_INVALID_SEQUENCE) is finished one item at a time instead.
+ *
+ * Uploads are paced by the vehicle, which requests each item; every request is answered,
+ * whatever its order and however often it repeats, since a repeat means our item was lost.
+ * When the vehicle goes quiet, the count or the last requested item is sent again.
+ *
+ * The frame handlers run on the vehicle's telemetry thread and never touch the link: what
+ * they want sent is queued and written from the executor, so a slow radio cannot stall the
+ * reader. {@link #tick} runs on a scheduler about every 100 ms.
+ */
+public class MissionTransfer implements TelemetryModule {
+
+    public enum State { IDLE, UPLOADING, DOWNLOADING, DONE, FAILED }
+
+    static final int MAV_MISSION_ACCEPTED = 0;
+    static final int MAV_MISSION_INVALID_SEQUENCE = 13;
+
+    private static final int WINDOW = 8;
+    private static final int MAX_ATTEMPTS = 6;
+    // Requests time out after a multiple of the measured response time, within these bounds
+    private static final long MIN_TIMEOUT_NANOS = 250_000_000L;
+    private static final long MAX_TIMEOUT_NANOS = 3_000_000_000L;
+
+    private final Vehicle vehicle;
+    private final StreamRateController.Sender sender;
+    private final Executor sendExecutor;
+    private final Consumer<String> log;
+
+    // Transfer state, guarded by this
+    private State state = State.IDLE;
+    private int missionType;
+    private Mission mission;
+    private int count = -1;
+    private int window = WINDOW;
+    private final BitSet received = new BitSet();  // downloaded items, or uploaded items requested
+    private long[] requestedAtNanos = new long[0];
+    private byte[] attempts = new byte[0];
+    private int receivedCount;
+    private int lastRequested = -1;               // upload: the item the vehicle asked for last
+    private int controlAttempts;                  // MISSION_COUNT or MISSION_REQUEST_LIST sends
+    private long lastActivityNanos;
+    private long startedNanos;
+    private long responseNanos = MIN_TIMEOUT_NANOS;  // smoothed request round trip
+
+    private final ArrayDeque<Object> outbox = new ArrayDeque<>();
+    private boolean draining;
+
+    // For displays
+    private volatile int itemsDone;
+    private volatile int retries;
+    private volatile int duplicates;
+    private volatile long elapsedMillis = -1;
+
+    /**
+     * @param sender must send MAVLink 2: mission_type is an extension field, and without it
+     *               fence and rally transfers arrive as plain mission transfers
+     */
+    public MissionTransfer(Vehicle vehicle, StreamRateController.Sender sender, Executor sendExecutor,
+                           Consumer<String> log) {
+        this.vehicle = vehicle;
+        this.sender = sender;
+        this.sendExecutor = sendExecutor;
+        this.log = log;
+    }
+
+    @Override
+    public void register(MessageDispatcher dispatcher) {
+        dispatcher.subscribe(MavlinkMessages.MISSION_COUNT, this::onCount);
+        dispatcher.subscribe(MavlinkMessages.MISSION_REQUEST, this::onRequest);
+        dispatcher.subscribe(MavlinkMessages.MISSION_REQUEST_INT, this::onRequest);
+        dispatcher.subscribe(MavlinkMessages.MISSION_ITEM_INT, this::onItem);
+        dispatcher.subscribe(MavlinkMessages.MISSION_ACK, this::onAck);
+    }
+
+    /** Starts uploading the mission, abandoning any transfer in progress. */
+    public synchronized void upload(Mission mission) {
+        long now = System.nanoTime();
+        begin(State.UPLOADING, mission.missionType(), mission.size(), now);
+        this.mission = mission;
+        queue(countMessage());
+    }
+
+    /** Starts downloading the vehicle's list of this type, abandoning any transfer in progress. */
+    public synchronized void download(int missionType) {
+        long now = System.nanoTime();
+        begin(State.DOWNLOADING, missionType, -1, now);
+        queue(requestListMessage());
+    }
+
+    private void begin(State newState, int newMissionType, int newCount, long now) {
+        state = newState;
+        missionType = newMissionType;
+        mission = null;
+        window = WINDOW;
+        controlAttempts = 1;
+        retries = 0;
+        duplicates = 0;
+        elapsedMillis = -1;
+        startedNanos = now;
+        lastActivityNanos = now;
+        lastRequested = -1;
+        reset(newCount);
+        outbox.clear();
+    }
+
+    private void reset(int newCount) {
+        count = newCount;
+        int size = Math.max(0, newCount);
+        requestedAtNanos = new long[size];
+        attempts = new byte[size];
+        received.clear();
+        receivedCount = 0;
+        itemsDone = 0;
+    }
+
+    // count u16 @0, target_system u8 @2, target_component u8 @3, mission_type u8 @4
+    private synchronized void onCount(MavlinkFrame frame) {
+        if (state != State.DOWNLOADING || count >= 0 || frame.u8(4) != missionType) {
+            return;
+        }
+        long now = System.nanoTime();
+        lastActivityNanos = now;
+        reset(frame.u16(0));
+        mission = new Mission(missionType, count);
+        if (count == 0) {
+            finishDownload(now);
+        } else {
+            requestMissing(now);
+        }
+    }
+
+    // seq u16 @0, target_system u8 @2, target_component u8 @3, mission_type u8 @4 (both messages)
+    private synchronized void onRequest(MavlinkFrame frame) {
+        int seq = frame.u16(0);
+        if (state != State.UPLOADING || frame.u8(4) != missionType || seq >= count) {
+            return;
+        }
+        lastActivityNanos = System.nanoTime();
+        controlAttempts = 1;  // the vehicle is still there
+        if (received.get(seq)) {
+            duplicates++;
+        } else {
+            received.set(seq);
+            itemsDone = ++receivedCount;
+        }
+        lastRequested = seq;
+        // MISSION_REQUEST asks for the float-coordinate MISSION_ITEM, but every current autopilot takes the INT form
+        queue(itemMessage(seq));
+    }
+
+    // param1..4 f32 @0..12, x i32 @16, y i32 @20, z f32 @24, seq u16 @28, command u16 @30,
+    // target_system u8 @32, target_component u8 @33, frame u8 @34, current u8 @35,
+    // autocontinue u8 @36, mission_type u8 @37
+    private synchronized void onItem(MavlinkFrame frame) {
+        int seq = frame.u16(28);
+        if (state != State.DOWNLOADING || count < 0 || seq >= count || frame.u8(37) != missionType) {
+            return;
+        }
+        long now = System.nanoTime();
+        lastActivityNanos = now;
+        if (received.get(seq)) {
+            duplicates++;
+            return;
+        }
+        mission.set(frame);
+        received.set(seq);
+        itemsDone = ++receivedCount;
+        if (requestedAtNanos[seq] != 0) {
+            responseNanos += (now - requestedAtNanos[seq] - responseNanos) / 4;
+        }
+        if (receivedCount == count) {
+            finishDownload(now);
+        } else {
+            requestMissing(now);
+        }
+    }
+
+    // target_system u8 @0, target_component u8 @1, type u8 @2, mission_type u8 @3
+    private synchronized void onAck(MavlinkFrame frame) {
+        if (frame.u8(3) != missionType) {
+            return;
+        }
+        int result = frame.u8(2);
+        long now = System.nanoTime();
+        if (state == State.UPLOADING) {
+            if (result == MAV_MISSION_ACCEPTED) {
+                finish(now, String.format("Uploaded %d mission items", count));
+            } else {
+                fail(now, "Mission upload rejected: " + resultName(result));
+            }
+        } else if (state == State.DOWNLOADING && result != MAV_MISSION_ACCEPTED) {
+            if (result == MAV_MISSION_INVALID_SEQUENCE && window > 1) {
+                // Only the next item in order is acceptable to this vehicle
+                window = 1;
+                Arrays.fill(requestedAtNanos, 0);
+                log.accept("Vehicle requires in-order mission requests, continuing one at a time");
+                requestMissing(now);
+            } else {
+                fail(now, "Mission download aborted: " + resultName(result));
+            }
+        }
+    }
+
+    private void finishDownload(long now) {
+        queue(MissionAck.builder()
+                .targetSystem(vehicle.systemId())
+                .targetComponent(vehicle.componentId())
+                .type(EnumValue.create(MavMissionResult.class, MAV_MISSION_ACCEPTED))
+                .missionType(EnumValue.create(MavMissionType.class, missionType))
+                .build());
+        finish(now, String.format("Downloaded %d mission items", count));
+    }
+
+    private void finish(long now, String what) {
+        elapsedMillis = (now - startedNanos) / 1_000_000;
+        state = State.DONE;
+        log.accept(String.format("%s in %.1f s (%.0f items/s, %d retries, %d duplicates)",
+                what, elapsedMillis / 1000.0, itemsPerSecond(), retries, duplicates));
+        notifyAll();
+    }
+
+    private void fail(long now, String why) {
+        elapsedMillis = (now - startedNanos) / 1_000_000;
+        state = State.FAILED;
+        log.accept(why);
+        notifyAll();
+    }
+
+    // Requests the lowest missing items, keeping at most window requests unanswered
+    private void requestMissing(long now) {
+        long timeout = timeoutNanos();
+        int examined = 0;
+        for (int seq = received.nextClearBit(0); seq < count && examined < window;
+             seq = received.nextClearBit(seq + 1), examined++) {
+            if (requestedAtNanos[seq] != 0 && now - requestedAtNanos[seq] < timeout) {
+                continue;  // in flight
+            }
+            if (attempts[seq] >= MAX_ATTEMPTS) {
+                fail(now, String.format("Mission download incomplete: %d of %d, item %d never arrived",
+                        receivedCount, count, seq));
+                return;
+            }
+            if (attempts[seq]++ > 0) {
+                retries++;
+            }
+            requestedAtNanos[seq] = now;
+            queue(MissionRequestInt.builder()
+                    .targetSystem(vehicle.systemId())
+                    .targetComponent(vehicle.componentId())
+                    .seq(seq)
+                    .missionType(EnumValue.create(MavMissionType.class, missionType))
+                    .build());
+        }
+    }
+
+    private long timeoutNanos() {
+        return Math.max(MIN_TIMEOUT_NANOS, Math.min(MAX_TIMEOUT_NANOS, 3 * responseNanos));
+    }
+
+    // Advances timeouts and re-sends; call about every 100 ms
+    public synchronized void tick() {
+        long now = System.nanoTime();
+        if (state == State.DOWNLOADING && count >= 0) {
+            requestMissing(now);
+            return;
+        }
+        if ((state != State.DOWNLOADING && state != State.UPLOADING) || now - lastActivityNanos < timeoutNanos()) {
+            return;
+        }
+        if (controlAttempts >= MAX_ATTEMPTS) {
+            fail(now, state == State.UPLOADING
+                    ? String.format("Mission upload timed out after %d of %d items", receivedCount, count)
+                    : "No mission count received from " + vehicle);
+            return;
+        }
+        controlAttempts++;
+        retries++;
+        lastActivityNanos = now;
+        if (state == State.DOWNLOADING) {
+            queue(requestListMessage());
+        } else if (lastRequested < 0) {
+            queue(countMessage());
+        } else {
+            // The item may have been lost; the vehicle asks again when it gets it or times out itself
+            queue(itemMessage(lastRequested));
+        }
+    }
+
+    private Object countMessage() {
+        return MissionCount.builder()
+                .targetSystem(vehicle.systemId())
+                .targetComponent(vehicle.componentId())
+                .count(count)
+                .missionType(EnumValue.create(MavMissionType.class, missionType))
+                .build();
+    }
+
+    private Object requestListMessage() {
+        return MissionRequestList.builder()
+                .targetSystem(vehicle.systemId())
+                .targetComponent(vehicle.componentId())
+                .missionType(EnumValue.create(MavMissionType.class, missionType))
+                .build();
+    }
+
+    private Object itemMessage(int seq) {
+        return itemMessage(mission, seq, vehicle.systemId(), vehicle.componentId());
+    }
+
+    public static MissionItemInt itemMessage(Mission mission, int seq, int targetSystem, int targetComponent) {
+        return MissionItemInt.builder()
+                .targetSystem(targetSystem)
+                .targetComponent(targetComponent)
+                .seq(seq)
+                .frame(EnumValue.create(MavFrame.class, mission.frame(seq)))
+                .command(EnumValue.create(MavCmd.class, mission.command(seq)))
+                .current(mission.current(seq) ? 1 : 0)
+                .autocontinue(mission.autocontinue(seq) ? 1 : 0)
+                .param1(mission.param(seq, 1))
+                .param2(mission.param(seq, 2))
+                .param3(mission.param(seq, 3))
+                .param4(mission.param(seq, 4))
+                .x(mission.x(seq))
+                .y(mission.y(seq))
+                .z(mission.z(seq))
+                .missionType(EnumValue.create(MavMissionType.class, mission.missionType()))
+                .build();
+    }
+
+    private static String resultName(int result) {
+        MavMissionResult entry = EnumValue.create(MavMissionResult.class, result).entry();
+        return entry == null ? "result " + result : entry.name();
+    }
+
+    // Called with the lock held; the executor writes outside it
+    private void queue(Object message) {
+        outbox.add(message);
+        if (!draining) {
+            draining = true;
+            sendExecutor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Object message;
+            synchronized (this) {
+                message = outbox.poll();
+                if (message == null) {
+                    draining = false;
+                    return;
+                }
+            }
+            try {
+                sender.send(message);
+            } catch (IOException e) {
+                log.accept("Mission message failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /** Waits until the current transfer has finished; returns whether it succeeded. */
+    public synchronized boolean await(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (state == State.UPLOADING || state == State.DOWNLOADING) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(remaining);
+        }
+        return state == State.DONE;
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    /** The downloaded mission, or null until a download has finished. */
+    public synchronized Mission mission() {
+        return state == State.DONE && mission != null && receivedCount == count ? mission : null;
+    }
+
+    // Items transferred so far, and the total (-1 until known)
+    public int itemsDone() { return itemsDone; }
+    public synchronized int count() { return count; }
+    public int retries() { return retries; }
+    public int duplicates() { return duplicates; }
+
+    // How long the last finished transfer took, or -1
+    public long elapsedMillis() { return elapsedMillis; }
+
+    public double itemsPerSecond() {
+        long millis = elapsedMillis;
+        return millis > 0 ? itemsDone * 1000.0 / millis : 0;
+    }
+
+    // e.g. "mission download 412/3000 items (3 retries)"
+    public synchronized String describe() {
+        return switch (state) {
+            case IDLE -> "no mission transfer";
+            case UPLOADING -> "mission upload " + receivedCount + "/" + count + " items (" + retries + " retries)";
+            case DOWNLOADING -> "mission download " + receivedCount + "/" + (count < 0 ? "?" : count)
+                    + " items (" + retries + " retries)";
+            case DONE -> count + " mission items transferred";
+            case FAILED -> "mission transfer failed at " + receivedCount + "/" + count + " items";
+        };
+    }
+}
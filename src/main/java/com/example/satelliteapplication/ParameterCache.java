@@ -0,0 +1,149 @@
+package com.example.satelliteapplication;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Parameter sets on disk, one file per vehicle and set hash, so a vehicle that reports the
+ * hash of a set it had before can be loaded without downloading anything. Files are plain
+ * text, one parameter per line:
+ * <pre>
+ *   # hash 1A2B3C4D vehicle
+ *   0 SYSID_THISMAV 6 00000001
+ * </pre>
+ * "vehicle" marks a hash the autopilot reported itself (so it answers hash checks);
+ * "computed" one this station calculated for an autopilot that does not. The newest
+ * {@value #MAX_SETS_PER_VEHICLE} sets per vehicle are kept.
+ */
+public class ParameterCache {
+
+    public static final int MAX_SETS_PER_VEHICLE = 4;
+
+    private final Path directory;
+
+    public ParameterCache(Path directory) {
+        this.directory = directory;
+    }
+
+    // ~/NazarX GCS/params, next to the recordings
+    public static ParameterCache defaultCache() {
+        return new ParameterCache(Path.of(System.getProperty("user.home"), "NazarX GCS", "params"));
+    }
+
+    private static String prefix(int systemId, int componentId) {
+        return "sys" + systemId + "-comp" + componentId + "-";
+    }
+
+    private Path file(int systemId, int componentId, long hash) {
+        return directory.resolve(prefix(systemId, componentId) + String.format("%08X", hash) + ".params");
+    }
+
+    /** The cached set with this hash, or null. */
+    public ParameterSet find(int systemId, int componentId, long hash) {
+        Path file = file(systemId, componentId, hash);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return read(file);
+        } catch (IOException | RuntimeException e) {
+            return null;  // A damaged cache file only costs a download
+        }
+    }
+
+    /** Whether a set cached for this vehicle was keyed by a hash the vehicle reported itself. */
+    public boolean answersHashCheck(int systemId, int componentId) {
+        for (Path file : files(systemId, componentId)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+                String header = reader.readLine();
+                if (header != null && header.endsWith(" vehicle")) {
+                    return true;
+                }
+            } catch (IOException e) {
+                // Skip unreadable files
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stores a set under its hash: the one the vehicle reported when there is one, otherwise
+     * {@link ParameterSet#hash()}. Written to a temporary file first, so a crash never leaves
+     * a half-written set behind.
+     */
+    public void save(int systemId, int componentId, ParameterSet set, long vehicleHash, boolean fromVehicle)
+            throws IOException {
+        Files.createDirectories(directory);
+        long hash = fromVehicle ? vehicleHash : set.hash();
+        Path target = file(systemId, componentId, hash);
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.US_ASCII)) {
+            writer.write(String.format("# hash %08X %s%n", hash, fromVehicle ? "vehicle" : "computed"));
+            for (int i = 0; i < set.size(); i++) {
+                writer.write(String.format("%d %s %d %08X%n", i, set.name(i), set.type(i), set.bits(i)));
+            }
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        prune(systemId, componentId);
+    }
+
+    private void prune(int systemId, int componentId) throws IOException {
+        List<Path> files = files(systemId, componentId);
+        files.sort(Comparator.comparing(ParameterCache::modified).reversed());
+        for (int i = MAX_SETS_PER_VEHICLE; i < files.size(); i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    private static long modified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private List<Path> files(int systemId, int componentId) {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        String prefix = prefix(systemId, componentId);
+        try (Stream<Path> entries = Files.list(directory)) {
+            entries.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(prefix) && name.endsWith(".params");
+            }).forEach(files::add);
+        } catch (IOException e) {
+            // Treat as empty
+        }
+        return files;
+    }
+
+    private static ParameterSet read(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.US_ASCII);
+        int count = lines.size() - 1;
+        String[] names = new String[count];
+        byte[] types = new byte[count];
+        int[] bits = new int[count];
+        for (int i = 0; i < count; i++) {
+            String[] fields = lines.get(i + 1).split(" ");
+            if (Integer.parseInt(fields[0]) != i) {
+                throw new IOException("parameter " + i + " out of order in " + file);
+            }
+            names[i] = fields[1];
+            types[i] = (byte) Integer.parseInt(fields[2]);
+            bits[i] = Integer.parseUnsignedInt(fields[3], 16);
+        }
+        return new ParameterSet(names, types, bits);
+    }
+}
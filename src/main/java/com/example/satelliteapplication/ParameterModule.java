@@ -0,0 +1,54 @@
+package com.example.satelliteapplication;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// Parameter values reported with PARAM_VALUE
+public class ParameterModule implements TelemetryModule {
+
+    private final Map<String, Float> values = new ConcurrentHashMap<>();
+    private final Consumer<String> log;
+
+    public ParameterModule(Consumer<String> log) {
+        this.log = log;
+    }
+
+    @Override
+    public void register(MessageDispatcher dispatcher) {
+        dispatcher.subscribe(MavlinkMessages.PARAM_VALUE, this::onParamValue);
+    }
+
+    private void onParamValue(MavlinkFrame frame) {
+        // param_value f32 @0, param_count u16 @4, param_index u16 @6, param_id char[16] @8
+        String name = paramId(frame, 8);
+        float value = frame.f32(0);
+        Float previous = values.put(name, value);
+        if (previous == null || previous != value) {
+            log.accept("Param " + name + " = " + value);
+        }
+    }
+
+    public Float value(String name) {
+        return values.get(name);
+    }
+
+    public Map<String, Float> values() {
+        return Map.copyOf(values);
+    }
+
+    // NUL-padded ASCII, not terminated when all 16 characters are used
+    static String paramId(MavlinkFrame frame, int offset) {
+        byte[] id = new byte[16];
+        int length = 0;
+        while (length < 16) {
+            int c = frame.u8(offset + length);
+            if (c == 0) {
+                break;
+            }
+            id[length++] = (byte) c;
+        }
+        return new String(id, 0, length, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.satelliteapplication;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A complete parameter table as the vehicle indexes it, in parallel arrays. Values are kept
+ * as the raw 32 bits of PARAM_VALUE's param_value, so integer parameters sent bytewise
+ * survive a round trip through the cache unchanged.
+ */
+public final class ParameterSet {
+
+    private final String[] names;
+    private final byte[] types;
+    private final int[] bits;
+
+    public ParameterSet(String[] names, byte[] types, int[] bits) {
+        if (names.length != types.length || names.length != bits.length) {
+            throw new IllegalArgumentException("parameter arrays differ in length");
+        }
+        this.names = names.clone();
+        this.types = types.clone();
+        this.bits = bits.clone();
+    }
+
+    public int size() { return names.length; }
+    public String name(int index) { return names[index]; }
+    public int type(int index) { return types[index] & 0xFF; }
+    public int bits(int index) { return bits[index]; }
+
+    // param_value as sent; integer parameters are converted to float by ArduPilot but sent bytewise by PX4
+    public float value(int index) {
+        return Float.intBitsToFloat(bits[index]);
+    }
+
+    // Name to value, in index order
+    public Map<String, Float> values() {
+        Map<String, Float> values = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            values.put(names[i], value(i));
+        }
+        return values;
+    }
+
+    /**
+     * CRC32 over each parameter's name and value bits in index order, without the usual
+     * pre- and post-inversion; the same hash PX4 reports for the {@code _HASH_CHECK}
+     * parameter.
+     */
+    public long hash() {
+        int crc = 0;
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i];
+            for (int c = 0; c < name.length(); c++) {
+                crc = crc32(crc, name.charAt(c));
+            }
+            int value = bits[i];
+            for (int b = 0; b < 4; b++) {
+                crc = crc32(crc, value >>> (8 * b));
+            }
+        }
+        return crc & 0xFFFFFFFFL;
+    }
+
+    private static int crc32(int crc, int b) {
+        crc ^= b & 0xFF;
+        for (int k = 0; k < 8; k++) {
+            crc = (crc >>> 1) ^ (0xEDB88320 & -(crc & 1));
+        }
+        return crc;
+    }
+}
@@ -0,0 +1,423 @@
+package com.example.satelliteapplication;
+
+import io.dronefleet.mavlink.common.ParamRequestList;
+import io.dronefleet.mavlink.common.ParamRequestRead;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Downloads a vehicle's full parameter table and keeps it current.
+ *
+ * A sync asks for the whole list once (PARAM_REQUEST_LIST) and lets the autopilot stream it.
+ * Parameters arrive in index order, so an index that is still missing once the stream has
+ * moved {@value #REORDER_SLACK} past it was lost; those gaps, and everything missing when the
+ * stream goes quiet, are re-requested by index in windows of up to {@value #WINDOW} requests
+ * in flight. Nothing is ever fetched one round trip at a time, so a lossy radio costs a few
+ * re-requests rather than a minute of waiting.
+ *
+ * With a {@link ParameterCache}, a vehicle that reports a set hash ({@code _HASH_CHECK}) is
+ * asked for it first; if a set with that hash is cached, nothing is downloaded at all. A hash
+ * that is not cached means the whole table is downloaded again: the hash covers the whole
+ * set and autopilots offer no way to ask for only the entries that changed. After
+ * a sync, PARAM_VALUEs the vehicle sends on its own (a parameter changed) update the table
+ * and the cache, so the next connection still matches. The hash is asked for again after such
+ * a change, and the set is only filed under a vehicle hash reported after it; otherwise under
+ * the hash computed here, so an old hash never leads back to values it did not cover.
+ *
+ * {@link #tick} runs on a scheduler about every 100 ms; the frame handler runs on the
+ * vehicle's telemetry thread and only records what arrived. Every request, and every cache
+ * read or write, is made from {@link #start} or {@link #tick}; the cache is touched outside
+ * the lock the frame handler needs.
+ */
+public class ParameterSync implements TelemetryModule {
+
+    public enum State { IDLE, HASH_CHECK, LISTING, FILLING, DONE, FAILED }
+
+    static final String HASH_CHECK_ID = "_HASH_CHECK";
+
+    private static final long HASH_TIMEOUT_NANOS = 1_500_000_000L;
+    private static final long LIST_TIMEOUT_NANOS = 3_000_000_000L;
+    private static final int LIST_ATTEMPTS = 3;
+    // No value for this long means the list stream has finished
+    private static final long QUIET_NANOS = 500_000_000L;
+    private static final int REORDER_SLACK = 8;
+    private static final int WINDOW = 16;
+    // Re-requests time out after a multiple of the measured response time, within these bounds
+    private static final long MIN_REQUEST_TIMEOUT_NANOS = 500_000_000L;
+    private static final long MAX_REQUEST_TIMEOUT_NANOS = 5_000_000_000L;
+    private static final int MAX_ATTEMPTS = 6;
+    // Unsolicited changes are saved once they stop arriving
+    private static final long SAVE_DELAY_NANOS = 2_000_000_000L;
+
+    private final Vehicle vehicle;
+    private final StreamRateController.Sender sender;
+    private final ParameterCache cache;
+    private final Consumer<String> log;
+
+    // Sync state, guarded by this
+    private State state = State.IDLE;
+    private long stateSinceNanos;
+    private long startedNanos;
+    private long lastValueNanos;
+    private int listRequests;
+    private int count = -1;
+    private String[] names = new String[0];
+    private byte[] types = new byte[0];
+    private int[] bits = new int[0];
+    private final BitSet received = new BitSet();
+    private long[] requestedAtNanos = new long[0];
+    private byte[] attempts = new byte[0];
+    private final Map<String, Integer> indexByName = new HashMap<>();
+    private int highestIndex = -1;
+    private long responseNanos = MIN_REQUEST_TIMEOUT_NANOS;  // smoothed re-request round trip
+    private long vehicleHash;
+    private boolean hasVehicleHash;
+    private boolean hashWanted;  // the next tick asks for the hash again
+    private boolean dirty;
+    private long saveAtNanos;
+    private ParameterSet set;
+
+    // For displays
+    private volatile int receivedCount;
+    private volatile int reRequests;
+    private volatile long syncMillis = -1;
+
+    /**
+     * @param cache where parameter sets are kept between connections, or null for none
+     */
+    public ParameterSync(Vehicle vehicle, StreamRateController.Sender sender, ParameterCache cache,
+                         Consumer<String> log) {
+        this.vehicle = vehicle;
+        this.sender = sender;
+        this.cache = cache;
+        this.log = log;
+    }
+
+    @Override
+    public void register(MessageDispatcher dispatcher) {
+        dispatcher.subscribe(MavlinkMessages.PARAM_VALUE, this::onParamValue);
+    }
+
+    /**
+     * Starts a sync, abandoning any in progress.
+     *
+     * @param useCache whether a cached set may stand in for the download
+     */
+    public synchronized void start(boolean useCache) {
+        long now = System.nanoTime();
+        startedNanos = now;
+        syncMillis = -1;
+        reRequests = 0;
+        listRequests = 0;
+        hasVehicleHash = false;
+        hashWanted = false;
+        reset(-1);
+        if (useCache && cache != null && cache.answersHashCheck(vehicle.systemId(), vehicle.componentId())) {
+            enter(State.HASH_CHECK, now);
+            requestHash();
+        } else {
+            requestList(now);
+            if (cache != null) {
+                // Alongside the download, to learn whether this vehicle can skip the next one
+                requestHash();
+            }
+        }
+    }
+
+    private void requestHash() {
+        send(ParamRequestRead.builder()
+                .targetSystem(vehicle.systemId())
+                .targetComponent(vehicle.componentId())
+                .paramId(HASH_CHECK_ID)
+                .paramIndex(-1)
+                .build());
+    }
+
+    private void reset(int newCount) {
+        count = newCount;
+        int size = Math.max(0, newCount);
+        names = new String[size];
+        types = new byte[size];
+        bits = new int[size];
+        requestedAtNanos = new long[size];
+        attempts = new byte[size];
+        received.clear();
+        indexByName.clear();
+        highestIndex = -1;
+        receivedCount = 0;
+        set = null;
+    }
+
+    private void requestList(long now) {
+        enter(State.LISTING, now);
+        listRequests++;
+        lastValueNanos = now;
+        send(ParamRequestList.builder()
+                .targetSystem(vehicle.systemId())
+                .targetComponent(vehicle.componentId())
+                .build());
+    }
+
+    private void enter(State newState, long now) {
+        state = newState;
+        stateSinceNanos = now;
+    }
+
+    private void onParamValue(MavlinkFrame frame) {
+        // param_value f32 @0, param_count u16 @4, param_index u16 @6, param_id char[16] @8, param_type u8 @24
+        String name = ParameterModule.paramId(frame, 8);
+        int value = frame.i32(0);
+        int total = frame.u16(4);
+        int index = frame.u16(6);
+        int type = frame.u8(24);
+        long now = System.nanoTime();
+
+        synchronized (this) {
+            if (name.equals(HASH_CHECK_ID)) {
+                // Looked up in the cache by the next tick
+                vehicleHash = value & 0xFFFFFFFFL;
+                hasVehicleHash = true;
+                return;
+            }
+            if (total != count && (state == State.LISTING || state == State.FILLING)) {
+                reset(total);  // First value, or the vehicle's table changed under us
+            }
+            if (index >= count) {
+                // Sent on its own after a change, with index 65535 on some autopilots
+                Integer known = indexByName.get(name);
+                if (known == null) {
+                    return;
+                }
+                index = known;
+            }
+            boolean changed = bits[index] != value || !received.get(index);
+            names[index] = name;
+            types[index] = (byte) type;
+            bits[index] = value;
+            indexByName.put(name, index);
+            if (!received.get(index)) {
+                received.set(index);
+                receivedCount++;
+                if (requestedAtNanos[index] != 0) {
+                    responseNanos += (now - requestedAtNanos[index] - responseNanos) / 4;
+                }
+            }
+            highestIndex = Math.max(highestIndex, index);
+            lastValueNanos = now;
+
+            if ((state == State.LISTING || state == State.FILLING) && receivedCount == count) {
+                complete(now);
+            } else if (state == State.DONE && changed) {
+                set = null;
+                dirty = true;
+                saveAtNanos = now + SAVE_DELAY_NANOS;
+                // The reported hash was for the old values (and the change may be lost on a reboot)
+                if (hasVehicleHash) {
+                    hasVehicleHash = false;
+                    hashWanted = true;
+                }
+            }
+        }
+    }
+
+    // The cache has been searched for the hash the vehicle reported during the hash check
+    private void onHash(long hash, ParameterSet cached, long now) {
+        if (cached == null) {
+            log.accept("Parameters changed since last connection, downloading");
+            requestList(now);
+            return;
+        }
+        reset(cached.size());
+        for (int i = 0; i < cached.size(); i++) {
+            names[i] = cached.name(i);
+            types[i] = (byte) cached.type(i);
+            bits[i] = cached.bits(i);
+            indexByName.put(names[i], i);
+        }
+        received.set(0, count);
+        receivedCount = count;
+        set = cached;
+        syncMillis = (now - startedNanos) / 1_000_000;
+        enter(State.DONE, now);
+        log.accept(String.format("%d parameters unchanged (hash %08X), loaded from cache", count, hash));
+    }
+
+    private void complete(long now) {
+        syncMillis = (now - startedNanos) / 1_000_000;
+        enter(State.DONE, now);
+        log.accept(String.format("Downloaded %d parameters in %.1f s (%d re-requested)",
+                count, syncMillis / 1000.0, reRequests));
+        // Written by the next tick, off the telemetry thread
+        dirty = true;
+        saveAtNanos = now;
+    }
+
+    private void save(ParameterSet toSave, long hash, boolean fromVehicle) {
+        try {
+            cache.save(vehicle.systemId(), vehicle.componentId(), toSave, hash, fromVehicle);
+        } catch (IOException e) {
+            log.accept("Failed to cache parameters: " + e.getMessage());
+        }
+    }
+
+    // Looks up a reported hash, advances timeouts and re-requests, and saves changes; call about every 100 ms
+    public void tick() {
+        long hash;
+        boolean lookUp;
+        synchronized (this) {
+            lookUp = state == State.HASH_CHECK && hasVehicleHash;
+            hash = vehicleHash;
+        }
+        // Reads files, so outside the lock the frame handler needs
+        ParameterSet cached = lookUp ? cache.find(vehicle.systemId(), vehicle.componentId(), hash) : null;
+
+        ParameterSet toSave = null;
+        boolean fromVehicle;
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (lookUp && state == State.HASH_CHECK && hasVehicleHash && vehicleHash == hash) {
+                onHash(hash, cached, now);
+            }
+            if (hashWanted) {
+                hashWanted = false;
+                requestHash();
+            }
+            advance(now);
+            if (state == State.DONE && dirty && now - saveAtNanos >= 0) {
+                dirty = false;
+                if (cache != null && receivedCount == count && count > 0) {
+                    toSave = snapshot();
+                }
+            }
+            hash = vehicleHash;
+            fromVehicle = hasVehicleHash;
+        }
+        if (toSave != null) {
+            save(toSave, hash, fromVehicle);
+        }
+    }
+
+    private void advance(long now) {
+        switch (state) {
+            case HASH_CHECK -> {
+                if (now - stateSinceNanos > HASH_TIMEOUT_NANOS) {
+                    requestList(now);  // The autopilot does not answer hash checks after all
+                }
+            }
+            case LISTING -> {
+                if (receivedCount == 0) {
+                    if (now - stateSinceNanos > LIST_TIMEOUT_NANOS) {
+                        if (listRequests < LIST_ATTEMPTS) {
+                            requestList(now);
+                        } else {
+                            enter(State.FAILED, now);
+                            log.accept("No parameters received from " + vehicle);
+                        }
+                    }
+                } else if (now - lastValueNanos > QUIET_NANOS) {
+                    // Replies to requests made during the stream waited behind it; only now do attempts count
+                    Arrays.fill(attempts, (byte) 0);
+                    enter(State.FILLING, now);
+                    requestMissing(count, now);
+                } else {
+                    // Lost on the way: the stream has already moved past them
+                    requestMissing(highestIndex - REORDER_SLACK, now);
+                }
+            }
+            case FILLING -> requestMissing(count, now);
+            default -> {
+            }
+        }
+    }
+
+    // Re-requests missing indexes below the limit, keeping at most WINDOW requests unanswered
+    private void requestMissing(int limit, long now) {
+        // While the list is still streaming, a request made during it is answered after it
+        boolean streaming = state == State.LISTING;
+        long timeout = Math.max(MIN_REQUEST_TIMEOUT_NANOS, Math.min(MAX_REQUEST_TIMEOUT_NANOS, 3 * responseNanos));
+        int inFlight = 0;
+        for (int i = received.nextClearBit(0); i < count; i = received.nextClearBit(i + 1)) {
+            if (requestedAtNanos[i] != 0 && (streaming || now - requestedAtNanos[i] < timeout)) {
+                inFlight++;
+            }
+        }
+        for (int i = received.nextClearBit(0); i < Math.min(limit, count) && inFlight < WINDOW;
+             i = received.nextClearBit(i + 1)) {
+            if (requestedAtNanos[i] != 0 && (streaming || now - requestedAtNanos[i] < timeout)) {
+                continue;
+            }
+            if (attempts[i] >= MAX_ATTEMPTS) {
+                fail(i, now);
+                return;
+            }
+            attempts[i]++;
+            requestedAtNanos[i] = now;
+            inFlight++;
+            reRequests++;
+            send(ParamRequestRead.builder()
+                    .targetSystem(vehicle.systemId())
+                    .targetComponent(vehicle.componentId())
+                    .paramIndex(i)
+                    .build());
+        }
+    }
+
+    private void fail(int index, long now) {
+        enter(State.FAILED, now);
+        log.accept(String.format("Parameter download incomplete: %d of %d, index %d never arrived",
+                receivedCount, count, index));
+    }
+
+    private void send(Object message) {
+        try {
+            sender.send(message);
+        } catch (IOException e) {
+            log.accept("Parameter request failed: " + e.getMessage());
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    // Parameters received so far, and how many the vehicle has (-1 until known)
+    public int receivedCount() { return receivedCount; }
+    public synchronized int count() { return count; }
+    public int reRequests() { return reRequests; }
+
+    // How long the last completed sync took, or -1
+    public long syncMillis() { return syncMillis; }
+
+    /** The complete table, or null until a sync has finished. */
+    public synchronized ParameterSet snapshot() {
+        if (receivedCount != count || count < 0) {
+            return null;
+        }
+        if (set == null) {
+            set = new ParameterSet(Arrays.copyOf(names, count), Arrays.copyOf(types, count),
+                    Arrays.copyOf(bits, count));
+        }
+        return set;
+    }
+
+    public synchronized Float value(String name) {
+        Integer index = indexByName.get(name);
+        return index == null ? null : Float.intBitsToFloat(bits[index]);
+    }
+
+    // e.g. "412/870 parameters" while syncing, "870 parameters" when done
+    public synchronized String describe() {
+        return switch (state) {
+            case IDLE -> "parameters not requested";
+            case HASH_CHECK -> "checking parameter hash";
+            case LISTING, FILLING -> (count < 0 ? 0 : receivedCount) + "/" + (count < 0 ? "?" : count) + " parameters";
+            case DONE -> count + " parameters";
+            case FAILED -> receivedCount + "/" + count + " parameters (incomplete)";
+        };
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.satelliteapplication;
+
+import com.fazecast.jSerialComm.SerialPort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Finds the serial port and baud rate a MAVLink radio is on. Every candidate port is probed
+ * at the same time on its own thread; each probe walks the baud rates, most likely first,
+ * and moves on as soon as a rate clearly produces garbage instead of listening for a fixed
+ * time. MAVLink counts as found only when a whole frame passes its CRC, never on a stray
+ * magic byte.
+ *
+ * With telemetry flowing at the first rate tried, a port is confirmed within tens of
+ * milliseconds; a link carrying only heartbeats takes up to about a second. Such a sparse
+ * link never sends enough garbage at a wrong rate to be ruled out by volume, so each rate
+ * also gets a time budget: a heartbeat period, or an even share of the timeout if that is
+ * longer.
+ */
+public class PortDiscovery {
+
+    // Radio defaults first, then the usual flight-controller rates
+    public static final int[] DEFAULT_BAUD_RATES = {57600, 115200, 921600, 460800, 230400, 38400, 19200, 9600};
+    // Enough to walk every rate on a heartbeat-only link; busy links and wrong rates end far sooner
+    public static final long DEFAULT_TIMEOUT_MS = 9000;
+
+    private static final int READ_TIMEOUT_MS = 50;
+    // A silent line is silent at every rate; heartbeats come at 1 Hz
+    private static final long SILENCE_MS = 1100;
+    // Enough for a few frames; a wrong rate never frames that many bytes
+    private static final long GARBAGE_BYTES = 512;
+    private static final long GARBAGE_CRC_ERRORS = 4;
+    // Data but no valid frame for this long rules a rate out, however little data came
+    private static final long NO_FRAME_MS = 1100;
+
+    /** How one baud rate fared on one port. */
+    public record Attempt(int baudRate, long bytes, long crcErrors, long millis, String verdict) {
+    }
+
+    /** A confirmed MAVLink link: the first CRC-valid frame and where it came from. */
+    public record Result(SerialPort port, int baudRate, int systemId, int componentId, int messageId,
+                         long elapsedMillis) {
+    }
+
+    /** Everything tried on one port; {@code result} is null if MAVLink was not found. */
+    public record PortReport(SerialPort port, Result result, List<Attempt> attempts, String summary) {
+    }
+
+    private final int[] baudRates;
+    private final long timeoutMillis;
+    private final long rateBudgetNanos;
+
+    public PortDiscovery() {
+        this(DEFAULT_BAUD_RATES, DEFAULT_TIMEOUT_MS);
+    }
+
+    public PortDiscovery(int[] baudRates, long timeoutMillis) {
+        this.baudRates = baudRates.clone();
+        this.timeoutMillis = timeoutMillis;
+        this.rateBudgetNanos = Math.max(NO_FRAME_MS, timeoutMillis / Math.max(1, baudRates.length)) * 1_000_000;
+    }
+
+    // Ports whose description suggests a USB-serial radio such as the LR900 (CP210x)
+    public static List<SerialPort> candidatePorts() {
+        List<SerialPort> candidates = new ArrayList<>();
+        for (SerialPort port : SerialPort.getCommPorts()) {
+            String description = port.getDescriptivePortName().toLowerCase();
+            if (description.contains("cp210") || description.contains("usb") ||
+                    description.contains("serial") || description.contains("uart")) {
+                candidates.add(port);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns as soon as any port is confirmed, stopping the other probes. The winning port
+     * is left open at the detected baud rate for the caller to use.
+     */
+    public Optional<Result> findFirst(List<SerialPort> ports) {
+        AtomicReference<Result> winner = new AtomicReference<>();
+        AtomicBoolean stop = new AtomicBoolean();
+        runProbes(ports, stop, winner);
+        return Optional.ofNullable(winner.get());
+    }
+
+    /** Probes every port to the end and reports what each baud rate produced. All ports are closed afterwards. */
+    public List<PortReport> probeAll(List<SerialPort> ports) {
+        return runProbes(ports, new AtomicBoolean(), null);
+    }
+
+    private List<PortReport> runProbes(List<SerialPort> ports, AtomicBoolean stop, AtomicReference<Result> winner) {
+        if (ports.isEmpty()) {
+            return List.of();
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(ports.size(), runnable -> {
+            Thread thread = new Thread(runnable, "port-discovery");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<PortReport>> futures = new ArrayList<>();
+            for (SerialPort port : ports) {
+                futures.add(executor.submit(() -> probe(port, stop, winner)));
+            }
+            List<PortReport> reports = new ArrayList<>();
+            for (Future<PortReport> future : futures) {
+                try {
+                    reports.add(future.get(timeoutMillis + 1000, TimeUnit.MILLISECONDS));
+                } catch (Exception e) {
+                    stop.set(true);
+                }
+            }
+            return reports;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private PortReport probe(SerialPort port, AtomicBoolean stop, AtomicReference<Result> winner) {
+        List<Attempt> attempts = new ArrayList<>();
+        long start = System.nanoTime();
+        long deadline = start + timeoutMillis * 1_000_000;
+
+        port.setNumDataBits(8);
+        port.setNumStopBits(1);
+        port.setParity(SerialPort.NO_PARITY);
+        port.setBaudRate(baudRates[0]);
+        port.setComPortTimeouts(SerialPort.TIMEOUT_READ_SEMI_BLOCKING, READ_TIMEOUT_MS, 0);
+        if (!port.openPort()) {
+            return new PortReport(port, null, attempts, "cannot open");
+        }
+
+        boolean keepOpen = false;
+        try {
+            byte[] buffer = new byte[1024];
+            MavlinkFrame[] found = new MavlinkFrame[1];
+            MavlinkFrameParser.FrameHandler capture = frame -> {
+                if (found[0] == null) {
+                    found[0] = new MavlinkFrame();
+                    found[0].wrap(frame.raw(), 0, frame.length());
+                }
+            };
+            for (int baudRate : baudRates) {
+                if (stop.get() || System.nanoTime() >= deadline) {
+                    break;
+                }
+                port.setBaudRate(baudRate);
+                port.flushIOBuffers();  // Drop anything received at the previous rate
+
+                MavlinkFrameParser parser = new MavlinkFrameParser();
+                long baudStart = System.nanoTime();
+                long bytes = 0;
+                String verdict = "timeout";
+                while (!stop.get() && System.nanoTime() < deadline) {
+                    int count = port.readBytes(buffer, buffer.length);
+                    if (count < 0) {
+                        verdict = "read error";
+                        break;
+                    }
+                    if (count > 0) {
+                        bytes += count;
+                        parser.parse(buffer, 0, count, capture);
+                        if (found[0] != null) {
+                            verdict = "MAVLink";
+                            break;
+                        }
+                        if (parser.bytesDiscarded() >= GARBAGE_BYTES || parser.crcErrors() >= GARBAGE_CRC_ERRORS) {
+                            verdict = "garbage";
+                            break;
+                        }
+                    } else if (bytes == 0 && (System.nanoTime() - baudStart) / 1_000_000 >= SILENCE_MS) {
+                        verdict = "silent";
+                        break;
+                    }
+                    if (bytes > 0 && System.nanoTime() - baudStart >= rateBudgetNanos) {
+                        verdict = "no frame";
+                        break;
+                    }
+                }
+                attempts.add(new Attempt(baudRate, bytes, parser.crcErrors(),
+                        (System.nanoTime() - baudStart) / 1_000_000, verdict));
+
+                if (found[0] != null) {
+                    MavlinkFrame frame = found[0];
+                    Result result = new Result(port, baudRate, frame.systemId(), frame.componentId(),
+                            frame.messageId(), (System.nanoTime() - start) / 1_000_000);
+                    if (winner == null) {
+                        return new PortReport(port, result, attempts, "MAVLink at " + baudRate + " baud");
+                    }
+                    if (winner.compareAndSet(null, result)) {
+                        stop.set(true);
+                        keepOpen = true;
+                    }
+                    return new PortReport(port, result, attempts, "MAVLink at " + baudRate + " baud");
+                }
+                if (verdict.equals("silent") || verdict.equals("read error")) {
+                    // No baud rate turns a quiet or failed line into data
+                    return new PortReport(port, null, attempts, verdict);
+                }
+            }
+            return new PortReport(port, null, attempts, stop.get() ? "stopped" : "no MAVLink");
+        } finally {
+            if (!keepOpen) {
+                port.closePort();
+            }
+        }
+    }
+}
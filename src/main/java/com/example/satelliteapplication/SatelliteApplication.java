@@ -1,7 +1,9 @@
 package com.example.satelliteapplication;
 
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
 import javafx.application.Platform;
+import javafx.collections.transformation.FilteredList;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
@@ -11,15 +13,25 @@ import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontPosture;
 import javafx.scene.text.FontWeight;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import javafx.util.StringConverter;
 import com.fazecast.jSerialComm.SerialPort;
 import io.dronefleet.mavlink.MavlinkConnection;
-import io.dronefleet.mavlink.MavlinkMessage;
-import io.dronefleet.mavlink.common.*;
-import io.dronefleet.mavlink.minimal.Heartbeat;
+import java.io.File;
 import java.io.IOException;
-import java.time.LocalTime;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -28,17 +40,75 @@ import java.util.concurrent.TimeUnit;
 
 public class SatelliteApplication extends Application {
 
-    private SerialPort serialPort;
-    private MavlinkConnection mavlinkConnection;
-    private Thread readThread;
+    private MavlinkTransport transport;
+    private volatile MavlinkConnection mavlinkConnection;
+    private volatile MavlinkPipeline pipeline;
     private final AtomicBoolean isRunning = new AtomicBoolean(false);
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
 
+    // Per-vehicle telemetry written by the telemetry thread; the selected vehicle is rendered once per frame
+    private final VehicleRegistry vehicleRegistry = new VehicleRegistry(this::setUpVehicle, this::onVehicleDiscovered);
+    private TelemetryRenderer telemetryRenderer;
+    private AnimationTimer uiPulse;
+
     // UI Components
-    private ComboBox<SerialPortInfo> portComboBox;
+    private ComboBox<LinkOption> portComboBox;
+    private ComboBox<Vehicle> vehicleComboBox;
     private Button connectButton;
     private Label connectionStatus;
-    private TextArea logArea;
+    private ListView<LogEntry> logView;
+    private CheckBox autoScrollBox;
+    private Label pipelineLabel;
+    private long lastPipelineUpdate;
+
+    // Bounded log, flushed into the list view once per frame
+    private final MessageLog messageLog = new MessageLog(5000);
+
+    // Link quality, counted on the metrics consumer and sampled once per second
+    private final LinkMetrics linkMetrics = new LinkMetrics();
+    private TitledPane statsPane;
+    private Label statsLabel;
+
+    // History of the selected vehicle; redrawn from the frame pulse while its pane is open
+    private final TelemetryChart telemetryChart = new TelemetryChart();
+    private TitledPane chartPane;
+
+    // Flight track over offline tiles; likewise only drawn while open
+    private final TileCache tileCache = TileCache.defaultCache();
+    private final TrackMapView mapView = new TrackMapView(tileCache);
+    private TitledPane mapPane;
+
+    // One per discovered vehicle while connected to a live link, ticked once per second
+    private final List<StreamRateController> streamControllers = new CopyOnWriteArrayList<>();
+    // Likewise one parameter sync per vehicle, ticked every 100 ms
+    private final List<ParameterSync> parameterSyncs = new CopyOnWriteArrayList<>();
+    private final ParameterCache parameterCache = ParameterCache.defaultCache();
+    // And one mission transfer, also ticked every 100 ms
+    private final List<MissionTransfer> missionTransfers = new CopyOnWriteArrayList<>();
+    private volatile boolean liveLink;
+
+    // Alert rules, reloaded on every connect; one evaluator per vehicle, keyed by Vehicle.key()
+    private volatile AlertRules alertRules;
+    private final Map<Integer, AlertModule> alertModules = new ConcurrentHashMap<>();
+    private volatile AlertModule selectedAlerts;
+    private long shownAlertsVersion = -1;
+
+    // Forwards the live link to other tools; non-null while connected with forwarding endpoints
+    private volatile MavlinkRouter router;
+    private TextField forwardField;
+
+    // Raw frame recorder, non-null while recording
+    private volatile TlogRecorder recorder;
+    private CheckBox recordBox;
+
+    // Cold-start milestones of this launch, saved to a CSV on exit
+    private final StartupTimes startupTimes = new StartupTimes(this::log);
+    private boolean scanningPorts;  // FX thread only
+
+    // Set by the packaging script's class-data-sharing training run: fly a simulated vehicle, then quit
+    private static final boolean TRAINING = Boolean.getBoolean("nazarx.cds.training");
+    private static final int TRAINING_PORT = 14565;
+    private static final long TRAINING_SECONDS = 8;
 
     // Telemetry Labels
     private Label batteryLabel;
@@ -49,14 +119,22 @@ public class SatelliteApplication extends Application {
     private Label flightModeLabel;
     private Label satellitesLabel;
     private Label rollPitchYawLabel;
+    private Label missionLabel;
+    private Label alertsLabel;
 
-    private static class SerialPortInfo {
-        SerialPort port;
+    // A serial port or network endpoint to connect to, as a MavlinkTransport spec
+    private static class LinkOption {
+        String spec;
         String displayName;
 
-        SerialPortInfo(SerialPort port) {
-            this.port = port;
-            this.displayName = port.getSystemPortName() + " - " + port.getDescriptivePortName();
+        LinkOption(String spec, String displayName) {
+            this.spec = spec;
+            this.displayName = displayName;
+        }
+
+        LinkOption(SerialPort port) {
+            this("serial:" + port.getSystemPortName() + ":" + SerialTransport.DEFAULT_BAUD_RATE,
+                    port.getSystemPortName() + " - " + port.getDescriptivePortName());
         }
 
         @Override
@@ -65,8 +143,19 @@ public class SatelliteApplication extends Application {
         }
     }
 
+    // Probes every candidate serial port and baud rate at once; see PortDiscovery
+    private static final LinkOption AUTO_LINK = new LinkOption("auto", "Auto-detect serial port and baud");
+
+    // Always offered, for SITL and companion-computer routers on the local machine
+    private static final List<LinkOption> NETWORK_LINKS = List.of(
+            new LinkOption("udp:" + UdpTransport.GCS_PORT, "UDP listen :" + UdpTransport.GCS_PORT),
+            new LinkOption("udpout:127.0.0.1:" + UdpTransport.ROUTER_PORT, "UDP → 127.0.0.1:" + UdpTransport.ROUTER_PORT),
+            new LinkOption("tcp:127.0.0.1:5760", "TCP 127.0.0.1:5760")
+    );
+
     @Override
     public void start(Stage stage) {
+        startupTimes.mark(StartupTimes.Milestone.TOOLKIT);
         Image icon = new Image("icon.png");
         stage.getIcons().add(icon);
         stage.setTitle("NazarX Ground Control Station");
@@ -81,18 +170,82 @@ public class SatelliteApplication extends Application {
         // Telemetry Display Panel
         GridPane telemetryPanel = createTelemetryPanel();
 
+        // Link Statistics Panel
+        TitledPane statsPanel = createStatsPanel();
+
+        // Telemetry Charts Panel
+        TitledPane chartPanel = createChartPanel();
+
+        // Map Panel
+        TitledPane mapPanel = createMapPanel();
+
         // Log Panel
         VBox logPanel = createLogPanel();
 
-        root.getChildren().addAll(connectionPanel, telemetryPanel, logPanel);
+        root.getChildren().addAll(connectionPanel, telemetryPanel, mapPanel, chartPanel, statsPanel, logPanel);
 
         Scene scene = new Scene(root, 800, 600);
         stage.setFullScreen(true);
         stage.setScene(scene);
         stage.show();
 
-        // Initialize
+        // Drive all telemetry label updates from the frame pulse
+        uiPulse = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                startupTimes.mark(StartupTimes.Milestone.WINDOW);
+                telemetryRenderer.render();
+                renderAlerts();
+                if (mapPane.isExpanded()) {
+                    mapView.render();
+                }
+                if (chartPane.isExpanded()) {
+                    telemetryChart.render(now);
+                }
+                if (vehicleComboBox.getValue() != null) {
+                    startupTimes.mark(StartupTimes.Milestone.FIRST_TELEMETRY);
+                }
+                if (messageLog.flush(now) && autoScrollBox.isSelected() && !logView.getItems().isEmpty()) {
+                    logView.scrollTo(logView.getItems().size() - 1);
+                }
+                if (now - lastPipelineUpdate >= 1_000_000_000L) {
+                    lastPipelineUpdate = now;
+                    MavlinkPipeline activePipeline = pipeline;
+                    pipelineLabel.setText(activePipeline == null ? "" : "Queues: " + activePipeline.describeQueues());
+                    statsPane.setText("Link Statistics · " + linkMetrics.summary());
+                    if (statsPane.isExpanded()) {
+                        MavlinkRouter activeRouter = router;
+                        statsLabel.setText(activeRouter == null ? linkMetrics.describe()
+                                : linkMetrics.describe() + "\nForwarding: " + activeRouter.describe());
+                    }
+                }
+            }
+        };
+        uiPulse.start();
+
+        scheduler.scheduleAtFixedRate(linkMetrics::sample, 1, 1, TimeUnit.SECONDS);
+        scheduler.scheduleAtFixedRate(this::tickStreamControllers, 1, 1, TimeUnit.SECONDS);
+        scheduler.scheduleAtFixedRate(this::tickParameterSyncs, 100, 100, TimeUnit.MILLISECONDS);
+        scheduler.scheduleAtFixedRate(this::tickMissionTransfers, 100, 100, TimeUnit.MILLISECONDS);
+
+        // Nothing slow on the FX thread before the first frame: ports and class loading happen while it paints
         refreshPorts();
+        warmUp();
+    }
+
+    // Loads what the first connect needs in the background: the MAVLink dialects (hundreds of classes) and JMX
+    private void warmUp() {
+        Thread warmUp = new Thread(() -> {
+            linkMetrics.registerMBean();
+            MavlinkMessages.maxId();
+            if (TRAINING) {
+                log("Training: decoded " + MavlinkMessages.decodeAll() + " message types");
+            }
+            startupTimes.mark(StartupTimes.Milestone.CLASSES);
+            Platform.runLater(this::startTrainingWhenReady);
+        }, "warm-up");
+        warmUp.setDaemon(true);
+        warmUp.start();
     }
 
     private HBox createConnectionPanel() {
@@ -102,9 +255,28 @@ public class SatelliteApplication extends Application {
 
         portComboBox = new ComboBox<>();
         portComboBox.setPrefWidth(300);
+        // Any other endpoint can be typed as a spec, e.g. tcp:192.168.1.20:5760
+        portComboBox.setEditable(true);
+        portComboBox.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(LinkOption option) {
+                return option == null ? "" : option.displayName;
+            }
+
+            @Override
+            public LinkOption fromString(String text) {
+                for (LinkOption option : portComboBox.getItems()) {
+                    if (option.displayName.equals(text)) {
+                        return option;
+                    }
+                }
+                return text == null || text.isBlank() ? null : new LinkOption(text.trim(), text.trim());
+            }
+        });
 
         Button refreshButton = new Button("🔄 Refresh");
         refreshButton.setOnAction(e -> refreshPorts());
+        refreshButton.disableProperty().bind(portComboBox.disableProperty());
 
         connectButton = new Button("Connect");
         connectButton.setStyle("-fx-background-color: #4CAF50; -fx-text-fill: white;");
@@ -113,9 +285,35 @@ public class SatelliteApplication extends Application {
         connectionStatus = new Label("● Disconnected");
         connectionStatus.setTextFill(Color.RED);
 
+        Button replayButton = new Button("Replay .tlog…");
+        replayButton.setOnAction(e -> chooseReplay());
+        replayButton.disableProperty().bind(portComboBox.disableProperty());
+
+        // Other tools to share the live link with, as transport specs
+        forwardField = new TextField();
+        forwardField.setPrefWidth(220);
+        forwardField.setPromptText("Forward to, e.g. udpout:127.0.0.1:14550");
+        forwardField.disableProperty().bind(portComboBox.disableProperty());
+
+        recordBox = new CheckBox("Record .tlog");
+        recordBox.setOnAction(e -> setRecording(recordBox.isSelected()));
+
+        // Filled as vehicles announce themselves with a HEARTBEAT
+        vehicleComboBox = new ComboBox<>();
+        vehicleComboBox.setPrefWidth(220);
+        vehicleComboBox.setPromptText("Waiting for heartbeat");
+        vehicleComboBox.valueProperty().addListener((observable, previous, vehicle) -> {
+            telemetryRenderer.setState(vehicle == null ? null : vehicle.state());
+            telemetryChart.setSeries(vehicle == null ? null : vehicle.state().series());
+            mapView.setState(vehicle == null ? null : vehicle.state());
+            selectedAlerts = vehicle == null ? null : alertModules.get(vehicle.key());
+            shownAlertsVersion = -1;
+        });
+
         panel.getChildren().addAll(
-                new Label("LR900 Port:"), portComboBox,
-                refreshButton, connectButton, connectionStatus
+                new Label("Link:"), portComboBox,
+                refreshButton, connectButton, replayButton, connectionStatus, recordBox, forwardField,
+                new Label("Vehicle:"), vehicleComboBox
         );
 
         return panel;
@@ -137,6 +335,8 @@ public class SatelliteApplication extends Application {
         flightModeLabel = createDataLabel("Unknown");
         satellitesLabel = createDataLabel("0");
         rollPitchYawLabel = createDataLabel("R:0° P:0° Y:0°");
+        missionLabel = createDataLabel("-");
+        alertsLabel = createDataLabel("-");
 
         // Add labels to grid
         grid.add(createTitleLabel("Battery:"), 0, 0);
@@ -163,9 +363,45 @@ public class SatelliteApplication extends Application {
         grid.add(createTitleLabel("Attitude:"), 2, 3);
         grid.add(rollPitchYawLabel, 3, 3);
 
+        grid.add(createTitleLabel("Mission Item:"), 0, 4);
+        grid.add(missionLabel, 1, 4);
+
+        grid.add(createTitleLabel("Alerts:"), 2, 4);
+        grid.add(alertsLabel, 3, 4);
+
+        telemetryRenderer = new TelemetryRenderer(batteryLabel, gpsLabel, altitudeLabel, speedLabel,
+                armStatusLabel, flightModeLabel, satellitesLabel, rollPitchYawLabel, missionLabel);
+
         return grid;
     }
 
+    private TitledPane createMapPanel() {
+        // Tiles are read from disk only, laid out as z/x/y.png
+        mapPane = new TitledPane("Map · tiles from " + tileCache.directory(), mapView.node());
+        mapPane.setExpanded(false);
+        return mapPane;
+    }
+
+    private TitledPane createChartPanel() {
+        // Collapsed by default; nothing is decimated or laid out while it is closed
+        chartPane = new TitledPane("Telemetry Charts", telemetryChart.node());
+        chartPane.setExpanded(false);
+        return chartPane;
+    }
+
+    private TitledPane createStatsPanel() {
+        statsLabel = new Label();
+        statsLabel.setStyle("-fx-font-family: monospace; -fx-font-size: 11;");
+
+        ScrollPane scroll = new ScrollPane(statsLabel);
+        scroll.setPrefHeight(160);
+
+        // Collapsed by default; the tables are only formatted while it is open
+        statsPane = new TitledPane("Link Statistics", scroll);
+        statsPane.setExpanded(false);
+        return statsPane;
+    }
+
     private VBox createLogPanel() {
         VBox panel = new VBox(5);
         panel.setStyle("-fx-background-color: white; -fx-padding: 10; -fx-background-radius: 5;");
@@ -173,21 +409,48 @@ public class SatelliteApplication extends Application {
         Label logTitle = new Label("Message Log");
         logTitle.setStyle("-fx-font-weight: bold;");
 
-        logArea = new TextArea();
-        logArea.setPrefRowCount(10);
-        logArea.setEditable(false);
-        logArea.setStyle("-fx-font-family: monospace; -fx-font-size: 11;");
+        FilteredList<LogEntry> visibleEntries = new FilteredList<>(messageLog.entries());
+        logView = new ListView<>(visibleEntries);
+        logView.setPrefHeight(200);
+        logView.setStyle("-fx-font-family: monospace; -fx-font-size: 11;");
+        logView.setCellFactory(view -> new LogEntryCell());
+
+        ComboBox<String> filterBox = new ComboBox<>(messageLog.types());
+        filterBox.getSelectionModel().select(MessageLog.ALL);
+        filterBox.setOnAction(e -> {
+            String type = filterBox.getValue();
+            visibleEntries.setPredicate(type == null || MessageLog.ALL.equals(type)
+                    ? null : entry -> entry.type().equals(type));
+        });
+
+        autoScrollBox = new CheckBox("Auto-scroll");
+        autoScrollBox.setSelected(true);
+
+        pipelineLabel = new Label();
+        pipelineLabel.setStyle("-fx-font-family: monospace; -fx-font-size: 11; -fx-text-fill: #666;");
 
         Button clearButton = new Button("Clear Log");
-        clearButton.setOnAction(e -> logArea.clear());
+        clearButton.setOnAction(e -> messageLog.clear());
 
         Button requestStreamsButton = new Button("Request All Streams");
-        requestStreamsButton.setOnAction(e -> requestDataStreams());
+        requestStreamsButton.setOnAction(e -> streamControllers.forEach(StreamRateController::requestAll));
+
+        // Full download even when the cache matches
+        Button parametersButton = new Button("Download Parameters");
+        parametersButton.setOnAction(e -> parameterSyncs.forEach(sync -> scheduler.execute(() -> sync.start(false))));
+
+        Button missionButton = new Button("Download Mission");
+        missionButton.setOnAction(e -> missionTransfers.forEach(transfer -> transfer.download(Mission.TYPE_MISSION)));
+
+        Button exportButton = new Button("Export .tlog…");
+        exportButton.setOnAction(e -> chooseExport());
 
         HBox buttonBox = new HBox(10);
-        buttonBox.getChildren().addAll(clearButton, requestStreamsButton);
+        buttonBox.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
+        buttonBox.getChildren().addAll(clearButton, requestStreamsButton, parametersButton, missionButton, exportButton,
+                new Label("Show:"), filterBox, autoScrollBox, pipelineLabel);
 
-        panel.getChildren().addAll(logTitle, logArea, buttonBox);
+        panel.getChildren().addAll(logTitle, logView, buttonBox);
         return panel;
     }
 
@@ -203,24 +466,54 @@ public class SatelliteApplication extends Application {
         return label;
     }
 
+    // Enumerates serial ports off the FX thread; the first scan also loads jSerialComm's native library
     private void refreshPorts() {
+        if (scanningPorts) {
+            return;
+        }
+        scanningPorts = true;
+        if (portComboBox.getItems().isEmpty()) {
+            // Network links need no scan, so offer them straight away
+            portComboBox.getItems().setAll(NETWORK_LINKS);
+        }
+        Thread scanner = new Thread(() -> {
+            List<SerialPort> ports;
+            try {
+                ports = PortDiscovery.candidatePorts();
+            } catch (RuntimeException | LinkageError e) {
+                log("Serial ports unavailable: " + e.getMessage());
+                ports = List.of();
+            }
+            List<SerialPort> found = ports;
+            Platform.runLater(() -> showPorts(found));
+        }, "port-scan");
+        scanner.setDaemon(true);
+        scanner.start();
+    }
+
+    private void showPorts(List<SerialPort> ports) {
+        scanningPorts = false;
+        // Keep a link picked or typed while the scan ran
+        LinkOption chosen = portComboBox.getValue();
         portComboBox.getItems().clear();
-        SerialPort[] ports = SerialPort.getCommPorts();
 
+        if (!ports.isEmpty()) {
+            portComboBox.getItems().add(AUTO_LINK);
+        }
         for (SerialPort port : ports) {
-            // Look for CP2102 or similar descriptors that might indicate the LR900
-            String description = port.getDescriptivePortName().toLowerCase();
-            if (description.contains("cp210") || description.contains("usb") ||
-                    description.contains("serial") || description.contains("uart")) {
-                portComboBox.getItems().add(new SerialPortInfo(port));
-            }
+            portComboBox.getItems().add(new LinkOption(port));
         }
-
-        if (!portComboBox.getItems().isEmpty()) {
+        int serialCount = ports.size();
+        portComboBox.getItems().addAll(NETWORK_LINKS);
+        if (chosen != null && chosen != AUTO_LINK) {
+            portComboBox.setValue(chosen);
+        } else {
             portComboBox.getSelectionModel().select(0);
         }
 
-        log("Found " + portComboBox.getItems().size() + " potential LR900 ports");
+        log("Found " + serialCount + " potential LR900 ports");
+        startupTimes.mark(StartupTimes.Milestone.PORTS);
+        startTrainingWhenReady();
     }
 
     private void toggleConnection() {
@@ -232,136 +525,342 @@ public class SatelliteApplication extends Application {
     }
 
     private void connect() {
-        SerialPortInfo selected = portComboBox.getValue();
+        LinkOption selected = portComboBox.getValue();
         if (selected == null) {
             showAlert("Please select a port");
             return;
         }
 
-        serialPort = selected.port;
+        startupTimes.mark(StartupTimes.Milestone.CONNECT);
+        // Opening can take a while (port settling, auto-detection, TCP connect), so keep it off the FX thread.
+        // The link choice, Refresh, Replay and Forward follow the port combo and stay off until it settles.
+        connectButton.setDisable(true);
+        portComboBox.setDisable(true);
+        connectionStatus.setText(selected == AUTO_LINK ? "● Detecting..." : "● Connecting...");
+        connectionStatus.setTextFill(Color.ORANGE);
+        String forwardSpecs = forwardField.getText().trim();
+        Thread opener = new Thread(() -> {
+            long start = System.nanoTime();
+            try {
+                MavlinkTransport opened = MavlinkTransport.open(selected.spec);
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                List<MavlinkTransport> forwards = openForwards(forwardSpecs);
+                Platform.runLater(() -> {
+                    connectButton.setDisable(false);
+                    if (selected == AUTO_LINK) {
+                        log("Detected MAVLink on " + opened.describe() + " in " + millis + " ms");
+                    }
+                    onTransportOpened(opened, forwards);
+                });
+            } catch (IOException | IllegalArgumentException e) {
+                Platform.runLater(() -> {
+                    connectButton.setDisable(false);
+                    portComboBox.setDisable(false);
+                    connectionStatus.setText("● Disconnected");
+                    connectionStatus.setTextFill(Color.RED);
+                    showAlert("Failed to open " + selected + ": " + e.getMessage());
+                });
+            }
+        }, "link-open");
+        opener.setDaemon(true);
+        opener.start();
+    }
 
-        // Configure for LR900 defaults
-        serialPort.setBaudRate(57600); // Default for USB interface
-        serialPort.setNumDataBits(8);
-        serialPort.setNumStopBits(1);
-        serialPort.setParity(SerialPort.NO_PARITY);
-        // Increase timeout and add write timeout for LR900
-        serialPort.setComPortTimeouts(SerialPort.TIMEOUT_READ_SEMI_BLOCKING, 2000, 1000);
+    // A forwarding endpoint that fails to open is logged and left out; it does not stop the connection
+    private List<MavlinkTransport> openForwards(String specs) {
+        List<MavlinkTransport> forwards = new ArrayList<>();
+        for (String spec : specs.split("[,\\s]+")) {
+            if (spec.isEmpty()) {
+                continue;
+            }
+            try {
+                forwards.add(MavlinkTransport.open(spec));
+            } catch (IOException | IllegalArgumentException e) {
+                log("Not forwarding to " + spec + ": " + e.getMessage());
+            }
+        }
+        return forwards;
+    }
 
-        if (!serialPort.openPort()) {
-            showAlert("Failed to open port: " + serialPort.getSystemPortName());
+    private void onTransportOpened(MavlinkTransport opened, List<MavlinkTransport> forwards) {
+        if (isRunning.get()) {
+            // Something else took the link while this one was opening; never orphan its pipeline
+            log("Already connected, closing " + opened.describe());
+            closeQuietly(opened);
+            for (MavlinkTransport forward : forwards) {
+                closeQuietly(forward);
+            }
             return;
         }
+        // A bumped cable or browned-out radio is reopened underneath the pipeline instead of disconnecting
+        transport = LinkSupervisor.supports(opened) ? new LinkSupervisor(opened, linkListener) : opened;
+
+        OutputStream uplink = transport.outputStream();
+        if (!forwards.isEmpty()) {
+            MavlinkRouter newRouter = new MavlinkRouter(transport, this::log);
+            for (MavlinkTransport forward : forwards) {
+                newRouter.addEndpoint(forward);
+                log("Forwarding to " + forward.describe());
+            }
+            // Our own commands share the radio uplink fairly with the forwarded tools
+            uplink = newRouter.localOutput();
+            router = newRouter;
+        }
+
+        // The connection is only used to send; incoming frames go through the pipeline
+        mavlinkConnection = MavlinkConnection.create(InputStream.nullInputStream(), uplink);
+
+        isRunning.set(true);
+        liveLink = true;
+
+        // Never let the pipeline block the link read: drop at the queue instead of overrunning the port
+        startPipeline(transport, MavlinkPipeline.OverflowPolicy.DROP, "● Connected");
 
-        // Add a small delay to let the port stabilize
+        log("Connected to " + transport.describe());
+        log("Waiting for MAVLink data... (Make sure the remote LR900 is connected to a flight controller)");
+    }
+
+    private void closeQuietly(MavlinkTransport unused) {
         try {
-            Thread.sleep(500);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            unused.close();
+        } catch (IOException e) {
+            log("Failed to close " + unused.describe() + ": " + e.getMessage());
         }
+    }
 
-        mavlinkConnection = MavlinkConnection.create(
-                serialPort.getInputStream(),
-                serialPort.getOutputStream()
-        );
+    private void chooseReplay() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Replay Telemetry Log");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Telemetry logs", "*.tlog"));
+        File file = chooser.showOpenDialog(connectButton.getScene().getWindow());
+        if (file != null) {
+            startReplay(file.toPath());
+        }
+    }
 
+    // Writes CSV and columnar files per message type next to the log, on all cores, off the FX thread
+    private void chooseExport() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Telemetry Log");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Telemetry logs", "*.tlog"));
+        File file = chooser.showOpenDialog(connectButton.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        Path log = file.toPath();
+        Path output = log.resolveSibling(log.getFileName().toString().replaceFirst("\\.tlog$", "") + "-export");
+        Thread exporter = new Thread(() -> {
+            try {
+                TlogExporter.Summary summary = new TlogExporter(output, EnumSet.allOf(TlogExporter.Format.class), 0,
+                        Runtime.getRuntime().availableProcessors(), Set.of(), this::log)
+                        .export(TlogReader.segmentsOf(log));
+                log(String.format("Exported %,d records in %d message types to %s in %.1f s",
+                        summary.records(), summary.messageTypes(), output, summary.millis() / 1000.0));
+            } catch (IOException e) {
+                Platform.runLater(() -> showAlert("Failed to export " + log.getFileName() + ": " + e.getMessage()));
+            }
+        }, "tlog-export");
+        exporter.setDaemon(true);
+        exporter.start();
+    }
+
+    // Feeds a recording through the same reader and dispatch path as a live link, in real time
+    private void startReplay(Path file) {
+        startupTimes.mark(StartupTimes.Milestone.CONNECT);
+        try {
+            transport = new StreamTransport(
+                    new TlogReplayInputStream(new TlogReader(TlogReader.segmentsOf(file)), 1.0),
+                    file.getFileName().toString());
+        } catch (IOException e) {
+            showAlert("Failed to open " + file.getFileName() + ": " + e.getMessage());
+            return;
+        }
+        mavlinkConnection = MavlinkConnection.create(InputStream.nullInputStream(), OutputStream.nullOutputStream());
         isRunning.set(true);
+        liveLink = false;
+        // A recording can wait for the decoder, so nothing in it is lost
+        startPipeline(transport, MavlinkPipeline.OverflowPolicy.BLOCK, "● Replaying");
+        log("Replaying " + file.getFileName() + " at 1x");
+    }
 
-        // Start reading thread
-        readThread = new Thread(this::readMavlinkMessages);
-        readThread.setDaemon(true);
-        readThread.start();
+    private void startPipeline(MavlinkTransport input, MavlinkPipeline.OverflowPolicy rawPolicy, String status) {
+        // Vehicles are rediscovered on every link. disconnect() joined the previous pipeline's consumers,
+        // so nothing dispatches into the registry or adds to these lists while they are cleared.
+        vehicleRegistry.clear();
+        streamControllers.clear();
+        parameterSyncs.clear();
+        missionTransfers.clear();
+        alertModules.clear();
+        alertRules = AlertRules.userOrDefaults(this::log);
+        MavlinkPipeline newPipeline = new MavlinkPipeline(input, rawPolicy, pipelineListener);
+        newPipeline.addConsumer("telemetry", 1 << 16, MavlinkPipeline.OverflowPolicy.DROP,
+                vehicleRegistry);
+        newPipeline.addConsumer("recorder", 1 << 18, MavlinkPipeline.OverflowPolicy.DROP, frame -> {
+            TlogRecorder activeRecorder = recorder;
+            if (activeRecorder != null) {
+                activeRecorder.record(frame.raw(), 0, frame.length(), frame.receivedNanos());
+            }
+        });
+        // Counted per type and summarized once per second instead of one log line per packet
+        linkMetrics.reset(newPipeline);
+        newPipeline.addConsumer("metrics", 1 << 16, MavlinkPipeline.OverflowPolicy.DROP, frame -> {
+            startupTimes.mark(StartupTimes.Milestone.FIRST_FRAME);
+            linkMetrics.onFrame(frame);
+            messageLog.countReceived(MavlinkMessages.name(frame.messageId()));
+        });
+        MavlinkRouter activeRouter = router;
+        if (activeRouter != null) {
+            newPipeline.addConsumer("router", 1 << 18, MavlinkPipeline.OverflowPolicy.DROP, activeRouter)
+                    .withUnknownMessages();
+            activeRouter.start();
+        }
+        pipeline = newPipeline;
+        newPipeline.start();
 
         // Update UI
         Platform.runLater(() -> {
             connectButton.setText("Disconnect");
             connectButton.setStyle("-fx-background-color: #f44336; -fx-text-fill: white;");
-            connectionStatus.setText("● Connected");
+            connectionStatus.setText(status);
             connectionStatus.setTextFill(Color.GREEN);
             portComboBox.setDisable(true);
+            vehicleComboBox.getItems().clear();
         });
+    }
 
-        log("Connected to " + serialPort.getSystemPortName() + " at 57600 baud");
-        log("Waiting for MAVLink data... (Make sure the remote LR900 is connected to a flight controller)");
+    // Called on the telemetry thread before the vehicle's first frame is dispatched
+    private void setUpVehicle(Vehicle vehicle) {
+        for (TelemetryModule module : TelemetryModule.standard(vehicle.state())) {
+            vehicle.dispatcher().install(module);
+        }
+        String prefix = "SYS " + vehicle.systemId() + ": ";
 
-        // Start requesting data streams after 2 seconds
-        scheduler.schedule(this::requestDataStreams, 2, TimeUnit.SECONDS);
+        AlertModule alerts = new AlertModule(alertRules, (rule, severity, active, value) ->
+                log(prefix + (active ? "ALERT " + severity + " " + rule : "Cleared " + rule)
+                        + String.format(" (%.2f)", value)));
+        vehicle.dispatcher().install(alerts);
+        alertModules.put(vehicle.key(), alerts);
 
-        // Request streams periodically every 5 seconds
-        scheduler.scheduleAtFixedRate(this::requestDataStreams, 2, 5, TimeUnit.SECONDS);
+        // A recording cannot be asked for anything
+        if (!liveLink) {
+            vehicle.dispatcher().install(new ParameterModule(message -> log(prefix + message)));
+        } else {
+            ParameterSync sync = new ParameterSync(vehicle, this::sendToVehicle, parameterCache,
+                    message -> log(prefix + message));
+            vehicle.dispatcher().install(sync);
+            parameterSyncs.add(sync);
+            // The cache lookup reads files, so not on the telemetry thread
+            scheduler.execute(() -> sync.start(true));
+
+            // Sends go out on the scheduler, never from the telemetry thread
+            MissionTransfer missionTransfer = new MissionTransfer(vehicle, this::sendToVehicle2, scheduler,
+                    message -> log(prefix + message));
+            vehicle.dispatcher().install(missionTransfer);
+            missionTransfers.add(missionTransfer);
+
+            double capacity = StreamRateController.linkCapacity(transport);
+            StreamRateController controller = new StreamRateController(vehicle, this::sendToVehicle, scheduler,
+                    linkMetrics, () -> capacity, this::log).withStandardStreams();
+            vehicle.dispatcher().install(controller);
+            streamControllers.add(controller);
+        }
     }
 
-    private void requestDataStreams() {
-        if (!isRunning.get() || mavlinkConnection == null) {
+    private void renderAlerts() {
+        AlertModule alerts = selectedAlerts;
+        if (alerts == null) {
+            if (shownAlertsVersion != -2) {
+                shownAlertsVersion = -2;
+                alertsLabel.setText("-");
+                alertsLabel.setTextFill(Color.BLACK);
+            }
             return;
         }
+        long version = alerts.version();
+        if (version != shownAlertsVersion) {
+            shownAlertsVersion = version;
+            String active = alerts.active();
+            alertsLabel.setText(active.isEmpty() ? "None" : active);
+            alertsLabel.setTextFill(active.isEmpty() ? Color.GREEN : Color.RED);
+        }
+    }
 
-        log("Requesting telemetry streams from flight controller...");
+    // Called on the telemetry thread
+    private void onVehicleDiscovered(Vehicle vehicle) {
+        log("Discovered vehicle " + vehicle);
+        Platform.runLater(() -> {
+            vehicleComboBox.getItems().add(vehicle);
+            if (vehicleComboBox.getValue() == null) {
+                vehicleComboBox.setValue(vehicle);
+            }
+        });
+    }
 
-        try {
-            // Use the modern approach: request specific message intervals
-            // Message IDs for common telemetry
-            int[] messageIds = {
-                    1,    // SYS_STATUS (battery, etc)
-                    24,   // GPS_RAW_INT
-                    30,   // ATTITUDE
-                    33,   // GLOBAL_POSITION_INT
-                    74,   // VFR_HUD
-                    42,   // MISSION_CURRENT
-                    77,   // COMMAND_ACK
-                    147,  // BATTERY_STATUS
-                    241,  // VIBRATION
-                    242   // HOME_POSITION
-            };
-
-            // Request each message at 2Hz (500000 microseconds interval)
-            for (int msgId : messageIds) {
-                CommandLong cmd = CommandLong.builder()
-                        .targetSystem(1)
-                        .targetComponent(1)
-                        .command(MavCmd.MAV_CMD_SET_MESSAGE_INTERVAL)
-                        .confirmation(0)
-                        .param1(msgId)          // Message ID
-                        .param2(500000)         // Interval in microseconds (2Hz = 500000)
-                        .param3(0)
-                        .param4(0)
-                        .param5(0)
-                        .param6(0)
-                        .param7(0)
-                        .build();
-
-                mavlinkConnection.send1(255, 0, cmd);
+    private void tickStreamControllers() {
+        if (isRunning.get()) {
+            for (StreamRateController controller : streamControllers) {
+                controller.tick();
             }
+        }
+    }
 
-            // Alternative: Try requesting a single parameter to trigger streams
-            // Some autopilots start streaming when they receive any parameter request
-            ParamRequestRead paramRequest = ParamRequestRead.builder()
-                    .targetSystem(1)
-                    .targetComponent(1)
-                    .paramId("SYSID_THISMAV")  // A common parameter that should exist
-                    .paramIndex(-1)  // Use parameter ID, not index
-                    .build();
+    private void tickParameterSyncs() {
+        if (isRunning.get()) {
+            for (ParameterSync sync : parameterSyncs) {
+                sync.tick();
+            }
+        }
+    }
 
-            mavlinkConnection.send1(255, 0, paramRequest);
+    private void tickMissionTransfers() {
+        if (isRunning.get()) {
+            for (MissionTransfer transfer : missionTransfers) {
+                transfer.tick();
+            }
+        }
+    }
 
-        } catch (IOException e) {
-            log("Failed to request data streams: " + e.getMessage());
+    private void sendToVehicle(Object message) throws IOException {
+        MavlinkConnection connection = mavlinkConnection;
+        if (!isRunning.get() || connection == null) {
+            throw new IOException("not connected");
+        }
+        connection.send1(StreamRateController.GCS_SYSTEM_ID, 0, message);
+    }
+
+    // MAVLink 2, for messages whose extension fields matter, such as the mission protocol's mission_type
+    private void sendToVehicle2(Object message) throws IOException {
+        MavlinkConnection connection = mavlinkConnection;
+        if (!isRunning.get() || connection == null) {
+            throw new IOException("not connected");
         }
+        connection.send2(StreamRateController.GCS_SYSTEM_ID, 0, message);
     }
 
     private void disconnect() {
         isRunning.set(false);
 
-        if (readThread != null) {
-            try {
-                readThread.join(1000);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+        // Closing the forwarding links first means a tool that stopped reading cannot hold up the pipeline's close
+        MavlinkRouter activeRouter = router;
+        router = null;
+        if (activeRouter != null) {
+            activeRouter.close();
         }
 
-        if (serialPort != null && serialPort.isOpen()) {
-            serialPort.closePort();
+        MavlinkPipeline activePipeline = pipeline;
+        pipeline = null;
+        if (activePipeline != null) {
+            activePipeline.close();
+        }
+
+        MavlinkTransport activeTransport = transport;
+        transport = null;
+        if (activeTransport != null) {
+            try {
+                activeTransport.close();
+            } catch (IOException e) {
+                log("Failed to close " + activeTransport.describe() + ": " + e.getMessage());
+            }
         }
 
         Platform.runLater(() -> {
@@ -375,111 +874,98 @@ public class SatelliteApplication extends Application {
         log("Disconnected");
     }
 
-    private void readMavlinkMessages() {
-        log("Starting MAVLink message reader thread...");
-        int timeoutCount = 0;
-        final int MAX_TIMEOUTS = 5;
+    // Called on the pipeline reader thread while a supervised link is down and when it is back
+    private final LinkSupervisor.Listener linkListener = new LinkSupervisor.Listener() {
+        @Override
+        public void onLinkLost(String reason) {
+            log("Link lost (" + reason + "), reconnecting as soon as it is back...");
+            Platform.runLater(() -> {
+                connectionStatus.setText("● Reconnecting...");
+                connectionStatus.setTextFill(Color.ORANGE);
+            });
+        }
 
-        while (isRunning.get()) {
-            try {
-                MavlinkMessage<?> message = mavlinkConnection.next();
-                if (message != null) {
-                    timeoutCount = 0; // Reset timeout counter on successful read
-                    handleMavlinkMessage(message);
-                }
-            } catch (IOException e) {
-                if (isRunning.get()) {
-                    String errorMsg = e.getMessage();
-                    if (errorMsg != null && errorMsg.contains("timed out")) {
-                        timeoutCount++;
-                        if (timeoutCount >= MAX_TIMEOUTS) {
-                            Platform.runLater(() -> {
-                                log("No MAVLink data received after " + MAX_TIMEOUTS + " timeouts. Check:");
-                                log("1. Remote LR900 is powered and connected to flight controller");
-                                log("2. Flight controller is sending telemetry data");
-                                log("3. Both LR900 radios are properly paired");
-                                log("4. Correct baud rate (try 57600 or 115200)");
-                                disconnect();
-                            });
-                            break;
-                        } else {
-                            int finalTimeoutCount = timeoutCount;
-                            Platform.runLater(() -> log("Timeout " + finalTimeoutCount + "/" + MAX_TIMEOUTS + " - still waiting for data..."));
-                        }
+        @Override
+        public void onLinkRestored(String describe, long outageMillis, long reopenMillis) {
+            linkMetrics.recordReconnect(outageMillis, reopenMillis);
+            log("Reconnected to " + describe + " after " + outageMillis + " ms (reopened in " + reopenMillis + " ms)");
+            // Re-check the streams now rather than at the next tick, in case the vehicle restarted too
+            scheduler.execute(SatelliteApplication.this::tickStreamControllers);
+            Platform.runLater(() -> {
+                connectionStatus.setText("● Connected");
+                connectionStatus.setTextFill(Color.GREEN);
+            });
+        }
+    };
+
+    private final MavlinkPipeline.Listener pipelineListener = new MavlinkPipeline.Listener() {
+        private static final int MAX_TIMEOUTS = 5;
+
+        @Override
+        public void onReadTimeout(int consecutiveTimeouts) {
+            if (!isRunning.get() || consecutiveTimeouts > MAX_TIMEOUTS) {
+                return;
+            }
+            if (consecutiveTimeouts == MAX_TIMEOUTS) {
+                Platform.runLater(() -> {
+                    log("No MAVLink data received after " + MAX_TIMEOUTS + " timeouts. Check:");
+                    log("1. Remote LR900 is powered and connected to flight controller");
+                    log("2. Flight controller is sending telemetry data");
+                    log("3. Both LR900 radios are properly paired");
+                    log("4. Correct baud rate (try 57600 or 115200)");
+                    // A supervised link stays up and picks the data up again whenever it returns
+                    if (transport instanceof LinkSupervisor) {
+                        log("Still listening on " + transport.describe());
                     } else {
-                        Platform.runLater(() -> {
-                            log("Read error: " + errorMsg);
-                            disconnect();
-                        });
-                        break;
+                        disconnect();
                     }
-                }
+                });
+            } else {
+                log("Timeout " + consecutiveTimeouts + "/" + MAX_TIMEOUTS + " - still waiting for data...");
             }
         }
-        log("MAVLink reader thread stopped");
-    }
-
-    private void handleMavlinkMessage(MavlinkMessage<?> message) {
-        Object payload = message.getPayload();
 
-        Platform.runLater(() -> {
-            if (payload instanceof Heartbeat hb) {
-                String mode = "Mode " + hb.customMode();
-                flightModeLabel.setText(mode);
-
-                boolean armed = (hb.baseMode().value() & 128) != 0;
-                armStatusLabel.setText(armed ? "ARMED" : "DISARMED");
-                armStatusLabel.setTextFill(armed ? Color.RED : Color.GREEN);
-
-            } else if (payload instanceof SysStatus sys) {
-                double voltage = sys.voltageBattery() / 1000.0;
-                int percentage = sys.batteryRemaining();
-                if (percentage == -1) {
-                    batteryLabel.setText(String.format("%.1fV", voltage));
-                } else {
-                    batteryLabel.setText(String.format("%.1fV (%d%%)", voltage, percentage));
-                }
-
-            } else if (payload instanceof GpsRawInt gps) {
-                double lat = gps.lat() / 1e7;
-                double lon = gps.lon() / 1e7;
-                if (gps.fixType().value() >= 2) {  // 2D fix or better
-                    gpsLabel.setText(String.format("%.6f, %.6f", lat, lon));
-                    satellitesLabel.setText(String.valueOf(gps.satellitesVisible()));
-                } else {
-                    gpsLabel.setText("No Fix");
-                    satellitesLabel.setText(gps.satellitesVisible() + " (no fix)");
-                }
-
-            } else if (payload instanceof GlobalPositionInt pos) {
-                double alt = pos.relativeAlt() / 1000.0;
-                altitudeLabel.setText(String.format("%.1f m", alt));
-
-            } else if (payload instanceof VfrHud hud) {
-                speedLabel.setText(String.format("%.1f m/s", hud.groundspeed()));
-                if (hud.alt() > 0) {  // Use VFR HUD altitude if available
-                    altitudeLabel.setText(String.format("%.1f m", hud.alt()));
-                }
-
-            } else if (payload instanceof Attitude att) {
-                double roll = Math.toDegrees(att.roll());
-                double pitch = Math.toDegrees(att.pitch());
-                double yaw = Math.toDegrees(att.yaw());
-                rollPitchYawLabel.setText(String.format("R:%.0f° P:%.0f° Y:%.0f°", roll, pitch, yaw));
+        @Override
+        public void onStreamEnded(IOException error) {
+            if (!isRunning.get()) {
+                return;
             }
-
-            // Log the message
-            String msgType = payload.getClass().getSimpleName();
-            log("Received: " + msgType + " from Sys:" + message.getOriginSystemId());
-        });
+            Platform.runLater(() -> {
+                log(error == null ? "End of telemetry stream" : "Read error: " + error.getMessage());
+                disconnect();
+            });
+        }
+    };
+
+    private void setRecording(boolean enabled) {
+        if (enabled) {
+            Path directory = Path.of(System.getProperty("user.home"), "NazarX GCS", "tlogs");
+            String name = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
+            TlogRecorder newRecorder = new TlogRecorder(directory, name, TlogRecorder.DEFAULT_SEGMENT_SIZE,
+                    TlogRecorder.DEFAULT_RING_CAPACITY, this::log);
+            try {
+                newRecorder.start();
+            } catch (IOException e) {
+                recordBox.setSelected(false);
+                showAlert("Failed to start recording: " + e.getMessage());
+                return;
+            }
+            recorder = newRecorder;
+            log("Recording telemetry to " + newRecorder.currentSegment());
+        } else {
+            TlogRecorder oldRecorder = recorder;
+            recorder = null;
+            if (oldRecorder != null) {
+                oldRecorder.close();
+                log(String.format("Recording stopped: %d frames, %.1f KB in %d segment(s), %d dropped",
+                        oldRecorder.framesWritten(), oldRecorder.bytesWritten() / 1024.0,
+                        oldRecorder.segmentCount(), oldRecorder.framesDropped()));
+            }
+        }
     }
 
     private void log(String message) {
-        String timestamp = LocalTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss"));
-        Platform.runLater(() -> {
-            logArea.appendText("[" + timestamp + "] " + message + "\n");
-            logArea.setScrollTop(Double.MAX_VALUE);
-        });
+        messageLog.log(message);
     }
 
     private void showAlert(String message) {
@@ -490,10 +976,55 @@ public class SatelliteApplication extends Application {
         alert.showAndWait();
     }
 
+    /**
+     * The training run for the class-data-sharing archive: once the window, ports and
+     * classes are up, connects to a simulated vehicle over loopback UDP with every pane open,
+     * so the archive holds the classes of a real session, then quits. The JVM writes the
+     * archive on exit.
+     */
+    private void startTrainingWhenReady() {
+        if (!TRAINING || !startupTimes.reached(StartupTimes.Milestone.PORTS)
+                || !startupTimes.reached(StartupTimes.Milestone.CLASSES)
+                || startupTimes.reached(StartupTimes.Milestone.CONNECT)) {
+            return;
+        }
+        AutopilotSimulator simulator;
+        try {
+            simulator = AutopilotSimulator.udp("127.0.0.1", TRAINING_PORT, 1, 4, this::log);
+        } catch (IOException e) {
+            log("Training: no simulator: " + e.getMessage());
+            Platform.exit();
+            return;
+        }
+        simulator.start();
+        statsPane.setExpanded(true);
+        chartPane.setExpanded(true);
+        mapPane.setExpanded(true);
+        portComboBox.setValue(new LinkOption("udp:127.0.0.1:" + TRAINING_PORT, "Training simulator"));
+        connect();
+        scheduler.schedule(() -> Platform.runLater(() -> {
+            disconnect();
+            simulator.close();
+            Platform.exit();
+        }), TRAINING_SECONDS, TimeUnit.SECONDS);
+    }
+
     @Override
     public void stop() {
+        if (uiPulse != null) {
+            uiPulse.stop();
+        }
         scheduler.shutdownNow();
+        tileCache.close();
         disconnect();
+        setRecording(false);
+        if (!TRAINING) {
+            try {
+                startupTimes.append(StartupTimes.defaultFile());
+            } catch (IOException e) {
+                // Only a measurement; never hold up closing for it
+            }
+        }
     }
 
     public static void main(String[] args) {
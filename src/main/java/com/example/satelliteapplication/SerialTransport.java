@@ -0,0 +1,139 @@
+package com.example.satelliteapplication;
+
+import com.fazecast.jSerialComm.SerialPort;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A serial radio such as the LR900, read with jSerialComm's semi-blocking reads: a read
+ * returns as soon as any bytes arrive, or with 0 after the read timeout.
+ */
+public class SerialTransport implements MavlinkTransport {
+
+    public static final int DEFAULT_BAUD_RATE = 57600;  // Default for the LR900 USB interface
+
+    // Upper bound on the wait after a first open; most radios deliver bytes well before it
+    private static final long SETTLE_MS = 500;
+    private static final long SETTLE_POLL_MS = 10;
+
+    private final SerialPort port;
+    private final int baudRate;
+    private final Object writeLock = new Object();
+
+    private SerialTransport(SerialPort port, int baudRate) {
+        this.port = port;
+        this.baudRate = baudRate;
+    }
+
+    /** Opens and configures a port (8N1) by system name, e.g. "COM3" or "/dev/ttyUSB0". */
+    public static SerialTransport open(String portName, int baudRate) throws IOException {
+        return open(SerialPort.getCommPort(portName), baudRate);
+    }
+
+    public static SerialTransport open(SerialPort port, int baudRate) throws IOException {
+        configure(port, baudRate);
+
+        if (!port.openPort()) {
+            throw new IOException("Failed to open port: " + port.getSystemPortName());
+        }
+
+        awaitSettled(port);
+        return new SerialTransport(port, baudRate);
+    }
+
+    /** Opens a port that was working a moment ago, for {@link LinkSupervisor}; skips the settling delay. */
+    public static SerialTransport reopen(SerialPort port, int baudRate) throws IOException {
+        configure(port, baudRate);
+        if (!port.openPort()) {
+            throw new IOException("Failed to open port: " + port.getSystemPortName());
+        }
+        return new SerialTransport(port, baudRate);
+    }
+
+    /** Takes over a port {@link PortDiscovery} left open; it has been receiving, so needs no settling time. */
+    public static SerialTransport ofOpenPort(SerialPort port, int baudRate) {
+        configure(port, baudRate);
+        return new SerialTransport(port, baudRate);
+    }
+
+    // Scans the candidate ports and opens the first one that delivers a CRC-valid frame
+    public static SerialTransport discover() throws IOException {
+        PortDiscovery.Result result = new PortDiscovery().findFirst(PortDiscovery.candidatePorts())
+                .orElseThrow(() -> new IOException("No MAVLink found on any serial port"));
+        return ofOpenPort(result.port(), result.baudRate());
+    }
+
+    // Gives a freshly opened radio up to SETTLE_MS to start talking, returning as soon as it does
+    private static void awaitSettled(SerialPort port) {
+        long deadline = System.nanoTime() + SETTLE_MS * 1_000_000L;
+        try {
+            while (port.bytesAvailable() <= 0 && System.nanoTime() < deadline) {
+                Thread.sleep(SETTLE_POLL_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void configure(SerialPort port, int baudRate) {
+        port.setBaudRate(baudRate);
+        port.setNumDataBits(8);
+        port.setNumStopBits(1);
+        port.setParity(SerialPort.NO_PARITY);
+        // Increase timeout and add write timeout for LR900
+        port.setComPortTimeouts(SerialPort.TIMEOUT_READ_SEMI_BLOCKING, DEFAULT_READ_TIMEOUT_MS, 1000);
+    }
+
+    public SerialPort port() {
+        return port;
+    }
+
+    public int baudRate() {
+        return baudRate;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        int count = port.readBytes(dst.array(), dst.remaining(), dst.arrayOffset() + dst.position());
+        if (count < 0) {
+            if (!port.isOpen()) {
+                return -1;
+            }
+            throw new IOException("Serial read failed on " + port.getSystemPortName());
+        }
+        dst.position(dst.position() + count);
+        return count;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        synchronized (writeLock) {
+            while (length > 0) {
+                int written = port.writeBytes(bytes, length, offset);
+                if (written <= 0) {
+                    throw new IOException("Serial write failed on " + port.getSystemPortName());
+                }
+                offset += written;
+                length -= written;
+            }
+        }
+    }
+
+    @Override
+    public String describe() {
+        return port.getSystemPortName() + " at " + baudRate + " baud";
+    }
+
+    @Override
+    public String spec() {
+        return "serial:" + port.getSystemPortName() + ":" + baudRate;
+    }
+
+    @Override
+    public void close() {
+        if (port.isOpen()) {
+            port.closePort();
+        }
+    }
+}
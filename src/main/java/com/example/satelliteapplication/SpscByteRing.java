@@ -0,0 +1,174 @@
+package com.example.satelliteapplication;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free single-producer/single-consumer ring of variable-length records.
+ *
+ * Each record is a 64-bit stamp plus a byte payload, copied into one preallocated array,
+ * so neither side allocates. Records never wrap: when one does not fit before the end of
+ * the array the producer writes a padding marker and starts again at index 0, which lets
+ * the consumer hand out each payload as a contiguous slice of the backing array.
+ * {@link #offer} never blocks; when the ring is full the record is rejected and counted.
+ */
+public class SpscByteRing {
+
+    public interface RecordHandler {
+        void onRecord(long stamp, byte[] buffer, int offset, int length);
+    }
+
+    private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private static final int HEADER = 12;  // int length + long stamp
+    private static final int ALIGN = 8;
+    private static final int PADDING = -1;
+
+    private final byte[] buffer;
+    private final int capacity;
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();  // written by the producer
+    private final AtomicLong head = new AtomicLong();  // written by the consumer
+
+    // Producer-owned
+    private long producerPosition;
+    private long cachedHead;
+    private volatile long rejected;
+
+    // Consumer-owned
+    private long consumerPosition;
+
+    public SpscByteRing(int capacity) {
+        if (capacity < 64 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two >= 64: " + capacity);
+        }
+        this.buffer = new byte[capacity];
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // Largest payload a single record can carry
+    public int maxPayload() {
+        return capacity / 2 - HEADER;
+    }
+
+    /**
+     * Copies a record into the ring. Producer thread only. Returns false, without blocking,
+     * if there is not enough free space.
+     */
+    public boolean offer(long stamp, byte[] src, int offset, int length) {
+        int index = reserve(stamp, length);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(src, offset, buffer, index, length);
+        publish(length);
+        return true;
+    }
+
+    /**
+     * Copies the remaining bytes of {@code src} into the ring, for direct buffers filled by
+     * NIO channels. The buffer's position is not changed. Producer thread only.
+     */
+    public boolean offer(long stamp, ByteBuffer src) {
+        int length = src.remaining();
+        int index = reserve(stamp, length);
+        if (index < 0) {
+            return false;
+        }
+        src.get(src.position(), buffer, index, length);
+        publish(length);
+        return true;
+    }
+
+    // Writes the record header and returns where the payload goes, or -1 if the ring is full
+    private int reserve(long stamp, int length) {
+        if (length > maxPayload()) {
+            throw new IllegalArgumentException("record too large: " + length);
+        }
+        int recordSize = align(HEADER + length);
+        long position = producerPosition;
+        int index = (int) (position & mask);
+        int toEnd = capacity - index;
+        int required = toEnd < recordSize ? recordSize + toEnd : recordSize;
+
+        if (position + required - cachedHead > capacity) {
+            cachedHead = head.get();
+            if (position + required - cachedHead > capacity) {
+                rejected++;  // single writer
+                return -1;
+            }
+        }
+
+        if (toEnd < recordSize) {
+            INT.set(buffer, index, PADDING);
+            position += toEnd;
+            index = 0;
+        }
+        INT.set(buffer, index, length);
+        LONG.set(buffer, index + 4, stamp);
+        producerPosition = position;
+        return index + HEADER;
+    }
+
+    private void publish(int length) {
+        producerPosition += align(HEADER + length);
+        tail.lazySet(producerPosition);
+    }
+
+    /**
+     * Hands up to {@code limit} records to the handler, in order. Consumer thread only. The
+     * slice passed to the handler is only valid until it returns.
+     */
+    public int drain(RecordHandler handler, int limit) {
+        long position = consumerPosition;
+        long available = tail.get();
+        int count = 0;
+
+        while (position < available && count < limit) {
+            int index = (int) (position & mask);
+            int length = (int) INT.get(buffer, index);
+            if (length == PADDING) {
+                position += capacity - index;
+                continue;
+            }
+            long stamp = (long) LONG.get(buffer, index + 4);
+            handler.onRecord(stamp, buffer, index + HEADER, length);
+            position += align(HEADER + length);
+            count++;
+        }
+
+        if (position != consumerPosition) {
+            consumerPosition = position;
+            head.lazySet(position);
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+    // Bytes currently queued, including record headers; safe to call from any thread
+    public int usedBytes() {
+        return (int) (tail.get() - head.get());
+    }
+
+    // Records rejected because the ring was full
+    public long rejectedCount() {
+        return rejected;
+    }
+
+    private static int align(int size) {
+        return (size + ALIGN - 1) & -ALIGN;
+    }
+}
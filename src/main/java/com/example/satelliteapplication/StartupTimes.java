@@ -0,0 +1,111 @@
+package com.example.satelliteapplication;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * How long one launch took to get going, measured from process start: the JavaFX toolkit
+ * up, the window painting, the port list filled and the MAVLink classes loaded; then, from
+ * the first connect, the first frame decoded and the first vehicle's telemetry on
+ * screen. Each milestone is logged as it is reached. When the app closes the launch is
+ * appended as a row to {@code ~/NazarX GCS/startup.csv}, so cold-start time can be followed
+ * from build to build; the vm_info column says "sharing" when the class-data archive
+ * shipped with the app was used.
+ *
+ * Milestones may be marked from any thread; only the first mark of each counts.
+ */
+public class StartupTimes {
+
+    public enum Milestone {
+        TOOLKIT("JavaFX started"),
+        WINDOW("window painting"),
+        PORTS("serial ports listed"),
+        CLASSES("MAVLink classes loaded"),
+        CONNECT("first connect"),
+        FIRST_FRAME("first frame"),
+        FIRST_TELEMETRY("first telemetry");
+
+        private final String description;
+
+        Milestone(String description) {
+            this.description = description;
+        }
+    }
+
+    private static final Milestone[] MILESTONES = Milestone.values();
+
+    private final long launchMillis;
+    private final AtomicLongArray reached = new AtomicLongArray(MILESTONES.length);  // ms after launch, -1: not yet
+    private final Consumer<String> log;
+
+    public StartupTimes(Consumer<String> log) {
+        this.log = log;
+        // The JVM's own start, so class loading before main counts too
+        this.launchMillis = ProcessHandle.current().info().startInstant()
+                .map(Instant::toEpochMilli)
+                .orElseGet(System::currentTimeMillis);
+        for (int i = 0; i < MILESTONES.length; i++) {
+            reached.set(i, -1);
+        }
+    }
+
+    public static Path defaultFile() {
+        return Path.of(System.getProperty("user.home"), "NazarX GCS", "startup.csv");
+    }
+
+    /** Records the milestone if it is the first time; cheap enough to call on every frame. */
+    public void mark(Milestone milestone) {
+        int i = milestone.ordinal();
+        if (reached.get(i) >= 0) {
+            return;
+        }
+        long millis = System.currentTimeMillis() - launchMillis;
+        if (!reached.compareAndSet(i, -1, millis)) {
+            return;
+        }
+        long connect = reached.get(Milestone.CONNECT.ordinal());
+        boolean afterConnect = milestone.compareTo(Milestone.CONNECT) > 0 && connect >= 0;
+        log.accept(String.format("Startup: %s %,d ms after launch%s", milestone.description, millis,
+                afterConnect ? String.format(" (%,d ms after connecting)", millis - connect) : ""));
+    }
+
+    public boolean reached(Milestone milestone) {
+        return reached.get(milestone.ordinal()) >= 0;
+    }
+
+    // Milliseconds from launch to the milestone, or -1 if it was not reached
+    public long millis(Milestone milestone) {
+        return reached.get(milestone.ordinal());
+    }
+
+    /** Appends this launch as a CSV row, writing the header first if the file is new. */
+    public void append(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        StringBuilder sb = new StringBuilder();
+        if (!Files.exists(file)) {
+            sb.append("launched,java_version,vm_info");
+            for (Milestone milestone : MILESTONES) {
+                sb.append(',').append(milestone.name().toLowerCase()).append("_ms");
+            }
+            sb.append('\n');
+        }
+        sb.append(Instant.ofEpochMilli(launchMillis))
+                .append(',').append(System.getProperty("java.version"))
+                .append(",\"").append(System.getProperty("java.vm.info", "")).append('"');
+        for (Milestone milestone : MILESTONES) {
+            sb.append(',');
+            long millis = millis(milestone);
+            if (millis >= 0) {
+                sb.append(millis);
+            }
+        }
+        sb.append('\n');
+        Files.writeString(file, sb, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
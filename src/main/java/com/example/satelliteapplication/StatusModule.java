@@ -0,0 +1,21 @@
+package com.example.satelliteapplication;
+
+// Flight mode and arm state from HEARTBEAT
+public class StatusModule implements TelemetryModule {
+
+    private final TelemetryState state;
+
+    public StatusModule(TelemetryState state) {
+        this.state = state;
+    }
+
+    @Override
+    public void register(MessageDispatcher dispatcher) {
+        dispatcher.subscribe(MavlinkMessages.HEARTBEAT, this::onHeartbeat);
+    }
+
+    private void onHeartbeat(MavlinkFrame frame) {
+        // custom_mode u32 @0, type @4, autopilot @5, base_mode @6, system_status @7
+        state.updateHeartbeat(frame.u32(0), frame.u8(6));
+    }
+}
@@ -0,0 +1,418 @@
+package com.example.satelliteapplication;
+
+import io.dronefleet.mavlink.common.CommandLong;
+import io.dronefleet.mavlink.common.MavCmd;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Keeps one vehicle's telemetry streams at their target rates with as little uplink as
+ * possible. Instead of re-sending every SET_MESSAGE_INTERVAL on a timer, it measures the
+ * arrival rate of each stream and only requests the ones that are missing or too slow.
+ *
+ * Requests go out one at a time: COMMAND_ACK does not say which message an interval was for,
+ * so the next request waits for the ACK (or a timeout) of the previous one. Rejected and
+ * unanswered requests back off exponentially.
+ *
+ * Requested rates follow the link budget: when the downlink runs near capacity or the
+ * vehicle's frames are being lost, every stream is scaled down (low-priority ones hardest),
+ * and the scale creeps back up once the link has headroom again.
+ *
+ * {@link #tick} runs on a scheduler about once a second; the frame handlers run on the
+ * vehicle's telemetry thread and only record what arrived. Requests are sent from the
+ * scheduler or the send executor, never from the telemetry thread, and never with the
+ * controller's lock held, so a slow uplink holds up neither the frame handlers nor a tick.
+ */
+public class StreamRateController implements TelemetryModule {
+
+    public enum Priority {
+        // Exponent applied to the link scale, so lower priorities shrink faster
+        HIGH(1), NORMAL(2), LOW(3);
+
+        final int weight;
+
+        Priority(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    /** Sends a MAVLink message to the vehicle. */
+    public interface Sender {
+        void send(Object message) throws IOException;
+    }
+
+    private enum State { IDLE, PENDING, ACCEPTED, REJECTED }
+
+    /** One stream and what has been asked for it. */
+    public static final class Stream {
+        final int messageId;
+        final double targetHz;
+        final Priority priority;
+
+        volatile long arrivals;           // telemetry thread
+
+        // Controller state; the volatile ones are also read by displays
+        long windowStartArrivals;
+        long windowStartNanos;
+        volatile double measuredHz = -1;  // -1 until the first full window
+        volatile double requestedHz;
+        volatile int requests;
+        State state = State.IDLE;
+        long stateSinceNanos;
+        long retryAtNanos;
+        long backoffNanos = MIN_BACKOFF_NANOS;
+
+        Stream(int messageId, double targetHz, Priority priority) {
+            this.messageId = messageId;
+            this.targetHz = targetHz;
+            this.priority = priority;
+        }
+
+        // Long enough to see about four messages, so slow streams do not read as missing
+        long windowNanos() {
+            return Math.max(MIN_WINDOW_NANOS, (long) (4e9 / Math.max(MIN_RATE_HZ, requestedHz > 0 ? requestedHz : targetHz)));
+        }
+
+        // Below the fraction of the rate even allowing for one message falling just outside the window
+        boolean isSlow(double hz) {
+            return measuredHz + 1e9 / windowNanos() < hz * SLOW_FRACTION;
+        }
+
+        boolean isFast(double hz) {
+            return measuredHz - 1e9 / windowNanos() > hz / SLOW_FRACTION;
+        }
+
+        void restartWindow(long now) {
+            windowStartNanos = now;
+            windowStartArrivals = arrivals;
+            measuredHz = -1;
+        }
+
+        public int messageId() { return messageId; }
+        public double targetHz() { return targetHz; }
+        public Priority priority() { return priority; }
+        public double measuredHz() { return Math.max(0, measuredHz); }
+        public double requestedHz() { return requestedHz; }
+        public int requests() { return requests; }
+    }
+
+    public static final int GCS_SYSTEM_ID = 255;
+    private static final int MAV_CMD_SET_MESSAGE_INTERVAL = 511;
+    private static final int MAV_RESULT_ACCEPTED = 0;
+    private static final int MAV_RESULT_TEMPORARILY_REJECTED = 1;
+
+    private static final long SECOND = 1_000_000_000L;
+    private static final long ACK_TIMEOUT_NANOS = 1500_000_000L;
+    private static final long MIN_WINDOW_NANOS = 2 * SECOND;
+    private static final long MIN_BACKOFF_NANOS = 2 * SECOND;
+    private static final long MAX_BACKOFF_NANOS = 60 * SECOND;
+    private static final long BUDGET_INTERVAL_NANOS = 5 * SECOND;
+
+    // A stream is on target above this fraction of its requested rate
+    private static final double SLOW_FRACTION = 0.8;
+    private static final double MIN_RATE_HZ = 0.2;
+    private static final double MIN_SCALE = 0.1;
+
+    private final Vehicle vehicle;
+    private final Sender sender;
+    private final Executor sendExecutor;
+    private final LinkMetrics metrics;
+    private final DoubleSupplier linkCapacityBytesPerSecond;
+    private final Consumer<String> log;
+    private final List<Stream> streams = new ArrayList<>();
+
+    // Controller state, guarded by this
+    private Stream awaitingAck;
+    private long sentAtNanos;
+    private double scale = 1;
+    private long budgetCheckedNanos;
+    private long lostAtBudgetCheck;
+    private long receivedAtBudgetCheck;
+    private long commandsSent;
+
+    /**
+     * @param sendExecutor where the request following an ACK is sent from
+     * @param linkCapacityBytesPerSecond downlink capacity, infinite for network links
+     */
+    public StreamRateController(Vehicle vehicle, Sender sender, Executor sendExecutor, LinkMetrics metrics,
+                                DoubleSupplier linkCapacityBytesPerSecond, Consumer<String> log) {
+        this.vehicle = vehicle;
+        this.sender = sender;
+        this.sendExecutor = sendExecutor;
+        this.metrics = metrics;
+        this.linkCapacityBytesPerSecond = linkCapacityBytesPerSecond;
+        this.log = log;
+    }
+
+    // Downlink budget of a transport: the serial line rate, unlimited for network links
+    public static double linkCapacity(MavlinkTransport transport) {
+        int baudRate = transport instanceof SerialTransport serial ? serial.baudRate()
+                : transport instanceof LinkSupervisor supervised ? supervised.baudRate() : 0;
+        return baudRate > 0
+                ? baudRate / 10.0  // 8N1: 10 bits per byte
+                : Double.POSITIVE_INFINITY;
+    }
+
+    // The streams the ground station displays or logs, at the rates it wants them
+    public StreamRateController withStandardStreams() {
+        stream(MavlinkMessages.SYS_STATUS, 2, Priority.HIGH);
+        stream(MavlinkMessages.GPS_RAW_INT, 2, Priority.HIGH);
+        stream(MavlinkMessages.ATTITUDE, 4, Priority.HIGH);
+        stream(MavlinkMessages.GLOBAL_POSITION_INT, 2, Priority.NORMAL);
+        stream(MavlinkMessages.VFR_HUD, 2, Priority.NORMAL);
+        stream(MavlinkMessages.MISSION_CURRENT, 1, Priority.NORMAL);
+        stream(MavlinkMessages.BATTERY_STATUS, 1, Priority.LOW);
+        stream(MavlinkMessages.VIBRATION, 0.5, Priority.LOW);
+        stream(MavlinkMessages.HOME_POSITION, 0.2, Priority.LOW);
+        return this;
+    }
+
+    /** Adds a stream to maintain. Call before the module is installed. */
+    public synchronized StreamRateController stream(int messageId, double targetHz, Priority priority) {
+        streams.add(new Stream(messageId, targetHz, priority));
+        return this;
+    }
+
+    @Override
+    public void register(MessageDispatcher dispatcher) {
+        for (Stream stream : streams) {
+            dispatcher.subscribe(stream.messageId, frame -> stream.arrivals++);  // single writer
+        }
+        dispatcher.subscribe(MavlinkMessages.COMMAND_ACK, this::onCommandAck);
+    }
+
+    private void onCommandAck(MavlinkFrame frame) {
+        // command u16 @0, result u8 @2, target_system u8 @8 (MAVLink 2 extension)
+        int target = frame.u8(8);
+        if (frame.u16(0) != MAV_CMD_SET_MESSAGE_INTERVAL || (target != 0 && target != GCS_SYSTEM_ID)) {
+            return;
+        }
+        onAck(frame.u8(2), System.nanoTime());
+    }
+
+    synchronized void onAck(int result, long now) {
+        Stream stream = awaitingAck;
+        if (stream == null) {
+            return;  // Late ACK for a request that already timed out
+        }
+        awaitingAck = null;
+        if (result == MAV_RESULT_ACCEPTED) {
+            stream.state = State.ACCEPTED;
+            stream.stateSinceNanos = now;
+            // Judge the new rate only on arrivals after it took effect
+            stream.restartWindow(now);
+        } else {
+            stream.state = State.REJECTED;
+            stream.retryAtNanos = now + (result == MAV_RESULT_TEMPORARILY_REJECTED ? MIN_BACKOFF_NANOS : stream.backoffNanos);
+            stream.backoffNanos = Math.min(MAX_BACKOFF_NANOS, stream.backoffNanos * 2);
+            log.accept(vehicleName() + ": " + MavlinkMessages.name(stream.messageId) + " interval rejected (result " + result + ")");
+        }
+        // Nothing else is waiting on this ACK, so go straight on to the next request, off this thread
+        sendExecutor.execute(this::requestNext);
+    }
+
+    /** Samples arrival rates, adjusts the link scale and sends at most one request. */
+    public void tick() {
+        synchronized (this) {
+            sample(System.nanoTime());
+        }
+        requestNext();
+    }
+
+    private void sample(long now) {
+        for (Stream stream : streams) {
+            if (stream.windowStartNanos == 0) {
+                stream.restartWindow(now);
+            } else if (now - stream.windowStartNanos >= stream.windowNanos()) {
+                long arrivals = stream.arrivals;
+                stream.measuredHz = (arrivals - stream.windowStartArrivals) * 1e9 / (now - stream.windowStartNanos);
+                stream.windowStartNanos = now;
+                stream.windowStartArrivals = arrivals;
+            }
+        }
+
+        if (awaitingAck != null && now - sentAtNanos > ACK_TIMEOUT_NANOS) {
+            Stream stream = awaitingAck;
+            awaitingAck = null;
+            stream.state = State.IDLE;
+            stream.retryAtNanos = now + stream.backoffNanos;
+            stream.backoffNanos = Math.min(MAX_BACKOFF_NANOS, stream.backoffNanos * 2);
+        }
+
+        updateBudget(now);
+    }
+
+    // Additive increase, multiplicative decrease of the scale applied to every target rate
+    private void updateBudget(long now) {
+        if (now - budgetCheckedNanos < BUDGET_INTERVAL_NANOS) {
+            return;
+        }
+        budgetCheckedNanos = now;
+
+        long lost = 0;
+        long received = 0;
+        for (LinkMetrics.SourceStats source : metrics.sources()) {
+            if (source.systemId() == vehicle.systemId() && source.componentId() == vehicle.componentId()) {
+                lost = source.lost();
+                received = source.received();
+            }
+        }
+        long newLost = lost - lostAtBudgetCheck;
+        long newReceived = received - receivedAtBudgetCheck;
+        lostAtBudgetCheck = lost;
+        receivedAtBudgetCheck = received;
+        double loss = newLost + newReceived == 0 ? 0 : newLost / (double) (newLost + newReceived);
+        double utilization = metrics.getBytesPerSecond() / linkCapacityBytesPerSecond.getAsDouble();
+
+        double previous = scale;
+        if (loss > 0.05 || utilization > 0.8) {
+            scale = Math.max(MIN_SCALE, scale * 0.7);
+        } else if (loss < 0.01 && utilization < 0.5) {
+            scale = Math.min(1, scale + 0.1);
+        }
+        if (scale != previous) {
+            log.accept(String.format("%s: link %.0f%% used, %.1f%% lost, stream rates at %.0f%%",
+                    vehicleName(), Math.min(utilization, 9.99) * 100, loss * 100, scale * 100));
+        }
+    }
+
+    double desiredHz(Stream stream) {
+        return Math.max(MIN_RATE_HZ, stream.targetHz * Math.pow(scale, stream.priority.weight));
+    }
+
+    private boolean needsRequest(Stream stream, long now) {
+        double desired = desiredHz(stream);
+        switch (stream.state) {
+            case IDLE:
+                if (now < stream.retryAtNanos || stream.measuredHz < 0) {
+                    return false;
+                }
+                // Missing or slow; or, while the link is being scaled down, a default rate well above what we want
+                return stream.isSlow(desired) || (scale < 1 && stream.isFast(desired));
+            case REJECTED:
+                return now >= stream.retryAtNanos;
+            case ACCEPTED:
+                // A new rate (from the budget) needs a new request; otherwise give the last one time to show
+                if (Math.abs(stream.requestedHz - desired) > desired * 0.2) {
+                    return true;
+                }
+                if (stream.measuredHz < 0) {
+                    return false;
+                }
+                if (!stream.isSlow(stream.requestedHz)) {
+                    stream.backoffNanos = MIN_BACKOFF_NANOS;
+                    return false;
+                }
+                // Accepted but still slow: try again, backing off in case the vehicle cannot do better
+                if (now < stream.retryAtNanos) {
+                    return false;
+                }
+                stream.retryAtNanos = now + stream.backoffNanos;
+                stream.backoffNanos = Math.min(MAX_BACKOFF_NANOS, stream.backoffNanos * 2);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // The most important stream that needs a request, if none is awaiting an ACK
+    private Stream nextRequest(long now) {
+        if (awaitingAck != null) {
+            return null;
+        }
+        for (Priority priority : Priority.values()) {
+            for (Stream stream : streams) {
+                if (stream.priority == priority && needsRequest(stream, now)) {
+                    return stream;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Marks the next request pending under the lock, so no other caller picks it too, then sends it outside
+    private void requestNext() {
+        long now = System.nanoTime();
+        Stream stream;
+        State previousState;
+        double previousHz;
+        double hz;
+        synchronized (this) {
+            stream = nextRequest(now);
+            if (stream == null) {
+                return;
+            }
+            previousState = stream.state;
+            previousHz = stream.requestedHz;
+            hz = desiredHz(stream);
+            stream.requestedHz = hz;
+            stream.state = State.PENDING;
+            stream.stateSinceNanos = now;
+            awaitingAck = stream;
+            sentAtNanos = now;
+        }
+        CommandLong command = CommandLong.builder()
+                .targetSystem(vehicle.systemId())
+                .targetComponent(vehicle.componentId())
+                .command(MavCmd.MAV_CMD_SET_MESSAGE_INTERVAL)
+                .confirmation(0)
+                .param1(stream.messageId)           // Message ID
+                .param2((float) (1_000_000 / hz))   // Interval in microseconds
+                .build();
+        try {
+            sender.send(command);
+        } catch (IOException e) {
+            log.accept(vehicleName() + ": failed to request " + MavlinkMessages.name(stream.messageId) + ": " + e.getMessage());
+            synchronized (this) {
+                if (awaitingAck == stream) {
+                    awaitingAck = null;
+                    stream.state = previousState;
+                    stream.requestedHz = previousHz;
+                }
+                stream.retryAtNanos = now + stream.backoffNanos;
+            }
+            return;
+        }
+        synchronized (this) {
+            commandsSent++;
+            stream.requests = stream.requests + 1;
+        }
+    }
+
+    /** Forgets what was measured and accepted, so every stream below target is requested again. */
+    public void requestAll() {
+        synchronized (this) {
+            long now = System.nanoTime();
+            for (Stream stream : streams) {
+                stream.state = State.IDLE;
+                stream.retryAtNanos = 0;
+                stream.backoffNanos = MIN_BACKOFF_NANOS;
+                stream.restartWindow(now);
+                stream.measuredHz = 0;
+            }
+        }
+        requestNext();
+    }
+
+    public synchronized List<Stream> streams() {
+        return List.copyOf(streams);
+    }
+
+    public synchronized double scale() {
+        return scale;
+    }
+
+    // SET_MESSAGE_INTERVAL commands sent so far
+    public synchronized long commandsSent() {
+        return commandsSent;
+    }
+
+    private String vehicleName() {
+        return "SYS " + vehicle.systemId();
+    }
+}
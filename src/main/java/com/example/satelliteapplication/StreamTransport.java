@@ -0,0 +1,57 @@
+package com.example.satelliteapplication;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Read-only transport over an InputStream, for replays. An IOException whose message says
+ * "timed out" (as jSerialComm's streams throw) counts as a read timeout.
+ */
+public class StreamTransport implements MavlinkTransport {
+
+    private final InputStream input;
+    private final String name;
+
+    public StreamTransport(InputStream input, String name) {
+        this.input = input;
+        this.name = name;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        try {
+            int count = input.read(dst.array(), dst.arrayOffset() + dst.position(), dst.remaining());
+            if (count > 0) {
+                dst.position(dst.position() + count);
+            }
+            return count;
+        } catch (IOException e) {
+            String message = e.getMessage();
+            if (message != null && message.contains("timed out")) {
+                return 0;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        // Nothing to send to
+    }
+
+    @Override
+    public String describe() {
+        return name;
+    }
+
+    @Override
+    public String spec() {
+        return "stream:" + name;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.satelliteapplication;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * MAVLink over a TCP connection on a non-blocking {@link SocketChannel}, for SITL (5760)
+ * and routers that serve TCP clients. Reads go straight into the pipeline's direct buffer
+ * and only wait in a selector when nothing is buffered in the socket.
+ */
+public class TcpTransport implements MavlinkTransport {
+
+    private static final int CONNECT_TIMEOUT_MS = 3000;
+    private static final long WRITE_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final SocketChannel channel;
+    private final Selector selector;
+    private final String spec;
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(8192);
+
+    private TcpTransport(SocketChannel channel, String spec) throws IOException {
+        this.channel = channel;
+        this.spec = spec;
+        selector = Selector.open();
+        channel.register(selector, SelectionKey.OP_READ);
+    }
+
+    public static TcpTransport connect(String host, int port) throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        try {
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.socket().connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MS);
+            channel.configureBlocking(false);
+            return new TcpTransport(channel, "tcp:" + host + ":" + port);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public ByteBuffer allocateReadBuffer(int capacity) {
+        return ByteBuffer.allocateDirect(capacity);
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        long deadline = System.nanoTime() + DEFAULT_READ_TIMEOUT_MS * 1_000_000L;
+        try {
+            while (true) {
+                int count = channel.read(dst);
+                if (count != 0) {
+                    return count;
+                }
+                long remaining = (deadline - System.nanoTime()) / 1_000_000;
+                if (remaining <= 0) {
+                    return 0;
+                }
+                selector.select(remaining);
+                selector.selectedKeys().clear();
+            }
+        } catch (ClosedSelectorException e) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        synchronized (writeBuffer) {
+            long deadline = System.nanoTime() + WRITE_TIMEOUT_NANOS;
+            boolean started = false;
+            while (length > 0) {
+                int chunk = Math.min(length, writeBuffer.capacity());
+                writeBuffer.clear();
+                writeBuffer.put(bytes, offset, chunk).flip();
+                while (writeBuffer.hasRemaining()) {
+                    // The socket buffer only fills if the peer stops reading; wait briefly rather than select
+                    if (channel.write(writeBuffer) > 0) {
+                        started = true;
+                    } else {
+                        if (System.nanoTime() > deadline) {
+                            if (started) {
+                                // Part of the frame is already out; the peer could never find the next one
+                                close();
+                                throw new IOException("TCP write timed out mid-frame, connection closed");
+                            }
+                            throw new IOException("TCP write timed out");
+                        }
+                        LockSupport.parkNanos(100_000);
+                    }
+                }
+                offset += chunk;
+                length -= chunk;
+            }
+        }
+    }
+
+    @Override
+    public String describe() {
+        try {
+            return "TCP " + channel.getRemoteAddress();
+        } catch (IOException e) {
+            return spec;
+        }
+    }
+
+    @Override
+    public String spec() {
+        return spec;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            selector.close();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.satelliteapplication;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+
+/**
+ * A live line chart of one {@link TelemetrySeries} channel. The visible range is copied out
+ * of the store and reduced with {@link Lttb} to about one point per horizontal pixel, so
+ * the scene graph holds a few hundred nodes whether the range covers a minute or the
+ * whole flight. The chart's data points are reused from one redraw to the next.
+ *
+ * Called from the frame pulse on the FX thread; redraws at most {@value #REDRAWS_PER_SECOND}
+ * times a second, and only when the channel has new samples or the range has moved.
+ */
+public class TelemetryChart {
+
+    private static final int REDRAWS_PER_SECOND = 4;
+    private static final long REDRAW_INTERVAL_NANOS = 1_000_000_000L / REDRAWS_PER_SECOND;
+    private static final int MIN_POINTS = 100;
+
+    /** How far back the chart looks. */
+    public enum Range {
+        ONE_MINUTE("1 min", 60_000),
+        TEN_MINUTES("10 min", 600_000),
+        ONE_HOUR("1 h", 3_600_000),
+        FLIGHT("Whole flight", Integer.MAX_VALUE);
+
+        private final String label;
+        private final int millis;
+
+        Range(String label, int millis) {
+            this.label = label;
+            this.millis = millis;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private final VBox node = new VBox(5);
+    private final ComboBox<TelemetrySeries.Channel> channelBox =
+            new ComboBox<>(FXCollections.observableArrayList(TelemetrySeries.Channel.values()));
+    private final ComboBox<Range> rangeBox = new ComboBox<>(FXCollections.observableArrayList(Range.values()));
+    private final Label pointsLabel = new Label();
+    private final NumberAxis timeAxis = new NumberAxis();
+    private final NumberAxis valueAxis = new NumberAxis();
+    private final LineChart<Number, Number> chart = new LineChart<>(timeAxis, valueAxis);
+    private final XYChart.Series<Number, Number> line = new XYChart.Series<>();
+
+    private final TelemetrySeries.Samples samples = new TelemetrySeries.Samples();
+    private double[] pointX = new double[0];
+    private double[] pointY = new double[0];
+
+    private TelemetrySeries series;
+    private long drawnVersion = -1;
+    private long lastRedrawNanos;
+
+    public TelemetryChart() {
+        channelBox.getSelectionModel().select(TelemetrySeries.Channel.ALTITUDE);
+        rangeBox.getSelectionModel().select(Range.TEN_MINUTES);
+        channelBox.setOnAction(e -> invalidate());
+        rangeBox.setOnAction(e -> invalidate());
+        pointsLabel.setStyle("-fx-font-family: monospace; -fx-font-size: 11; -fx-text-fill: #666;");
+
+        timeAxis.setLabel("Time (s)");
+        timeAxis.setForceZeroInRange(false);
+        valueAxis.setForceZeroInRange(false);
+        chart.setAnimated(false);
+        chart.setCreateSymbols(false);
+        chart.setLegendVisible(false);
+        chart.setPrefHeight(220);
+        chart.getData().add(line);
+
+        HBox controls = new HBox(10, new Label("Channel:"), channelBox, new Label("Range:"), rangeBox, pointsLabel);
+        controls.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
+        VBox.setVgrow(chart, Priority.ALWAYS);
+        node.getChildren().addAll(controls, chart);
+    }
+
+    public VBox node() {
+        return node;
+    }
+
+    public void setSeries(TelemetrySeries series) {
+        this.series = series;
+        invalidate();
+    }
+
+    private void invalidate() {
+        drawnVersion = -1;
+        lastRedrawNanos = 0;
+    }
+
+    public void render(long nowNanos) {
+        TelemetrySeries s = series;
+        TelemetrySeries.Channel channel = channelBox.getValue();
+        Range range = rangeBox.getValue();
+        if (s == null || channel == null || range == null) {
+            line.getData().clear();
+            return;
+        }
+        long version = s.version(channel);
+        if (nowNanos - lastRedrawNanos < REDRAW_INTERVAL_NANOS || version == drawnVersion) {
+            return;  // Nothing new; a fixed range would only slide past an unchanged series
+        }
+        lastRedrawNanos = nowNanos;
+        drawnVersion = version;
+
+        int now = s.nowMillis();
+        int from = range == Range.FLIGHT ? Integer.MIN_VALUE : now - range.millis;
+        s.copySince(channel, from, samples);
+
+        int width = (int) Math.max(MIN_POINTS, timeAxis.getWidth());
+        if (pointX.length < width) {
+            pointX = new double[width];
+            pointY = new double[width];
+        }
+        int count = Lttb.decimate(samples.times(), samples.values(), samples.size(), width, pointX, pointY);
+
+        ObservableList<XYChart.Data<Number, Number>> data = line.getData();
+        if (data.size() > count) {
+            data.remove(count, data.size());
+        }
+        for (int i = 0; i < count; i++) {
+            double seconds = pointX[i] / 1000.0;
+            if (i < data.size()) {
+                XYChart.Data<Number, Number> point = data.get(i);
+                point.setXValue(seconds);
+                point.setYValue(pointY[i]);
+            } else {
+                data.add(new XYChart.Data<>(seconds, pointY[i]));
+            }
+        }
+        pointsLabel.setText(String.format("%,d samples, %,d plotted", samples.size(), count));
+    }
+}
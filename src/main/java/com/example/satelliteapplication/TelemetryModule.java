@@ -0,0 +1,32 @@
+package com.example.satelliteapplication;
+
+import java.util.List;
+
+/**
+ * A feature that consumes MAVLink messages. Modules subscribe their handlers to the
+ * message IDs they care about when installed into a {@link MessageDispatcher}; create the
+ * handlers once here (fields or method references), never per message.
+ */
+public interface TelemetryModule {
+
+    void register(MessageDispatcher dispatcher);
+
+    // The modules behind the telemetry panel
+    static List<TelemetryModule> standard(TelemetryState state) {
+        return List.of(
+                new StatusModule(state),
+                new BatteryModule(state),
+                new GpsModule(state),
+                new AttitudeModule(state),
+                new MissionModule(state)
+        );
+    }
+
+    static MessageDispatcher standardDispatcher(TelemetryState state) {
+        MessageDispatcher dispatcher = new MessageDispatcher();
+        for (TelemetryModule module : standard(state)) {
+            dispatcher.install(module);
+        }
+        return dispatcher;
+    }
+}
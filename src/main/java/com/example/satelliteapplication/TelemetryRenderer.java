@@ -0,0 +1,204 @@
+package com.example.satelliteapplication;
+
+import javafx.scene.control.Label;
+import javafx.scene.paint.Color;
+
+/**
+ * Copies a {@link TelemetryState} into the telemetry labels. Called once per frame on the
+ * FX thread; a label is only reformatted when its group version moved and only touched when
+ * the displayed value actually changed, so the cost per frame does not depend on how many
+ * messages arrived in between.
+ */
+public class TelemetryRenderer {
+
+    private final Label batteryLabel;
+    private final Label gpsLabel;
+    private final Label altitudeLabel;
+    private final Label speedLabel;
+    private final Label armStatusLabel;
+    private final Label flightModeLabel;
+    private final Label satellitesLabel;
+    private final Label rollPitchYawLabel;
+    private final Label missionLabel;
+
+    private TelemetryState state;
+
+    // Last rendered versions; -1 forces a redraw
+    private long heartbeatVersion = -1;
+    private long batteryVersion = -1;
+    private long gpsVersion = -1;
+    private long altitudeVersion = -1;
+    private long speedVersion = -1;
+    private long attitudeVersion = -1;
+    private long missionVersion = -1;
+
+    // Last displayed values, at display precision
+    private long shownCustomMode = -1;
+    private int shownArmed = -1;
+    private int shownDeciVolts = Integer.MIN_VALUE;
+    private int shownRemaining = Integer.MIN_VALUE;
+    private int shownLat = Integer.MIN_VALUE;
+    private int shownLon = Integer.MIN_VALUE;
+    private int shownFix = -1;
+    private int shownSatellites = -1;
+    private int shownDeciMeters = Integer.MIN_VALUE;
+    private int shownDeciSpeed = Integer.MIN_VALUE;
+    private int shownRoll = Integer.MIN_VALUE;
+    private int shownPitch = Integer.MIN_VALUE;
+    private int shownYaw = Integer.MIN_VALUE;
+    private int shownMissionItem = Integer.MIN_VALUE;
+
+    public TelemetryRenderer(Label batteryLabel, Label gpsLabel, Label altitudeLabel, Label speedLabel,
+                             Label armStatusLabel, Label flightModeLabel, Label satellitesLabel,
+                             Label rollPitchYawLabel, Label missionLabel) {
+        this.batteryLabel = batteryLabel;
+        this.gpsLabel = gpsLabel;
+        this.altitudeLabel = altitudeLabel;
+        this.speedLabel = speedLabel;
+        this.armStatusLabel = armStatusLabel;
+        this.flightModeLabel = flightModeLabel;
+        this.satellitesLabel = satellitesLabel;
+        this.rollPitchYawLabel = rollPitchYawLabel;
+        this.missionLabel = missionLabel;
+    }
+
+    /** Switches to another vehicle's state; null clears the labels to "-". */
+    public void setState(TelemetryState state) {
+        this.state = state;
+        heartbeatVersion = batteryVersion = gpsVersion = -1;
+        altitudeVersion = speedVersion = attitudeVersion = missionVersion = -1;
+        if (state == null) {
+            clear();
+        }
+    }
+
+    // Blanks every label and forgets what was shown, so the next state redraws them all
+    private void clear() {
+        for (Label label : new Label[]{batteryLabel, gpsLabel, altitudeLabel, speedLabel, armStatusLabel,
+                flightModeLabel, satellitesLabel, rollPitchYawLabel, missionLabel}) {
+            label.setText("-");
+        }
+        armStatusLabel.setTextFill(Color.BLACK);
+        shownCustomMode = -1;
+        shownArmed = -1;
+        shownDeciVolts = shownRemaining = Integer.MIN_VALUE;
+        shownLat = shownLon = Integer.MIN_VALUE;
+        shownFix = shownSatellites = -1;
+        shownDeciMeters = shownDeciSpeed = Integer.MIN_VALUE;
+        shownRoll = shownPitch = shownYaw = Integer.MIN_VALUE;
+        shownMissionItem = Integer.MIN_VALUE;
+    }
+
+    public void render() {
+        TelemetryState s = state;
+        if (s == null) {
+            return;
+        }
+
+        long version = s.heartbeatVersion();
+        if (version != heartbeatVersion) {
+            heartbeatVersion = version;
+            long mode = s.customMode();
+            if (mode != shownCustomMode) {
+                shownCustomMode = mode;
+                flightModeLabel.setText("Mode " + mode);
+            }
+            int armed = s.isArmed() ? 1 : 0;
+            if (armed != shownArmed) {
+                shownArmed = armed;
+                armStatusLabel.setText(armed == 1 ? "ARMED" : "DISARMED");
+                armStatusLabel.setTextFill(armed == 1 ? Color.RED : Color.GREEN);
+            }
+        }
+
+        version = s.batteryVersion();
+        if (version != batteryVersion) {
+            batteryVersion = version;
+            int deciVolts = Math.round(s.batteryMillivolts() / 100f);
+            int remaining = s.batteryRemaining();
+            if (deciVolts != shownDeciVolts || remaining != shownRemaining) {
+                shownDeciVolts = deciVolts;
+                shownRemaining = remaining;
+                double voltage = deciVolts / 10.0;
+                if (remaining == -1) {
+                    batteryLabel.setText(String.format("%.1fV", voltage));
+                } else {
+                    batteryLabel.setText(String.format("%.1fV (%d%%)", voltage, remaining));
+                }
+            }
+        }
+
+        version = s.gpsVersion();
+        if (version != gpsVersion) {
+            gpsVersion = version;
+            renderGps(s);
+        }
+
+        version = s.altitudeVersion();
+        if (version != altitudeVersion) {
+            altitudeVersion = version;
+            int deciMeters = Math.round(s.altitudeMeters() * 10);
+            if (deciMeters != shownDeciMeters) {
+                shownDeciMeters = deciMeters;
+                altitudeLabel.setText(String.format("%.1f m", deciMeters / 10.0));
+            }
+        }
+
+        version = s.speedVersion();
+        if (version != speedVersion) {
+            speedVersion = version;
+            int deciSpeed = Math.round(s.groundSpeed() * 10);
+            if (deciSpeed != shownDeciSpeed) {
+                shownDeciSpeed = deciSpeed;
+                speedLabel.setText(String.format("%.1f m/s", deciSpeed / 10.0));
+            }
+        }
+
+        version = s.attitudeVersion();
+        if (version != attitudeVersion) {
+            attitudeVersion = version;
+            int roll = (int) Math.round(Math.toDegrees(s.roll()));
+            int pitch = (int) Math.round(Math.toDegrees(s.pitch()));
+            int yaw = (int) Math.round(Math.toDegrees(s.yaw()));
+            if (roll != shownRoll || pitch != shownPitch || yaw != shownYaw) {
+                shownRoll = roll;
+                shownPitch = pitch;
+                shownYaw = yaw;
+                rollPitchYawLabel.setText("R:" + roll + "° P:" + pitch + "° Y:" + yaw + "°");
+            }
+        }
+
+        version = s.missionVersion();
+        if (version != missionVersion) {
+            missionVersion = version;
+            int item = s.missionItem();
+            if (item != shownMissionItem) {
+                shownMissionItem = item;
+                missionLabel.setText(item < 0 ? "-" : "#" + item);
+            }
+        }
+    }
+
+    private void renderGps(TelemetryState s) {
+        int fix = s.fixType();
+        int satellites = s.satellitesVisible();
+        // Six decimals are displayed, so changes below 1e-6 degrees are invisible
+        int latE7 = s.latitudeE7();
+        int lonE7 = s.longitudeE7();
+        int lat = (int) Math.round(latE7 / 10.0);
+        int lon = (int) Math.round(lonE7 / 10.0);
+        boolean hasFix = fix >= 2;  // 2D fix or better
+        boolean hadFix = shownFix >= 2;
+
+        if (hasFix != hadFix || shownFix == -1 || (hasFix && (lat != shownLat || lon != shownLon))) {
+            shownLat = lat;
+            shownLon = lon;
+            gpsLabel.setText(hasFix ? String.format("%.6f, %.6f", latE7 / 1e7, lonE7 / 1e7) : "No Fix");
+        }
+        if (hasFix != hadFix || shownFix == -1 || satellites != shownSatellites) {
+            shownSatellites = satellites;
+            satellitesLabel.setText(hasFix ? String.valueOf(satellites) : satellites + " (no fix)");
+        }
+        shownFix = fix;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.satelliteapplication;
+
+import java.util.Arrays;
+
+/**
+ * History of one vehicle's telemetry, one column pair per channel: sample times in
+ * milliseconds since the store was created and values as floats. Columns start small and
+ * double as they fill, up to a per-channel cap derived from the memory budget. A full
+ * column halves its older half (every other sample is dropped), so the whole flight stays
+ * available at a resolution that falls off with age, and memory never exceeds the budget.
+ *
+ * Written by the vehicle's telemetry thread; read by the charts on the FX thread, which
+ * copy the range they need under the column's lock and decimate outside it.
+ */
+public class TelemetrySeries {
+
+    public enum Channel {
+        ALTITUDE("Altitude", "m"),
+        BATTERY_VOLTAGE("Battery voltage", "V"),
+        GROUND_SPEED("Ground speed", "m/s"),
+        ROLL("Roll", "°"),
+        PITCH("Pitch", "°"),
+        YAW("Yaw", "°"),
+        SATELLITES("Satellites", "");
+
+        private final String label;
+        private final String unit;
+
+        Channel(String label, String unit) {
+            this.label = label;
+            this.unit = unit;
+        }
+
+        public String label() { return label; }
+        public String unit() { return unit; }
+
+        @Override
+        public String toString() {
+            return unit.isEmpty() ? label : label + " (" + unit + ")";
+        }
+    }
+
+    // 4 MB per vehicle: about 75,000 samples per channel, two hours at 10 Hz before any are thinned
+    public static final long DEFAULT_BUDGET_BYTES = 4L << 20;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int BYTES_PER_SAMPLE = Integer.BYTES + Float.BYTES;
+
+    /** One channel's samples, oldest first. */
+    private static final class Column {
+        private final int maxCapacity;
+        private int[] times = new int[0];
+        private float[] values = new float[0];
+        private int size;
+        private volatile long version;  // bumped after every append, for readers deciding whether to redraw
+
+        Column(int maxCapacity) {
+            this.maxCapacity = maxCapacity;
+        }
+
+        synchronized void append(int timeMillis, float value) {
+            if (size == times.length) {
+                if (times.length < maxCapacity) {
+                    int capacity = Math.min(maxCapacity, Math.max(INITIAL_CAPACITY, times.length * 2));
+                    times = Arrays.copyOf(times, capacity);
+                    values = Arrays.copyOf(values, capacity);
+                } else {
+                    thinOlderHalf();
+                }
+            }
+            times[size] = timeMillis;
+            values[size] = value;
+            size++;
+            version++;
+        }
+
+        // Keeps every other sample of the older half and slides the newer half down behind them
+        private void thinOlderHalf() {
+            int half = size / 2;
+            int kept = 0;
+            for (int i = 0; i < half; i += 2) {
+                times[kept] = times[i];
+                values[kept] = values[i];
+                kept++;
+            }
+            System.arraycopy(times, half, times, kept, size - half);
+            System.arraycopy(values, half, values, kept, size - half);
+            size = kept + size - half;
+        }
+
+        synchronized void copySince(int fromMillis, Samples into) {
+            int start = lowerBound(fromMillis);
+            into.load(times, values, start, size - start);
+        }
+
+        private int lowerBound(int timeMillis) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (times[mid] < timeMillis) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        synchronized int size() { return size; }
+        long version() { return version; }
+    }
+
+    /** A reusable copy of part of a column, for the reader's own thread. */
+    public static final class Samples {
+        private int[] times = new int[0];
+        private float[] values = new float[0];
+        private int size;
+
+        void load(int[] sourceTimes, float[] sourceValues, int start, int count) {
+            if (times.length < count) {
+                times = new int[Math.max(count, INITIAL_CAPACITY)];
+                values = new float[times.length];
+            }
+            System.arraycopy(sourceTimes, start, times, 0, count);
+            System.arraycopy(sourceValues, start, values, 0, count);
+            size = count;
+        }
+
+        public int size() { return size; }
+        public int time(int i) { return times[i]; }
+        public float value(int i) { return values[i]; }
+        // The backing arrays, valid up to size()
+        public int[] times() { return times; }
+        public float[] values() { return values; }
+    }
+
+    private final long startNanos = System.nanoTime();
+    private final Column[] columns = new Column[Channel.values().length];
+
+    public TelemetrySeries(long budgetBytes) {
+        int perChannel = (int) Math.max(INITIAL_CAPACITY,
+                budgetBytes / BYTES_PER_SAMPLE / columns.length);
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new Column(perChannel);
+        }
+    }
+
+    public TelemetrySeries() {
+        this(DEFAULT_BUDGET_BYTES);
+    }
+
+    public void append(Channel channel, float value) {
+        columns[channel.ordinal()].append(nowMillis(), value);
+    }
+
+    // Milliseconds on this store's clock
+    public int nowMillis() {
+        return (int) ((System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    // Samples from fromMillis on this store's clock to now, oldest first
+    public void copySince(Channel channel, int fromMillis, Samples into) {
+        columns[channel.ordinal()].copySince(fromMillis, into);
+    }
+
+    public int size(Channel channel) {
+        return columns[channel.ordinal()].size();
+    }
+
+    public long version(Channel channel) {
+        return columns[channel.ordinal()].version();
+    }
+}
@@ -0,0 +1,544 @@
+package com.example.satelliteapplication;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Pushes the telemetry of every vehicle in a {@link VehicleRegistry} to local clients, as
+ * one JSON snapshot per update: newline-delimited over plain TCP, or one text message per
+ * update over WebSocket.
+ *
+ * One thread serves all clients with a selector. A snapshot is encoded once per change and
+ * the same immutable bytes are written to every client, so the cost of an update does not
+ * grow with the JSON size times the client count. Each client has its own rate limit
+ * ({@value #DEFAULT_RATE_HZ} Hz unless it asks for another with {@code rate <hz>}, or
+ * {@code ?rate=<hz>} in the WebSocket URL) and holds at most one unsent snapshot: while it is
+ * still taking an older one, newer updates are conflated instead of queued, and it gets
+ * whatever is latest once it catches up. A client that has not taken a snapshot for
+ * {@value #STALL_TIMEOUT_SECONDS} s is disconnected.
+ */
+public class TelemetryServer implements Closeable {
+
+    public static final int DEFAULT_TCP_PORT = 5770;
+    public static final int DEFAULT_WEBSOCKET_PORT = 8765;
+    public static final double DEFAULT_RATE_HZ = 10;
+    public static final double MAX_RATE_HZ = 50;
+
+    private static final int STALL_TIMEOUT_SECONDS = 10;
+    private static final long STALL_TIMEOUT_NANOS = STALL_TIMEOUT_SECONDS * 1_000_000_000L;
+    private static final long TICK_NANOS = (long) (1e9 / MAX_RATE_HZ);
+    // Small, so stale snapshots wait in our one-deep slot rather than in a deep kernel queue
+    private static final int SEND_BUFFER_BYTES = 16 * 1024;
+    private static final int TCP_INPUT_BYTES = 256;
+    private static final int WEBSOCKET_INPUT_BYTES = 8192;  // room for the HTTP upgrade request
+    private static final String WEBSOCKET_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+    // Attached to the server keys to tell the listeners apart
+    private static final Object TCP = "tcp";
+    private static final Object WEBSOCKET = "websocket";
+
+    private static final class Client {
+        final SocketChannel channel;
+        final SelectionKey key;
+        final boolean webSocket;
+        final ByteBuffer in;
+
+        boolean open;               // WebSocket: upgrade answered; TCP: from the start
+        ByteBuffer out;             // the snapshot being written, or null
+        long intervalNanos;
+        long nextSendNanos;
+        long sentVersion = -1;
+        long outSinceNanos;
+
+        Client(SocketChannel channel, SelectionKey key, boolean webSocket, double rateHz) {
+            this.channel = channel;
+            this.key = key;
+            this.webSocket = webSocket;
+            this.in = ByteBuffer.allocate(webSocket ? WEBSOCKET_INPUT_BYTES : TCP_INPUT_BYTES);
+            this.open = !webSocket;
+            setRate(rateHz);
+        }
+
+        void setRate(double hz) {
+            intervalNanos = (long) (1e9 / Math.max(0.1, Math.min(MAX_RATE_HZ, hz)));
+        }
+    }
+
+    private final VehicleRegistry registry;
+    private final double defaultRateHz;
+    private final Consumer<String> log;
+    private final Selector selector;
+    private final List<ServerSocketChannel> listeners = new ArrayList<>();
+    private final List<Client> clients = new ArrayList<>();  // server thread only
+    private final StringBuilder json = new StringBuilder(1024);
+
+    // Latest encoded snapshot; never modified once built, so clients can share it
+    private long encodedVersion = -1;
+    private byte[] lineMessage;
+    private byte[] webSocketMessage;
+
+    // Written by the server thread
+    private volatile int clientCount;
+    private volatile long clientsAccepted;
+    private volatile long clientsDropped;
+    private volatile long snapshotsEncoded;
+    private volatile long snapshotsSent;
+    private volatile long updatesConflated;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    /**
+     * @param tcpAddress       plain TCP listener, or null for none
+     * @param webSocketAddress WebSocket listener, or null for none
+     */
+    public TelemetryServer(VehicleRegistry registry, InetSocketAddress tcpAddress,
+                           InetSocketAddress webSocketAddress, double defaultRateHz,
+                           Consumer<String> log) throws IOException {
+        this.registry = registry;
+        this.defaultRateHz = defaultRateHz;
+        this.log = log;
+        this.selector = Selector.open();
+        try {
+            if (tcpAddress != null) {
+                listen(tcpAddress, TCP);
+            }
+            if (webSocketAddress != null) {
+                listen(webSocketAddress, WEBSOCKET);
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private void listen(InetSocketAddress address, Object kind) throws IOException {
+        ServerSocketChannel server = ServerSocketChannel.open();
+        listeners.add(server);
+        server.bind(address, 128);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT, kind);
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "telemetry-server");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        long nextTick = System.nanoTime();
+        while (running) {
+            try {
+                long waitMillis = Math.max(1, (nextTick - System.nanoTime()) / 1_000_000);
+                selector.select(this::handle, waitMillis);
+                long now = System.nanoTime();
+                if (now - nextTick >= 0) {
+                    publish(now);
+                    nextTick = now + TICK_NANOS;
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                if (running) {
+                    log.accept("Telemetry server stopped: " + e.getMessage());
+                }
+                break;
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        if (key.isAcceptable()) {
+            accept((ServerSocketChannel) key.channel(), key.attachment() == WEBSOCKET);
+            return;
+        }
+        Client client = (Client) key.attachment();
+        try {
+            if (key.isValid() && key.isReadable()) {
+                read(client);
+            }
+            if (key.isValid() && key.isWritable()) {
+                flush(client);
+            }
+        } catch (IOException e) {
+            drop(client);
+        }
+    }
+
+    private void accept(ServerSocketChannel server, boolean webSocket) {
+        try {
+            SocketChannel channel;
+            while ((channel = server.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                channel.setOption(StandardSocketOptions.SO_SNDBUF, SEND_BUFFER_BYTES);
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                Client client = new Client(channel, key, webSocket, defaultRateHz);
+                key.attach(client);
+                clients.add(client);
+                clientCount = clients.size();
+                clientsAccepted++;
+            }
+        } catch (IOException e) {
+            log.accept("Telemetry server accept failed: " + e.getMessage());
+        }
+    }
+
+    // Everything a client sends is a request to change its rate, or the WebSocket framing around one
+    private void read(Client client) throws IOException {
+        if (client.channel.read(client.in) < 0) {
+            drop(client);
+            return;
+        }
+        client.in.flip();
+        if (!client.webSocket) {
+            readLines(client);
+        } else if (!client.open) {
+            readUpgrade(client);
+        } else {
+            readWebSocketFrames(client);
+        }
+        if (client.key.isValid()) {
+            if (!client.in.hasRemaining() || client.in.remaining() < client.in.capacity()) {
+                client.in.compact();
+            } else {
+                drop(client);  // a full buffer that parses as nothing
+            }
+        }
+    }
+
+    private void readLines(Client client) {
+        ByteBuffer in = client.in;
+        int start = in.position();
+        for (int i = start; i < in.limit(); i++) {
+            if (in.get(i) == '\n') {
+                command(client, new String(in.array(), start, i - start, StandardCharsets.US_ASCII));
+                start = i + 1;
+            }
+        }
+        in.position(start);
+    }
+
+    private void readUpgrade(Client client) throws IOException {
+        ByteBuffer in = client.in;
+        String request = new String(in.array(), in.position(), in.remaining(), StandardCharsets.ISO_8859_1);
+        int end = request.indexOf("\r\n\r\n");
+        if (end < 0) {
+            return;
+        }
+        in.position(in.position() + end + 4);
+
+        String[] lines = request.substring(0, end).split("\r\n");
+        String key = null;
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon > 0 && lines[i].substring(0, colon).trim().equalsIgnoreCase("Sec-WebSocket-Key")) {
+                key = lines[i].substring(colon + 1).trim();
+            }
+        }
+        if (!lines[0].startsWith("GET ") || key == null) {
+            drop(client);
+            return;
+        }
+        // GET /path?rate=5 HTTP/1.1
+        String target = lines[0].split(" ")[1];
+        int rate = target.indexOf("rate=");
+        if (rate >= 0) {
+            int stop = target.indexOf('&', rate);
+            command(client, "rate " + target.substring(rate + 5, stop < 0 ? target.length() : stop));
+        }
+
+        String response = "HTTP/1.1 101 Switching Protocols\r\n" +
+                "Upgrade: websocket\r\n" +
+                "Connection: Upgrade\r\n" +
+                "Sec-WebSocket-Accept: " + acceptKey(key) + "\r\n\r\n";
+        client.out = ByteBuffer.wrap(response.getBytes(StandardCharsets.ISO_8859_1));
+        client.outSinceNanos = System.nanoTime();
+        client.open = true;
+        flush(client);
+    }
+
+    private static String acceptKey(String key) {
+        try {
+            MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+            byte[] digest = sha1.digest((key + WEBSOCKET_GUID).getBytes(StandardCharsets.ISO_8859_1));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);  // every JRE has SHA-1
+        }
+    }
+
+    // Client frames are always masked; only short text and close frames mean anything here
+    private void readWebSocketFrames(Client client) {
+        ByteBuffer in = client.in;
+        while (in.remaining() >= 2) {
+            int p = in.position();
+            int opcode = in.get(p) & 0x0F;
+            int length = in.get(p + 1) & 0x7F;
+            int header = 2;
+            if (length == 126) {
+                if (in.remaining() < 4) {
+                    return;
+                }
+                length = (in.get(p + 2) & 0xFF) << 8 | (in.get(p + 3) & 0xFF);
+                header = 4;
+            } else if (length == 127) {
+                drop(client);
+                return;
+            }
+            header += 4;  // mask
+            if (header + length > in.capacity()) {
+                drop(client);
+                return;
+            }
+            if (in.remaining() < header + length) {
+                return;
+            }
+            byte[] payload = new byte[length];
+            for (int i = 0; i < length; i++) {
+                payload[i] = (byte) (in.get(p + header + i) ^ in.get(p + header - 4 + (i & 3)));
+            }
+            in.position(p + header + length);
+
+            if (opcode == 0x8) {
+                drop(client);
+                return;
+            }
+            if (opcode == 0x1) {
+                command(client, new String(payload, StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    private void command(Client client, String line) {
+        String[] words = line.trim().split("\\s+");
+        if (words.length == 2 && words[0].equalsIgnoreCase("rate")) {
+            try {
+                client.setRate(Double.parseDouble(words[1]));
+                client.nextSendNanos = 0;
+            } catch (NumberFormatException ignored) {
+                // Not a rate; keep the current one
+            }
+        }
+    }
+
+    private void publish(long now) {
+        long version = snapshotVersion();
+        if (version != encodedVersion) {
+            encode();
+            encodedVersion = version;
+        }
+        // Backwards, so a client dropped on the way does not shift the ones still to visit
+        for (int i = clients.size() - 1; i >= 0; i--) {
+            Client client = clients.get(i);
+            if (!client.open || client.sentVersion == version || now - client.nextSendNanos < 0) {
+                continue;
+            }
+            if (client.out != null) {
+                // Still taking an older snapshot; it gets the newest one when it has caught up
+                updatesConflated++;
+                if (now - client.outSinceNanos > STALL_TIMEOUT_NANOS) {
+                    drop(client);
+                }
+                continue;
+            }
+            client.out = ByteBuffer.wrap(client.webSocket ? webSocketMessage : lineMessage);
+            client.outSinceNanos = now;
+            client.sentVersion = version;
+            client.nextSendNanos = now + client.intervalNanos;
+            try {
+                flush(client);
+            } catch (IOException e) {
+                drop(client);
+            }
+        }
+    }
+
+    private void flush(Client client) throws IOException {
+        if (client.out == null) {
+            return;
+        }
+        client.channel.write(client.out);
+        if (client.out.hasRemaining()) {
+            if ((client.key.interestOps() & SelectionKey.OP_WRITE) == 0) {
+                client.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+            return;
+        }
+        if (client.sentVersion >= 0) {
+            snapshotsSent++;
+        }
+        client.out = null;
+        if ((client.key.interestOps() & SelectionKey.OP_WRITE) != 0) {
+            client.key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    private void drop(Client client) {
+        if (clients.remove(client)) {
+            clientCount = clients.size();
+            clientsDropped++;
+        }
+        client.key.cancel();
+        try {
+            client.channel.close();
+        } catch (IOException ignored) {
+            // Already gone
+        }
+    }
+
+    // Moves whenever any vehicle's telemetry changes or a vehicle appears; all parts only grow
+    private long snapshotVersion() {
+        List<Vehicle> vehicles = registry.vehicles();
+        long version = vehicles.size();
+        for (Vehicle vehicle : vehicles) {
+            version += vehicle.state().version();
+        }
+        return version;
+    }
+
+    private void encode() {
+        StringBuilder sb = json;
+        sb.setLength(0);
+        sb.append("{\"time\":").append(System.currentTimeMillis()).append(",\"vehicles\":[");
+        List<Vehicle> vehicles = registry.vehicles();
+        for (int i = 0; i < vehicles.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            appendVehicle(sb, vehicles.get(i));
+        }
+        sb.append("]}");
+
+        int length = sb.length();
+        byte[] line = new byte[length + 1];
+        for (int i = 0; i < length; i++) {
+            line[i] = (byte) sb.charAt(i);  // ASCII only: numbers, field names and enum names
+        }
+        line[length] = '\n';
+
+        int header = length < 126 ? 2 : length < 65536 ? 4 : 10;
+        byte[] frame = new byte[header + length];
+        frame[0] = (byte) 0x81;  // FIN, text
+        if (header == 2) {
+            frame[1] = (byte) length;
+        } else if (header == 4) {
+            frame[1] = 126;
+            frame[2] = (byte) (length >>> 8);
+            frame[3] = (byte) length;
+        } else {
+            frame[1] = 127;
+            for (int i = 0; i < 8; i++) {
+                frame[2 + i] = (byte) ((long) length >>> (56 - 8 * i));
+            }
+        }
+        System.arraycopy(line, 0, frame, header, length);
+
+        lineMessage = line;
+        webSocketMessage = frame;
+        snapshotsEncoded++;
+    }
+
+    private static void appendVehicle(StringBuilder sb, Vehicle vehicle) {
+        TelemetryState s = vehicle.state();
+        sb.append("{\"sys\":").append(vehicle.systemId())
+                .append(",\"comp\":").append(vehicle.componentId())
+                .append(",\"type\":\"").append(vehicle.typeName()).append('"')
+                .append(",\"armed\":").append(s.isArmed())
+                .append(",\"mode\":").append(s.customMode())
+                .append(",\"battery\":{\"volts\":");
+        appendNumber(sb, s.batteryMillivolts() / 1000.0);
+        sb.append(",\"remaining\":").append(s.batteryRemaining())
+                .append("},\"gps\":{\"lat\":");
+        appendNumber(sb, s.latitudeE7() / 1e7);
+        sb.append(",\"lon\":");
+        appendNumber(sb, s.longitudeE7() / 1e7);
+        sb.append(",\"fix\":").append(s.fixType())
+                .append(",\"satellites\":").append(s.satellitesVisible())
+                .append("},\"altitude\":");
+        appendNumber(sb, s.altitudeMeters());
+        sb.append(",\"groundSpeed\":");
+        appendNumber(sb, s.groundSpeed());
+        sb.append(",\"attitude\":{\"roll\":");
+        appendNumber(sb, s.roll());
+        sb.append(",\"pitch\":");
+        appendNumber(sb, s.pitch());
+        sb.append(",\"yaw\":");
+        appendNumber(sb, s.yaw());
+        sb.append("},\"missionItem\":").append(s.missionItem()).append('}');
+    }
+
+    // JSON has no NaN or infinity
+    private static void appendNumber(StringBuilder sb, double value) {
+        if (Double.isFinite(value)) {
+            sb.append(value);
+        } else {
+            sb.append("null");
+        }
+    }
+
+    public int clientCount() { return clientCount; }
+    public long clientsAccepted() { return clientsAccepted; }
+    public long clientsDropped() { return clientsDropped; }
+    public long snapshotsEncoded() { return snapshotsEncoded; }
+    public long snapshotsSent() { return snapshotsSent; }
+    // Sends put off because the client was still taking an older snapshot
+    public long updatesConflated() { return updatesConflated; }
+
+    // e.g. "12 clients · 4,210 snapshots sent · 35 conflated"
+    public String summary() {
+        return String.format(Locale.ROOT, "%d clients · %,d snapshots sent · %,d conflated",
+                clientCount, snapshotsSent, updatesConflated);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            selector.close();
+        } catch (IOException ignored) {
+            // Closing anyway
+        }
+        Thread serverThread = thread;
+        if (serverThread != null && serverThread != Thread.currentThread()) {
+            try {
+                serverThread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (ServerSocketChannel listener : listeners) {
+            try {
+                listener.close();
+            } catch (IOException ignored) {
+                // Closing anyway
+            }
+        }
+        for (Client client : clients) {
+            try {
+                client.channel.close();
+            } catch (IOException ignored) {
+                // Closing anyway
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.satelliteapplication;
+
+/**
+ * Latest-value telemetry for one vehicle.
+ *
+ * Written by the MAVLink reader thread only, read by the UI once per frame. Each group
+ * of fields has its own version counter that is bumped after the fields are written, so
+ * a reader that sees a new version also sees the values written before it. A reader may
+ * catch a group half-written, but the version will have moved by the next frame and the
+ * group gets re-read, so a torn read never lasts longer than one frame.
+ *
+ * Every update is also appended to the vehicle's {@link TelemetrySeries}, for the charts,
+ * and positions with a fix to its {@link GpsTrack}, for the map.
+ */
+public class TelemetryState {
+
+    private final TelemetrySeries series = new TelemetrySeries();
+    private final GpsTrack track = new GpsTrack();
+
+    // Heartbeat
+    private volatile long customMode;
+    private volatile int baseMode;
+    private volatile long heartbeatVersion;
+
+    // Battery (SYS_STATUS)
+    private volatile int batteryMillivolts;
+    private volatile int batteryRemaining = -1;
+    private volatile long batteryVersion;
+
+    // GPS (GPS_RAW_INT)
+    private volatile int latitudeE7;
+    private volatile int longitudeE7;
+    private volatile int fixType;
+    private volatile int satellitesVisible;
+    private volatile long gpsVersion;
+
+    // Altitude (GLOBAL_POSITION_INT relative altitude, or VFR_HUD altitude when positive)
+    private volatile float altitudeMeters;
+    private volatile long altitudeVersion;
+
+    // Ground speed (VFR_HUD)
+    private volatile float groundSpeed;
+    private volatile long speedVersion;
+
+    // Attitude (ATTITUDE), radians
+    private volatile float roll;
+    private volatile float pitch;
+    private volatile float yaw;
+    private volatile long attitudeVersion;
+
+    // Active mission item (MISSION_CURRENT)
+    private volatile int missionItem = -1;
+    private volatile long missionVersion;
+
+    // The version fields have a single writer, so the non-atomic increments below are safe.
+
+    public void updateHeartbeat(long customMode, int baseMode) {
+        this.customMode = customMode;
+        this.baseMode = baseMode;
+        heartbeatVersion++;
+    }
+
+    public void updateBattery(int millivolts, int remaining) {
+        this.batteryMillivolts = millivolts;
+        this.batteryRemaining = remaining;
+        batteryVersion++;
+        series.append(TelemetrySeries.Channel.BATTERY_VOLTAGE, millivolts / 1000f);
+    }
+
+    public void updateGps(int latitudeE7, int longitudeE7, int fixType, int satellitesVisible) {
+        this.latitudeE7 = latitudeE7;
+        this.longitudeE7 = longitudeE7;
+        this.fixType = fixType;
+        this.satellitesVisible = satellitesVisible;
+        gpsVersion++;
+        series.append(TelemetrySeries.Channel.SATELLITES, satellitesVisible);
+        if (fixType >= 2) {  // 2D fix or better
+            track.add(latitudeE7, longitudeE7);
+        }
+    }
+
+    public void updateAltitude(float meters) {
+        this.altitudeMeters = meters;
+        altitudeVersion++;
+        series.append(TelemetrySeries.Channel.ALTITUDE, meters);
+    }
+
+    public void updateGroundSpeed(float metersPerSecond) {
+        this.groundSpeed = metersPerSecond;
+        speedVersion++;
+        series.append(TelemetrySeries.Channel.GROUND_SPEED, metersPerSecond);
+    }
+
+    public void updateAttitude(float roll, float pitch, float yaw) {
+        this.roll = roll;
+        this.pitch = pitch;
+        this.yaw = yaw;
+        attitudeVersion++;
+        series.append(TelemetrySeries.Channel.ROLL, (float) Math.toDegrees(roll));
+        series.append(TelemetrySeries.Channel.PITCH, (float) Math.toDegrees(pitch));
+        series.append(TelemetrySeries.Channel.YAW, (float) Math.toDegrees(yaw));
+    }
+
+    public void updateMissionItem(int seq) {
+        this.missionItem = seq;
+        missionVersion++;
+    }
+
+    // Moves whenever any group changes; for readers that only need to know whether anything did
+    public long version() {
+        return heartbeatVersion + batteryVersion + gpsVersion + altitudeVersion + speedVersion
+                + attitudeVersion + missionVersion;
+    }
+
+    public TelemetrySeries series() { return series; }
+    public GpsTrack track() { return track; }
+
+    public long heartbeatVersion() { return heartbeatVersion; }
+    public long customMode() { return customMode; }
+    public int baseMode() { return baseMode; }
+    public boolean isArmed() { return (baseMode & 128) != 0; }
+
+    public long batteryVersion() { return batteryVersion; }
+    public int batteryMillivolts() { return batteryMillivolts; }
+    public int batteryRemaining() { return batteryRemaining; }
+
+    public long gpsVersion() { return gpsVersion; }
+    public int latitudeE7() { return latitudeE7; }
+    public int longitudeE7() { return longitudeE7; }
+    public int fixType() { return fixType; }
+    public int satellitesVisible() { return satellitesVisible; }
+
+    public long altitudeVersion() { return altitudeVersion; }
+    public float altitudeMeters() { return altitudeMeters; }
+
+    public long speedVersion() { return speedVersion; }
+    public float groundSpeed() { return groundSpeed; }
+
+    public long attitudeVersion() { return attitudeVersion; }
+    public float roll() { return roll; }
+    public float pitch() { return pitch; }
+    public float yaw() { return yaw; }
+
+    public long missionVersion() { return missionVersion; }
+    public int missionItem() { return missionItem; }
+}
@@ -0,0 +1,174 @@
+package com.example.satelliteapplication;
+
+import javafx.scene.image.Image;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Map tiles from a local slippy-map directory ({@code z/x/y.png} or {@code .jpg}, as
+ * written by most tile downloaders), decoded on background threads and kept in an LRU cache
+ * bounded by decoded size. Tiles that do not exist are remembered too, so panning over an
+ * area with no tiles does not touch the disk every frame.
+ *
+ * Owned by the FX thread: {@link #get} never blocks. A tile that is not in memory is queued
+ * for loading and shows up in a later frame, after {@link #drain} has moved it in. Requests
+ * for tiles that have scrolled out of view by the time a loader gets to them are dropped
+ * before they reach the disk.
+ */
+public class TileCache implements AutoCloseable {
+
+    public static final int TILE_SIZE = 256;
+    public static final long DEFAULT_MAX_BYTES = 64L << 20;
+
+    private static final int LOADER_THREADS = 2;
+    private static final int MAX_MISSING = 4096;
+    // A queued tile not asked for in this many redraws is no longer on screen
+    private static final long STALE_FRAMES = 2;
+
+    private record Loaded(long key, Image image) {
+    }
+
+    private final Path directory;
+    private final long maxBytes;
+    private final ExecutorService loader = Executors.newFixedThreadPool(LOADER_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "tile-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // FX thread only
+    private final LinkedHashMap<Long, Image> images = new LinkedHashMap<>(256, 0.75f, true);
+    private final LinkedHashMap<Long, Boolean> missing = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > MAX_MISSING;
+        }
+    };
+    private long bytes;
+    private long frame;
+
+    // Shared with the loaders: queued keys with the frame they were last asked for, and results
+    private final ConcurrentHashMap<Long, Long> pending = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Loaded> loaded = new ConcurrentLinkedQueue<>();
+    private volatile long currentFrame;
+
+    public TileCache(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    // ~/NazarX GCS/tiles, next to the recordings
+    public static TileCache defaultCache() {
+        return new TileCache(Path.of(System.getProperty("user.home"), "NazarX GCS", "tiles"), DEFAULT_MAX_BYTES);
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    private static long key(int zoom, int x, int y) {
+        return (long) zoom << 58 | (long) x << 29 | y;
+    }
+
+    /** Starts a redraw; tiles queued but not asked for again in the last few redraws are skipped. */
+    public void beginFrame() {
+        currentFrame = ++frame;
+    }
+
+    /** Moves finished loads into the cache; returns whether any arrived. */
+    public boolean drain() {
+        boolean any = false;
+        for (Loaded tile; (tile = loaded.poll()) != null; ) {
+            if (tile.image() == null) {
+                missing.put(tile.key(), Boolean.TRUE);
+            } else {
+                Image previous = images.put(tile.key(), tile.image());
+                bytes += size(tile.image()) - (previous == null ? 0 : size(previous));
+                any = true;
+            }
+        }
+        evict();
+        return any;
+    }
+
+    /** The tile if it is in memory, otherwise null; a tile not yet loaded is queued. */
+    public Image get(int zoom, int x, int y) {
+        long key = key(zoom, x, y);
+        Image image = images.get(key);
+        if (image != null || missing.containsKey(key)) {
+            return image;
+        }
+        if (pending.put(key, frame) == null) {
+            loader.execute(() -> load(key, zoom, x, y));
+        }
+        return null;
+    }
+
+    /** The tile if it is in memory, without queueing a load; for drawing a parent in a child's place. */
+    public Image peek(int zoom, int x, int y) {
+        return images.get(key(zoom, x, y));
+    }
+
+    private void load(long key, int zoom, int x, int y) {
+        Long requested = pending.get(key);
+        if (requested == null) {
+            return;
+        }
+        // Scrolled away; asked for again if it comes back. Only if get() has not just asked again:
+        // it queued nothing, counting on this load, so a failed remove means load it after all.
+        if (requested < currentFrame - STALE_FRAMES && pending.remove(key, requested)) {
+            return;
+        }
+        Image image = null;
+        Path folder = directory.resolve(Integer.toString(zoom)).resolve(Integer.toString(x));
+        for (String extension : new String[] {".png", ".jpg"}) {
+            Path file = folder.resolve(y + extension);
+            if (Files.isRegularFile(file)) {
+                try (InputStream in = Files.newInputStream(file)) {
+                    Image decoded = new Image(in);
+                    image = decoded.isError() ? null : decoded;
+                } catch (IOException e) {
+                    // Treat as missing
+                }
+                break;
+            }
+        }
+        loaded.add(new Loaded(key, image));
+        pending.remove(key);
+    }
+
+    private void evict() {
+        Iterator<Image> eldest = images.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= size(eldest.next());
+            eldest.remove();
+        }
+    }
+
+    private static long size(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4;
+    }
+
+    public int size() {
+        return images.size();
+    }
+
+    public long bytes() {
+        return bytes;
+    }
+
+    @Override
+    public void close() {
+        loader.shutdownNow();
+    }
+}
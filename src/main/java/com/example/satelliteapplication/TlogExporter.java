@@ -0,0 +1,721 @@
+package com.example.satelliteapplication;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Turns recorded .tlog files into datasets for analysis: one file per message type, with a
+ * row per frame holding the log timestamp, the sender and every scalar payload field.
+ * Formats:
+ * <ul>
+ *   <li>CSV ({@code NAME.csv}), with a header row of MAVLink field names.</li>
+ *   <li>Columnar ({@code NAME.ncol}): the magic {@code "NXCOL1\n\0"}, a little-endian int
+ *       column count, then per column a struct type code ({@code b B h H i I q Q f d}), a
+ *       u16 name length and the UTF-8 name; then blocks of up to {@value #BLOCK_ROWS}
+ *       rows, each an int row count followed by every column's values back to back, in
+ *       wire byte order. A block reads straight into numpy with {@code np.frombuffer}.</li>
+ * </ul>
+ * Resampling keeps the first row of each 1/hz interval per message and sender.
+ *
+ * Each log segment is split into chunks of about {@value #DEFAULT_CHUNK_MB} MB, with the
+ * cut moved forward to the next CRC-valid record, and the chunks are memory-mapped and
+ * decoded in parallel on a fork-join pool. Every chunk buffers its rows per message type
+ * and appends them to part files as the buffers fill, opening a part only for the write, so
+ * the descriptors held stay at a couple per thread however many message types a log has.
+ * The calling thread appends the parts to the outputs in chunk order as they complete and
+ * deletes them; at most {@value #CHUNKS_AHEAD} chunks per thread are decoded ahead of that
+ * merge, which bounds both the heap (a set of buffers per chunk in flight) and the part
+ * files on disk, whatever the size of the log.
+ *
+ * A chunk cannot see the previous row of a sender that sits in an earlier chunk, so when
+ * resampling the first row of each sender in a chunk is written as a block of its own,
+ * and the merge leaves it out if the previous chunk already covered its interval.
+ */
+public class TlogExporter {
+
+    public enum Format { CSV, COLUMNAR }
+
+    public static final int DEFAULT_CHUNK_MB = 8;
+
+    private static final int BLOCK_ROWS = 1024;
+    private static final int CHUNKS_AHEAD = 2;
+    private static final int TIMESTAMP_SIZE = 8;
+    private static final int MAX_RECORD = TIMESTAMP_SIZE + MavlinkFrame.MAX_SIZE;
+    // How far past a nominal cut to look for the next record before giving up on that cut
+    private static final int ALIGN_WINDOW = 64 * 1024;
+    private static final int CSV_BUFFER = 1 << 16;
+    private static final int MAX_CSV_ROW = 8192;
+    private static final byte[] COLUMNAR_MAGIC = "NXCOL1\n\0".getBytes(StandardCharsets.US_ASCII);
+    private static final String[] BASE_COLUMNS = {"time_us", "system_id", "component_id"};
+
+    /** What an export did. */
+    public record Summary(long records, long rows, long skippedBytes, int messageTypes, int chunks,
+                          long inputBytes, long millis) {
+    }
+
+    private final Path outputDirectory;
+    private final Set<Format> formats;
+    private final long intervalMicros;  // 0: every row
+    private final int parallelism;
+    private final long chunkBytes;
+    private final boolean[] wanted;  // by message ID; null: all
+    private final Consumer<String> log;
+
+    private final Map<Integer, Layout> layouts = new ConcurrentHashMap<>();
+    private Path partsDirectory;
+
+    /**
+     * @param resampleHz rows per second per message and sender, 0 to keep every row
+     * @param messageNames MAVLink names of the messages to export, empty for all
+     */
+    public TlogExporter(Path outputDirectory, Set<Format> formats, double resampleHz, int parallelism,
+                        Set<String> messageNames, Consumer<String> log) {
+        this(outputDirectory, formats, resampleHz, parallelism, messageNames, DEFAULT_CHUNK_MB * 1024L * 1024, log);
+    }
+
+    TlogExporter(Path outputDirectory, Set<Format> formats, double resampleHz, int parallelism,
+                 Set<String> messageNames, long chunkBytes, Consumer<String> log) {
+        if (formats.isEmpty()) {
+            throw new IllegalArgumentException("No output format");
+        }
+        if (chunkBytes < ALIGN_WINDOW || chunkBytes > Integer.MAX_VALUE - MAX_RECORD) {
+            throw new IllegalArgumentException("Chunk size out of range: " + chunkBytes);
+        }
+        this.outputDirectory = outputDirectory;
+        this.formats = EnumSet.copyOf(formats);
+        this.intervalMicros = resampleHz > 0 ? Math.max(1, Math.round(1e6 / resampleHz)) : 0;
+        this.parallelism = Math.max(1, parallelism);
+        this.chunkBytes = chunkBytes;
+        this.wanted = messageNames.isEmpty() ? null : new boolean[MavlinkMessages.maxId() + 1];
+        for (String name : messageNames) {
+            int id = MavlinkMessages.idOf(name);
+            if (id < 0) {
+                throw new IllegalArgumentException("Unknown message " + name);
+            }
+            wanted[id] = true;
+        }
+        this.log = log;
+    }
+
+    // Column layout of one message type, shared by every chunk
+    private static final class Layout {
+        final String name;
+        final MavlinkMessages.Field[] fields;
+        final byte[] csvHeader;
+        final byte[] columnarHeader;
+
+        Layout(int messageId) {
+            name = MavlinkMessages.name(messageId);
+            Map<String, MavlinkMessages.Field> byName = MavlinkMessages.fields(messageId);
+            fields = byName.values().toArray(new MavlinkMessages.Field[0]);
+
+            List<String> columns = new ArrayList<>(List.of(BASE_COLUMNS));
+            columns.addAll(byName.keySet());
+            csvHeader = (String.join(",", columns) + "\n").getBytes(StandardCharsets.US_ASCII);
+
+            int headerSize = COLUMNAR_MAGIC.length + 4;
+            for (String column : columns) {
+                headerSize += 3 + column.getBytes(StandardCharsets.UTF_8).length;
+            }
+            ByteBuffer header = ByteBuffer.allocate(headerSize).order(ByteOrder.LITTLE_ENDIAN);
+            header.put(COLUMNAR_MAGIC).putInt(columns.size());
+            for (int i = 0; i < columns.size(); i++) {
+                char code = i == 0 ? 'q' : i < BASE_COLUMNS.length ? 'B' : typeCode(fields[i - BASE_COLUMNS.length]);
+                byte[] name = columns.get(i).getBytes(StandardCharsets.UTF_8);
+                header.put((byte) code).putShort((short) name.length).put(name);
+            }
+            columnarHeader = header.array();
+        }
+
+        private static char typeCode(MavlinkMessages.Field field) {
+            if (field.floating()) {
+                return field.size() == 8 ? 'd' : 'f';
+            }
+            char code = switch (field.size()) {
+                case 1 -> 'b';
+                case 2 -> 'h';
+                case 4 -> 'i';
+                default -> 'q';
+            };
+            return field.signed() ? code : Character.toUpperCase(code);
+        }
+    }
+
+    private Layout layout(int messageId) {
+        return layouts.computeIfAbsent(messageId, Layout::new);
+    }
+
+    /** Exports the given log segments, in order, into the output directory. */
+    public Summary export(List<Path> segments) throws IOException {
+        long started = System.nanoTime();
+        Files.createDirectories(outputDirectory);
+        partsDirectory = Files.createTempDirectory(outputDirectory, ".export-");
+        List<Chunk> chunks = plan(segments);
+        long inputBytes = 0;
+        for (Path segment : segments) {
+            inputBytes += Files.size(segment);
+        }
+        log.accept(String.format("Exporting %.1f MB in %d chunks on %d threads", inputBytes / 1048576.0,
+                chunks.size(), parallelism));
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        Merger merger = new Merger();
+        long records = 0;
+        long skipped = 0;
+        try {
+            // A sliding window: each chunk merged lets one more start decoding
+            List<ForkJoinTask<ChunkResult>> tasks = new ArrayList<>();
+            int window = CHUNKS_AHEAD * parallelism;
+            for (int i = 0; i < Math.min(window, chunks.size()); i++) {
+                Chunk chunk = chunks.get(i);
+                tasks.add(pool.submit(() -> decode(chunk)));
+            }
+            // Merge in log order while later chunks are still decoding
+            int lastReported = 0;
+            for (int i = 0; i < chunks.size(); i++) {
+                ChunkResult result = tasks.get(i).get();
+                tasks.set(i, null);
+                if (i + window < chunks.size()) {
+                    Chunk chunk = chunks.get(i + window);
+                    tasks.add(pool.submit(() -> decode(chunk)));
+                }
+                merger.append(result);
+                records += result.records;
+                skipped += result.skippedBytes;
+                int percent = (int) ((i + 1) * 100L / chunks.size());
+                if (percent / 10 > lastReported / 10) {
+                    lastReported = percent;
+                    log.accept("Export " + percent + "%");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+            merger.close();
+            deleteParts();
+        }
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        return new Summary(records, merger.rows, skipped, merger.outputs.size(), chunks.size(), inputBytes, millis);
+    }
+
+    // --- Chunking
+
+    private record Chunk(int index, Path file, long start, long end) {
+    }
+
+    private List<Chunk> plan(List<Path> segments) throws IOException {
+        List<Chunk> chunks = new ArrayList<>();
+        MavlinkFrame frame = new MavlinkFrame();
+        for (Path segment : segments) {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                long size = channel.size();
+                long start = 0;
+                for (long cut = chunkBytes; cut < size; cut += chunkBytes) {
+                    long aligned = align(channel, cut, size, frame);
+                    if (aligned > start && aligned < size) {
+                        chunks.add(new Chunk(chunks.size(), segment, start, aligned));
+                        start = aligned;
+                    }
+                }
+                if (start < size) {
+                    chunks.add(new Chunk(chunks.size(), segment, start, size));
+                }
+            }
+        }
+        return chunks;
+    }
+
+    // The first offset at or after the cut where two records in a row check out, or -1
+    private static long align(FileChannel channel, long cut, long size, MavlinkFrame frame) throws IOException {
+        int window = (int) Math.min(size - cut, ALIGN_WINDOW + 2L * MAX_RECORD);
+        ByteBuffer buffer = ByteBuffer.allocate(window);
+        while (buffer.hasRemaining() && channel.read(buffer, cut + buffer.position()) > 0) {
+            // Fill the window
+        }
+        int limit = buffer.position();
+        for (int p = 0; p < Math.min(limit, ALIGN_WINDOW); p++) {
+            int length = readRecord(buffer, p, limit, frame);
+            if (length < 0) {
+                continue;
+            }
+            boolean atEnd = cut + p + length == size;
+            if (atEnd || readRecord(buffer, p + length, limit, frame) > 0) {
+                return cut + p;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Loads the record at {@code p} (timestamp, then frame) into the frame if it is complete
+     * before {@code limit} and its checksum matches; returns the record length, or -1.
+     */
+    static int readRecord(ByteBuffer buffer, int p, int limit, MavlinkFrame frame) {
+        if (p + TIMESTAMP_SIZE + 8 > limit) {
+            return -1;
+        }
+        int f = p + TIMESTAMP_SIZE;
+        int magic = buffer.get(f) & 0xFF;
+        int payloadLength = buffer.get(f + 1) & 0xFF;
+        int frameLength;
+        int headerLength;
+        int messageId;
+        if (magic == MavlinkFrame.MAGIC_V1) {
+            headerLength = 6;
+            frameLength = 8 + payloadLength;
+            messageId = buffer.get(f + 5) & 0xFF;
+        } else if (magic == MavlinkFrame.MAGIC_V2) {
+            int incompatFlags = buffer.get(f + 2) & 0xFF;
+            if ((incompatFlags & ~0x01) != 0 || f + 10 > limit) {
+                return -1;
+            }
+            headerLength = 10;
+            frameLength = 12 + payloadLength + ((incompatFlags & 0x01) != 0 ? 13 : 0);
+            messageId = (buffer.get(f + 7) & 0xFF) | (buffer.get(f + 8) & 0xFF) << 8 | (buffer.get(f + 9) & 0xFF) << 16;
+        } else {
+            return -1;
+        }
+        if (f + frameLength > limit) {
+            return -1;
+        }
+        int crcExtra = MavlinkMessages.crcExtra(messageId);
+        if (crcExtra < 0) {
+            return -1;
+        }
+        buffer.get(f, frame.raw, 0, frameLength);
+        int crcOffset = headerLength + payloadLength;
+        int expected = MavlinkCrc.frameCrc(frame.raw, 0, crcOffset, crcExtra);
+        int received = (frame.raw[crcOffset] & 0xFF) | (frame.raw[crcOffset + 1] & 0xFF) << 8;
+        if (expected != received) {
+            return -1;
+        }
+        frame.readHeader(frameLength);
+        return TIMESTAMP_SIZE + frameLength;
+    }
+
+    // --- Decoding, one chunk per task
+
+    // The first row of one sender in a chunk, and the last time that sender was seen there
+    private static final class Head {
+        final int sender;
+        final long firstMicros;
+        long lastMicros;
+        long csvStart;
+        long csvEnd;
+        long columnarStart;
+        long columnarEnd;
+
+        Head(int sender, long firstMicros) {
+            this.sender = sender;
+            this.firstMicros = firstMicros;
+            this.lastMicros = firstMicros;
+        }
+    }
+
+    private record Part(int messageId, Path csv, Path columnar, long rows, List<Head> heads) {
+    }
+
+    private record ChunkResult(long records, long skippedBytes, List<Part> parts) {
+    }
+
+    private ChunkResult decode(Chunk chunk) throws IOException {
+        IntObjectMap<PartWriter> writers = new IntObjectMap<>();
+        List<PartWriter> created = new ArrayList<>();
+        MavlinkFrame frame = new MavlinkFrame();
+        long records = 0;
+        long skipped = 0;
+        try (FileChannel channel = FileChannel.open(chunk.file(), StandardOpenOption.READ)) {
+            // The last record may run past the cut; it belongs to the chunk it starts in
+            long mapEnd = Math.min(channel.size(), chunk.end() + MAX_RECORD);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk.start(), mapEnd - chunk.start());
+            int limit = (int) (chunk.end() - chunk.start());
+            int mapped = buffer.limit();
+            int p = 0;
+            while (p < limit) {
+                int length = readRecord(buffer, p, mapped, frame);
+                if (length < 0) {
+                    p++;
+                    skipped++;
+                    continue;
+                }
+                long micros = buffer.getLong(p);
+                p += length;
+                records++;
+                int messageId = frame.messageId();
+                if (wanted != null && !wanted[messageId]) {
+                    continue;
+                }
+                PartWriter writer = writers.get(messageId);
+                if (writer == null) {
+                    writer = new PartWriter(chunk.index(), messageId, layout(messageId));
+                    writers.put(messageId, writer);
+                    created.add(writer);
+                }
+                writer.add(micros, frame);
+            }
+            List<Part> parts = new ArrayList<>();
+            for (PartWriter writer : created) {
+                parts.add(writer.finish());
+            }
+            return new ChunkResult(records, skipped, parts);
+        }
+    }
+
+    // One message type's rows from one chunk, buffered and appended to part files opened per flush
+    private final class PartWriter {
+        private final int messageId;
+        private final Layout layout;
+        private final Path csvPath;
+        private final Path columnarPath;
+        private final ByteBuffer csvBuffer;
+        private final ByteBuffer[] columns;
+        private final ByteBuffer blockCount = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+        private long csvWritten;
+        private long columnarWritten;
+        private int blockRows;
+        private long rows;
+        private final IntObjectMap<Head> senders = new IntObjectMap<>();
+        private final List<Head> heads = new ArrayList<>();
+
+        PartWriter(int chunkIndex, int messageId, Layout layout) throws IOException {
+            this.messageId = messageId;
+            this.layout = layout;
+            String base = chunkIndex + "-" + messageId;
+            if (formats.contains(Format.CSV)) {
+                csvPath = partsDirectory.resolve(base + ".csv");
+                csvBuffer = ByteBuffer.allocate(CSV_BUFFER);
+            } else {
+                csvPath = null;
+                csvBuffer = null;
+            }
+            if (formats.contains(Format.COLUMNAR)) {
+                columnarPath = partsDirectory.resolve(base + ".ncol");
+                columns = new ByteBuffer[BASE_COLUMNS.length + layout.fields.length];
+                columns[0] = ByteBuffer.allocate(BLOCK_ROWS * 8).order(ByteOrder.LITTLE_ENDIAN);
+                columns[1] = ByteBuffer.allocate(BLOCK_ROWS);
+                columns[2] = ByteBuffer.allocate(BLOCK_ROWS);
+                for (int i = 0; i < layout.fields.length; i++) {
+                    columns[BASE_COLUMNS.length + i] = ByteBuffer.allocate(BLOCK_ROWS * layout.fields[i].size());
+                }
+            } else {
+                columnarPath = null;
+                columns = null;
+            }
+        }
+
+        void add(long micros, MavlinkFrame frame) throws IOException {
+            if (intervalMicros == 0) {
+                writeRow(micros, frame);
+                return;
+            }
+            int sender = frame.systemId() << 8 | frame.componentId();
+            Head head = senders.get(sender);
+            if (head == null) {
+                // Kept apart so the merge can drop it if the previous chunk covered its interval
+                head = new Head(sender, micros);
+                senders.put(sender, head);
+                heads.add(head);
+                flushBlock();
+                head.csvStart = csvPosition();
+                head.columnarStart = columnarWritten;
+                writeRow(micros, frame);
+                flushBlock();
+                head.csvEnd = csvPosition();
+                head.columnarEnd = columnarWritten;
+                return;
+            }
+            long previous = head.lastMicros;
+            head.lastMicros = micros;
+            if (Math.floorDiv(micros, intervalMicros) != Math.floorDiv(previous, intervalMicros)) {
+                writeRow(micros, frame);
+            }
+        }
+
+        private long csvPosition() {
+            return csvBuffer == null ? 0 : csvWritten + csvBuffer.position();
+        }
+
+        private void writeRow(long micros, MavlinkFrame frame) throws IOException {
+            rows++;
+            if (csvBuffer != null) {
+                if (csvBuffer.remaining() < MAX_CSV_ROW) {
+                    flushCsv();
+                }
+                putLong(csvBuffer, micros);
+                csvBuffer.put((byte) ',');
+                putLong(csvBuffer, frame.systemId());
+                csvBuffer.put((byte) ',');
+                putLong(csvBuffer, frame.componentId());
+                for (MavlinkMessages.Field field : layout.fields) {
+                    csvBuffer.put((byte) ',');
+                    if (field.floating()) {
+                        String text = field.size() == 8
+                                ? Double.toString(Double.longBitsToDouble(frame.i64(field.offset())))
+                                : Float.toString(frame.f32(field.offset()));
+                        for (int i = 0; i < text.length(); i++) {
+                            csvBuffer.put((byte) text.charAt(i));
+                        }
+                    } else if (field.size() == 8) {
+                        putLong(csvBuffer, frame.i64(field.offset()));
+                    } else {
+                        putLong(csvBuffer, (long) field.read(frame));
+                    }
+                }
+                csvBuffer.put((byte) '\n');
+            }
+            if (columns != null) {
+                columns[0].putLong(micros);
+                columns[1].put((byte) frame.systemId());
+                columns[2].put((byte) frame.componentId());
+                for (int i = 0; i < layout.fields.length; i++) {
+                    MavlinkMessages.Field field = layout.fields[i];
+                    ByteBuffer column = columns[BASE_COLUMNS.length + i];
+                    // Already little-endian on the wire; trimmed trailing bytes read as zero
+                    for (int b = 0; b < field.size(); b++) {
+                        column.put((byte) frame.u8(field.offset() + b));
+                    }
+                }
+                if (++blockRows == BLOCK_ROWS) {
+                    flushBlock();
+                }
+            }
+        }
+
+        private void flushBlock() throws IOException {
+            if (columns == null || blockRows == 0) {
+                return;
+            }
+            try (FileChannel columnar = openPart(columnarPath)) {
+                blockCount.clear();
+                blockCount.putInt(blockRows).flip();
+                columnarWritten += writeFully(columnar, blockCount);
+                for (ByteBuffer column : columns) {
+                    column.flip();
+                    columnarWritten += writeFully(columnar, column);
+                    column.clear();
+                }
+            }
+            blockRows = 0;
+        }
+
+        private void flushCsv() throws IOException {
+            if (csvBuffer.position() == 0) {
+                return;
+            }
+            csvBuffer.flip();
+            try (FileChannel csv = openPart(csvPath)) {
+                csvWritten += writeFully(csv, csvBuffer);
+            }
+            csvBuffer.clear();
+        }
+
+        Part finish() throws IOException {
+            if (csvBuffer != null) {
+                flushCsv();
+            }
+            flushBlock();
+            return new Part(messageId, csvPath, columnarPath, rows, heads);
+        }
+    }
+
+    private static FileChannel openPart(Path part) throws IOException {
+        return FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static long writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        long written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer);
+        }
+        return written;
+    }
+
+    // Decimal digits without going through a String
+    private static void putLong(ByteBuffer buffer, long value) {
+        if (value == Long.MIN_VALUE) {
+            buffer.put(Long.toString(value).getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int start = buffer.position();
+        do {
+            buffer.put((byte) ('0' + value % 10));
+            value /= 10;
+        } while (value != 0);
+        // Digits went in backwards
+        for (int i = start, j = buffer.position() - 1; i < j; i++, j--) {
+            byte digit = buffer.get(i);
+            buffer.put(i, buffer.get(j));
+            buffer.put(j, digit);
+        }
+    }
+
+    // --- Merging, on the calling thread in chunk order
+
+    private final class Merger {
+        private final Map<Integer, Output> outputs = new HashMap<>();
+        // Last time each (message, sender) was seen in the chunks merged so far
+        private final Map<Long, Long> lastSeen = new HashMap<>();
+        private long rows;
+
+        private final class Output {
+            final FileChannel csv;
+            final FileChannel columnar;
+
+            Output(Layout layout) throws IOException {
+                csv = formats.contains(Format.CSV) ? create(layout.name + ".csv", layout.csvHeader) : null;
+                columnar = formats.contains(Format.COLUMNAR) ? create(layout.name + ".ncol", layout.columnarHeader) : null;
+            }
+
+            private FileChannel create(String fileName, byte[] header) throws IOException {
+                FileChannel channel = FileChannel.open(outputDirectory.resolve(fileName), StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                writeFully(channel, ByteBuffer.wrap(header));
+                return channel;
+            }
+        }
+
+        void append(ChunkResult result) throws IOException {
+            for (Part part : result.parts()) {
+                Output output = outputs.get(part.messageId());
+                if (output == null) {
+                    output = new Output(layout(part.messageId()));
+                    outputs.put(part.messageId(), output);
+                }
+                List<long[]> csvSkips = new ArrayList<>();
+                List<long[]> columnarSkips = new ArrayList<>();
+                long kept = part.rows();
+                for (Head head : part.heads()) {
+                    long key = (long) part.messageId() << 16 | head.sender;
+                    Long previous = lastSeen.put(key, head.lastMicros);
+                    if (previous != null && Math.floorDiv(previous, intervalMicros) == Math.floorDiv(head.firstMicros, intervalMicros)) {
+                        csvSkips.add(new long[] {head.csvStart, head.csvEnd});
+                        columnarSkips.add(new long[] {head.columnarStart, head.columnarEnd});
+                        kept--;
+                    }
+                }
+                rows += kept;
+                if (part.csv() != null) {
+                    copy(part.csv(), output.csv, csvSkips);
+                }
+                if (part.columnar() != null) {
+                    copy(part.columnar(), output.columnar, columnarSkips);
+                }
+            }
+        }
+
+        // Appends the part minus the skipped byte ranges (ascending, as the heads were written), then deletes it
+        private void copy(Path part, FileChannel target, List<long[]> skips) throws IOException {
+            try (FileChannel source = FileChannel.open(part, StandardOpenOption.READ)) {
+                long position = 0;
+                long size = source.size();
+                for (long[] skip : skips) {
+                    transfer(source, position, skip[0] - position, target);
+                    position = skip[1];
+                }
+                transfer(source, position, size - position, target);
+            }
+            Files.delete(part);
+        }
+
+        private void transfer(FileChannel source, long position, long count, FileChannel target) throws IOException {
+            while (count > 0) {
+                long moved = source.transferTo(position, count, target);
+                position += moved;
+                count -= moved;
+            }
+        }
+
+        void close() {
+            for (Output output : outputs.values()) {
+                try {
+                    if (output.csv != null) {
+                        output.csv.close();
+                    }
+                    if (output.columnar != null) {
+                        output.columnar.close();
+                    }
+                } catch (IOException e) {
+                    log.accept("Failed to close an export file: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void deleteParts() {
+        try (Stream<Path> files = Files.walk(partsDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    // Left for the user to clean up
+                }
+            });
+        } catch (IOException e) {
+            log.accept("Could not remove " + partsDirectory + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Usage: TlogExporter log.tlog [outputDirectory] [--csv|--columnar] [--resample hz]
+     *        [--threads n] [--messages NAME,NAME]
+     * Rolled segments next to the log ({@code name-001.tlog}, ...) are included. Writes both
+     * formats unless one is chosen; the output goes next to the log by default.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: TlogExporter log.tlog [outputDirectory] [--csv|--columnar] [--resample hz]"
+                    + " [--threads n] [--messages NAME,NAME]");
+            System.exit(2);
+        }
+        Path log = Path.of(args[0]);
+        String baseName = log.getFileName().toString().replaceFirst("\\.tlog$", "");
+        Path output = log.toAbsolutePath().resolveSibling(baseName + "-export");
+        Set<Format> formats = EnumSet.allOf(Format.class);
+        double resampleHz = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Set<String> messageNames = Set.of();
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--csv" -> formats = EnumSet.of(Format.CSV);
+                case "--columnar" -> formats = EnumSet.of(Format.COLUMNAR);
+                case "--resample" -> resampleHz = Double.parseDouble(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--messages" -> messageNames = Set.of(args[++i].split(","));
+                default -> output = Path.of(args[i]);
+            }
+        }
+        TlogExporter exporter = new TlogExporter(output, formats, resampleHz, threads, messageNames, System.out::println);
+        Summary summary = exporter.export(TlogReader.segmentsOf(log));
+        System.out.printf("%,d records, %,d rows in %d message types to %s in %.2f s (%.1f MB/s, %,d bytes skipped)%n",
+                summary.records(), summary.rows(), summary.messageTypes(), output, summary.millis() / 1000.0,
+                summary.inputBytes() / 1048576.0 / Math.max(0.001, summary.millis() / 1000.0), summary.skippedBytes());
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.satelliteapplication;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Sequential reader for .tlog files (big-endian microsecond timestamp followed by a raw
+ * MAVLink frame). Reads the segments written by {@link TlogRecorder} one after another and
+ * reuses a single frame buffer, so iterating a log does not allocate per record.
+ * A record that does not start with a MAVLink magic byte is skipped byte by byte until
+ * the stream lines up again.
+ *
+ * Reading is single-threaded, but {@link #close()} may come from another thread (a replay
+ * stopped from the UI): it waits for a record being read to finish, after which
+ * {@link #next()} returns false.
+ */
+public class TlogReader implements Closeable {
+
+    public static final int MAX_FRAME_SIZE = 280;  // v2 header + 255 payload + crc + signature
+
+    private static final int MAGIC_V1 = 0xFE;
+    private static final int MAGIC_V2 = 0xFD;
+
+    private final List<Path> segments;
+    private int segmentIndex = -1;
+    private DataInputStream in;
+
+    private final byte[] frame = new byte[MAX_FRAME_SIZE];
+    private int frameLength;
+    private long timestampMicros;
+    private long skippedBytes;
+
+    public TlogReader(List<Path> segments) {
+        this.segments = List.copyOf(segments);
+    }
+
+    public TlogReader(Path file) {
+        this(List.of(file));
+    }
+
+    /**
+     * Returns the given log followed by the rolled segments TlogRecorder wrote after it
+     * ({@code name-001.tlog}, {@code name-002.tlog}, ...).
+     */
+    public static List<Path> segmentsOf(Path first) throws IOException {
+        List<Path> result = new ArrayList<>();
+        result.add(first);
+        String fileName = first.getFileName().toString();
+        if (!fileName.endsWith(".tlog")) {
+            return result;
+        }
+        String base = fileName.substring(0, fileName.length() - ".tlog".length());
+        Pattern rolled = Pattern.compile(Pattern.quote(base) + "-\\d{3}\\.tlog");
+        Path directory = first.toAbsolutePath().getParent();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> rolled.matcher(path.getFileName().toString()).matches())
+                    .sorted()
+                    .forEach(result::add);
+        }
+        return result;
+    }
+
+    /** Advances to the next record; returns false at the end of the last segment. */
+    public synchronized boolean next() throws IOException {
+        while (true) {
+            if (in == null && !openNextSegment()) {
+                return false;
+            }
+            try {
+                readRecord();
+                return true;
+            } catch (EOFException e) {
+                in.close();
+                in = null;  // a truncated trailing record is dropped
+            }
+        }
+    }
+
+    private void readRecord() throws IOException {
+        long stamp = in.readLong();
+        int magic = in.readUnsignedByte();
+        while (magic != MAGIC_V1 && magic != MAGIC_V2) {
+            // Not aligned on a record: slide the 9-byte window forward by one byte
+            stamp = (stamp << 8) | magic;
+            magic = in.readUnsignedByte();
+            skippedBytes++;
+        }
+        int payloadLength = in.readUnsignedByte();
+        frame[0] = (byte) magic;
+        frame[1] = (byte) payloadLength;
+
+        int remaining;
+        if (magic == MAGIC_V1) {
+            remaining = 4 + payloadLength + 2;  // seq, sys, comp, msgid, payload, crc
+        } else {
+            int incompatFlags = in.readUnsignedByte();
+            frame[2] = (byte) incompatFlags;
+            remaining = 7 + payloadLength + 2 + ((incompatFlags & 0x01) != 0 ? 13 : 0);
+        }
+        int headerRead = magic == MAGIC_V1 ? 2 : 3;
+        in.readFully(frame, headerRead, remaining);
+        frameLength = headerRead + remaining;
+        timestampMicros = stamp;
+    }
+
+    private boolean openNextSegment() throws IOException {
+        if (++segmentIndex >= segments.size()) {
+            return false;
+        }
+        InputStream file = Files.newInputStream(segments.get(segmentIndex));
+        in = new DataInputStream(new BufferedInputStream(file, 1 << 16));
+        return true;
+    }
+
+    // Valid until the next call to next()
+    public byte[] frame() {
+        return frame;
+    }
+
+    public int frameLength() {
+        return frameLength;
+    }
+
+    public long timestampMicros() {
+        return timestampMicros;
+    }
+
+    public long skippedBytes() {
+        return skippedBytes;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (in != null) {
+            in.close();
+            in = null;
+        }
+        segmentIndex = segments.size();
+    }
+}
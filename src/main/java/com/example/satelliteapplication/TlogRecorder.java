@@ -0,0 +1,237 @@
+package com.example.satelliteapplication;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Records raw MAVLink frames to .tlog files: each frame is preceded by a big-endian 64-bit
+ * UNIX timestamp in microseconds, which is the layout Mission Planner and pymavlink read.
+ *
+ * The reader thread only copies the frame into a {@link SpscByteRing}; a writer thread
+ * drains it into a memory-mapped segment that is pre-sized up front. When a segment fills
+ * up it is unmapped, trimmed to its used length and the next one ({@code name-001.tlog}, ...)
+ * is mapped, so a session of any length never needs a file bigger than one segment.
+ */
+public class TlogRecorder implements AutoCloseable {
+
+    public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+    public static final int DEFAULT_RING_CAPACITY = 1 << 20;
+
+    private static final int TIMESTAMP_SIZE = 8;
+    private static final int DRAIN_BATCH = 1024;
+
+    // Unmaps a buffer now rather than whenever it is collected; null if this JDK does not allow it
+    private static final MethodHandle INVOKE_CLEANER = findInvokeCleaner();
+
+    private final Path directory;
+    private final String baseName;
+    private final long segmentSize;
+    private final SpscByteRing ring;
+    private final Consumer<String> errorLog;
+
+    // Wall clock anchor so timestamps can be taken without allocating an Instant
+    private final long startMicros;
+    private final long startNanos;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    // Writer thread state
+    private RandomAccessFile segmentFile;
+    private MappedByteBuffer segment;
+    private int segmentIndex = -1;
+    private Path segmentPath;
+    private final SpscByteRing.RecordHandler writeRecord = this::writeRecord;
+
+    private volatile long framesWritten;
+    private volatile long bytesWritten;
+
+    public TlogRecorder(Path directory, String baseName) {
+        this(directory, baseName, DEFAULT_SEGMENT_SIZE, DEFAULT_RING_CAPACITY, message -> { });
+    }
+
+    public TlogRecorder(Path directory, String baseName, long segmentSize, int ringCapacity,
+                        Consumer<String> errorLog) {
+        if (segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("segment size must fit in one mapping: " + segmentSize);
+        }
+        this.directory = directory;
+        this.baseName = baseName;
+        this.segmentSize = segmentSize;
+        this.ring = new SpscByteRing(ringCapacity);
+        this.errorLog = errorLog;
+        this.startMicros = System.currentTimeMillis() * 1000;
+        this.startNanos = System.nanoTime();
+    }
+
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        Files.createDirectories(directory);
+        openNextSegment();
+        running = true;
+        writerThread = new Thread(this::writeLoop, "tlog-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Queues one raw frame for writing, stamped with when it came off the link
+     * ({@link System#nanoTime()}, or 0 for now). Must only be called from a single thread.
+     * Never blocks; returns false if the writer has fallen behind and the frame was dropped.
+     */
+    public boolean record(byte[] frame, int offset, int length, long receivedNanos) {
+        if (!running) {
+            return false;
+        }
+        long micros = startMicros + ((receivedNanos != 0 ? receivedNanos : System.nanoTime()) - startNanos) / 1000;
+        return ring.offer(micros, frame, offset, length);
+    }
+
+    public boolean record(byte[] frame, int offset, int length) {
+        return record(frame, offset, length, 0);
+    }
+
+    public boolean record(byte[] frame) {
+        return record(frame, 0, frame.length);
+    }
+
+    private void writeLoop() {
+        int idle = 0;
+        while (running || !ring.isEmpty()) {
+            int written = ring.drain(writeRecord, DRAIN_BATCH);
+            if (written > 0) {
+                idle = 0;
+            } else if (++idle < 100) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(200));
+            }
+        }
+        closeSegment();
+    }
+
+    private void writeRecord(long micros, byte[] buffer, int offset, int length) {
+        if (segment == null) {
+            return;  // a previous roll failed, nothing left to write to
+        }
+        if (segment.remaining() < TIMESTAMP_SIZE + length) {
+            try {
+                closeSegment();
+                openNextSegment();
+            } catch (IOException e) {
+                errorLog.accept("Telemetry recording stopped: " + e.getMessage());
+                running = false;
+                return;
+            }
+        }
+        segment.putLong(micros);
+        segment.put(buffer, offset, length);
+        framesWritten++;
+        bytesWritten += TIMESTAMP_SIZE + length;
+    }
+
+    private void openNextSegment() throws IOException {
+        segmentIndex++;
+        String name = segmentIndex == 0 ? baseName + ".tlog" : String.format("%s-%03d.tlog", baseName, segmentIndex);
+        segmentPath = directory.resolve(name);
+        segmentFile = new RandomAccessFile(segmentPath.toFile(), "rw");
+        segmentFile.setLength(segmentSize);
+        segment = segmentFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segment.order(ByteOrder.BIG_ENDIAN);
+    }
+
+    // Flushes and unmaps the segment, then trims the pre-sized file down to what was actually written
+    private void closeSegment() {
+        if (segment == null) {
+            return;
+        }
+        MappedByteBuffer mapped = segment;
+        segment = null;
+        int used = mapped.position();
+        try {
+            mapped.force();
+            // Windows refuses to truncate a file that is still mapped
+            unmap(mapped);
+            segmentFile.getChannel().truncate(used);
+            segmentFile.close();
+        } catch (IOException e) {
+            errorLog.accept("Failed to finish " + segmentPath.getFileName() + ": " + e.getMessage());
+        }
+    }
+
+    private static void unmap(MappedByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invokeExact((ByteBuffer) buffer);
+        } catch (Throwable e) {
+            // Left to the garbage collector; on Windows the caller's truncate then fails and is reported
+        }
+    }
+
+    private static MethodHandle findInvokeCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        Thread writer;
+        synchronized (this) {
+            running = false;
+            writer = writerThread;
+            writerThread = null;
+        }
+        if (writer != null) {
+            try {
+                writer.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public long framesWritten() {
+        return framesWritten;
+    }
+
+    public long bytesWritten() {
+        return bytesWritten;
+    }
+
+    public long framesDropped() {
+        return ring.rejectedCount();
+    }
+
+    public int segmentCount() {
+        return segmentIndex + 1;
+    }
+
+    public Path currentSegment() {
+        return segmentPath;
+    }
+}
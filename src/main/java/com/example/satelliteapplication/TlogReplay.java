@@ -0,0 +1,226 @@
+package com.example.satelliteapplication;
+
+import io.dronefleet.mavlink.MavlinkConnection;
+import io.dronefleet.mavlink.MavlinkMessage;
+import io.dronefleet.mavlink.annotations.MavlinkMessageInfo;
+import io.dronefleet.mavlink.common.Attitude;
+import io.dronefleet.mavlink.common.GlobalPositionInt;
+import io.dronefleet.mavlink.common.GpsRawInt;
+import io.dronefleet.mavlink.common.MissionCurrent;
+import io.dronefleet.mavlink.common.SysStatus;
+import io.dronefleet.mavlink.common.VfrHud;
+import io.dronefleet.mavlink.minimal.Heartbeat;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Headless replay of a recorded .tlog through the same {@link MavlinkFrameParser} and
+ * {@link MessageDispatcher} path the application uses, without starting JavaFX. Used to
+ * reproduce field incidents and to measure how fast decode-and-dispatch runs.
+ *
+ * Usage: TlogReplay file.tlog [speed] [library]
+ *   speed: 1 = real time, N = N times faster, max = as fast as possible
+ *   library: decode with MavlinkConnection.next() and dispatch the decoded objects through an
+ *            instanceof chain, as the application did before MavlinkFrameParser
+ */
+public class TlogReplay {
+
+    private static class TypeStats {
+        final String name;
+        final LogHistogram latency = new LogHistogram();
+        long count;
+
+        TypeStats(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * The standard telemetry modules' updates, written against dronefleet's message objects
+     * the way the application handled them before the message-ID dispatch table.
+     */
+    private static final class LibraryDispatcher {
+        private final TelemetryState state;
+        private boolean relativeAltitude;
+
+        LibraryDispatcher(TelemetryState state) {
+            this.state = state;
+        }
+
+        void dispatch(Object payload) {
+            if (payload instanceof Heartbeat hb) {
+                state.updateHeartbeat(hb.customMode(), hb.baseMode().value());
+
+            } else if (payload instanceof SysStatus sys) {
+                state.updateBattery(sys.voltageBattery(), sys.batteryRemaining());
+
+            } else if (payload instanceof GpsRawInt gps) {
+                state.updateGps(gps.lat(), gps.lon(), gps.fixType().value(), gps.satellitesVisible());
+
+            } else if (payload instanceof GlobalPositionInt pos) {
+                relativeAltitude = true;
+                state.updateAltitude(pos.relativeAlt() / 1000f);
+
+            } else if (payload instanceof VfrHud hud) {
+                state.updateGroundSpeed(hud.groundspeed());
+                if (!relativeAltitude && hud.alt() > 0) {
+                    state.updateAltitude(hud.alt());
+                }
+
+            } else if (payload instanceof Attitude att) {
+                state.updateAttitude(att.roll(), att.pitch(), att.yaw());
+
+            } else if (payload instanceof MissionCurrent current) {
+                state.updateMissionItem(current.seq());
+            }
+        }
+    }
+
+    // Message ID of a decoded payload class, for the per-type report
+    private static final ClassValue<Integer> MESSAGE_IDS = new ClassValue<>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            MavlinkMessageInfo info = type.getAnnotation(MavlinkMessageInfo.class);
+            return info == null ? -1 : info.id();
+        }
+    };
+
+    private final TlogReplayInputStream stream;
+    private final MessageDispatcher dispatcher;
+    private final LibraryDispatcher libraryDispatcher;
+    private final boolean useLibrary;
+    private final TypeStats[] statsById = new TypeStats[MavlinkMessages.maxId() + 1];
+    private final LogHistogram overallLatency = new LogHistogram();
+
+    private long messages;
+    private long elapsedNanos;
+
+    public TlogReplay(List<Path> segments, double speed, TelemetryState state, boolean useLibrary) {
+        this.stream = new TlogReplayInputStream(new TlogReader(segments), speed);
+        this.dispatcher = TelemetryModule.standardDispatcher(state);
+        this.libraryDispatcher = new LibraryDispatcher(state);
+        this.useLibrary = useLibrary;
+    }
+
+    // Replays to the end of the log and returns the number of messages dispatched
+    public long run() throws IOException {
+        long start = System.nanoTime();
+        try {
+            if (useLibrary) {
+                runLibrary();
+            } else {
+                runParser();
+            }
+        } finally {
+            elapsedNanos = System.nanoTime() - start;
+            stream.close();
+        }
+        return messages;
+    }
+
+    // The application's path: MavlinkFrameParser plus the fast decoders
+    private void runParser() throws IOException {
+        MavlinkFrameParser parser = new MavlinkFrameParser();
+        MavlinkFrameParser.FrameHandler handler = frame -> {
+            dispatcher.onFrame(frame);
+            recordLatency(frame.messageId());
+        };
+        byte[] buffer = new byte[MavlinkFrame.MAX_SIZE];
+        int count;
+        while ((count = stream.read(buffer)) >= 0) {
+            parser.parse(buffer, 0, count, handler);
+        }
+    }
+
+    // dronefleet's MavlinkConnection.next() for framing and decoding, and its objects for dispatch, for comparison
+    private void runLibrary() throws IOException {
+        MavlinkConnection connection = MavlinkConnection.create(stream, OutputStream.nullOutputStream());
+        try {
+            while (true) {
+                MavlinkMessage<?> message = connection.next();
+                if (message == null) {
+                    continue;
+                }
+                Object payload = message.getPayload();
+                libraryDispatcher.dispatch(payload);
+                recordLatency(MESSAGE_IDS.get(payload.getClass()));
+            }
+        } catch (EOFException e) {
+            // End of recording
+        }
+    }
+
+    private void recordLatency(int messageId) {
+        long latency = System.nanoTime() - stream.releasedNanos();
+        TypeStats stats = statsById[messageId];
+        if (stats == null) {
+            stats = statsById[messageId] = new TypeStats(MavlinkMessages.name(messageId));
+        }
+        stats.count++;
+        stats.latency.record(latency);
+        overallLatency.record(latency);
+        messages++;
+    }
+
+    public void printReport() {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("Frames read:      %,d%n", stream.framesReleased());
+        System.out.printf("Messages decoded: %,d%n", messages);
+        System.out.printf("Bytes skipped:    %,d%n", stream.bytesSkipped());
+        System.out.printf("Elapsed:          %.3f s%n", seconds);
+        System.out.printf("Throughput:       %,.0f messages/s%n", seconds > 0 ? messages / seconds : 0);
+        System.out.println();
+        System.out.println("Decode + dispatch latency per message type (us):");
+        System.out.printf("  %-28s %10s %8s %8s %8s %8s%n", "TYPE", "COUNT", "P50", "P90", "P99", "MAX");
+
+        List<TypeStats> rows = new ArrayList<>();
+        for (TypeStats stats : statsById) {
+            if (stats != null) {
+                rows.add(stats);
+            }
+        }
+        rows.sort((a, b) -> Long.compare(b.count, a.count));
+        for (TypeStats stats : rows) {
+            printRow(stats.name, stats.count, stats.latency);
+        }
+        printRow("ALL", messages, overallLatency);
+    }
+
+    private static void printRow(String name, long count, LogHistogram histogram) {
+        System.out.printf("  %-28s %,10d %8.1f %8.1f %8.1f %8.1f%n", name, count,
+                histogram.percentile(50) / 1000.0, histogram.percentile(90) / 1000.0,
+                histogram.percentile(99) / 1000.0, histogram.max() / 1000.0);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: TlogReplay <file.tlog> [speed|max] [library]");
+            return;
+        }
+        Path file = Path.of(args[0]);
+        double speed = args.length > 1 ? parseSpeed(args[1]) : 0;
+        boolean useLibrary = args.length > 2 && args[2].equalsIgnoreCase("library");
+
+        System.out.println("TLOG Replay");
+        System.out.println("===========");
+        System.out.println("File:  " + file);
+        System.out.println("Speed: " + (speed > 0 ? speed + "x" : "as fast as possible"));
+        System.out.println("Decoder: " + (useLibrary ? "MavlinkConnection.next(), instanceof dispatch" : "MavlinkFrameParser"));
+
+        TlogReplay replay = new TlogReplay(TlogReader.segmentsOf(file), speed, new TelemetryState(), useLibrary);
+        replay.run();
+        replay.printReport();
+    }
+
+    static double parseSpeed(String value) {
+        if (value.equalsIgnoreCase("max")) {
+            return 0;
+        }
+        return Double.parseDouble(value.endsWith("x") ? value.substring(0, value.length() - 1) : value);
+    }
+}
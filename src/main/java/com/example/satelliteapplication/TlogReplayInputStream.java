@@ -0,0 +1,103 @@
+package com.example.satelliteapplication;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Serves the frames of a .tlog as a plain byte stream, so a {@code MavlinkConnection} can
+ * read a recording exactly as it reads a serial port. Frames are released on the
+ * recording's own schedule scaled by {@code speed}; a speed of zero or less releases them
+ * as fast as they are read.
+ *
+ * {@link #close()} may be called from any thread while another is reading; the reader
+ * lets a record in progress finish before releasing its file.
+ */
+public class TlogReplayInputStream extends InputStream {
+
+    private static final long MAX_PARK_NANOS = 50_000_000L;
+
+    private final TlogReader reader;
+    private final double speed;
+
+    private int position;
+    private int length;
+    private long firstStampMicros = Long.MIN_VALUE;
+    private long startNanos;
+    private long releasedNanos;
+    private long framesReleased;
+    private volatile boolean closed;
+
+    public TlogReplayInputStream(TlogReader reader, double speed) {
+        this.reader = reader;
+        this.speed = speed;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position == length && !advance()) {
+            return -1;
+        }
+        return reader.frame()[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (position == length && !advance()) {
+            return -1;
+        }
+        int count = Math.min(len, length - position);
+        System.arraycopy(reader.frame(), position, b, off, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return length - position;
+    }
+
+    private boolean advance() throws IOException {
+        if (closed || !reader.next()) {
+            return false;
+        }
+        long stamp = reader.timestampMicros();
+        if (firstStampMicros == Long.MIN_VALUE) {
+            firstStampMicros = stamp;
+            startNanos = System.nanoTime();
+        } else if (speed > 0) {
+            long due = startNanos + (long) ((stamp - firstStampMicros) * 1000 / speed);
+            long wait;
+            while (!closed && (wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(Math.min(wait, MAX_PARK_NANOS));  // stay responsive to close()
+            }
+        }
+        releasedNanos = System.nanoTime();
+        framesReleased++;
+        position = 0;
+        length = reader.frameLength();
+        return true;
+    }
+
+    // System.nanoTime() at which the frame currently being read became available
+    public long releasedNanos() {
+        return releasedNanos;
+    }
+
+    public long framesReleased() {
+        return framesReleased;
+    }
+
+    public long bytesSkipped() {
+        return reader.skippedBytes();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        reader.close();
+    }
+}
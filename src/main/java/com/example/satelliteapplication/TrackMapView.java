@@ -0,0 +1,237 @@
+package com.example.satelliteapplication;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+
+/**
+ * Canvas map of the selected vehicle's {@link GpsTrack} over tiles from a {@link TileCache}.
+ * Drag to pan, scroll to zoom about the cursor; "Follow" keeps the vehicle centred.
+ *
+ * Called from the frame pulse on the FX thread, and only redraws when the view moved, the
+ * track grew or tiles arrived. A redraw projects each track vertex once and skips vertices
+ * less than a pixel from the last one drawn, so the cost per frame is bounded by the
+ * vertex cap and the pixels on screen, not by how long the vehicle has been flying. While a
+ * tile loads, its cached parent is drawn scaled up in its place.
+ */
+public class TrackMapView {
+
+    private static final int MAX_ZOOM = 19;
+    private static final int PARENT_LEVELS = 4;
+    private static final double ZOOM_STEP = 0.25;
+    private static final double MIN_PIXEL_STEP = 1.0;
+
+    private final VBox node = new VBox(5);
+    private final Pane canvasPane = new Pane();
+    private final Canvas canvas = new Canvas();
+    private final CheckBox followBox = new CheckBox("Follow");
+    private final Label infoLabel = new Label();
+    private final TileCache tiles;
+
+    private final GpsTrack.Snapshot snapshot = new GpsTrack.Snapshot();
+    private double[] screenX = new double[1024];
+    private double[] screenY = new double[1024];
+
+    private TelemetryState state;
+    private double centerX = 0.5;  // normalized Web Mercator
+    private double centerY = 0.5;
+    private double zoom = 2;
+    private boolean dirty = true;
+    private boolean centered;
+    private double dragX;
+    private double dragY;
+
+    public TrackMapView(TileCache tiles) {
+        this.tiles = tiles;
+        followBox.setSelected(true);
+        followBox.setOnAction(e -> dirty = true);
+        infoLabel.setStyle("-fx-font-family: monospace; -fx-font-size: 11; -fx-text-fill: #666;");
+
+        canvasPane.getChildren().add(canvas);
+        canvasPane.setPrefHeight(320);
+        canvasPane.setMinHeight(0);
+        canvas.widthProperty().bind(canvasPane.widthProperty());
+        canvas.heightProperty().bind(canvasPane.heightProperty());
+        canvas.widthProperty().addListener((observable, previous, width) -> dirty = true);
+        canvas.heightProperty().addListener((observable, previous, height) -> dirty = true);
+
+        canvas.setOnMousePressed(e -> {
+            dragX = e.getX();
+            dragY = e.getY();
+        });
+        canvas.setOnMouseDragged(e -> {
+            double scale = scale();
+            centerX -= (e.getX() - dragX) / scale;
+            centerY -= (e.getY() - dragY) / scale;
+            dragX = e.getX();
+            dragY = e.getY();
+            followBox.setSelected(false);
+            dirty = true;
+        });
+        canvas.setOnScroll(e -> {
+            if (e.getDeltaY() == 0) {
+                return;
+            }
+            // Keep the point under the cursor where it is
+            double offsetX = e.getX() - canvas.getWidth() / 2;
+            double offsetY = e.getY() - canvas.getHeight() / 2;
+            double worldX = centerX + offsetX / scale();
+            double worldY = centerY + offsetY / scale();
+            zoom = Math.max(0, Math.min(MAX_ZOOM + 2, zoom + (e.getDeltaY() > 0 ? ZOOM_STEP : -ZOOM_STEP)));
+            centerX = worldX - offsetX / scale();
+            centerY = worldY - offsetY / scale();
+            dirty = true;
+        });
+
+        HBox controls = new HBox(10, followBox, infoLabel);
+        controls.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
+        VBox.setVgrow(canvasPane, Priority.ALWAYS);
+        node.getChildren().addAll(controls, canvasPane);
+    }
+
+    public VBox node() {
+        return node;
+    }
+
+    public void setState(TelemetryState state) {
+        this.state = state;
+        snapshot.reset();
+        centered = false;
+        dirty = true;
+    }
+
+    // World pixels across the whole map at the current zoom
+    private double scale() {
+        return TileCache.TILE_SIZE * Math.pow(2, zoom);
+    }
+
+    public void render() {
+        if (tiles.drain()) {
+            dirty = true;
+        }
+        TelemetryState s = state;
+        if (s != null && s.track().copyTo(snapshot) && snapshot.size() > 0) {
+            int last = snapshot.size() - 1;
+            if (!centered) {
+                // First fix: jump to it at a useful zoom
+                centered = true;
+                zoom = 17;
+                centerX = snapshot.x(last);
+                centerY = snapshot.y(last);
+            } else if (followBox.isSelected()) {
+                centerX = snapshot.x(last);
+                centerY = snapshot.y(last);
+            }
+            dirty = true;
+        }
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        tiles.beginFrame();
+
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        g.setFill(Color.web("#e8e8e8"));
+        g.fillRect(0, 0, width, height);
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        double scale = scale();
+        double left = centerX - width / 2 / scale;
+        double top = centerY - height / 2 / scale;
+
+        drawTiles(g, scale, left, top, width, height);
+        int drawn = drawTrack(g, scale, left, top);
+
+        infoLabel.setText(String.format("zoom %.2f · %,d of %,d vertices drawn (%,d fixes, %.1f m tolerance) · %d tiles, %.0f MB",
+                zoom, drawn, snapshot.size(), s == null ? 0 : s.track().rawPoints(),
+                s == null ? 0 : s.track().toleranceMeters(), tiles.size(), tiles.bytes() / 1048576.0));
+    }
+
+    private void drawTiles(GraphicsContext g, double scale, double left, double top, double width, double height) {
+        int level = (int) Math.max(0, Math.min(MAX_ZOOM, Math.floor(zoom)));
+        int tilesAcross = 1 << level;
+        double tilePixels = scale / tilesAcross;
+        int firstX = (int) Math.floor(left * tilesAcross);
+        int firstY = Math.max(0, (int) Math.floor(top * tilesAcross));
+        int lastX = (int) Math.floor((left + width / scale) * tilesAcross);
+        int lastY = Math.min(tilesAcross - 1, (int) Math.floor((top + height / scale) * tilesAcross));
+        g.setStroke(Color.web("#d0d0d0"));
+        g.setLineWidth(1);
+        for (int ty = firstY; ty <= lastY; ty++) {
+            for (int tx = firstX; tx <= lastX; tx++) {
+                int wrappedX = Math.floorMod(tx, tilesAcross);
+                double screenLeft = (tx / (double) tilesAcross - left) * scale;
+                double screenTop = (ty / (double) tilesAcross - top) * scale;
+                Image image = tiles.get(level, wrappedX, ty);
+                if (image != null) {
+                    g.drawImage(image, screenLeft, screenTop, tilePixels + 0.5, tilePixels + 0.5);
+                } else if (!drawParent(g, level, wrappedX, ty, screenLeft, screenTop, tilePixels)) {
+                    g.strokeRect(screenLeft, screenTop, tilePixels, tilePixels);
+                }
+            }
+        }
+    }
+
+    // Draws the matching corner of the nearest cached ancestor; returns whether there was one
+    private boolean drawParent(GraphicsContext g, int level, int x, int y, double screenLeft, double screenTop,
+                               double tilePixels) {
+        for (int up = 1; up <= PARENT_LEVELS && up <= level; up++) {
+            Image parent = tiles.peek(level - up, x >> up, y >> up);
+            if (parent != null) {
+                double part = TileCache.TILE_SIZE / (double) (1 << up);
+                int mask = (1 << up) - 1;
+                g.drawImage(parent, (x & mask) * part, (y & mask) * part, part, part,
+                        screenLeft, screenTop, tilePixels + 0.5, tilePixels + 0.5);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Returns how many vertices were drawn
+    private int drawTrack(GraphicsContext g, double scale, double left, double top) {
+        int size = snapshot.size();
+        if (size == 0) {
+            return 0;
+        }
+        if (screenX.length < size) {
+            screenX = new double[Math.max(size, screenX.length * 2)];
+            screenY = new double[screenX.length];
+        }
+        int count = 0;
+        double lastX = Double.NaN;
+        double lastY = Double.NaN;
+        for (int i = 0; i < size; i++) {
+            double x = (snapshot.x(i) - left) * scale;
+            double y = (snapshot.y(i) - top) * scale;
+            // Always keep the newest vertex, so the line reaches the vehicle
+            if (i < size - 1 && Math.abs(x - lastX) < MIN_PIXEL_STEP && Math.abs(y - lastY) < MIN_PIXEL_STEP) {
+                continue;
+            }
+            screenX[count] = x;
+            screenY[count] = y;
+            count++;
+            lastX = x;
+            lastY = y;
+        }
+        g.setStroke(Color.web("#d32f2f"));
+        g.setLineWidth(2);
+        g.strokePolyline(screenX, screenY, count);
+
+        double vehicleX = screenX[count - 1];
+        double vehicleY = screenY[count - 1];
+        g.setFill(Color.web("#1565c0"));
+        g.fillOval(vehicleX - 5, vehicleY - 5, 10, 10);
+        return count;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.satelliteapplication;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * MAVLink over UDP on a non-blocking {@link DatagramChannel}. Datagrams are received
+ * straight into the pipeline's direct read buffer; the reader only parks in a selector when
+ * the socket is empty, so a busy link costs one receive call per datagram.
+ *
+ * In listen mode (the usual ground station setup on 14550) replies go to whoever sent the
+ * last datagram; in connect mode they go to a fixed endpoint such as a router on 14551.
+ * Frames written in listen mode before anyone has sent are held (the newest few) and go
+ * out when the first datagram names a peer, so stream requests made at connect time are
+ * not lost.
+ */
+public class UdpTransport implements MavlinkTransport {
+
+    public static final int GCS_PORT = 14550;
+    public static final int ROUTER_PORT = 14551;
+
+    // Largest UDP payload over IPv4
+    private static final int MAX_DATAGRAM = 65507;
+
+    // Frames held in listen mode until the first datagram arrives
+    private static final int MAX_PENDING = 32;
+
+    private final DatagramChannel channel;
+    private final Selector selector;
+    private final boolean fixedRemote;
+    private final String spec;
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(MAX_DATAGRAM);
+    private final ArrayDeque<byte[]> pending = new ArrayDeque<>();  // Guarded by writeBuffer
+
+    private volatile SocketAddress remote;
+
+    private UdpTransport(DatagramChannel channel, SocketAddress remote, String spec) throws IOException {
+        this.channel = channel;
+        this.remote = remote;
+        this.fixedRemote = remote != null;
+        this.spec = spec;
+        channel.configureBlocking(false);
+        selector = Selector.open();
+        channel.register(selector, SelectionKey.OP_READ);
+    }
+
+    /** Binds a local port and waits for a vehicle or router to send to it. */
+    public static UdpTransport listen(String bindHost, int port) throws IOException {
+        DatagramChannel channel = DatagramChannel.open(StandardProtocolFamily.INET);
+        try {
+            channel.bind(bindHost == null ? new InetSocketAddress(port) : new InetSocketAddress(bindHost, port));
+            return new UdpTransport(channel, null, bindHost == null ? "udp:" + port : "udp:" + bindHost + ":" + port);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Sends to a fixed endpoint from an ephemeral local port. */
+    public static UdpTransport connect(String host, int port) throws IOException {
+        DatagramChannel channel = DatagramChannel.open(StandardProtocolFamily.INET);
+        try {
+            channel.bind(new InetSocketAddress(0));
+            return new UdpTransport(channel, new InetSocketAddress(host, port), "udpout:" + host + ":" + port);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public ByteBuffer allocateReadBuffer(int capacity) {
+        // A datagram that does not fit is truncated, so always leave room for the largest one
+        return ByteBuffer.allocateDirect(Math.max(capacity, MAX_DATAGRAM));
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        int start = dst.position();
+        long deadline = System.nanoTime() + DEFAULT_READ_TIMEOUT_MS * 1_000_000L;
+        try {
+            while (true) {
+                SocketAddress from = channel.receive(dst);
+                if (from != null) {
+                    if (!fixedRemote && !from.equals(remote)) {
+                        boolean first = remote == null;
+                        remote = from;
+                        if (first) {
+                            sendPending(from);
+                        }
+                    }
+                    return dst.position() - start;
+                }
+                long remaining = (deadline - System.nanoTime()) / 1_000_000;
+                if (remaining <= 0) {
+                    return 0;
+                }
+                selector.select(remaining);
+                selector.selectedKeys().clear();
+            }
+        } catch (ClosedSelectorException e) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        synchronized (writeBuffer) {
+            SocketAddress target = remote;
+            if (target == null) {
+                // Nobody has sent to us yet; hold the frame until someone does
+                if (pending.size() == MAX_PENDING) {
+                    pending.removeFirst();
+                }
+                pending.addLast(Arrays.copyOfRange(bytes, offset, offset + length));
+                return;
+            }
+            send(bytes, offset, length, target);
+        }
+    }
+
+    private void sendPending(SocketAddress target) throws IOException {
+        synchronized (writeBuffer) {
+            byte[] frame;
+            while ((frame = pending.pollFirst()) != null) {
+                send(frame, 0, frame.length, target);
+            }
+        }
+    }
+
+    // Caller holds writeBuffer
+    private void send(byte[] bytes, int offset, int length, SocketAddress target) throws IOException {
+        writeBuffer.clear();
+        writeBuffer.put(bytes, offset, length).flip();
+        channel.send(writeBuffer, target);
+    }
+
+    // Where replies go; null until the first datagram arrives in listen mode
+    public SocketAddress remote() {
+        return remote;
+    }
+
+    @Override
+    public String describe() {
+        try {
+            SocketAddress local = channel.getLocalAddress();
+            return fixedRemote ? "UDP " + local + " → " + remote : "UDP " + local;
+        } catch (IOException e) {
+            return spec;
+        }
+    }
+
+    @Override
+    public String spec() {
+        return spec;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            selector.close();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.satelliteapplication;
+
+import io.dronefleet.mavlink.minimal.MavType;
+import io.dronefleet.mavlink.util.EnumValue;
+
+/**
+ * One MAVLink source, identified by system and component ID, with its own telemetry state
+ * and dispatcher. Created by {@link VehicleRegistry} when its first HEARTBEAT arrives.
+ */
+public class Vehicle {
+
+    private final int systemId;
+    private final int componentId;
+    private final int mavType;
+    private final TelemetryState state = new TelemetryState();
+    private final MessageDispatcher dispatcher = new MessageDispatcher();
+
+    // Written by the telemetry thread
+    private volatile long lastHeartbeatNanos;
+    private volatile long framesReceived;
+
+    public Vehicle(int systemId, int componentId, int mavType) {
+        this.systemId = systemId;
+        this.componentId = componentId;
+        this.mavType = mavType;
+    }
+
+    // sysid in the high byte, compid in the low byte; the key used by the registry
+    public static int key(int systemId, int componentId) {
+        return (systemId << 8) | componentId;
+    }
+
+    public int key() {
+        return key(systemId, componentId);
+    }
+
+    public int systemId() { return systemId; }
+    public int componentId() { return componentId; }
+    public int mavType() { return mavType; }
+    public TelemetryState state() { return state; }
+    public MessageDispatcher dispatcher() { return dispatcher; }
+    public long lastHeartbeatNanos() { return lastHeartbeatNanos; }
+    public long framesReceived() { return framesReceived; }
+
+    // Single writer, so the increment does not need to be atomic
+    void onFrame(MavlinkFrame frame, long nowNanos) {
+        framesReceived++;
+        if (frame.messageId() == MavlinkMessages.HEARTBEAT) {
+            lastHeartbeatNanos = nowNanos;
+        }
+        dispatcher.onFrame(frame);
+    }
+
+    // "QUADROTOR" for MAV_TYPE_QUADROTOR, the number for types this dialect does not know
+    public String typeName() {
+        MavType type = EnumValue.create(MavType.class, mavType).entry();
+        return type == null ? "type " + mavType : type.name().substring("MAV_TYPE_".length());
+    }
+
+    @Override
+    public String toString() {
+        return "SYS " + systemId + " / COMP " + componentId + " (" + typeName() + ")";
+    }
+}
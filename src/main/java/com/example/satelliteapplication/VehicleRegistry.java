@@ -0,0 +1,98 @@
+package com.example.satelliteapplication;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Demultiplexes one MAVLink stream into per-vehicle telemetry. Frames are routed by
+ * (system ID, component ID) through an {@link IntObjectMap}; a source becomes a
+ * {@link Vehicle} when it sends a HEARTBEAT, and frames from sources that have not done so
+ * yet are counted and dropped.
+ *
+ * Runs on a single consumer thread, so all vehicles share one reader and one decoder
+ * regardless of how many there are. Other threads read the published {@link #vehicles()}
+ * snapshot.
+ */
+public class VehicleRegistry implements MavlinkFrameParser.FrameHandler {
+
+    // HEARTBEAT type of other ground stations on the same link, which are not vehicles
+    private static final int MAV_TYPE_GCS = 6;
+
+    private final IntObjectMap<Vehicle> byKey = new IntObjectMap<>(64);
+    private final Consumer<Vehicle> setup;
+    private final Consumer<Vehicle> onDiscovered;
+
+    private volatile Vehicle[] vehicles = new Vehicle[0];
+    private volatile long unknownSourceFrames;
+
+    /**
+     * @param setup        installs modules into a new vehicle's dispatcher, before it sees any frame
+     * @param onDiscovered told about each new vehicle, on the telemetry thread
+     */
+    public VehicleRegistry(Consumer<Vehicle> setup, Consumer<Vehicle> onDiscovered) {
+        this.setup = setup;
+        this.onDiscovered = onDiscovered;
+    }
+
+    // A registry whose vehicles get the standard telemetry modules
+    public static VehicleRegistry standard(Consumer<Vehicle> onDiscovered) {
+        return new VehicleRegistry(vehicle -> {
+            for (TelemetryModule module : TelemetryModule.standard(vehicle.state())) {
+                vehicle.dispatcher().install(module);
+            }
+        }, onDiscovered);
+    }
+
+    @Override
+    public void onFrame(MavlinkFrame frame) {
+        int key = Vehicle.key(frame.systemId(), frame.componentId());
+        Vehicle vehicle = byKey.get(key);
+        if (vehicle == null) {
+            if (frame.messageId() != MavlinkMessages.HEARTBEAT || frame.u8(4) == MAV_TYPE_GCS) {
+                unknownSourceFrames++;
+                return;
+            }
+            vehicle = discover(frame, key);
+        }
+        vehicle.onFrame(frame, System.nanoTime());
+    }
+
+    private Vehicle discover(MavlinkFrame frame, int key) {
+        // HEARTBEAT: type u8 @4
+        Vehicle vehicle = new Vehicle(frame.systemId(), frame.componentId(), frame.u8(4));
+        setup.accept(vehicle);
+        byKey.put(key, vehicle);
+        Vehicle[] updated = Arrays.copyOf(vehicles, vehicles.length + 1);
+        updated[updated.length - 1] = vehicle;
+        vehicles = updated;
+        onDiscovered.accept(vehicle);
+        return vehicle;
+    }
+
+    /** The vehicle with these IDs, or null. Only call this from the telemetry thread. */
+    public Vehicle get(int systemId, int componentId) {
+        return byKey.get(Vehicle.key(systemId, componentId));
+    }
+
+    // Vehicles in discovery order; safe from any thread
+    public List<Vehicle> vehicles() {
+        return List.of(vehicles);
+    }
+
+    public int size() {
+        return vehicles.length;
+    }
+
+    // Frames from sources that never sent a HEARTBEAT
+    public long unknownSourceFrames() {
+        return unknownSourceFrames;
+    }
+
+    /** Forgets all vehicles. Only call this while no frames are being delivered. */
+    public void clear() {
+        byKey.clear();
+        vehicles = new Vehicle[0];
+        unknownSourceFrames = 0;
+    }
+}